@@ -0,0 +1,100 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.await;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.oss.services.nodesyncmonitor.timing.TimingTree;
+import com.google.common.base.Predicate;
+import com.google.common.base.Supplier;
+
+/**
+ * Polls a probe on a {@link BackoffPolicy} schedule until a condition is met or the policy times out.
+ * <p>
+ * Exceptions thrown by the probe are treated as a failed attempt, so transient errors (e.g. a busy REST endpoint) do not abort the wait. The last
+ * exception is available from {@link AwaitResult#getLastError()} if the wait times out. Every probe after the first is reported as a retry to the
+ * {@link TimingTree}.
+ */
+public final class Await {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Await.class);
+
+    private Await() {}
+
+    /**
+     * Probes until {@code condition} accepts the probed value.
+     *
+     * @param description
+     *            Human readable description of what is awaited, used for logging.
+     * @param probe
+     *            Supplies the current value.
+     * @param condition
+     *            The condition the value must satisfy.
+     * @param policy
+     *            The polling schedule and deadline.
+     * @return The result of the wait; the caller decides whether a timeout is a failure.
+     * @throws InterruptedException
+     *             If the thread is interrupted while waiting between probes.
+     */
+    public static <T> AwaitResult<T> until(final String description, final Supplier<T> probe, final Predicate<? super T> condition,
+                                           final BackoffPolicy policy) throws InterruptedException {
+        final long start = System.nanoTime();
+        final long deadline = start + MILLISECONDS.toNanos(policy.getTimeoutMillis());
+        long interval = policy.getInitialIntervalMillis();
+        int attempts = 0;
+        long lastProbeNanos = start;
+        T value = null;
+        RuntimeException lastError = null;
+
+        while (true) {
+            attempts++;
+            lastProbeNanos = System.nanoTime();
+            try {
+                value = probe.get();
+                lastError = null;
+                if (condition.apply(value)) {
+                    TimingTree.getInstance().recordRetries(attempts - 1);
+                    final long elapsed = elapsedMillis(start);
+                    LOGGER.info("{} met after {} attempt(s) in {} ms", description, attempts, elapsed);
+                    return new AwaitResult<>(true, value, attempts, elapsed, lastProbeNanos, null);
+                }
+            } catch (final RuntimeException e) {
+                lastError = e;
+                LOGGER.debug("{}: attempt {} failed", description, attempts, e);
+            }
+
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            final long sleep = Math.min(interval, Math.max(1L, NANOSECONDS.toMillis(remaining)));
+            LOGGER.debug("{} not met after attempt {} (last value [{}]), next probe in {} ms", description, attempts, value, sleep);
+            MILLISECONDS.sleep(sleep);
+            interval = policy.nextInterval(interval);
+        }
+
+        TimingTree.getInstance().recordRetries(attempts - 1);
+        final long elapsed = elapsedMillis(start);
+        LOGGER.warn("{} not met after {} attempt(s) in {} ms, last value [{}]", description, attempts, elapsed, value);
+        return new AwaitResult<>(false, value, attempts, elapsed, lastProbeNanos, lastError);
+    }
+
+    private static long elapsedMillis(final long startNanos) {
+        return NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+}
@@ -0,0 +1,82 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.await;
+
+/**
+ * Outcome of {@link Await#until}.
+ *
+ * @param <T>
+ *            The type of the probed value.
+ */
+public final class AwaitResult<T> {
+
+    private final boolean satisfied;
+    private final T value;
+    private final int attempts;
+    private final long elapsedMillis;
+    private final long lastProbeNanos;
+    private final RuntimeException lastError;
+
+    AwaitResult(final boolean satisfied, final T value, final int attempts, final long elapsedMillis, final long lastProbeNanos,
+                final RuntimeException lastError) {
+        this.satisfied = satisfied;
+        this.value = value;
+        this.attempts = attempts;
+        this.elapsedMillis = elapsedMillis;
+        this.lastProbeNanos = lastProbeNanos;
+        this.lastError = lastError;
+    }
+
+    /**
+     * @return True if the condition was met before the timeout.
+     */
+    public boolean isSatisfied() {
+        return satisfied;
+    }
+
+    /**
+     * @return The value returned by the last successful probe, or null if no probe succeeded.
+     */
+    public T getValue() {
+        return value;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return The {@link System#nanoTime()} at which the last probe was started. If the condition was met, this is the earliest time the
+     *         condition is known to have held, to within one polling interval.
+     */
+    public long getLastProbeNanos() {
+        return lastProbeNanos;
+    }
+
+    /**
+     * @return The exception thrown by the last probe, or null if the last probe returned a value.
+     */
+    public RuntimeException getLastError() {
+        return lastError;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AwaitResult[satisfied=%s, value=%s, attempts=%d, elapsed=%d ms]", satisfied, value, attempts, elapsedMillis);
+    }
+
+}
@@ -0,0 +1,102 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.await;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getDouble;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getLong;
+
+/**
+ * Describes how often a condition is probed while waiting for it: the first probe happens immediately, the interval between probes starts at
+ * {@code initialInterval} and is multiplied by {@code multiplier} after every unsuccessful probe, up to {@code maxInterval}. Probing stops once
+ * {@code timeout} has elapsed.
+ * <p>
+ * Policies are usually read from the TAF configuration with {@link #fromConfiguration(String, BackoffPolicy)}, e.g. for the prefix
+ * {@code services.nodeSyncMonitor.alarmAwait}:
+ *
+ * <pre>
+ * services.nodeSyncMonitor.alarmAwait.timeout=180000
+ * services.nodeSyncMonitor.alarmAwait.initialInterval=1000
+ * services.nodeSyncMonitor.alarmAwait.maxInterval=10000
+ * services.nodeSyncMonitor.alarmAwait.multiplier=2.0
+ * </pre>
+ */
+public final class BackoffPolicy {
+
+    private final long initialIntervalMillis;
+    private final long maxIntervalMillis;
+    private final double multiplier;
+    private final long timeoutMillis;
+
+    public BackoffPolicy(final long initialIntervalMillis, final long maxIntervalMillis, final double multiplier, final long timeoutMillis) {
+        if (initialIntervalMillis <= 0 || maxIntervalMillis < initialIntervalMillis) {
+            throw new IllegalArgumentException(
+                    String.format("Invalid probe intervals: initial [%d ms], max [%d ms]", initialIntervalMillis, maxIntervalMillis));
+        }
+        if (multiplier < 1.0) {
+            throw new IllegalArgumentException(String.format("Backoff multiplier must be at least 1.0 but was [%s]", multiplier));
+        }
+        this.initialIntervalMillis = initialIntervalMillis;
+        this.maxIntervalMillis = maxIntervalMillis;
+        this.multiplier = multiplier;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Reads a policy from the TAF configuration, falling back to the values of {@code defaults} for any property which is not set.
+     *
+     * @param prefix
+     *            The property prefix, without the trailing dot.
+     * @param defaults
+     *            The policy used for properties which are not configured.
+     * @return The configured policy.
+     */
+    public static BackoffPolicy fromConfiguration(final String prefix, final BackoffPolicy defaults) {
+        return new BackoffPolicy(
+                getLong(prefix + ".initialInterval", defaults.initialIntervalMillis),
+                getLong(prefix + ".maxInterval", defaults.maxIntervalMillis),
+                getDouble(prefix + ".multiplier", defaults.multiplier),
+                getLong(prefix + ".timeout", defaults.timeoutMillis));
+    }
+
+    /**
+     * @param currentIntervalMillis
+     *            The interval used before the last probe.
+     * @return The interval to wait before the next probe.
+     */
+    public long nextInterval(final long currentIntervalMillis) {
+        return Math.min(maxIntervalMillis, (long) (currentIntervalMillis * multiplier));
+    }
+
+    public long getInitialIntervalMillis() {
+        return initialIntervalMillis;
+    }
+
+    public long getMaxIntervalMillis() {
+        return maxIntervalMillis;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BackoffPolicy[initial=%d ms, max=%d ms, multiplier=%s, timeout=%d ms]", initialIntervalMillis, maxIntervalMillis,
+                multiplier, timeoutMillis);
+    }
+
+}
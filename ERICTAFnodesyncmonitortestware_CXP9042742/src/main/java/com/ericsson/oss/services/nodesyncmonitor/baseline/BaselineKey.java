@@ -0,0 +1,113 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.baseline;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.PREFIX;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getString;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.oss.services.nodesyncmonitor.pib.DeploymentType;
+
+/**
+ * The artifact version of the testware and the deployment type which the runs of a baseline share, so a run is only compared with runs of
+ * the same testware on the same kind of deployment.
+ */
+public final class BaselineKey {
+
+    public static final String VERSION_PROPERTY = PREFIX + "baseline.version";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BaselineKey.class);
+
+    private static final String POM_PROPERTIES =
+            "/META-INF/maven/com.ericsson.oss.services.nodesyncmonitor.test/ERICTAFnodesyncmonitortestware_CXP9042742/pom.properties";
+    private static final String UNKNOWN_VERSION = "unknown";
+
+    private final String version;
+    private final String deploymentType;
+
+    public BaselineKey(final String version, final String deploymentType) {
+        this.version = version;
+        this.deploymentType = deploymentType.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return The key of this run: the version of the testware jar, unless overridden by {@value #VERSION_PROPERTY}, and the deployment type
+     *         detected on the deployment under test (see {@link DeploymentType#current()}). {@code taf.deploymentType} is not used, as
+     *         taf.properties sets it to cloud for every deployment.
+     */
+    public static BaselineKey current() {
+        return new BaselineKey(getString(VERSION_PROPERTY, artifactVersion()), DeploymentType.current().name());
+    }
+
+    /**
+     * @return The key of the same deployment type for another version of the testware.
+     */
+    public BaselineKey withVersion(final String otherVersion) {
+        return new BaselineKey(otherVersion, deploymentType);
+    }
+
+    /*
+     * The version maven packaged the testware jar with, unknown when running from the classes directory.
+     */
+    private static String artifactVersion() {
+        try (InputStream input = BaselineKey.class.getResourceAsStream(POM_PROPERTIES)) {
+            if (input != null) {
+                final Properties properties = new Properties();
+                properties.load(input);
+                return properties.getProperty("version", UNKNOWN_VERSION);
+            }
+        } catch (final IOException e) {
+            LOGGER.warn("Could not read the testware version from {}", POM_PROPERTIES, e);
+        }
+        return UNKNOWN_VERSION;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public String getDeploymentType() {
+        return deploymentType;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof BaselineKey)) {
+            return false;
+        }
+        final BaselineKey that = (BaselineKey) other;
+        return version.equals(that.version) && deploymentType.equals(that.deploymentType);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(version, deploymentType);
+    }
+
+    @Override
+    public String toString() {
+        return version + "/" + deploymentType;
+    }
+
+}
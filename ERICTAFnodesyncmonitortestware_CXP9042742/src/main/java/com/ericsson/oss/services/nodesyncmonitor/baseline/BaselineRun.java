@@ -0,0 +1,144 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.baseline;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyKind;
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyRecorder;
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencySample;
+import com.ericsson.oss.services.nodesyncmonitor.shard.Shard;
+import com.ericsson.oss.services.nodesyncmonitor.timing.TimingNode;
+import com.ericsson.oss.services.nodesyncmonitor.timing.TimingTree;
+
+/**
+ * The performance results of one run kept in a baseline: every alarm latency per {@link LatencyKind}, and the mean time of each scenario per
+ * invocation. All times are in milliseconds.
+ */
+public final class BaselineRun {
+
+    private final long recordedAtMillis;
+    private final int shards;
+    private final Map<LatencyKind, long[]> latencies;
+    private final Map<String, Long> scenarioMillis;
+
+    BaselineRun(final long recordedAtMillis, final int shards, final Map<LatencyKind, long[]> latencies, final Map<String, Long> scenarioMillis) {
+        this.recordedAtMillis = recordedAtMillis;
+        this.shards = shards;
+        this.latencies = latencies;
+        this.scenarioMillis = scenarioMillis;
+    }
+
+    /**
+     * @return The results of the run so far.
+     */
+    public static BaselineRun capture(final LatencyRecorder recorder, final TimingTree timingTree) {
+        final Map<LatencyKind, long[]> latencies = new EnumMap<>(LatencyKind.class);
+        final List<LatencySample> samples = recorder.getSamples();
+        for (final LatencyKind kind : LatencyKind.values()) {
+            int count = 0;
+            final long[] values = new long[samples.size()];
+            for (final LatencySample sample : samples) {
+                if (sample.getKind() == kind) {
+                    values[count++] = sample.getLatencyMillis();
+                }
+            }
+            latencies.put(kind, Arrays.copyOf(values, count));
+        }
+        final Map<String, Long> scenarioMillis = new LinkedHashMap<>();
+        for (final TimingNode scenario : timingTree.getRoot().getChildren()) {
+            if (scenario.getInvocations() > 0 && scenario.getFailures() == 0) {
+                scenarioMillis.put(scenario.getName(), scenario.getTotalMillis() / scenario.getInvocations());
+            }
+        }
+        return new BaselineRun(System.currentTimeMillis(), Shard.current().getCount(), latencies, scenarioMillis);
+    }
+
+    public long getRecordedAtMillis() {
+        return recordedAtMillis;
+    }
+
+    /**
+     * @return The number of shards the nodes under test were split into, as the time of a scenario depends on the nodes per executor.
+     */
+    public int getShards() {
+        return shards;
+    }
+
+    /**
+     * @return The latencies of {@code kind}, in the order they were recorded.
+     */
+    public long[] getLatencies(final LatencyKind kind) {
+        final long[] values = latencies.get(kind);
+        return values == null ? new long[0] : values.clone();
+    }
+
+    /**
+     * @return The mean time per invocation of every scenario which did not fail, keyed by scenario name.
+     */
+    public Map<String, Long> getScenarioMillis() {
+        return Collections.unmodifiableMap(scenarioMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    JSONObject toJson() {
+        final JSONObject json = new JSONObject();
+        json.put("recordedAt", recordedAtMillis);
+        json.put("shards", shards);
+        final JSONObject latencyJson = new JSONObject();
+        for (final Map.Entry<LatencyKind, long[]> entry : latencies.entrySet()) {
+            final JSONArray values = new JSONArray();
+            for (final long value : entry.getValue()) {
+                values.add(value);
+            }
+            latencyJson.put(entry.getKey().name(), values);
+        }
+        json.put("latencies", latencyJson);
+        final JSONObject scenarioJson = new JSONObject();
+        scenarioJson.putAll(scenarioMillis);
+        json.put("scenarios", scenarioJson);
+        return json;
+    }
+
+    static BaselineRun fromJson(final JSONObject json) {
+        final Map<LatencyKind, long[]> latencies = new EnumMap<>(LatencyKind.class);
+        final JSONObject latencyJson = (JSONObject) json.get("latencies");
+        for (final LatencyKind kind : LatencyKind.values()) {
+            final JSONArray values = latencyJson == null ? null : (JSONArray) latencyJson.get(kind.name());
+            final long[] array = new long[values == null ? 0 : values.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = ((Number) values.get(i)).longValue();
+            }
+            latencies.put(kind, array);
+        }
+        final Map<String, Long> scenarioMillis = new LinkedHashMap<>();
+        final JSONObject scenarioJson = (JSONObject) json.get("scenarios");
+        if (scenarioJson != null) {
+            for (final Object entry : scenarioJson.entrySet()) {
+                final Map.Entry<?, ?> scenario = (Map.Entry<?, ?>) entry;
+                scenarioMillis.put((String) scenario.getKey(), ((Number) scenario.getValue()).longValue());
+            }
+        }
+        final Number shards = (Number) json.get("shards");
+        return new BaselineRun(((Number) json.get("recordedAt")).longValue(), shards == null ? 1 : shards.intValue(), latencies, scenarioMillis);
+    }
+
+}
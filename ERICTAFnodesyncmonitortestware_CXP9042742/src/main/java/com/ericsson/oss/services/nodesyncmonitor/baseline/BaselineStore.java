@@ -0,0 +1,123 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.baseline;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.PREFIX;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getString;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.oss.services.nodesyncmonitor.shard.Shard;
+import com.ericsson.oss.services.nodesyncmonitor.utils.ReportFiles;
+import com.google.common.io.Files;
+
+/**
+ * The baselines of earlier runs, one directory per {@link BaselineKey} under {@value #DIRECTORY_PROPERTY}:
+ * {@code <directory>/<version>/<deployment type>/node-sync-monitor-baseline-<time>.json}, one file per run (see {@link BaselineRun}).
+ * <p>
+ * The directory is meant to be kept with the build, so every run of the suite on a deployment type finds the runs before it.
+ */
+public final class BaselineStore {
+
+    public static final String DIRECTORY_PROPERTY = PREFIX + "baseline.dir";
+    public static final String DEFAULT_DIRECTORY = "baselines";
+    public static final String FILE_PREFIX = "node-sync-monitor-baseline-";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BaselineStore.class);
+
+    private final File root;
+
+    public BaselineStore(final File root) {
+        this.root = root;
+    }
+
+    public static BaselineStore fromConfiguration() {
+        return new BaselineStore(new File(getString(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY)));
+    }
+
+    /**
+     * @param key
+     *            The key of the baseline.
+     * @param maxRuns
+     *            The maximum number of runs to load.
+     * @return The most recent runs of the baseline, oldest first; empty if there is none. A file which cannot be read is skipped.
+     */
+    public List<BaselineRun> load(final BaselineKey key, final int maxRuns) {
+        final File[] files = directoryOf(key).listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(final File directory, final String name) {
+                return name.startsWith(FILE_PREFIX) && name.endsWith(".json");
+            }
+        });
+        if (files == null || files.length == 0) {
+            return Collections.emptyList();
+        }
+        Arrays.sort(files);
+        final List<BaselineRun> runs = new ArrayList<>();
+        for (final File file : files) {
+            try (Reader reader = Files.newReader(file, StandardCharsets.UTF_8)) {
+                runs.add(BaselineRun.fromJson((JSONObject) new JSONParser().parse(reader)));
+            } catch (final IOException | ParseException | RuntimeException e) {
+                LOGGER.warn("Skipping unreadable baseline run {}", file, e);
+            }
+        }
+        Collections.sort(runs, new Comparator<BaselineRun>() {
+            @Override
+            public int compare(final BaselineRun first, final BaselineRun second) {
+                return Long.compare(first.getRecordedAtMillis(), second.getRecordedAtMillis());
+            }
+        });
+        return runs.subList(Math.max(0, runs.size() - maxRuns), runs.size());
+    }
+
+    /**
+     * Adds a run to a baseline.
+     *
+     * @return The file written.
+     * @throws IOException
+     *             If the file cannot be written.
+     */
+    public File save(final BaselineKey key, final BaselineRun run) throws IOException {
+        final File file = new File(directoryOf(key), FILE_PREFIX + Shard.current().getFileNamePart()
+                + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date(run.getRecordedAtMillis())) + ".json");
+        Files.createParentDirs(file);
+        ReportFiles.writeJson(run.toJson(), file);
+        return file;
+    }
+
+    private File directoryOf(final BaselineKey key) {
+        return new File(new File(root, pathSegment(key.getVersion())), pathSegment(key.getDeploymentType()));
+    }
+
+    private static String pathSegment(final String value) {
+        return value.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+}
@@ -0,0 +1,103 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.baseline;
+
+import org.json.simple.JSONObject;
+
+/**
+ * A percentile of one metric of the run compared with the same percentile of the baseline. All times are in milliseconds.
+ */
+public final class Comparison {
+
+    private final String metric;
+    private final double percentile;
+    private final int baselineCount;
+    private final int currentCount;
+    private final long baselineMillis;
+    private final long currentMillis;
+    private final double pValue;
+    private final boolean regressed;
+
+    Comparison(final String metric, final double percentile, final int baselineCount, final int currentCount, final long baselineMillis,
+               final long currentMillis, final double pValue, final boolean regressed) {
+        this.metric = metric;
+        this.percentile = percentile;
+        this.baselineCount = baselineCount;
+        this.currentCount = currentCount;
+        this.baselineMillis = baselineMillis;
+        this.currentMillis = currentMillis;
+        this.pValue = pValue;
+        this.regressed = regressed;
+    }
+
+    /**
+     * @return {@code latency.<kind>} for an alarm latency, {@code scenario.<name>} for the time of a scenario.
+     */
+    public String getMetric() {
+        return metric;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public long getBaselineMillis() {
+        return baselineMillis;
+    }
+
+    public long getCurrentMillis() {
+        return currentMillis;
+    }
+
+    /**
+     * @return The ratio of the run to the baseline.
+     */
+    public double getRatio() {
+        return currentMillis / (double) Math.max(1L, baselineMillis);
+    }
+
+    /**
+     * @return The p-value of the rank test of an alarm latency (see {@link MannWhitneyTest}), or of the robust z-score of the time of a
+     *         scenario against its baseline times.
+     */
+    public double getPValue() {
+        return pValue;
+    }
+
+    public boolean isRegressed() {
+        return regressed;
+    }
+
+    @SuppressWarnings("unchecked")
+    JSONObject toJson() {
+        final JSONObject json = new JSONObject();
+        json.put("metric", metric);
+        json.put("percentile", percentile);
+        json.put("baselineCount", baselineCount);
+        json.put("currentCount", currentCount);
+        json.put("baselineMillis", baselineMillis);
+        json.put("currentMillis", currentMillis);
+        json.put("ratio", getRatio());
+        json.put("pValue", pValue);
+        json.put("regressed", regressed);
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s p%s: %d ms against %d ms (x%.2f, %d against %d value(s), p=%.4f)%s", metric,
+                String.valueOf(percentile).replace(".0", ""), currentMillis, baselineMillis, getRatio(), currentCount, baselineCount, pValue,
+                regressed ? " REGRESSED" : "");
+    }
+
+}
@@ -0,0 +1,96 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.baseline;
+
+import java.util.Arrays;
+
+/**
+ * The one-sided Mann-Whitney U (Wilcoxon rank-sum) test of whether the values of a run tend to be greater than the values of the baseline.
+ * <p>
+ * The test only compares ranks, so a few slow outliers on either side weigh no more than any other value, and it makes no assumption on the
+ * distribution of the latencies. The p-value is computed from the normal approximation of U, with a continuity correction and the variance
+ * corrected for ties, which is accurate from about ten values on each side.
+ */
+public final class MannWhitneyTest {
+
+    private MannWhitneyTest() {}
+
+    /**
+     * @param baseline
+     *            The values of the baseline.
+     * @param current
+     *            The values of the run.
+     * @return The probability of ranks at least as high as those of {@code current} if both sides came from the same distribution: a small
+     *         p-value means the run is significantly slower than the baseline. 1 if either side is empty or every value is the same.
+     */
+    public static double pValueGreater(final long[] baseline, final long[] current) {
+        final int baselineCount = baseline.length;
+        final int currentCount = current.length;
+        if (baselineCount == 0 || currentCount == 0) {
+            return 1.0;
+        }
+        final int total = baselineCount + currentCount;
+        final Value[] values = new Value[total];
+        for (int i = 0; i < currentCount; i++) {
+            values[i] = new Value(current[i], true);
+        }
+        for (int i = 0; i < baselineCount; i++) {
+            values[currentCount + i] = new Value(baseline[i], false);
+        }
+        Arrays.sort(values);
+
+        double currentRankSum = 0;
+        double tieTerm = 0;
+        int start = 0;
+        while (start < total) {
+            int end = start + 1;
+            while (end < total && values[end].value == values[start].value) {
+                end++;
+            }
+            final double averageRank = (start + 1 + end) / 2.0;
+            for (int i = start; i < end; i++) {
+                if (values[i].current) {
+                    currentRankSum += averageRank;
+                }
+            }
+            final double ties = end - start;
+            tieTerm += ties * ties * ties - ties;
+            start = end;
+        }
+
+        final double u = currentRankSum - currentCount * (currentCount + 1) / 2.0;
+        final double mean = currentCount * (double) baselineCount / 2.0;
+        final double variance = currentCount * (double) baselineCount / 12.0 * (total + 1 - tieTerm / ((double) total * (total - 1)));
+        if (variance <= 0) {
+            return 1.0;
+        }
+        final double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return NormalDistribution.upperTail(z);
+    }
+
+    private static final class Value implements Comparable<Value> {
+        private final long value;
+        private final boolean current;
+
+        private Value(final long value, final boolean current) {
+            this.value = value;
+            this.current = current;
+        }
+
+        @Override
+        public int compareTo(final Value other) {
+            return Long.compare(value, other.value);
+        }
+    }
+
+}
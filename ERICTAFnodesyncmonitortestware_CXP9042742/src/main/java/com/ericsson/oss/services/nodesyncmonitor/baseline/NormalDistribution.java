@@ -0,0 +1,39 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.baseline;
+
+/**
+ * The standard normal distribution, for the p-values of the regression tests.
+ */
+final class NormalDistribution {
+
+    private NormalDistribution() {}
+
+    /**
+     * @return The probability that a standard normal value is greater than {@code z}.
+     */
+    static double upperTail(final double z) {
+        return 0.5 * erfc(z / Math.sqrt(2.0));
+    }
+
+    /*
+     * The complementary error function, with a relative error below 1.2e-7 (Chebyshev fit, Numerical Recipes 6.2).
+     */
+    private static double erfc(final double x) {
+        final double t = 1.0 / (1.0 + 0.5 * Math.abs(x));
+        final double result = t * Math.exp(-x * x - 1.26551223 + t * (1.00002368 + t * (0.37409196 + t * (0.09678418 + t * (-0.18628806
+                + t * (0.27886807 + t * (-1.13520398 + t * (1.48851587 + t * (-0.82215223 + t * 0.17087277)))))))));
+        return x >= 0 ? result : 2.0 - result;
+    }
+
+}
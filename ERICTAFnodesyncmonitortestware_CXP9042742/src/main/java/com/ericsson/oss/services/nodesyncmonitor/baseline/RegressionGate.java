@@ -0,0 +1,225 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.baseline;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.PREFIX;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getBoolean;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.oss.services.nodesyncmonitor.journal.Journal;
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyKind;
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyRecorder;
+import com.ericsson.oss.services.nodesyncmonitor.timing.TimingTree;
+import com.ericsson.oss.services.nodesyncmonitor.utils.ReportFiles;
+import com.google.common.primitives.Longs;
+
+/**
+ * Fails the suite when its alarm latencies or scenario times regressed against the baseline of earlier runs (see {@link BaselineStore}).
+ * <p>
+ * The alarm latencies of each {@link LatencyKind} are compared with the latencies of the last runs of the baseline pooled together: a
+ * percentile regressed if it grew by more than the threshold of the {@link RegressionProfile} and the {@link MannWhitneyTest} finds the run
+ * slower with a p-value below the significance, so a few slow samples in a small run are not taken for a regression. Each scenario only
+ * has one time per run, which regressed if it grew by more than the threshold over the highest compared percentile of its times over the
+ * baseline runs with the same number of shards, and lies beyond the spread of those times with a p-value below the significance (robust
+ * z-score). Metrics with too few values on either side are not compared: a run on a single node records one latency of each kind, so the
+ * latencies are only gated on runs with at least {@code minSamples} nodes.
+ * <p>
+ * The comparisons are logged and written to {@code services.nodeSyncMonitor.baseline.reportDir} as
+ * {@code node-sync-monitor-regression-<time>.json}. A run without regression is added to the baseline of its own {@link BaselineKey}.
+ */
+public final class RegressionGate {
+
+    public static final String ENABLED_PROPERTY = PREFIX + "baseline.enabled";
+    public static final String REPORT_DIR_PROPERTY = PREFIX + "baseline.reportDir";
+    public static final String DEFAULT_REPORT_DIR = "target/baseline";
+    public static final String FILE_PREFIX = "node-sync-monitor-regression-";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RegressionGate.class);
+
+    private static final double MAD_TO_STANDARD_DEVIATION = 1.4826;
+
+    private RegressionGate() {}
+
+    /**
+     * Compares the results of the run so far with its baseline, and adds the run to the baseline unless it regressed. A replayed journal is
+     * not compared, as its times are those of the recording.
+     *
+     * @throws AssertionError
+     *             If any metric regressed.
+     */
+    public static void check() {
+        if (!getBoolean(ENABLED_PROPERTY, false)) {
+            LOGGER.info("Performance regression gate disabled");
+            return;
+        }
+        if (Journal.getInstance().isReplaying()) {
+            LOGGER.info("Performance regression gate skipped, as the run replays a journal instead of running on a deployment");
+            return;
+        }
+        final BaselineKey key = BaselineKey.current();
+        final RegressionProfile profile = RegressionProfile.fromConfiguration();
+        final BaselineKey reference = profile.referenceOf(key);
+        final BaselineStore store = BaselineStore.fromConfiguration();
+        final BaselineRun run = BaselineRun.capture(LatencyRecorder.getInstance(), TimingTree.getInstance());
+        final List<BaselineRun> baseline = store.load(reference, profile.getRuns());
+        LOGGER.info("Comparing the run on {} with {} baseline run(s) of {} ({})", key, baseline.size(), reference, profile);
+
+        final List<Comparison> comparisons = compare(baseline, run, profile);
+        final List<Comparison> regressions = new ArrayList<>();
+        for (final Comparison comparison : comparisons) {
+            LOGGER.info("Performance: {}", comparison);
+            if (comparison.isRegressed()) {
+                regressions.add(comparison);
+            }
+        }
+        export(key, reference, baseline.size(), comparisons);
+        if (regressions.isEmpty() || profile.isUpdate()) {
+            try {
+                LOGGER.info("Run added to the baseline of {} as {}", key, store.save(key, run));
+            } catch (final IOException e) {
+                LOGGER.warn("Could not add the run to the baseline of {}", key, e);
+            }
+        }
+        if (!regressions.isEmpty()) {
+            throw new AssertionError(String.format("%d performance regression(s) against the baseline of %s: %s", regressions.size(), reference,
+                    regressions));
+        }
+    }
+
+    /**
+     * @param baseline
+     *            The runs of the baseline.
+     * @param run
+     *            The run.
+     * @param profile
+     *            The thresholds.
+     * @return The comparison of every metric with enough values on both sides.
+     */
+    public static List<Comparison> compare(final List<BaselineRun> baseline, final BaselineRun run, final RegressionProfile profile) {
+        final List<Comparison> comparisons = new ArrayList<>();
+        for (final LatencyKind kind : LatencyKind.values()) {
+            final String metric = "latency." + kind.name().toLowerCase(Locale.ROOT);
+            final long[] current = sorted(run.getLatencies(kind));
+            final List<long[]> baselineLatencies = new ArrayList<>();
+            for (final BaselineRun baselineRun : baseline) {
+                baselineLatencies.add(baselineRun.getLatencies(kind));
+            }
+            final long[] pooled = sorted(Longs.concat(baselineLatencies.toArray(new long[baselineLatencies.size()][])));
+            if (current.length < profile.getMinSamples() || pooled.length < profile.getMinSamples()) {
+                LOGGER.info("{} not compared: {} value(s) against {}, {} needed on each side", metric, current.length, pooled.length,
+                        profile.getMinSamples());
+                continue;
+            }
+            final double pValue = MannWhitneyTest.pValueGreater(pooled, current);
+            for (final double percentile : profile.getPercentiles()) {
+                final long baselineMillis = percentile(pooled, percentile);
+                final long currentMillis = percentile(current, percentile);
+                comparisons.add(new Comparison(metric, percentile, pooled.length, current.length, baselineMillis, currentMillis, pValue,
+                        exceeds(baselineMillis, currentMillis, profile) && pValue < profile.getSignificance()));
+            }
+        }
+        for (final Map.Entry<String, Long> scenario : run.getScenarioMillis().entrySet()) {
+            final String metric = "scenario." + scenario.getKey();
+            final List<Long> times = new ArrayList<>();
+            for (final BaselineRun baselineRun : baseline) {
+                final Long time = baselineRun.getShards() == run.getShards() ? baselineRun.getScenarioMillis().get(scenario.getKey()) : null;
+                if (time != null) {
+                    times.add(time);
+                }
+            }
+            if (times.size() < profile.getMinRuns()) {
+                LOGGER.info("{} not compared: {} baseline run(s), {} needed", metric, times.size(), profile.getMinRuns());
+                continue;
+            }
+            final double percentile = profile.getMaxPercentile();
+            final long[] baselineTimes = sorted(Longs.toArray(times));
+            final long baselineMillis = percentile(baselineTimes, percentile);
+            final long currentMillis = scenario.getValue();
+            final double pValue = outlierPValue(baselineTimes, currentMillis);
+            comparisons.add(new Comparison(metric, percentile, times.size(), 1, baselineMillis, currentMillis, pValue,
+                    exceeds(baselineMillis, currentMillis, profile) && pValue < profile.getSignificance()));
+        }
+        return comparisons;
+    }
+
+    /*
+     * The probability of a time at least as long as currentMillis if it came from the baseline times, from its robust z-score: the distance to
+     * the median in median absolute deviations, which one slow baseline run hardly moves. The deviation is at least 1 ms.
+     */
+    private static double outlierPValue(final long[] sortedTimes, final long currentMillis) {
+        final double median = median(sortedTimes);
+        final long[] deviations = new long[sortedTimes.length];
+        for (int i = 0; i < sortedTimes.length; i++) {
+            deviations[i] = Math.round(Math.abs(sortedTimes[i] - median));
+        }
+        final double scale = Math.max(1.0, MAD_TO_STANDARD_DEVIATION * median(sorted(deviations)));
+        return NormalDistribution.upperTail((currentMillis - median) / scale);
+    }
+
+    private static double median(final long[] sortedValues) {
+        final int middle = sortedValues.length / 2;
+        return sortedValues.length % 2 == 1 ? sortedValues[middle] : (sortedValues[middle - 1] + sortedValues[middle]) / 2.0;
+    }
+
+    private static boolean exceeds(final long baselineMillis, final long currentMillis, final RegressionProfile profile) {
+        return currentMillis > Math.max(1L, baselineMillis) * (1.0 + profile.getThreshold());
+    }
+
+    /*
+     * The nearest rank percentile of sorted values.
+     */
+    private static long percentile(final long[] sortedValues, final double percentile) {
+        final int rank = (int) Math.ceil(percentile / 100.0 * sortedValues.length);
+        return sortedValues[Math.min(sortedValues.length, Math.max(1, rank)) - 1];
+    }
+
+    private static long[] sorted(final long[] values) {
+        final long[] copy = values.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void export(final BaselineKey key, final BaselineKey reference, final int baselineRuns, final List<Comparison> comparisons) {
+        final JSONObject report = new JSONObject();
+        report.put("version", key.getVersion());
+        report.put("deploymentType", key.getDeploymentType());
+        report.put("referenceVersion", reference.getVersion());
+        report.put("baselineRuns", baselineRuns);
+        final JSONArray comparisonArray = new JSONArray();
+        for (final Comparison comparison : comparisons) {
+            comparisonArray.add(comparison.toJson());
+        }
+        report.put("comparisons", comparisonArray);
+        try {
+            final File file = ReportFiles.newReportFile(REPORT_DIR_PROPERTY, DEFAULT_REPORT_DIR, FILE_PREFIX, "json");
+            ReportFiles.writeJson(report, file);
+            LOGGER.info("Performance regression report written to {}", file);
+        } catch (final IOException e) {
+            LOGGER.warn("Could not write the performance regression report", e);
+        }
+    }
+
+}
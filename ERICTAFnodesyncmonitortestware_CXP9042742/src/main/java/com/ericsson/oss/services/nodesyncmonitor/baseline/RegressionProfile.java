@@ -0,0 +1,138 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.baseline;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.PREFIX;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getBoolean;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getDouble;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getInt;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getString;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.base.Splitter;
+import com.google.common.primitives.Doubles;
+
+/**
+ * The settings of the performance regression gate, read from the {@code services.nodeSyncMonitor.baseline.*} properties:
+ * <ul>
+ * <li>{@code referenceVersion}: the testware version whose baseline the run is compared with, empty for the version of the run</li>
+ * <li>{@code runs}: the number of most recent baseline runs pooled into the baseline</li>
+ * <li>{@code minSamples}: the number of latencies needed on each side to compare an alarm latency</li>
+ * <li>{@code minRuns}: the number of baseline runs needed to compare the time of a scenario</li>
+ * <li>{@code percentiles}: the percentiles compared, separated by commas</li>
+ * <li>{@code threshold}: the increase of a percentile over the baseline, as a fraction, beyond which it regressed</li>
+ * <li>{@code significance}: the p-value below which an increase is not taken for noise</li>
+ * <li>{@code update}: true to add the run to the baseline even if it regressed, accepting its performance as the new baseline</li>
+ * </ul>
+ */
+public final class RegressionProfile {
+
+    private static final String BASELINE_PREFIX = PREFIX + "baseline.";
+    private static final Splitter LIST_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+    private final String referenceVersion;
+    private final int runs;
+    private final int minSamples;
+    private final int minRuns;
+    private final double[] percentiles;
+    private final double threshold;
+    private final double significance;
+    private final boolean update;
+
+    public RegressionProfile(final String referenceVersion, final int runs, final int minSamples, final int minRuns, final double[] percentiles,
+                             final double threshold, final double significance, final boolean update) {
+        if (runs < 1 || minSamples < 1 || minRuns < 1 || percentiles.length == 0 || threshold < 0 || significance <= 0 || significance >= 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid regression profile: runs=%d, minSamples=%d, minRuns=%d, percentiles=%s, threshold=%s, significance=%s", runs,
+                    minSamples, minRuns, Arrays.toString(percentiles), threshold, significance));
+        }
+        for (final double percentile : percentiles) {
+            if (percentile <= 0 || percentile > 100) {
+                throw new IllegalArgumentException(String.format("Invalid regression profile: percentile %s is not in ]0, 100]", percentile));
+            }
+        }
+        this.referenceVersion = referenceVersion;
+        this.runs = runs;
+        this.minSamples = minSamples;
+        this.minRuns = minRuns;
+        this.percentiles = percentiles.clone();
+        this.threshold = threshold;
+        this.significance = significance;
+        this.update = update;
+    }
+
+    public static RegressionProfile fromConfiguration() {
+        final List<String> percentiles = LIST_SPLITTER.splitToList(getString(BASELINE_PREFIX + "percentiles", "50,90"));
+        final double[] values = new double[percentiles.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Double.parseDouble(percentiles.get(i));
+        }
+        return new RegressionProfile(getString(BASELINE_PREFIX + "referenceVersion", "").trim(), getInt(BASELINE_PREFIX + "runs", 10),
+                getInt(BASELINE_PREFIX + "minSamples", 10), getInt(BASELINE_PREFIX + "minRuns", 5), values,
+                getDouble(BASELINE_PREFIX + "threshold", 0.2), getDouble(BASELINE_PREFIX + "significance", 0.01),
+                getBoolean(BASELINE_PREFIX + "update", false));
+    }
+
+    /**
+     * @param key
+     *            The key of the run.
+     * @return The key of the baseline the run is compared with.
+     */
+    public BaselineKey referenceOf(final BaselineKey key) {
+        return referenceVersion.isEmpty() ? key : key.withVersion(referenceVersion);
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    public int getMinRuns() {
+        return minRuns;
+    }
+
+    public double[] getPercentiles() {
+        return percentiles.clone();
+    }
+
+    /**
+     * @return The highest of the compared percentiles.
+     */
+    public double getMaxPercentile() {
+        return Doubles.max(percentiles);
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public double getSignificance() {
+        return significance;
+    }
+
+    public boolean isUpdate() {
+        return update;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("reference=%s, runs=%d, percentiles=%s, threshold=+%.0f%%, significance=%s", referenceVersion.isEmpty() ? "same version"
+                : referenceVersion, runs, Arrays.toString(percentiles), threshold * 100, significance);
+    }
+
+}
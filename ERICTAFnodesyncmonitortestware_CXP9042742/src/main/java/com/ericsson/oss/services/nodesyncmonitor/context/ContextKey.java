@@ -0,0 +1,62 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.context;
+
+/**
+ * The typed name of a value bound in the {@link ScopedContext}.
+ *
+ * @param <T>
+ *            The type of the value.
+ */
+public final class ContextKey<T> {
+
+    private final String name;
+
+    private ContextKey(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param name
+     *            The name of the value, unique over the suite.
+     * @return The key.
+     */
+    public static <T> ContextKey<T> named(final String name) {
+        return new ContextKey<>(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @SuppressWarnings("unchecked")
+    T cast(final Object value) {
+        return (T) value;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof ContextKey && name.equals(((ContextKey<?>) other).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
@@ -0,0 +1,40 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.context;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The scopes a value can be bound to in the {@link ScopedContext}, from the widest to the narrowest.
+ */
+public enum Scope {
+
+    /** The whole run, shared by every scenario and vUser. */
+    SUITE,
+    /** The scenario being executed, shared by its vUsers and forgotten when it finishes. */
+    SCENARIO,
+    /** The vUser (thread) executing a flow of the scenario, forgotten when the next scenario starts. */
+    VUSER;
+
+    private static final List<Scope> NARROWEST_FIRST = Collections.unmodifiableList(Arrays.asList(VUSER, SCENARIO, SUITE));
+
+    /**
+     * @return The scopes in the order a value is looked up in.
+     */
+    public static List<Scope> narrowestFirst() {
+        return NARROWEST_FIRST;
+    }
+
+}
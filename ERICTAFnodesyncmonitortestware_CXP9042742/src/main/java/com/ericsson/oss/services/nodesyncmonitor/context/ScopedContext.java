@@ -0,0 +1,168 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.context;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Values shared by the test steps and data providers, bound to the suite, the scenario being executed or the calling vUser (see
+ * {@link Scope}), so flows running in several vUsers do not race on global state.
+ * <p>
+ * A value is read from the narrowest scope it is bound in: a vUser binding hides the scenario binding, which hides the suite binding. The
+ * scenario scope is opened and closed by {@link ScopedScenarioListener}. The vUser scope is held by the calling thread and belongs to the
+ * scenario it was bound in, so a vUser thread reused by the next scenario starts with an empty scope.
+ */
+public final class ScopedContext {
+
+    private static final ScopedContext INSTANCE = new ScopedContext();
+
+    private final ConcurrentMap<ContextKey<?>, Object> suite = new ConcurrentHashMap<>();
+    private final AtomicLong scenarioGeneration = new AtomicLong();
+    private volatile ConcurrentMap<ContextKey<?>, Object> scenario = new ConcurrentHashMap<>();
+    private final ThreadLocal<VUserBindings> vUser = new ThreadLocal<>();
+
+    private ScopedContext() {}
+
+    public static ScopedContext getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param key
+     *            The key.
+     * @return The value bound in the narrowest scope, or null if the key is not bound.
+     */
+    public <T> T get(final ContextKey<T> key) {
+        for (final Scope scope : Scope.narrowestFirst()) {
+            final T value = get(scope, key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param scope
+     *            The scope.
+     * @param key
+     *            The key.
+     * @return The value bound in the scope, or null if the key is not bound in it.
+     */
+    public <T> T get(final Scope scope, final ContextKey<T> key) {
+        return key.cast(bindings(scope).get(key));
+    }
+
+    /**
+     * Binds a value, replacing any value bound to the key in the scope.
+     *
+     * @param scope
+     *            The scope.
+     * @param key
+     *            The key.
+     * @param value
+     *            The value, not null.
+     */
+    public <T> void put(final Scope scope, final ContextKey<T> key, final T value) {
+        bindings(scope).put(key, value);
+    }
+
+    /**
+     * Binds a value unless the key is already bound in the scope.
+     *
+     * @param scope
+     *            The scope.
+     * @param key
+     *            The key.
+     * @param value
+     *            The value, not null.
+     * @return The value bound in the scope after the call.
+     */
+    public <T> T putIfAbsent(final Scope scope, final ContextKey<T> key, final T value) {
+        final Object previous = bindings(scope).putIfAbsent(key, value);
+        return previous == null ? value : key.cast(previous);
+    }
+
+    /**
+     * @param scope
+     *            The scope.
+     * @param key
+     *            The key.
+     * @return The value which was bound in the scope, or null.
+     */
+    public <T> T remove(final Scope scope, final ContextKey<T> key) {
+        return key.cast(bindings(scope).remove(key));
+    }
+
+    /**
+     * Opens a new scenario scope, and makes the vUser scope of every thread empty.
+     */
+    public void scenarioStarted() {
+        newScenarioScope();
+    }
+
+    /**
+     * Forgets the values bound to the scenario and its vUsers.
+     */
+    public void scenarioFinished() {
+        newScenarioScope();
+    }
+
+    /**
+     * Forgets every value. Intended for the end of a suite.
+     */
+    public void reset() {
+        suite.clear();
+        newScenarioScope();
+    }
+
+    private void newScenarioScope() {
+        scenario = new ConcurrentHashMap<>();
+        scenarioGeneration.incrementAndGet();
+    }
+
+    private ConcurrentMap<ContextKey<?>, Object> bindings(final Scope scope) {
+        switch (scope) {
+            case SUITE:
+                return suite;
+            case SCENARIO:
+                return scenario;
+            default:
+                return vUserBindings();
+        }
+    }
+
+    private ConcurrentMap<ContextKey<?>, Object> vUserBindings() {
+        final long generation = scenarioGeneration.get();
+        VUserBindings bindings = vUser.get();
+        if (bindings == null || bindings.generation != generation) {
+            bindings = new VUserBindings(generation);
+            vUser.set(bindings);
+        }
+        return bindings.values;
+    }
+
+    private static final class VUserBindings {
+
+        private final long generation;
+        private final ConcurrentMap<ContextKey<?>, Object> values = new ConcurrentHashMap<>();
+
+        private VUserBindings(final long generation) {
+            this.generation = generation;
+        }
+
+    }
+
+}
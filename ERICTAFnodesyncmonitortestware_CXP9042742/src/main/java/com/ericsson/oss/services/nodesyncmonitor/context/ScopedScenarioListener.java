@@ -0,0 +1,38 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.context;
+
+import com.ericsson.cifwk.taf.scenario.TestScenario;
+import com.ericsson.oss.services.nodesyncmonitor.session.SessionPool;
+import com.ericsson.oss.services.nodesyncmonitor.timing.TimingScenarioListener;
+
+/**
+ * Scenario listener which times the scenario like {@link TimingScenarioListener}, and opens the scenario scope of the {@link ScopedContext}
+ * for the time the scenario runs. The sessions lent to the vUsers of the scenario are given back to the {@link SessionPool} when it finishes.
+ */
+public class ScopedScenarioListener extends TimingScenarioListener {
+
+    @Override
+    public void onScenarioStarted(final TestScenario scenario) {
+        ScopedContext.getInstance().scenarioStarted();
+        super.onScenarioStarted(scenario);
+    }
+
+    @Override
+    public void onScenarioFinished(final TestScenario scenario) {
+        super.onScenarioFinished(scenario);
+        ScopedContext.getInstance().scenarioFinished();
+        SessionPool.getInstance().releaseAll();
+    }
+
+}
@@ -12,18 +12,48 @@
 
 package com.ericsson.oss.services.nodesyncmonitor.dataprovider;
 
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.cifwk.taf.handlers.netsim.domain.NetworkElement;
 import com.ericsson.oss.testware.network.operators.netsim.NetsimOperator;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 
 /**
  * Ensures only a single instance of the {@link NetsimOperator} is
- * created.
+ * created, and caches the {@link NetworkElement} handles it resolves.
+ * <p>
+ * Resolving a network element queries NetSim, so handles are kept in a concurrent cache keyed by network element id, bounded by
+ * {@code services.nodeSyncMonitor.netsim.networkElementCacheSize}. Entries must be invalidated when the NetSim side of a network element
+ * changes, e.g. after its database is restored, and are all invalidated when a suite starts.
  */
 public class NetSimOperatorProvider {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(NetSimOperatorProvider.class);
+
+    private static final String CACHE_SIZE_PROPERTY = "services.nodeSyncMonitor.netsim.networkElementCacheSize";
+    private static final long DEFAULT_CACHE_SIZE = 5000;
+
     private static NetSimOperatorProvider instance = new NetSimOperatorProvider();
     private static NetsimOperator operator = new NetsimOperator();
 
-    private NetSimOperatorProvider() {}
+    private final LoadingCache<String, NetworkElement> networkElements;
+
+    private NetSimOperatorProvider() {
+        networkElements = CacheBuilder.newBuilder()
+                .maximumSize(getLong(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE))
+                .build(new CacheLoader<String, NetworkElement>() {
+                    @Override
+                    public NetworkElement load(final String networkElementId) {
+                        LOGGER.debug("Resolving network element {} in NetSim", networkElementId);
+                        return operator.getNetworkElement(networkElementId);
+                    }
+                });
+    }
 
     public static NetSimOperatorProvider getInstance() {
         return instance;
@@ -33,4 +63,35 @@ public class NetSimOperatorProvider {
         return operator;
     }
 
+    /**
+     * @param networkElementId
+     *            The id of the network element.
+     * @return The cached network element, resolving it in NetSim on the first call. Null if NetSim does not know the network element; misses are
+     *         not cached.
+     */
+    public NetworkElement getNetworkElement(final String networkElementId) {
+        try {
+            return networkElements.getUnchecked(networkElementId);
+        } catch (final CacheLoader.InvalidCacheLoadException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Drops the cached handle of a network element, e.g. after its database was restored.
+     *
+     * @param networkElementId
+     *            The id of the network element.
+     */
+    public void invalidate(final String networkElementId) {
+        networkElements.invalidate(networkElementId);
+    }
+
+    /**
+     * Drops every cached handle, e.g. at the start of a suite, as the simulations may have been reloaded since the handles were resolved.
+     */
+    public void invalidateAll() {
+        networkElements.invalidateAll();
+    }
+
 }
@@ -13,39 +13,57 @@
 package com.ericsson.oss.services.nodesyncmonitor.dataprovider;
 
 import static com.ericsson.cifwk.taf.datasource.TafDataSources.fromCsv;
-import static com.ericsson.cifwk.taf.datasource.TafDataSources.transform;
 
-import java.util.ArrayList;
-import java.util.Iterator;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getString;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.ericsson.cifwk.taf.annotations.DataSource;
-import com.ericsson.cifwk.taf.data.DataHandler;
 import com.ericsson.cifwk.taf.datasource.ConfigurationSource;
 import com.ericsson.cifwk.taf.datasource.DataRecord;
-import com.ericsson.cifwk.taf.datasource.DataRecordImpl;
 import com.ericsson.cifwk.taf.datasource.TestDataSource;
+import com.ericsson.oss.services.nodesyncmonitor.context.ContextKey;
+import com.ericsson.oss.services.nodesyncmonitor.context.Scope;
+import com.ericsson.oss.services.nodesyncmonitor.context.ScopedContext;
+import com.ericsson.oss.services.nodesyncmonitor.shard.Shard;
 import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 
 /**
  * Data provider which dynamically updates the datasource identified by the property {@link NodeIdDataProvider#FILENAME_CSV_PROPERTY}.
- * It replaces all occurrences of the following strings with values defined in system properties:
+ * Each row of the CSV file is a template which is expanded once for every node under test, replacing all occurrences of the following string
+ * with the id of the node:
  * <p></p>
  * <ul>
  * <li>${rbsNodeId}</li>
  * </ul>
- * The following system properties are set in {@link com.ericsson.oss.services.nodesyncmonitor.teststeps.NetSimTestSteps} to contain the ids of the
- * nodes under test:
+ * Rows without a placeholder are returned once. The nodes under test are taken from, in order of precedence:
  * <p></p>
  * <ul>
- * <li>rbsNodeId</li>
+ * <li>the optional {@code nodes.range} property of the data provider, e.g. {@code RNC02RBS01..RNC02RBS500} (see {@link NodeIdRange}), keeping
+ * only the nodes of the shard of this executor (see {@link Shard})</li>
+ * <li>the nodes bound to {@link #NODES_UNDER_TEST} or the node bound to {@link #NODE_UNDER_TEST} in the narrowest scope of the
+ * {@link ScopedContext}: the calling vUser, the scenario, then the suite. Within a scope the nodes take precedence over the node. For every
+ * node in the nodes to add data source, {@link com.ericsson.oss.services.nodesyncmonitor.teststeps.NodeSyncMonitorTestSteps#setNodeIds} adds
+ * the node to the nodes of the suite and of its vUser</li>
  * </ul>
+ * Each row is compiled once into a {@link RecordTemplate}; records are rendered lazily while the data source is iterated, so large node sets
+ * are never held in memory and only the fields containing the placeholder are rewritten.
+ * <p></p>
+ * By default one summary line is logged per data source. Every rewritten field can be logged by setting the {@code log.mode} property of the
+ * data provider, or {@code services.nodeSyncMonitor.dataProvider.logMode} for all data providers, to {@code RECORD}; {@code NONE} disables
+ * logging (see {@link LogMode}).
+ * <p></p>
  * The data provider is intended to be used in a {@code DataDriven.properties} file as a class of type DataSource.
  * <p></p>
  * Example usage:
@@ -55,21 +73,105 @@ import com.google.common.collect.Maps;
  * dataprovider.cms.type=class
  * dataprovider.cms.class=com.ericsson.oss.services.nodesyncmonitor.dataprovider.NodeIdDataProvider
  * dataprovider.cms.filename.csv=cmsUsecases.csv
+ * dataprovider.cms.nodes.range=RNC02RBS01..RNC02RBS500
  * </pre>
  */
 public class NodeIdDataProvider {
 
+    /** The nodes under test. */
+    public static final ContextKey<List<String>> NODES_UNDER_TEST = ContextKey.named("rbsNodeIds");
+    /** The node under test, of a vUser working on a single node. */
+    public static final ContextKey<String> NODE_UNDER_TEST = ContextKey.named("rbsNodeId");
+    /** The string replaced with the id of the node in every field of a row. */
+    public static final String RBS_NODE_ID_PLACEHOLDER = "${rbsNodeId}";
+
     private static final String FILENAME_CSV_PROPERTY = "filename.csv";
+    private static final String NODES_RANGE_PROPERTY = "nodes.range";
+    private static final String LOG_MODE_PROPERTY = "log.mode";
+    private static final String DEFAULT_LOG_MODE_PROPERTY = "services.nodeSyncMonitor.dataProvider.logMode";
     private static final Logger LOGGER = LoggerFactory.getLogger(NodeIdDataProvider.class);
-    private static final String[] findList = { "${rbsNodeId}" };
-    private static final String[] replaceList = { (String) DataHandler.getAttribute("rbsNodeId") };
+
+    /**
+     * How much the data provider logs while producing records.
+     */
+    public enum LogMode {
+        /** Nothing is logged. */
+        NONE,
+        /** One line per data source describing the templates and nodes. */
+        SUMMARY,
+        /** As SUMMARY, plus every rendered field of every record. Intended for debugging templates with small node sets. */
+        RECORD
+    }
 
     @DataSource
     public Iterable<Map<String, Object>> data(final ConfigurationSource reader) {
-        final TestDataSource<DataRecord> csvDataSource = getCsvDataSource(reader);
-        final Function<DataRecord, DataRecord> transformFunction = updateDataSourceWithNodeIds();
-        final TestDataSource<DataRecord> modifiedDataSource = transform(csvDataSource, transformFunction);
-        return createIterableDataSource(modifiedDataSource);
+        final List<RecordTemplate> templates = compileTemplates(getCsvDataSource(reader));
+        final Iterable<String> nodeIds = getNodeIds(reader);
+        final LogMode logMode = getLogMode(reader);
+        if (logMode != LogMode.NONE) {
+            LOGGER.info("Expanding {} template row(s) of {} for {}", templates.size(), reader.getProperty(FILENAME_CSV_PROPERTY),
+                    describe(nodeIds));
+        }
+        return expand(templates, nodeIds, logMode == LogMode.RECORD);
+    }
+
+    /**
+     * Lazily expands compiled templates: templates with a placeholder are rendered once per node, the others are returned once.
+     * <p>
+     * This is the expansion behind {@link #data}, without the data source and configuration lookups, so it can be measured on its own (see
+     * {@code NodeIdDataProviderBenchmark}).
+     *
+     * @param templates
+     *            The templates compiled for {@value #RBS_NODE_ID_PLACEHOLDER}.
+     * @param nodeIds
+     *            The ids of the nodes under test.
+     * @param logRecords
+     *            True to log every rewritten field.
+     * @return The records, rendered while they are iterated.
+     */
+    public static Iterable<Map<String, Object>> expand(final List<RecordTemplate> templates, final Iterable<String> nodeIds,
+                                                       final boolean logRecords) {
+        return Iterables.concat(Iterables.transform(templates, expandForNodes(nodeIds, logRecords)));
+    }
+
+    /**
+     * Adds a node to the nodes under test of the suite, unless it is already one of them.
+     *
+     * @param nodeId
+     *            The node id.
+     */
+    public static void addNodeUnderTest(final String nodeId) {
+        final List<String> nodeIds = ScopedContext.getInstance().putIfAbsent(Scope.SUITE, NODES_UNDER_TEST, new CopyOnWriteArrayList<String>());
+        synchronized (nodeIds) {
+            if (!nodeIds.contains(nodeId)) {
+                nodeIds.add(nodeId);
+            }
+        }
+    }
+
+    /**
+     * Keeps the first {@code limit} nodes under test of the suite set by
+     * {@link com.ericsson.oss.services.nodesyncmonitor.teststeps.NodeSyncMonitorTestSteps#setNodeIds}, so the data sources expanded from then
+     * on only hold those nodes.
+     *
+     * @param limit
+     *            The number of nodes to keep, 0 to keep every node.
+     * @return The number of nodes under test.
+     * @throws IllegalStateException
+     *             If no nodes under test are set.
+     */
+    public static int limitNodesUnderTest(final int limit) {
+        final List<String> nodeIds = ScopedContext.getInstance().get(Scope.SUITE, NODES_UNDER_TEST);
+        if (nodeIds == null || nodeIds.isEmpty()) {
+            throw new IllegalStateException("No nodes under test are set");
+        }
+        if (limit > nodeIds.size()) {
+            LOGGER.warn("{} node(s) requested but only {} node(s) under test", limit, nodeIds.size());
+        } else if (limit > 0) {
+            ScopedContext.getInstance().put(Scope.SUITE, NODES_UNDER_TEST, new CopyOnWriteArrayList<>(nodeIds.subList(0, limit)));
+            return limit;
+        }
+        return nodeIds.size();
     }
 
     private TestDataSource<DataRecord> getCsvDataSource(final ConfigurationSource reader) {
@@ -81,34 +183,94 @@ public class NodeIdDataProvider {
         }
     }
 
-    private static Function<DataRecord, DataRecord> updateDataSourceWithNodeIds() {
-        return new Function<DataRecord, DataRecord>() {
+    private static List<RecordTemplate> compileTemplates(final TestDataSource<DataRecord> csvDataSource) {
+        final List<RecordTemplate> templates = Lists.newArrayList();
+        for (final DataRecord dataRecord : csvDataSource) {
+            templates.add(RecordTemplate.compile(dataRecord.getAllFields(), RBS_NODE_ID_PLACEHOLDER));
+        }
+        return templates;
+    }
+
+    private static Iterable<String> getNodeIds(final ConfigurationSource reader) {
+        final String nodesRange = reader.getProperty(NODES_RANGE_PROPERTY);
+        if (StringUtils.isNotBlank(nodesRange)) {
+            final Shard shard = Shard.current();
+            return shard.isSharded() ? Iterables.filter(NodeIdRange.parse(nodesRange), inShard(shard)) : NodeIdRange.parse(nodesRange);
+        }
+        final ScopedContext context = ScopedContext.getInstance();
+        for (final Scope scope : Scope.narrowestFirst()) {
+            final List<String> nodeIds = context.get(scope, NODES_UNDER_TEST);
+            if (nodeIds != null && !nodeIds.isEmpty()) {
+                return nodeIds;
+            }
+            final String nodeId = context.get(scope, NODE_UNDER_TEST);
+            if (nodeId != null) {
+                return Collections.singletonList(nodeId);
+            }
+        }
+        LOGGER.warn("No nodes under test are set, {} will not be replaced", RBS_NODE_ID_PLACEHOLDER);
+        return Collections.emptyList();
+    }
+
+    private static Predicate<String> inShard(final Shard shard) {
+        return new Predicate<String>() {
             @Override
-            public DataRecord apply(final DataRecord input) {
-                final Map<String, Object> data = Maps.newHashMap(input.getAllFields());
-                for (final String fieldName : data.keySet()) {
-                    final String fieldValue = (String) input.getFieldValue(fieldName);
-                    final String updatedFieldValue = updateFieldValue(fieldValue);
-                    LOGGER.info("Replacing field value {} with new value {}", fieldValue, updatedFieldValue);
-                    data.put(fieldName, updatedFieldValue);
-                }
-                return new DataRecordImpl(data);
+            public boolean apply(final String nodeId) {
+                return shard.contains(nodeId);
             }
         };
     }
 
-    private static String updateFieldValue(final String fieldValue) {
-        return StringUtils.replaceEach(fieldValue, findList, replaceList);
+    private static LogMode getLogMode(final ConfigurationSource reader) {
+        final String logMode = reader.getProperty(LOG_MODE_PROPERTY);
+        if (StringUtils.isNotBlank(logMode)) {
+            return LogMode.valueOf(logMode.trim().toUpperCase(Locale.ROOT));
+        }
+        return LogMode.valueOf(getString(DEFAULT_LOG_MODE_PROPERTY, LogMode.SUMMARY.name()).trim().toUpperCase(Locale.ROOT));
     }
 
-    private Iterable<Map<String, Object>> createIterableDataSource(final TestDataSource<DataRecord> modifiedDataSource) {
-        final ArrayList<Map<String, Object>> iterableDataSource = Lists.newArrayList();
-        final Iterator<DataRecord> dataSourceIterator = modifiedDataSource.iterator();
-        while (dataSourceIterator.hasNext()) {
-            final DataRecord dataRecord = dataSourceIterator.next();
-            iterableDataSource.add(dataRecord.getAllFields());
+    /*
+     * The number of nodes and the first and last of them, as the node set may be large.
+     */
+    private static String describe(final Iterable<String> nodeIds) {
+        int count = 0;
+        String first = null;
+        String last = null;
+        for (final String nodeId : nodeIds) {
+            if (count++ == 0) {
+                first = nodeId;
+            }
+            last = nodeId;
+        }
+        if (count == 0) {
+            return "no node";
         }
-        return iterableDataSource;
+        return count == 1 ? "node " + first : String.format("%d nodes, %s to %s", count, first, last);
+    }
+
+    private static Function<RecordTemplate, Iterable<Map<String, Object>>> expandForNodes(final Iterable<String> nodeIds,
+                                                                                           final boolean logRecords) {
+        return new Function<RecordTemplate, Iterable<Map<String, Object>>>() {
+            @Override
+            public Iterable<Map<String, Object>> apply(final RecordTemplate template) {
+                if (!template.hasPlaceholders() || Iterables.isEmpty(nodeIds)) {
+                    return Collections.singletonList(template.getTemplateRow());
+                }
+                return Iterables.transform(nodeIds, new Function<String, Map<String, Object>>() {
+                    @Override
+                    public Map<String, Object> apply(final String nodeId) {
+                        final Map<String, Object> record = template.render(nodeId);
+                        if (logRecords) {
+                            for (final String column : template.getTemplatedColumns()) {
+                                LOGGER.info("Replacing field value {} with new value {}", template.getTemplateRow().get(column),
+                                        record.get(column));
+                            }
+                        }
+                        return record;
+                    }
+                });
+            }
+        };
     }
 
 }
@@ -0,0 +1,114 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.dataprovider;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
+/**
+ * A lazily generated sequence of node ids declared as a comma separated list of ids and ranges, e.g.
+ * {@code RNC02RBS01..RNC02RBS500,RNC03RBS07}.
+ * <p>
+ * Both ends of a range must share the same prefix and end with a number. If the first number has a leading zero, numbers are zero padded to its
+ * width, so {@code RNC02RBS01..RNC02RBS500} yields {@code RNC02RBS01}, ..., {@code RNC02RBS99}, {@code RNC02RBS100}, ..., {@code RNC02RBS500}.
+ */
+public final class NodeIdRange implements Iterable<String> {
+
+    private static final Pattern RANGE_PATTERN = Pattern.compile("^(.*?)(\\d+)\\.\\.(.*?)(\\d+)$");
+    private static final Splitter ELEMENT_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+    private final String specification;
+    private final Iterable<String> nodeIds;
+
+    private NodeIdRange(final String specification, final Iterable<String> nodeIds) {
+        this.specification = specification;
+        this.nodeIds = nodeIds;
+    }
+
+    /**
+     * @param specification
+     *            Comma separated list of node ids and ranges.
+     * @return The node ids declared by the specification.
+     * @throws IllegalArgumentException
+     *             If a range is malformed.
+     */
+    public static NodeIdRange parse(final String specification) {
+        final List<Iterable<String>> elements = Lists.newArrayList();
+        for (final String element : ELEMENT_SPLITTER.split(specification)) {
+            elements.add(element.contains("..") ? parseRange(element) : Collections.singletonList(element));
+        }
+        return new NodeIdRange(specification, Iterables.concat(elements));
+    }
+
+    private static Iterable<String> parseRange(final String range) {
+        final Matcher matcher = RANGE_PATTERN.matcher(range);
+        if (!matcher.matches() || !matcher.group(1).equals(matcher.group(3))) {
+            throw new IllegalArgumentException(String.format("Invalid node id range [%s], expected <prefix><from>..<prefix><to>", range));
+        }
+        final String prefix = matcher.group(1);
+        final String from = matcher.group(2);
+        final int width = from.startsWith("0") ? from.length() : 0;
+        final int first = Integer.parseInt(from);
+        final int last = Integer.parseInt(matcher.group(4));
+        if (last < first) {
+            throw new IllegalArgumentException(String.format("Invalid node id range [%s], end is before start", range));
+        }
+        return new Iterable<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new Iterator<String>() {
+                    private int next = first;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next <= last;
+                    }
+
+                    @Override
+                    public String next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        final String number = width > 0 ? String.format("%0" + width + "d", next) : String.valueOf(next);
+                        next++;
+                        return prefix + number;
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return nodeIds.iterator();
+    }
+
+    @Override
+    public String toString() {
+        return specification;
+    }
+
+}
@@ -0,0 +1,166 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.dataprovider;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+
+/**
+ * A data record template compiled from one CSV row. The positions of the placeholder in every column are found once, when the template is
+ * compiled; rendering a record for a value only rebuilds the columns which contain the placeholder and reuses the other values as they are.
+ */
+public final class RecordTemplate {
+
+    private final Map<String, Object> templateRow;
+    private final Map<String, String[]> templatedColumns;
+
+    private RecordTemplate(final Map<String, Object> templateRow, final Map<String, String[]> templatedColumns) {
+        this.templateRow = templateRow;
+        this.templatedColumns = templatedColumns;
+    }
+
+    /**
+     * @param templateRow
+     *            The fields of the CSV row.
+     * @param placeholder
+     *            The placeholder to replace, e.g. {@code ${rbsNodeId}}.
+     * @return The compiled template.
+     */
+    public static RecordTemplate compile(final Map<String, Object> templateRow, final String placeholder) {
+        final Map<String, String[]> templatedColumns = new LinkedHashMap<>();
+        for (final Map.Entry<String, Object> field : templateRow.entrySet()) {
+            final Object value = field.getValue();
+            if (value instanceof String && ((String) value).contains(placeholder)) {
+                templatedColumns.put(field.getKey(), StringUtils.splitByWholeSeparatorPreserveAllTokens((String) value, placeholder));
+            }
+        }
+        return new RecordTemplate(Collections.unmodifiableMap(templateRow), templatedColumns);
+    }
+
+    /**
+     * @return True if at least one column contains the placeholder.
+     */
+    public boolean hasPlaceholders() {
+        return !templatedColumns.isEmpty();
+    }
+
+    /**
+     * @return The names of the columns which contain the placeholder.
+     */
+    public Set<String> getTemplatedColumns() {
+        return templatedColumns.keySet();
+    }
+
+    /**
+     * @return The fields of the CSV row the template was compiled from.
+     */
+    public Map<String, Object> getTemplateRow() {
+        return templateRow;
+    }
+
+    /**
+     * Renders a record with every placeholder replaced by {@code value}. If the template has no placeholders the template row itself is
+     * returned. Otherwise only the columns containing the placeholder are built; the record is a read only view which takes the other fields
+     * from the template row.
+     *
+     * @param value
+     *            The replacement value.
+     * @return The fields of the rendered record.
+     */
+    public Map<String, Object> render(final String value) {
+        if (templatedColumns.isEmpty()) {
+            return templateRow;
+        }
+        final Map<String, Object> renderedColumns = Maps.newHashMapWithExpectedSize(templatedColumns.size());
+        for (final Map.Entry<String, String[]> column : templatedColumns.entrySet()) {
+            renderedColumns.put(column.getKey(), join(column.getValue(), value));
+        }
+        return new RenderedRecord(templateRow, renderedColumns);
+    }
+
+    private static String join(final String[] segments, final String value) {
+        int length = value.length() * (segments.length - 1);
+        for (final String segment : segments) {
+            length += segment.length();
+        }
+        final StringBuilder builder = new StringBuilder(length).append(segments[0]);
+        for (int i = 1; i < segments.length; i++) {
+            builder.append(value).append(segments[i]);
+        }
+        return builder.toString();
+    }
+
+    /*
+     * The fields of the template row, with the rendered columns in place of the templated ones, in the order of the template row.
+     */
+    private static final class RenderedRecord extends AbstractMap<String, Object> {
+
+        private final Map<String, Object> templateRow;
+        private final Map<String, Object> renderedColumns;
+        private final Function<Map.Entry<String, Object>, Map.Entry<String, Object>> renderField =
+                new Function<Map.Entry<String, Object>, Map.Entry<String, Object>>() {
+                    @Override
+                    public Map.Entry<String, Object> apply(final Map.Entry<String, Object> field) {
+                        return renderedColumns.containsKey(field.getKey())
+                                ? Maps.immutableEntry(field.getKey(), renderedColumns.get(field.getKey())) : field;
+                    }
+                };
+
+        private RenderedRecord(final Map<String, Object> templateRow, final Map<String, Object> renderedColumns) {
+            this.templateRow = templateRow;
+            this.renderedColumns = renderedColumns;
+        }
+
+        @Override
+        public Object get(final Object key) {
+            return renderedColumns.containsKey(key) ? renderedColumns.get(key) : templateRow.get(key);
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return templateRow.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return templateRow.size();
+        }
+
+        @Override
+        public Set<Map.Entry<String, Object>> entrySet() {
+            return new AbstractSet<Map.Entry<String, Object>>() {
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator() {
+                    return Iterators.transform(templateRow.entrySet().iterator(), renderField);
+                }
+
+                @Override
+                public int size() {
+                    return templateRow.size();
+                }
+            };
+        }
+    }
+
+}
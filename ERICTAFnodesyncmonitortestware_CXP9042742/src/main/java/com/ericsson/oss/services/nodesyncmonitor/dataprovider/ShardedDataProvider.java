@@ -0,0 +1,88 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.dataprovider;
+
+import static com.ericsson.cifwk.taf.datasource.TafDataSources.fromTafDataProvider;
+
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.cifwk.taf.annotations.DataSource;
+import com.ericsson.cifwk.taf.datasource.ConfigurationSource;
+import com.ericsson.cifwk.taf.datasource.DataRecord;
+import com.ericsson.oss.services.nodesyncmonitor.shard.Shard;
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.collect.Iterables;
+
+/**
+ * Data provider which keeps the records of another data source whose node belongs to the shard of this executor (see {@link Shard}), so that
+ * every TAF executor started with {@code -Dshard=<i>/<N>} only sets up, triggers and tears down its own nodes. Records are filtered lazily
+ * while the data source is iterated. Without the {@code shard} property every record is kept.
+ * <p></p>
+ * The data provider is intended to be used in a {@code DataDriven.properties} file as a class of type DataSource, reading the data provider
+ * named by its {@code source} property:
+ * <p></p>
+ *
+ * <pre>
+ * dataprovider.allNodesToAdd.type=class
+ * dataprovider.allNodesToAdd.class=com.ericsson.oss.testware.network.operators.netsim.NetsimDataProvider
+ * dataprovider.allNodesToAdd.nodes.csv=setup/nodesToAdd.csv
+ *
+ * dataprovider.nodesToAdd.type=class
+ * dataprovider.nodesToAdd.class=com.ericsson.oss.services.nodesyncmonitor.dataprovider.ShardedDataProvider
+ * dataprovider.nodesToAdd.source=allNodesToAdd
+ * </pre>
+ */
+public class ShardedDataProvider {
+
+    private static final String SOURCE_PROPERTY = "source";
+    private static final String NODE_ID_COLUMN_PROPERTY = "nodeId.column";
+    private static final String DEFAULT_NODE_ID_COLUMN = "networkElementId";
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardedDataProvider.class);
+
+    @DataSource
+    public Iterable<Map<String, Object>> data(final ConfigurationSource reader) {
+        final String source = reader.getProperty(SOURCE_PROPERTY);
+        if (StringUtils.isBlank(source)) {
+            throw new IllegalArgumentException(String.format("%s property is not provided", SOURCE_PROPERTY));
+        }
+        final String nodeIdColumn = StringUtils.defaultIfBlank(reader.getProperty(NODE_ID_COLUMN_PROPERTY), DEFAULT_NODE_ID_COLUMN);
+        final Shard shard = Shard.current();
+        LOGGER.info("Keeping the records of {} whose {} belongs to shard {}", source, nodeIdColumn, shard);
+        return Iterables.transform(Iterables.filter(fromTafDataProvider(source), inShard(shard, nodeIdColumn)),
+                new Function<DataRecord, Map<String, Object>>() {
+                    @Override
+                    public Map<String, Object> apply(final DataRecord dataRecord) {
+                        return dataRecord.getAllFields();
+                    }
+                });
+    }
+
+    private static Predicate<DataRecord> inShard(final Shard shard, final String nodeIdColumn) {
+        return new Predicate<DataRecord>() {
+            @Override
+            public boolean apply(final DataRecord dataRecord) {
+                final Object nodeId = dataRecord.getFieldValue(nodeIdColumn);
+                if (nodeId == null) {
+                    throw new IllegalArgumentException(String.format("Record %s has no %s to shard on", dataRecord, nodeIdColumn));
+                }
+                return shard.contains(nodeId.toString());
+            }
+        };
+    }
+
+}
@@ -0,0 +1,78 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.dataprovider;
+
+import static com.ericsson.cifwk.taf.datasource.TafDataSources.fromTafDataProvider;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.cifwk.taf.annotations.DataSource;
+import com.ericsson.cifwk.taf.datasource.ConfigurationSource;
+import com.ericsson.cifwk.taf.datasource.DataRecord;
+import com.ericsson.oss.services.nodesyncmonitor.shard.Shard;
+import com.google.common.base.Function;
+import com.google.common.collect.Iterables;
+
+/**
+ * Data provider which gives every user of another data source a name of its own on each shard (see {@link Shard#qualify}), so that TAF
+ * executors started with {@code -Dshard=<i>/<N>} do not create, log in as and delete each other's users. Without the {@code shard} property
+ * the records are returned unchanged.
+ * <p></p>
+ * The data provider is intended to be used in a {@code DataDriven.properties} file as a class of type DataSource, reading the data provider
+ * named by its {@code source} property:
+ * <p></p>
+ *
+ * <pre>
+ * dataprovider.allUsersToCreate.type=csv
+ * dataprovider.allUsersToCreate.location=setup/usersToCreate.csv
+ *
+ * dataprovider.usersToCreate.type=class
+ * dataprovider.usersToCreate.class=com.ericsson.oss.services.nodesyncmonitor.dataprovider.ShardedUserDataProvider
+ * dataprovider.usersToCreate.source=allUsersToCreate
+ * </pre>
+ */
+public class ShardedUserDataProvider {
+
+    private static final String SOURCE_PROPERTY = "source";
+    private static final String USERNAME_COLUMN_PROPERTY = "username.column";
+    private static final String DEFAULT_USERNAME_COLUMN = "username";
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardedUserDataProvider.class);
+
+    @DataSource
+    public Iterable<Map<String, Object>> data(final ConfigurationSource reader) {
+        final String source = reader.getProperty(SOURCE_PROPERTY);
+        if (StringUtils.isBlank(source)) {
+            throw new IllegalArgumentException(String.format("%s property is not provided", SOURCE_PROPERTY));
+        }
+        final String usernameColumn = StringUtils.defaultIfBlank(reader.getProperty(USERNAME_COLUMN_PROPERTY), DEFAULT_USERNAME_COLUMN);
+        final Shard shard = Shard.current();
+        LOGGER.info("Qualifying the {} of {} for shard {}", usernameColumn, source, shard);
+        return Iterables.transform(fromTafDataProvider(source), new Function<DataRecord, Map<String, Object>>() {
+            @Override
+            public Map<String, Object> apply(final DataRecord dataRecord) {
+                final Map<String, Object> fields = new HashMap<>(dataRecord.getAllFields());
+                final Object username = fields.get(usernameColumn);
+                if (username != null) {
+                    fields.put(usernameColumn, shard.qualify(username.toString()));
+                }
+                return fields;
+            }
+        });
+    }
+
+}
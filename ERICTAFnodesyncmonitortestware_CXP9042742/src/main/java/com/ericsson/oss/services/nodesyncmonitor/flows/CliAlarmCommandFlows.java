@@ -45,4 +45,72 @@ public class CliAlarmCommandFlows {
                 .withDataSources(dataSource(dataSourceName).bindTo(CLI_COMMANDS_DS));
     }
 
+    /**
+     * Flow to repeatedly execute alarm commands on the ENM Cli until the response matches the expected one or the alarm await timeout expires.
+     * The datasource shall have the same columns as for {@link #sendCliAlarmCommand(String)}.
+     *
+     * @return TestStepFlowBuilder
+     */
+    public TestStepFlowBuilder awaitCliAlarmCommand(final String dataSourceName) {
+        return flow("Await Cli Alarm Command")
+                .addTestStep(annotatedMethod(cliAlarmCommandTestSteps, CliAlarmCommandTestSteps.StepIds.AWAIT_CLI_ALARM_COMMAND))
+                .withDataSources(dataSource(dataSourceName).bindTo(CLI_COMMANDS_DS));
+    }
+
+    /**
+     * Flow to await the alarm raised on each node and record the raise latency.
+     * The datasource shall have the same columns as for {@link #sendCliAlarmCommand(String)}, and a "networkElementId" column.
+     *
+     * @return TestStepFlowBuilder
+     */
+    public TestStepFlowBuilder awaitAlarmRaised(final String dataSourceName) {
+        return flow("Await Alarm Raised")
+                .addTestStep(annotatedMethod(cliAlarmCommandTestSteps, CliAlarmCommandTestSteps.StepIds.AWAIT_ALARM_RAISED))
+                .withDataSources(dataSource(dataSourceName).bindTo(CLI_COMMANDS_DS));
+    }
+
+    /**
+     * As {@link #awaitAlarmRaised(String)}, with the datasource shared by the vUsers the flow runs in, so each node is awaited by one of them.
+     *
+     * @return TestStepFlowBuilder
+     */
+    public TestStepFlowBuilder awaitAlarmRaisedShared(final String dataSourceName) {
+        return flow("Await Alarm Raised")
+                .addTestStep(annotatedMethod(cliAlarmCommandTestSteps, CliAlarmCommandTestSteps.StepIds.AWAIT_ALARM_RAISED))
+                .withDataSources(dataSource(dataSourceName).bindTo(CLI_COMMANDS_DS).shared());
+    }
+
+    /**
+     * Flow to await the alarm cleared on each node and record the clear latency.
+     * The datasource shall have the same columns as for {@link #sendCliAlarmCommand(String)}, and a "networkElementId" column.
+     *
+     * @return TestStepFlowBuilder
+     */
+    public TestStepFlowBuilder awaitAlarmCleared(final String dataSourceName) {
+        return flow("Await Alarm Cleared")
+                .addTestStep(annotatedMethod(cliAlarmCommandTestSteps, CliAlarmCommandTestSteps.StepIds.AWAIT_ALARM_CLEARED))
+                .withDataSources(dataSource(dataSourceName).bindTo(CLI_COMMANDS_DS));
+    }
+
+    /**
+     * Flow to await the alarm raised on every node to stop or start, queried in batches, and record the raise latency of each node.
+     * The "nodeToStopOrStart" datasource shall be in the test context, with a "networkElementId" column.
+     *
+     * @return TestStepFlowBuilder
+     */
+    public TestStepFlowBuilder awaitAlarmsRaisedBatched() {
+        return flow("Await Alarms Raised Batched")
+                .addTestStep(annotatedMethod(cliAlarmCommandTestSteps, CliAlarmCommandTestSteps.StepIds.AWAIT_ALARMS_RAISED_BATCHED));
+    }
+
+    /**
+     * As {@link #awaitAlarmsRaisedBatched()}, for the alarm cleared on every node to stop or start, and records the clear latency of each node.
+     *
+     * @return TestStepFlowBuilder
+     */
+    public TestStepFlowBuilder awaitAlarmsClearedBatched() {
+        return flow("Await Alarms Cleared Batched")
+                .addTestStep(annotatedMethod(cliAlarmCommandTestSteps, CliAlarmCommandTestSteps.StepIds.AWAIT_ALARMS_CLEARED_BATCHED));
+    }
+
 }
@@ -0,0 +1,117 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.flows;
+
+import static com.ericsson.cifwk.taf.scenario.TestScenarios.annotatedMethod;
+import static com.ericsson.cifwk.taf.scenario.TestScenarios.dataSource;
+import static com.ericsson.cifwk.taf.scenario.TestScenarios.flow;
+import static com.ericsson.oss.services.nodesyncmonitor.teststeps.CleanupTestSteps.StepIds.RECORD_ADDED_NODE;
+import static com.ericsson.oss.services.nodesyncmonitor.teststeps.CleanupTestSteps.StepIds.RECORD_CREATED_USERS;
+import static com.ericsson.oss.services.nodesyncmonitor.teststeps.CleanupTestSteps.StepIds.RELEASE_DELETED_NODE;
+import static com.ericsson.oss.services.nodesyncmonitor.teststeps.CleanupTestSteps.StepIds.RELEASE_DELETED_USERS;
+import static com.ericsson.oss.testware.enmbase.data.CommonDataSources.AVAILABLE_USERS;
+import static com.ericsson.oss.testware.enmbase.data.CommonDataSources.USERS_TO_CREATE;
+import static com.ericsson.oss.testware.enmbase.data.CommonDataSources.USERS_TO_DELETE;
+import static com.ericsson.oss.testware.security.gim.flows.GimCleanupFlows.EnmObjectType.USER;
+
+import javax.inject.Inject;
+
+import com.ericsson.cifwk.taf.TestContext;
+import com.ericsson.cifwk.taf.scenario.TestStepFlow;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.DeploymentFlows;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.Gateways;
+import com.ericsson.oss.services.nodesyncmonitor.teststeps.CleanupTestSteps;
+import com.ericsson.oss.services.nodesyncmonitor.teststeps.SessionTestSteps;
+import com.ericsson.oss.testware.nodeintegration.flows.NodeIntegrationFlows;
+import com.ericsson.oss.testware.security.gim.flows.GimCleanupFlows;
+import com.ericsson.oss.testware.security.gim.flows.UserManagementTestFlows;
+
+/**
+ * The deployment flows of a deployment under test, taken from the user management, node integration and security testware. The flows of
+ * this testware get them from {@link Gateways#deploymentFlows(DeploymentFlows)}.
+ */
+public class EnmDeploymentFlows implements DeploymentFlows {
+
+    @Inject
+    private TestContext context;
+
+    @Inject
+    private GimCleanupFlows idmCleanupFlows;
+
+    @Inject
+    private UserManagementTestFlows userManagementTestFlows;
+
+    @Inject
+    private NodeIntegrationFlows nodeIntegrationFlows;
+
+    @Inject
+    private CleanupTestSteps cleanupTestSteps;
+
+    @Inject
+    private SessionTestSteps sessionTestSteps;
+
+    @Override
+    public TestStepFlow cleanUpUsers() {
+        return idmCleanupFlows.cleanUp(USER);
+    }
+
+    @Override
+    public TestStepFlow createUsers() {
+        return flow("Create Users flow")
+                .addSubFlow(userManagementTestFlows.createUserWithoutRoleVerification())
+                .addTestStep(annotatedMethod(cleanupTestSteps, RECORD_CREATED_USERS))
+                .build();
+    }
+
+    @Override
+    public TestStepFlow deleteUsers() {
+        context.addDataSource(USERS_TO_DELETE, context.dataSource(AVAILABLE_USERS));
+        return flow("Delete Users flow")
+                .addSubFlow(userManagementTestFlows.deleteUser())
+                .addTestStep(annotatedMethod(cleanupTestSteps, RELEASE_DELETED_USERS))
+                .build();
+    }
+
+    /**
+     * The credentials are taken from the users to create data source.
+     */
+    @Override
+    public TestStepFlow useSession(final String username) {
+        return flow("Use session of " + username)
+                .addTestStep(annotatedMethod(sessionTestSteps, SessionTestSteps.StepIds.USE_SESSION))
+                .withDataSources(dataSource(USERS_TO_CREATE).withFilter(SessionTestSteps.USERNAME + " == '" + username + "'"))
+                .build();
+    }
+
+    @Override
+    public TestStepFlow addNode() {
+        return flow("Add node flow")
+                .addSubFlow(nodeIntegrationFlows.addNode())
+                .addTestStep(annotatedMethod(cleanupTestSteps, RECORD_ADDED_NODE))
+                .build();
+    }
+
+    @Override
+    public TestStepFlow syncNode() {
+        return nodeIntegrationFlows.syncNode();
+    }
+
+    @Override
+    public TestStepFlow deleteNode() {
+        return flow("Delete node flow")
+                .addSubFlow(nodeIntegrationFlows.deleteNode())
+                .addTestStep(annotatedMethod(cleanupTestSteps, RELEASE_DELETED_NODE))
+                .build();
+    }
+
+}
@@ -0,0 +1,188 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.flows;
+
+import static com.ericsson.cifwk.taf.scenario.TestScenarios.flow;
+import static com.ericsson.cifwk.taf.scenario.TestScenarios.scenario;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.cifwk.taf.scenario.TestScenario;
+import com.ericsson.cifwk.taf.scenario.TestStepFlow;
+import com.ericsson.cifwk.taf.scenario.api.TestScenarioBuilder;
+import com.ericsson.cifwk.taf.scenario.api.TestStepFlowBuilder;
+import com.google.common.base.Joiner;
+
+/**
+ * Flows which declare the flows they depend on, run as a scenario in which independent flows run concurrently.
+ * <p>
+ * The flows are run in stages. Each stage starts the flows whose prerequisites have all run, each as the head of a branch; a branch goes on
+ * with the only flow depending on its last flow, as long as every other prerequisite of that flow has run in an earlier stage or the branch.
+ * Flows depending on the same flow are left to the next stage, where they run side by side. The branches of a
+ * stage run concurrently ({@link TestScenarioBuilder#split}) and are joined before the next stage, so the flows on different systems overlap
+ * and a chain of dependent flows is not held up by the branches beside it.
+ * <p>
+ * A prerequisite must be added before the flows depending on it, so the graph has no cycle. Note that a branch runs on its own thread: a flow
+ * relying on state bound to the running vUser (e.g. the session, see {@link SessionFlows}) must bind it itself.
+ */
+public final class FlowGraph {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlowGraph.class);
+    private static final Joiner NAME_JOINER = Joiner.on(" then ");
+
+    private final Map<String, TestStepFlow> flows = new LinkedHashMap<>();
+    private final Map<String, Set<String>> prerequisites = new LinkedHashMap<>();
+    private boolean alwaysRun;
+
+    /**
+     * @param name
+     *            The name of the flow in the graph.
+     * @param flow
+     *            The flow.
+     * @param prerequisiteNames
+     *            The names of the flows which must have run before it.
+     * @return This graph.
+     * @throws IllegalArgumentException
+     *             If the name is already used, or a prerequisite was not added before.
+     */
+    public FlowGraph add(final String name, final TestStepFlow flow, final String... prerequisiteNames) {
+        if (prerequisites.containsKey(name)) {
+            throw new IllegalArgumentException(String.format("Flow [%s] is already in the graph", name));
+        }
+        for (final String prerequisite : prerequisiteNames) {
+            if (!prerequisites.containsKey(prerequisite)) {
+                throw new IllegalArgumentException(String.format("Prerequisite [%s] of flow [%s] is not in the graph", prerequisite, name));
+            }
+        }
+        flows.put(name, flow);
+        prerequisites.put(name, new HashSet<>(Arrays.asList(prerequisiteNames)));
+        return this;
+    }
+
+    /**
+     * Runs every stage of the scenario even if an earlier one failed, e.g. for a teardown.
+     *
+     * @return This graph.
+     */
+    public FlowGraph alwaysRun() {
+        alwaysRun = true;
+        return this;
+    }
+
+    /**
+     * @return The names of the flows, as the branches of every stage in the order they run.
+     */
+    public List<List<List<String>>> stages() {
+        final List<List<List<String>>> stages = new ArrayList<>();
+        final Set<String> done = new HashSet<>();
+        while (done.size() < prerequisites.size()) {
+            final List<List<String>> stage = new ArrayList<>();
+            final Set<String> claimed = new HashSet<>();
+            for (final String head : prerequisites.keySet()) {
+                if (!claimed.contains(head) && !done.contains(head) && done.containsAll(prerequisites.get(head))) {
+                    stage.add(branch(head, done, claimed));
+                }
+            }
+            done.addAll(claimed);
+            stages.add(stage);
+        }
+        return stages;
+    }
+
+    /**
+     * @param name
+     *            The name of the scenario.
+     * @return A scenario running every flow of the graph, by stage.
+     */
+    public TestScenario toScenario(final String name) {
+        final List<List<List<String>>> stages = stages();
+        LOGGER.info("{} runs in {} stage(s): {}", name, stages.size(), stages);
+        final TestScenarioBuilder scenario = scenario(name);
+        for (final List<List<String>> stage : stages) {
+            if (stage.size() == 1) {
+                for (final String flowName : stage.get(0)) {
+                    scenario.addFlow(flows.get(flowName));
+                    if (alwaysRun) {
+                        scenario.alwaysRun();
+                    }
+                }
+            } else {
+                final List<TestStepFlow> branches = new ArrayList<>();
+                for (final List<String> branch : stage) {
+                    branches.add(toFlow(branch));
+                }
+                scenario.split(branches.toArray(new TestStepFlow[branches.size()]));
+                if (alwaysRun) {
+                    scenario.alwaysRun();
+                }
+            }
+        }
+        return scenario.build();
+    }
+
+    private List<String> branch(final String head, final Set<String> done, final Set<String> claimed) {
+        final List<String> branch = new ArrayList<>(Collections.singletonList(head));
+        claimed.add(head);
+        String last = head;
+        for (String next = next(last, branch, done, claimed); next != null; next = next(last, branch, done, claimed)) {
+            branch.add(next);
+            claimed.add(next);
+            last = next;
+        }
+        return branch;
+    }
+
+    /*
+     * The only flow depending on the last flow of the branch, if its other prerequisites have run in earlier stages or in the branch.
+     */
+    private String next(final String last, final List<String> branch, final Set<String> done, final Set<String> claimed) {
+        String dependent = null;
+        for (final Map.Entry<String, Set<String>> entry : prerequisites.entrySet()) {
+            if (!done.contains(entry.getKey()) && !claimed.contains(entry.getKey()) && entry.getValue().contains(last)) {
+                if (dependent != null) {
+                    return null;
+                }
+                dependent = entry.getKey();
+            }
+        }
+        if (dependent == null) {
+            return null;
+        }
+        final Set<String> pending = new HashSet<>(prerequisites.get(dependent));
+        pending.removeAll(done);
+        pending.removeAll(branch);
+        return pending.isEmpty() ? dependent : null;
+    }
+
+    private TestStepFlow toFlow(final List<String> branch) {
+        if (branch.size() == 1) {
+            return flows.get(branch.get(0));
+        }
+        final TestStepFlowBuilder flow = flow(NAME_JOINER.join(branch));
+        for (final String flowName : branch) {
+            flow.addSubFlow(flows.get(flowName));
+        }
+        return flow.build();
+    }
+
+}
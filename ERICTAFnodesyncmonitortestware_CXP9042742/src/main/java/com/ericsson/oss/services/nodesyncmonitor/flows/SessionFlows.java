@@ -0,0 +1,77 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.flows;
+
+import static com.ericsson.cifwk.taf.scenario.TestScenarios.annotatedMethod;
+import static com.ericsson.cifwk.taf.scenario.TestScenarios.flow;
+
+import javax.inject.Inject;
+
+import com.ericsson.cifwk.taf.scenario.TestStepFlow;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.Gateways;
+import com.ericsson.oss.services.nodesyncmonitor.session.SessionPool;
+import com.ericsson.oss.services.nodesyncmonitor.teststeps.SessionTestSteps;
+
+/**
+ * Flows using the authenticated sessions of the {@link SessionPool} instead of logging in and out in every scenario.
+ */
+public class SessionFlows {
+
+    @Inject
+    private SessionTestSteps sessionTestSteps;
+
+    @Inject
+    private EnmDeploymentFlows enmDeploymentFlows;
+
+    /**
+     * Flow which lends a pooled session of a user to the vUser running it (see {@link Gateways#deploymentFlows}).
+     *
+     * @param username
+     *            The user.
+     * @return The flow.
+     */
+    public TestStepFlow useSession(final String username) {
+        return Gateways.deploymentFlows(enmDeploymentFlows).useSession(username);
+    }
+
+    /**
+     * Flow which lends a pooled session of a user before running a flow, for flows which run on another thread than the other flows of the
+     * scenario, e.g. in a branch of a {@link FlowGraph} or in several vUsers.
+     *
+     * @param username
+     *            The user.
+     * @param name
+     *            The name of the flow.
+     * @param body
+     *            The flow to run as the user.
+     * @return The flow.
+     */
+    public TestStepFlow withSession(final String username, final String name, final TestStepFlow body) {
+        return flow(name + " as " + username)
+                .addSubFlow(useSession(username))
+                .addSubFlow(body)
+                .build();
+    }
+
+    /**
+     * Flow which logs out every pooled session.
+     *
+     * @return The flow.
+     */
+    public TestStepFlow closeSessions() {
+        return flow("Close sessions")
+                .addTestStep(annotatedMethod(sessionTestSteps, SessionTestSteps.StepIds.CLOSE_SESSIONS))
+                .build();
+    }
+
+}
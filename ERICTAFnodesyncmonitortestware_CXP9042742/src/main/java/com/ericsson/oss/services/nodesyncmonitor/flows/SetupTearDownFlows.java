@@ -15,42 +15,59 @@ package com.ericsson.oss.services.nodesyncmonitor.flows;
 import static com.ericsson.cifwk.taf.scenario.TestScenarios.annotatedMethod;
 import static com.ericsson.cifwk.taf.scenario.TestScenarios.dataSource;
 import static com.ericsson.cifwk.taf.scenario.TestScenarios.flow;
+import static com.ericsson.oss.services.nodesyncmonitor.teststeps.CleanupTestSteps.StepIds.RECORD_EXISTING_NODES;
+import static com.ericsson.oss.services.nodesyncmonitor.teststeps.CmFunctionTestSteps.StepIds.RESYNC_NODE;
+import static com.ericsson.oss.services.nodesyncmonitor.teststeps.CmFunctionTestSteps.StepIds.SYNC_NODE;
+import static com.ericsson.oss.services.nodesyncmonitor.teststeps.CmFunctionTestSteps.StepIds.TRIGGER_FAILED_SYNC;
+import static com.ericsson.oss.services.nodesyncmonitor.teststeps.CmFunctionTestSteps.StepIds.TRIGGER_FAILED_SYNCS_PAST_THRESHOLD;
+import static com.ericsson.oss.services.nodesyncmonitor.teststeps.NetSimTestSteps.NODE_TO_STOP_OR_START;
+import static com.ericsson.oss.services.nodesyncmonitor.teststeps.NetSimTestSteps.StepIds.RESTORE_NE_STATES_IN_NETSIM;
 import static com.ericsson.oss.services.nodesyncmonitor.teststeps.NetSimTestSteps.StepIds.RESTORE_NE_STATE_IN_NETSIM;
+import static com.ericsson.oss.services.nodesyncmonitor.teststeps.NetSimTestSteps.StepIds.RESTORE_NETSIM_NES_IN_NETSIM;
+import static com.ericsson.oss.services.nodesyncmonitor.teststeps.NetSimTestSteps.StepIds.START_NODES_IN_NETSIM;
 import static com.ericsson.oss.services.nodesyncmonitor.teststeps.NetSimTestSteps.StepIds.START_NODE_IN_NETSIM;
+import static com.ericsson.oss.services.nodesyncmonitor.teststeps.NetSimTestSteps.StepIds.STOP_NODES_IN_NETSIM;
 import static com.ericsson.oss.services.nodesyncmonitor.teststeps.NetSimTestSteps.StepIds.STOP_NODE_IN_NETSIM;
 import static com.ericsson.oss.services.nodesyncmonitor.teststeps.NodeSyncMonitorTestSteps.StepIds.DISABLE_CM_NODE_SYNC_MONITOR_FEATURE;
 import static com.ericsson.oss.services.nodesyncmonitor.teststeps.NodeSyncMonitorTestSteps.StepIds.ENABLE_CM_NODE_SYNC_MONITOR_FEATURE;
+import static com.ericsson.oss.services.nodesyncmonitor.teststeps.NodeSyncMonitorTestSteps.StepIds.MARK_RESYNC_SENT;
 import static com.ericsson.oss.services.nodesyncmonitor.teststeps.NodeSyncMonitorTestSteps.StepIds.SET_NODE_IDS;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getBoolean;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getInt;
 import static com.ericsson.oss.testware.cm.cruda.flows.CrudaFlows.DataSources.CMEDIT_ACTION_DATA_SOURCE;
 import static com.ericsson.oss.testware.enmbase.data.CommonDataSources.ADDED_NODES;
-import static com.ericsson.oss.testware.enmbase.data.CommonDataSources.AVAILABLE_USERS;
 import static com.ericsson.oss.testware.enmbase.data.CommonDataSources.NODES_TO_ADD;
-import static com.ericsson.oss.testware.enmbase.data.CommonDataSources.USERS_TO_DELETE;
 import static com.ericsson.oss.testware.fm.api.constants.FmCommonDataSources.CLI_COMMANDS_DS;
 
 import javax.inject.Inject;
 
-import com.ericsson.cifwk.taf.TestContext;
 import com.ericsson.cifwk.taf.scenario.TestStepFlow;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.DeploymentFlows;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.Gateways;
+import com.ericsson.oss.services.nodesyncmonitor.teststeps.CleanupTestSteps;
+import com.ericsson.oss.services.nodesyncmonitor.teststeps.CmFunctionTestSteps;
 import com.ericsson.oss.services.nodesyncmonitor.teststeps.NetSimTestSteps;
 import com.ericsson.oss.services.nodesyncmonitor.teststeps.NodeSyncMonitorTestSteps;
-import com.ericsson.oss.testware.cm.cruda.flows.CrudaFlows;
-import com.ericsson.oss.testware.nodeintegration.flows.NodeIntegrationFlows;
-import com.ericsson.oss.testware.security.gim.flows.UserManagementTestFlows;
 
 public class SetupTearDownFlows {
 
-    @Inject
-    private UserManagementTestFlows userManagementTestFlows;
+    /*
+     * When true the NetSim flows act on all nodes of their data source in one test step, batched per simulation, instead of one test step per
+     * node.
+     */
+    private static final String NETSIM_BATCHED_PROPERTY = "services.nodeSyncMonitor.netsim.batched";
 
-    @Inject
-    private TestContext context;
+    /*
+     * When higher than 1 the nodes are added and synced by this number of vUsers sharing the nodes to add data source, and synced with at most
+     * services.nodeSyncMonitor.setup.maxInFlightSyncs syncs in flight. Otherwise one node at a time.
+     */
+    private static final String SETUP_WORKERS_PROPERTY = "services.nodeSyncMonitor.setup.workers";
 
     @Inject
-    private NodeIntegrationFlows nodeIntegrationFlows;
+    private EnmDeploymentFlows enmDeploymentFlows;
 
     @Inject
-    private CrudaFlows crudaFlows;
+    private CmFunctionTestSteps cmFunctionTestSteps;
 
     @Inject
     private NetSimTestSteps netsimTestSteps;
@@ -61,7 +78,15 @@ public class SetupTearDownFlows {
     @Inject
     private CliAlarmCommandFlows cliAlarmCommandFlows;
 
+    @Inject
+    private CleanupTestSteps cleanupTestSteps;
+
     public TestStepFlow restoreNeState() {
+        if (isNetSimBatched()) {
+            return flow("Restore state of NEs in Netsim flow")
+                    .addTestStep(annotatedMethod(netsimTestSteps, RESTORE_NE_STATES_IN_NETSIM))
+                    .build();
+        }
         return flow("Restore state of NEs in Netsim flow")
                 .addTestStep(annotatedMethod(netsimTestSteps, RESTORE_NE_STATE_IN_NETSIM))
                 .withDataSources(dataSource(NODES_TO_ADD))
@@ -88,9 +113,18 @@ public class SetupTearDownFlows {
     }
 
     public TestStepFlow addAndSyncNodes() {
+        final int workers = getSetupWorkers();
+        if (workers > 1) {
+            return flow("Add and Sync Nodes flow")
+                    .addSubFlow(deploymentFlows().addNode())
+                    .addTestStep(annotatedMethod(cmFunctionTestSteps, SYNC_NODE))
+                    .withVusers(workers)
+                    .withDataSources(dataSource(NODES_TO_ADD).shared())
+                    .build();
+        }
         return flow("Add and Sync Nodes flow")
-                .addSubFlow(nodeIntegrationFlows.addNode())
-                .addSubFlow(nodeIntegrationFlows.syncNode())
+                .addSubFlow(deploymentFlows().addNode())
+                .addSubFlow(deploymentFlows().syncNode())
                 .withDataSources(dataSource(NODES_TO_ADD))
                 .build();
     }
@@ -102,49 +136,122 @@ public class SetupTearDownFlows {
     }
 
     public TestStepFlow resyncNodes() {
+        final int workers = getSetupWorkers();
+        if (workers > 1) {
+            return flow("Resync Nodes flow")
+                    .addTestStep(annotatedMethod(cmFunctionTestSteps, RESYNC_NODE))
+                    .withVusers(workers)
+                    .withDataSources(dataSource(NODES_TO_ADD).shared())
+                    .build();
+        }
         return flow("Resync Nodes flow")
-                .addSubFlow(nodeIntegrationFlows.syncNode())
+                .addTestStep(annotatedMethod(nodeSyncMonitorTestSteps, MARK_RESYNC_SENT))
+                .addSubFlow(deploymentFlows().syncNode())
                 .withDataSources(dataSource(NODES_TO_ADD))
                 .build();
     }
 
     public TestStepFlow stopNodeInNetsim() {
+        if (isNetSimBatched()) {
+            return flow("Stop node in netsim flow")
+                    .addTestStep(annotatedMethod(netsimTestSteps, STOP_NODES_IN_NETSIM))
+                    .build();
+        }
         return flow("Stop node in netsim flow")
                 .addTestStep(annotatedMethod(netsimTestSteps, STOP_NODE_IN_NETSIM))
-                .withDataSources(dataSource("nodeToStopOrStart"))
+                .withDataSources(dataSource(NODE_TO_STOP_OR_START))
                 .build();
     }
 
     /*
-     * Flow that increments the CmFunction FailedSyncsCount attribute by triggering a manual sync of the node. Note that the node must be stopped in
-     * netsim before calling this flow.
+     * Flow that increments the CmFunction FailedSyncsCount attribute by triggering a manual sync of the node and waiting until the sync has
+     * failed. Note that the node must be stopped in netsim and a user must be logged in before calling this flow.
      */
     public TestStepFlow incrementFailedSyncsCount() {
         return flow("Increment the failed sync count flow")
-                .addSubFlow(crudaFlows.cmEditAction())
+                .addTestStep(annotatedMethod(cmFunctionTestSteps, TRIGGER_FAILED_SYNC))
                 .withDataSources(dataSource(CMEDIT_ACTION_DATA_SOURCE))
                 .build();
     }
 
+    /*
+     * Flow that syncs every node of the CmEdit action data source until it is past the failed sync threshold. The data source is shared, so
+     * when the flow runs in several vUsers each node is handled by one of them. Note that the nodes must be stopped in netsim and a user must be
+     * logged in before calling this flow.
+     */
+    public TestStepFlow pushNodesPastFailedSyncThreshold() {
+        return flow("Push nodes past the failed sync threshold flow")
+                .addTestStep(annotatedMethod(cmFunctionTestSteps, TRIGGER_FAILED_SYNCS_PAST_THRESHOLD))
+                .withDataSources(dataSource(CMEDIT_ACTION_DATA_SOURCE).shared())
+                .build();
+    }
+
     public TestStepFlow startNodeInNetsim() {
+        if (isNetSimBatched()) {
+            return flow("Start node in netsim flow")
+                    .addTestStep(annotatedMethod(netsimTestSteps, START_NODES_IN_NETSIM))
+                    .build();
+        }
         return flow("Start node in netsim flow")
                 .addTestStep(annotatedMethod(netsimTestSteps, START_NODE_IN_NETSIM))
-                .withDataSources(dataSource("nodeToStopOrStart"))
+                .withDataSources(dataSource(NODE_TO_STOP_OR_START))
                 .build();
     }
 
     public TestStepFlow deleteNodes() {
         return flow("Delete nodes")
-                .addSubFlow(nodeIntegrationFlows.deleteNode())
+                .addSubFlow(deploymentFlows().deleteNode())
                 .withDataSources(dataSource(ADDED_NODES))
                 .build();
     }
 
-    public TestStepFlow deleteUser() {
-        context.addDataSource(USERS_TO_DELETE, context.dataSource(AVAILABLE_USERS));
-        return flow("Delete Users flow")
-                .addSubFlow(userManagementTestFlows.deleteUser())
+    /*
+     * Flow that restores the nodes the suite restored, stopped or started in NetSim (see CleanupRegistry).
+     */
+    public TestStepFlow restoreNetSimNes() {
+        return flow("Restore changed NEs in Netsim flow")
+                .addTestStep(annotatedMethod(netsimTestSteps, RESTORE_NETSIM_NES_IN_NETSIM))
+                .build();
+    }
+
+    /*
+     * Flow that records the nodes under test as added, for a setup skipped because an earlier run with skipTeardown left them in ENM, so the
+     * teardown deletes them (see CleanupRegistry).
+     */
+    public TestStepFlow recordExistingNodes() {
+        return flow("Record existing nodes flow")
+                .addTestStep(annotatedMethod(cleanupTestSteps, RECORD_EXISTING_NODES))
                 .build();
     }
 
+    private static boolean isNetSimBatched() {
+        return getBoolean(NETSIM_BATCHED_PROPERTY, true);
+    }
+
+    private static int getSetupWorkers() {
+        return getInt(SETUP_WORKERS_PROPERTY, 1);
+    }
+
+    /*
+     * The flows which only exist on a deployment, skipped against the stand-in (see Gateways).
+     */
+    private DeploymentFlows deploymentFlows() {
+        return Gateways.deploymentFlows(enmDeploymentFlows);
+    }
+
+    public TestStepFlow cleanUpUsers() {
+        return deploymentFlows().cleanUpUsers();
+    }
+
+    /*
+     * Flow that creates the users and records them, so the teardown deletes them (see CleanupRegistry).
+     */
+    public TestStepFlow createUser() {
+        return deploymentFlows().createUsers();
+    }
+
+    public TestStepFlow deleteUser() {
+        return deploymentFlows().deleteUsers();
+    }
+
 }
@@ -0,0 +1,119 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.flows;
+
+import static com.ericsson.cifwk.taf.scenario.TestScenarios.dataSource;
+import static com.ericsson.cifwk.taf.scenario.TestScenarios.flow;
+import static com.ericsson.oss.testware.enmbase.data.CommonDataSources.ADDED_NODES;
+
+import java.util.Set;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.cifwk.taf.datasource.DataRecord;
+import com.ericsson.cifwk.taf.scenario.TestStepFlow;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.Gateways;
+import com.ericsson.oss.services.nodesyncmonitor.shard.Shard;
+import com.ericsson.oss.services.nodesyncmonitor.teardown.CleanupRegistry;
+import com.ericsson.oss.services.nodesyncmonitor.teardown.ResourceType;
+import com.google.common.base.Predicate;
+
+/**
+ * Flows releasing the resources the suite recorded in the {@link CleanupRegistry}, and only those: a resource which was never created, or
+ * was already released by an earlier teardown, is left alone.
+ * <p>
+ * The cleanup of each resource type is a flow of a {@link FlowGraph}, so the PIB parameters, the nodes and the NetSim NEs are released
+ * concurrently, and the users once their nodes are deleted. The nodes are deleted by
+ * {@code services.nodeSyncMonitor.teardown.node.workers} vUsers sharing the recorded nodes (see {@link ResourceType#getWorkers()}).
+ * <p>
+ * The PIB parameters are set on the whole deployment, so a sharded executor leaves them on for the shards which are still running (see
+ * {@link Shard}); they are switched off by the shards finished suite once every shard has finished (see
+ * {@link com.ericsson.oss.services.nodesyncmonitor.scenarios.NodeSyncMonitorShardsFinishedScenarios}).
+ */
+public class TeardownFlows {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TeardownFlows.class);
+
+    private static final String SESSIONS = "sessions";
+
+    @Inject
+    private SetupTearDownFlows setupTearDownFlows;
+
+    @Inject
+    private SessionFlows sessionFlows;
+
+    @Inject
+    private EnmDeploymentFlows enmDeploymentFlows;
+
+    /**
+     * @param username
+     *            The user whose session deletes the nodes.
+     * @param types
+     *            The types of resources to release. The pooled sessions are always closed.
+     * @return The cleanup of the recorded resources of the types, as a graph whose flows are named after the resource types, so a scenario can
+     *         add its own flows before or after them.
+     */
+    public FlowGraph cleanUp(final String username, final Set<ResourceType> types) {
+        final CleanupRegistry registry = CleanupRegistry.getInstance();
+        LOGGER.info("Releasing {} of the recorded resources {}", types, registry);
+        final FlowGraph cleanup = new FlowGraph();
+        if (types.contains(ResourceType.PIB_PARAMETER) && !registry.isEmpty(ResourceType.PIB_PARAMETER)) {
+            if (Shard.current().isSharded()) {
+                LOGGER.info("PIB parameters {} left on, as the other shards may still use them; switch them off with the shards finished suite",
+                        registry.get(ResourceType.PIB_PARAMETER));
+            } else {
+                cleanup.add(ResourceType.PIB_PARAMETER.name(), setupTearDownFlows.disableCmNodeSyncMonitorFeature());
+            }
+        }
+        if (types.contains(ResourceType.NETSIM_NE) && !registry.isEmpty(ResourceType.NETSIM_NE)) {
+            cleanup.add(ResourceType.NETSIM_NE.name(), setupTearDownFlows.restoreNetSimNes());
+        }
+        final boolean deleteNodes = types.contains(ResourceType.NODE) && !registry.isEmpty(ResourceType.NODE);
+        if (deleteNodes) {
+            cleanup.add(ResourceType.NODE.name(), deleteRecordedNodes(username));
+        }
+        final String[] sessionPrerequisites = deleteNodes ? new String[] { ResourceType.NODE.name() } : new String[0];
+        cleanup.add(SESSIONS, sessionFlows.closeSessions(), sessionPrerequisites);
+        if (types.contains(ResourceType.USER) && !registry.isEmpty(ResourceType.USER)) {
+            cleanup.add(ResourceType.USER.name(), setupTearDownFlows.deleteUser(), SESSIONS);
+        }
+        return cleanup;
+    }
+
+    /*
+     * Each vUser binds the session itself, as it does not run on the thread which logged in.
+     */
+    private TestStepFlow deleteRecordedNodes(final String username) {
+        final int workers = ResourceType.NODE.getWorkers();
+        return flow("Delete recorded nodes")
+                .addSubFlow(sessionFlows.useSession(username))
+                .addSubFlow(Gateways.deploymentFlows(enmDeploymentFlows).deleteNode())
+                .withVusers(workers)
+                .withDataSources(dataSource(ADDED_NODES).withFilter(recorded(ResourceType.NODE)).shared())
+                .build();
+    }
+
+    private static Predicate<DataRecord> recorded(final ResourceType type) {
+        return new Predicate<DataRecord>() {
+            @Override
+            public boolean apply(final DataRecord dataRecord) {
+                final Object networkElementId = dataRecord.getFieldValue("networkElementId");
+                return networkElementId != null && CleanupRegistry.getInstance().contains(type, networkElementId.toString());
+            }
+        };
+    }
+
+}
@@ -0,0 +1,27 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.gateway;
+
+/**
+ * Sends commands to the ENM Cli.
+ */
+public interface CliGateway {
+
+    /**
+     * @param command
+     *            The ENM Cli command, e.g. {@code alarm get RNC02RBS01}.
+     * @return The response to the command.
+     */
+    CliResult send(String command);
+
+}
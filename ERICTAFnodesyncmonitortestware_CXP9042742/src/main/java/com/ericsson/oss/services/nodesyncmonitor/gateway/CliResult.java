@@ -0,0 +1,64 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.gateway;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.ericsson.oss.services.nodesyncmonitor.utils.CliResponses;
+import com.ericsson.oss.testware.enm.cli.EnmCliResponse;
+
+/**
+ * The parts of an ENM Cli response the test steps read: the status message of the summary and the output lines.
+ */
+public final class CliResult {
+
+    private final String statusMessage;
+    private final List<String> lines;
+
+    public CliResult(final String statusMessage, final List<String> lines) {
+        this.statusMessage = statusMessage;
+        this.lines = Collections.unmodifiableList(lines);
+    }
+
+    /**
+     * @param response
+     *            The ENM Cli response.
+     * @return The result read from the response.
+     */
+    public static CliResult of(final EnmCliResponse response) {
+        final String statusMessage = response.getSummaryDto() == null ? null : response.getSummaryDto().getStatusMessage();
+        return new CliResult(statusMessage, CliResponses.lines(response));
+    }
+
+    /**
+     * @return The status message of the summary, e.g. {@code Total number of alarms fetched for the given query is :1}, or null if the response
+     *         has no summary.
+     */
+    public String getStatusMessage() {
+        return statusMessage;
+    }
+
+    /**
+     * @return The output lines, trimmed.
+     */
+    public List<String> getLines() {
+        return lines;
+    }
+
+    @Override
+    public String toString() {
+        return statusMessage;
+    }
+
+}
@@ -0,0 +1,61 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.gateway;
+
+import com.ericsson.cifwk.taf.scenario.TestStepFlow;
+
+/**
+ * The flows of other testware which only exist on a deployment: user management, login, and adding, syncing and deleting nodes with the
+ * node integration flows. The flows recording the users and nodes they create in the CleanupRegistry record them here too, so the teardown
+ * only releases what these flows created.
+ */
+public interface DeploymentFlows {
+
+    /**
+     * @return Flow deleting the test users left by an earlier run.
+     */
+    TestStepFlow cleanUpUsers();
+
+    /**
+     * @return Flow creating the test users and recording them.
+     */
+    TestStepFlow createUsers();
+
+    /**
+     * @return Flow deleting the created test users and releasing them.
+     */
+    TestStepFlow deleteUsers();
+
+    /**
+     * @param username
+     *            The user.
+     * @return Flow lending a pooled session of the user to the vUser running it.
+     */
+    TestStepFlow useSession(String username);
+
+    /**
+     * @return Flow adding the node of the nodes to add data source to ENM and recording it.
+     */
+    TestStepFlow addNode();
+
+    /**
+     * @return Flow syncing the node of the nodes to add data source and awaiting the end of the sync.
+     */
+    TestStepFlow syncNode();
+
+    /**
+     * @return Flow deleting the node of the added nodes data source from ENM and releasing it.
+     */
+    TestStepFlow deleteNode();
+
+}
@@ -0,0 +1,84 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.gateway;
+
+import javax.inject.Provider;
+
+import com.ericsson.oss.services.nodesyncmonitor.journal.Journal;
+import com.ericsson.oss.services.nodesyncmonitor.journal.JournalCliGateway;
+import com.ericsson.oss.services.nodesyncmonitor.journal.JournalNetSimGateway;
+import com.ericsson.oss.services.nodesyncmonitor.journal.JournalPibShell;
+import com.ericsson.oss.services.nodesyncmonitor.netsim.NetSimBatchExecutor;
+import com.ericsson.oss.services.nodesyncmonitor.standin.StandIn;
+import com.ericsson.oss.testware.fm.impl.RestImpl;
+import com.ericsson.oss.testware.remoteexecution.operators.PibConnectorImpl;
+
+/**
+ * Selects the implementation of the ENM Cli, NetSim, PIB and deployment flow seams: the deployment under test, or the in-process stand-in
+ * when {@code services.nodeSyncMonitor.standIn} is true (see {@link StandIn}). The ENM Cli, NetSim and PIB interactions are recorded to a
+ * {@link Journal} when {@code services.nodeSyncMonitor.journal.mode} is {@code record}, and served from one instead when it is
+ * {@code replay}.
+ */
+public final class Gateways {
+
+    private static final NetSimGateway NETSIM = new NetSimBatchExecutor();
+
+    private Gateways() {}
+
+    /**
+     * @param provider
+     *            The provider of the ENM Cli client of the logged in user.
+     * @return The ENM Cli.
+     */
+    public static CliGateway cli(final Provider<RestImpl> provider) {
+        if (Journal.getInstance().isReplaying()) {
+            return JournalCliGateway.replaying();
+        }
+        final CliGateway cli = StandIn.isEnabled() ? StandIn.cli() : new RestCliGateway(provider);
+        return Journal.getInstance().isRecording() ? JournalCliGateway.recording(cli) : cli;
+    }
+
+    /**
+     * @return NetSim.
+     */
+    public static NetSimGateway netSim() {
+        if (Journal.getInstance().isReplaying()) {
+            return JournalNetSimGateway.replaying();
+        }
+        final NetSimGateway netSim = StandIn.isEnabled() ? StandIn.netSim() : NETSIM;
+        return Journal.getInstance().isRecording() ? JournalNetSimGateway.recording(netSim) : netSim;
+    }
+
+    /**
+     * @param pibConnector
+     *            The connector to the server the PIB commands are executed from.
+     * @return A new shell, which must be closed after use.
+     */
+    public static PibShell openPibShell(final PibConnectorImpl pibConnector) {
+        if (Journal.getInstance().isReplaying()) {
+            return JournalPibShell.replaying();
+        }
+        final PibShell shell = StandIn.isEnabled() ? StandIn.pibShell() : new PibConnectorShell(pibConnector.getConnection());
+        return Journal.getInstance().isRecording() ? JournalPibShell.recording(shell) : shell;
+    }
+
+    /**
+     * @param deployment
+     *            The flows of the deployment under test.
+     * @return The flows which only exist on a deployment, skipped against the stand-in or when replaying a journal.
+     */
+    public static DeploymentFlows deploymentFlows(final DeploymentFlows deployment) {
+        return StandIn.isEnabled() || Journal.getInstance().isReplaying() ? StandIn.deploymentFlows() : deployment;
+    }
+
+}
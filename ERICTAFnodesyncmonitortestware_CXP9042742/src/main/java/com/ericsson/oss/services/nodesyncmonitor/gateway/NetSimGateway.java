@@ -0,0 +1,48 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.gateway;
+
+import java.util.List;
+import java.util.Map;
+
+import com.ericsson.oss.services.nodesyncmonitor.netsim.NeCommandOutcome;
+import com.ericsson.oss.services.nodesyncmonitor.netsim.NeCommandSequence;
+import com.ericsson.oss.services.nodesyncmonitor.netsim.NeFingerprint;
+
+/**
+ * Executes commands on network elements in NetSim.
+ */
+public interface NetSimGateway {
+
+    /**
+     * @param networkElementIds
+     *            The ids of the network elements.
+     * @param sequence
+     *            The commands to execute on every network element.
+     * @return One outcome per network element, in no particular order.
+     * @throws InterruptedException
+     *             If the thread is interrupted while waiting for NetSim.
+     */
+    List<NeCommandOutcome> execute(Iterable<String> networkElementIds, NeCommandSequence sequence) throws InterruptedException;
+
+    /**
+     * @param networkElementIds
+     *            The ids of the network elements, which must be stopped so their database is not being written.
+     * @return A fingerprint of the database of every network element it could be taken for, keyed by network element id. The fingerprint
+     *         changes whenever the database is written.
+     * @throws InterruptedException
+     *             If the thread is interrupted while waiting for NetSim.
+     */
+    Map<String, NeFingerprint> fingerprint(Iterable<String> networkElementIds) throws InterruptedException;
+
+}
@@ -0,0 +1,48 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.gateway;
+
+import com.ericsson.cifwk.taf.tools.cli.TafCliToolShell;
+import com.ericsson.de.tools.cli.CliCommandResult;
+import com.ericsson.oss.services.nodesyncmonitor.resilience.Resilience;
+import com.google.common.base.Supplier;
+
+/**
+ * A {@link PibShell} over a connection opened by {@link com.ericsson.oss.testware.remoteexecution.operators.PibConnectorImpl}. Commands are
+ * retried through {@link Resilience} as the {@value Resilience#PIB} endpoint.
+ */
+public class PibConnectorShell implements PibShell {
+
+    private final TafCliToolShell toolShell;
+
+    public PibConnectorShell(final TafCliToolShell toolShell) {
+        this.toolShell = toolShell;
+    }
+
+    @Override
+    public ShellResult execute(final String command) {
+        return Resilience.getInstance().call(Resilience.PIB, command, new Supplier<ShellResult>() {
+            @Override
+            public ShellResult get() {
+                final CliCommandResult result = toolShell.execute(command);
+                return new ShellResult(result.isSuccess(), result.getOutput());
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        toolShell.close();
+    }
+
+}
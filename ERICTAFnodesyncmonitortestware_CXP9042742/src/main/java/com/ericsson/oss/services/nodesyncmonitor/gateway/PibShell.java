@@ -0,0 +1,30 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.gateway;
+
+/**
+ * A shell on the server the PIB commands are executed from: the LMS, the director node or the EMP VM depending on the deployment. A shell is
+ * used by one thread and must be closed after use.
+ */
+public interface PibShell {
+
+    /**
+     * @param command
+     *            The shell command.
+     * @return The outcome of the command.
+     */
+    ShellResult execute(String command);
+
+    void close();
+
+}
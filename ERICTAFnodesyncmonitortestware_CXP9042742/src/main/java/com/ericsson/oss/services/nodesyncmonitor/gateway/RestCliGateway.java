@@ -0,0 +1,43 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.gateway;
+
+import javax.inject.Provider;
+
+import com.ericsson.oss.services.nodesyncmonitor.resilience.Resilience;
+import com.ericsson.oss.testware.fm.impl.RestImpl;
+import com.google.common.base.Supplier;
+
+/**
+ * Sends commands to the ENM Cli of the deployment under test, in the session of the user logged in by the enclosing scenario. Commands are
+ * retried through {@link Resilience} as the {@value Resilience#CLI} endpoint.
+ */
+public class RestCliGateway implements CliGateway {
+
+    private final Provider<RestImpl> provider;
+
+    public RestCliGateway(final Provider<RestImpl> provider) {
+        this.provider = provider;
+    }
+
+    @Override
+    public CliResult send(final String command) {
+        return Resilience.getInstance().call(Resilience.CLI, command, new Supplier<CliResult>() {
+            @Override
+            public CliResult get() {
+                return CliResult.of(provider.get().sendCommand(command));
+            }
+        });
+    }
+
+}
@@ -0,0 +1,36 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.gateway;
+
+/**
+ * The outcome of a command executed on a {@link PibShell}.
+ */
+public final class ShellResult {
+
+    private final boolean success;
+    private final String output;
+
+    public ShellResult(final boolean success, final String output) {
+        this.success = success;
+        this.output = output;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getOutput() {
+        return output;
+    }
+
+}
@@ -0,0 +1,289 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.journal;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.PREFIX;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getDouble;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getString;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.oss.services.nodesyncmonitor.utils.ReportFiles;
+import com.google.common.base.Supplier;
+
+/**
+ * A compact on-disk journal of the interactions of the testware with the deployment, at the seams of {@link
+ * com.ericsson.oss.services.nodesyncmonitor.gateway.Gateways}: ENM Cli commands, NetSim command sequences and fingerprints, and PIB shell
+ * commands (see {@link JournalChannel}).
+ * <p>
+ * In {@link JournalMode#RECORD} mode every interaction is appended, with the time it was sent and the time the deployment took to respond, as
+ * one JSON line of a gzipped file written to {@code services.nodeSyncMonitor.journal.reportDir}. In {@link JournalMode#REPLAY} mode the
+ * journal named by {@code services.nodeSyncMonitor.journal.file} is loaded, and every request is served the next recorded response to the same
+ * request, in recorded order; once those are used up the last one is served again, as a poll repeated more often than on the deployment
+ * would see the same state. A request which was never recorded fails. The recorded response time is waited for, divided by
+ * {@code services.nodeSyncMonitor.journal.replaySpeed}: 1 (default) replays at recorded speed, 0 as fast as possible. So one run on a
+ * deployment can be replayed locally, e.g. to profile the overhead of the testware itself.
+ */
+public final class Journal {
+
+    public static final String REPORT_DIR_PROPERTY = PREFIX + "journal.reportDir";
+    public static final String DEFAULT_REPORT_DIR = "target/journal";
+    public static final String FILE_PREFIX = "node-sync-monitor-journal-";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Journal.class);
+
+    private static final String FILE_PROPERTY = PREFIX + "journal.file";
+    private static final String REPLAY_SPEED_PROPERTY = PREFIX + "journal.replaySpeed";
+    private static final String EXTENSION = "jsonl.gz";
+
+    private static final Journal INSTANCE = new Journal(JournalMode.current());
+
+    private final JournalMode mode;
+    private final long startNanos = System.nanoTime();
+    private final Set<String> recordedValues = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final Map<String, Deque<JournalEntry>> recorded = new HashMap<>();
+    private final Map<String, JournalEntry> lastServed = new HashMap<>();
+    private Writer writer;
+    private File file;
+    private long entries;
+
+    private Journal(final JournalMode mode) {
+        this.mode = mode;
+        if (mode == JournalMode.REPLAY) {
+            load(new File(getString(FILE_PROPERTY, "")));
+        }
+    }
+
+    public static Journal getInstance() {
+        return INSTANCE;
+    }
+
+    public JournalMode getMode() {
+        return mode;
+    }
+
+    public boolean isRecording() {
+        return mode == JournalMode.RECORD;
+    }
+
+    public boolean isReplaying() {
+        return mode == JournalMode.REPLAY;
+    }
+
+    /**
+     * Appends an interaction to the journal.
+     *
+     * @param channel
+     *            The channel of the interaction.
+     * @param key
+     *            The request.
+     * @param response
+     *            The response: a string, a JSON object or null.
+     * @param sentAtNanos
+     *            The {@link System#nanoTime()} at which the request was sent.
+     * @param durationMillis
+     *            The time the deployment took to respond.
+     */
+    public synchronized void record(final JournalChannel channel, final String key, final Object response, final long sentAtNanos,
+                                    final long durationMillis) {
+        if (!isRecording()) {
+            return;
+        }
+        final JournalEntry entry = new JournalEntry(channel, key, TimeUnit.NANOSECONDS.toMillis(sentAtNanos - startNanos), durationMillis, response);
+        try {
+            if (writer == null) {
+                open();
+            }
+            writer.write(entry.toJson().toJSONString());
+            writer.write('\n');
+            entries++;
+        } catch (final IOException e) {
+            throw new IllegalStateException("Could not write to the journal " + file, e);
+        }
+    }
+
+    /**
+     * @param channel
+     *            The channel of the interaction.
+     * @param key
+     *            The request.
+     * @return The next recorded response to the request, or the last one once they are used up. The recorded response time is not waited for
+     *         (see {@link #await}).
+     * @throws IllegalStateException
+     *             If the request was never recorded.
+     */
+    public synchronized JournalEntry replay(final JournalChannel channel, final String key) {
+        final String id = id(channel, key);
+        final Deque<JournalEntry> responses = recorded.get(id);
+        final JournalEntry entry = responses == null ? null : responses.poll();
+        if (entry != null) {
+            lastServed.put(id, entry);
+            return entry;
+        }
+        final JournalEntry last = lastServed.get(id);
+        if (last == null) {
+            throw new IllegalStateException(String.format("No %s response to [%s] in the journal", channel, key));
+        }
+        return last;
+    }
+
+    /**
+     * Waits for a recorded response time, scaled by the replay speed.
+     *
+     * @param recordedMillis
+     *            The recorded response time.
+     */
+    public void await(final long recordedMillis) {
+        final double speed = getDouble(REPLAY_SPEED_PROPERTY, 1.0);
+        if (speed <= 0 || recordedMillis <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(Math.round(recordedMillis / speed));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @param key
+     *            The name of a value of the environment of the deployment, e.g. its deployment type.
+     * @param supplier
+     *            Reads the value from the environment.
+     * @return The value read from the environment, recorded the first time it is read; or the recorded value when replaying.
+     */
+    public String value(final String key, final Supplier<String> supplier) {
+        if (isReplaying()) {
+            return (String) replay(JournalChannel.ENVIRONMENT, key).getResponse();
+        }
+        final String value = supplier.get();
+        if (isRecording() && recordedValues.add(key)) {
+            record(JournalChannel.ENVIRONMENT, key, value, System.nanoTime(), 0);
+        }
+        return value;
+    }
+
+    /**
+     * @return The number of recorded interactions which were not served yet, when replaying.
+     */
+    public synchronized long countUnreplayed() {
+        long count = 0;
+        for (final Deque<JournalEntry> responses : recorded.values()) {
+            count += responses.size();
+        }
+        return count;
+    }
+
+    /**
+     * Writes the end of the journal, if recording. Interactions recorded afterwards go to a new journal. When replaying, warns about the
+     * recorded interactions which were not served: the replayed suite sent fewer requests than the recorded one, so later responses to the
+     * same requests may have been served to the wrong steps.
+     */
+    public synchronized void close() {
+        if (isReplaying()) {
+            warnUnreplayed();
+            return;
+        }
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+            LOGGER.info("Journal of {} interaction(s) written to {}", entries, file);
+        } catch (final IOException e) {
+            LOGGER.warn("Could not close the journal {}", file, e);
+        } finally {
+            writer = null;
+            entries = 0;
+        }
+    }
+
+    private void warnUnreplayed() {
+        final Set<String> requests = new TreeSet<>();
+        for (final Map.Entry<String, Deque<JournalEntry>> responses : recorded.entrySet()) {
+            if (!responses.getValue().isEmpty()) {
+                requests.add(responses.getKey());
+            }
+        }
+        if (requests.isEmpty()) {
+            LOGGER.info("Every recorded interaction was replayed");
+        } else {
+            LOGGER.warn("{} recorded interaction(s) were not replayed, of the requests {}", countUnreplayed(), requests);
+        }
+    }
+
+    private void open() throws IOException {
+        file = ReportFiles.newReportFile(REPORT_DIR_PROPERTY, DEFAULT_REPORT_DIR, FILE_PREFIX, EXTENSION);
+        writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(file)), StandardCharsets.UTF_8));
+        LOGGER.info("Recording the interactions with the deployment to {}", file);
+    }
+
+    private void load(final File journalFile) {
+        if (!journalFile.isFile()) {
+            throw new IllegalArgumentException(String.format("%s must name the journal to replay, found [%s]", FILE_PROPERTY, journalFile));
+        }
+        final JSONParser parser = new JSONParser();
+        long count = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(journalFile)),
+                StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                final JournalEntry entry = JournalEntry.fromJson((JSONObject) parser.parse(line));
+                final String id = id(entry.getChannel(), entry.getKey());
+                Deque<JournalEntry> responses = recorded.get(id);
+                if (responses == null) {
+                    responses = new ArrayDeque<>();
+                    recorded.put(id, responses);
+                }
+                responses.add(entry);
+                count++;
+            }
+        } catch (final IOException | ParseException e) {
+            throw new IllegalArgumentException("Could not read the journal " + journalFile, e);
+        }
+        LOGGER.info("Replaying {} interaction(s) with {} distinct request(s) from {}", count, recorded.size(), journalFile);
+    }
+
+    private static String id(final JournalChannel channel, final String key) {
+        return channel.name() + ' ' + key;
+    }
+
+}
@@ -0,0 +1,29 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.journal;
+
+/**
+ * The I/O boundaries of the testware whose interactions are journaled (see {@link Journal}).
+ */
+public enum JournalChannel {
+
+    /** Commands sent to the ENM Cli. */
+    CLI,
+    /** Command sequences executed on, and fingerprints taken of, network elements in NetSim. */
+    NETSIM,
+    /** Shell commands executed on the server the PIB commands are executed from. */
+    PIB,
+    /** Values read from the host configuration of the deployment, which are not available where the journal is replayed. */
+    ENVIRONMENT
+
+}
@@ -0,0 +1,108 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.journal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+import com.ericsson.oss.services.nodesyncmonitor.gateway.CliGateway;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.CliResult;
+
+/**
+ * Records the commands sent to an ENM Cli, or replays their responses, in the {@link Journal}. A command which failed is recorded with its
+ * error, and fails again when replayed.
+ */
+public class JournalCliGateway implements CliGateway {
+
+    private static final String STATUS_MESSAGE = "statusMessage";
+    private static final String LINES = "lines";
+    private static final String ERROR = "error";
+
+    private final CliGateway delegate;
+
+    private JournalCliGateway(final CliGateway delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @param delegate
+     *            The ENM Cli whose interactions are recorded.
+     * @return The recording ENM Cli.
+     */
+    public static CliGateway recording(final CliGateway delegate) {
+        return new JournalCliGateway(delegate);
+    }
+
+    /**
+     * @return An ENM Cli serving the responses of the journal.
+     */
+    public static CliGateway replaying() {
+        return new JournalCliGateway(null);
+    }
+
+    @Override
+    public CliResult send(final String command) {
+        final Journal journal = Journal.getInstance();
+        if (delegate == null) {
+            final JournalEntry entry = journal.replay(JournalChannel.CLI, command);
+            journal.await(entry.getDurationMillis());
+            return toResult(command, entry.getResponseObject());
+        }
+        final long start = System.nanoTime();
+        try {
+            final CliResult result = delegate.send(command);
+            journal.record(JournalChannel.CLI, command, toJson(result), start, elapsedMillis(start));
+            return result;
+        } catch (final RuntimeException e) {
+            journal.record(JournalChannel.CLI, command, error(e), start, elapsedMillis(start));
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONObject toJson(final CliResult result) {
+        final JSONArray lines = new JSONArray();
+        lines.addAll(result.getLines());
+        final JSONObject json = new JSONObject();
+        json.put(STATUS_MESSAGE, result.getStatusMessage());
+        json.put(LINES, lines);
+        return json;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONObject error(final Exception e) {
+        final JSONObject json = new JSONObject();
+        json.put(ERROR, String.valueOf(e.getMessage()));
+        return json;
+    }
+
+    private static CliResult toResult(final String command, final JSONObject json) {
+        if (json.containsKey(ERROR)) {
+            throw new IllegalStateException(String.format("Command [%s] failed when recorded: %s", command, json.get(ERROR)));
+        }
+        final List<String> lines = new ArrayList<>();
+        for (final Object line : (JSONArray) json.get(LINES)) {
+            lines.add((String) line);
+        }
+        return new CliResult((String) json.get(STATUS_MESSAGE), lines);
+    }
+
+    private static long elapsedMillis(final long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+}
@@ -0,0 +1,107 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.journal;
+
+import org.json.simple.JSONObject;
+
+/**
+ * One interaction of the testware with the deployment: a request on a channel, the response, and when and for how long it ran.
+ */
+public final class JournalEntry {
+
+    private static final String CHANNEL = "c";
+    private static final String KEY = "k";
+    private static final String OFFSET = "t";
+    private static final String DURATION = "d";
+    private static final String RESPONSE = "r";
+
+    private final JournalChannel channel;
+    private final String key;
+    private final long offsetMillis;
+    private final long durationMillis;
+    private final Object response;
+
+    JournalEntry(final JournalChannel channel, final String key, final long offsetMillis, final long durationMillis, final Object response) {
+        this.channel = channel;
+        this.key = key;
+        this.offsetMillis = offsetMillis;
+        this.durationMillis = durationMillis;
+        this.response = response;
+    }
+
+    public JournalChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * @return The request, e.g. the ENM Cli command.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return The time from the start of the recording until the request was sent.
+     */
+    public long getOffsetMillis() {
+        return offsetMillis;
+    }
+
+    /**
+     * @return The time the deployment took to respond.
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * @return The response: a string, a JSON object or null, depending on the channel.
+     */
+    public Object getResponse() {
+        return response;
+    }
+
+    /**
+     * @return The response as a JSON object.
+     * @throws IllegalStateException
+     *             If the response is not a JSON object.
+     */
+    public JSONObject getResponseObject() {
+        if (!(response instanceof JSONObject)) {
+            throw new IllegalStateException(String.format("Recorded %s response to [%s] is not an object: %s", channel, key, response));
+        }
+        return (JSONObject) response;
+    }
+
+    @SuppressWarnings("unchecked")
+    JSONObject toJson() {
+        final JSONObject json = new JSONObject();
+        json.put(CHANNEL, channel.name());
+        json.put(KEY, key);
+        json.put(OFFSET, offsetMillis);
+        json.put(DURATION, durationMillis);
+        json.put(RESPONSE, response);
+        return json;
+    }
+
+    static JournalEntry fromJson(final JSONObject json) {
+        return new JournalEntry(JournalChannel.valueOf((String) json.get(CHANNEL)), (String) json.get(KEY), ((Number) json.get(OFFSET)).longValue(),
+                ((Number) json.get(DURATION)).longValue(), json.get(RESPONSE));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [%s] at %d ms in %d ms", channel, key, offsetMillis, durationMillis);
+    }
+
+}
@@ -0,0 +1,44 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.journal;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.PREFIX;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getString;
+
+import java.util.Locale;
+
+/**
+ * Whether the interactions of the testware are recorded to, or replayed from, a {@link Journal}, set by
+ * {@code services.nodeSyncMonitor.journal.mode}.
+ */
+public enum JournalMode {
+
+    /** The testware talks to the deployment; nothing is journaled. */
+    OFF,
+    /** The testware talks to the deployment and journals every interaction. */
+    RECORD,
+    /** The testware is served the responses of a journal instead of talking to a deployment. */
+    REPLAY;
+
+    public static final String MODE_PROPERTY = PREFIX + "journal.mode";
+
+    /**
+     * @return The configured mode, {@link #OFF} by default.
+     * @throws IllegalArgumentException
+     *             If the property is not a mode.
+     */
+    public static JournalMode current() {
+        return valueOf(getString(MODE_PROPERTY, OFF.name()).trim().toUpperCase(Locale.ROOT));
+    }
+
+}
@@ -0,0 +1,143 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.journal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.json.simple.JSONObject;
+
+import com.ericsson.oss.services.nodesyncmonitor.gateway.NetSimGateway;
+import com.ericsson.oss.services.nodesyncmonitor.netsim.NeCommandOutcome;
+import com.ericsson.oss.services.nodesyncmonitor.netsim.NeCommandSequence;
+import com.ericsson.oss.services.nodesyncmonitor.netsim.NeFingerprint;
+import com.google.common.collect.Lists;
+
+/**
+ * Records the command sequences executed on network elements in NetSim and the fingerprints taken of them, or replays their outcomes, in the
+ * {@link Journal}. Every network element is journaled on its own, so a journal replays whatever the batching of the replaying run.
+ * <p>
+ * When replayed, the simulations of a batch are assumed to run side by side, as they do when they are on different NetSim hosts in
+ * {@link com.ericsson.oss.services.nodesyncmonitor.netsim.NetSimBatchExecutor}, which records the time of a simulation split evenly across
+ * its network elements: the batch takes the recorded time of its slowest simulation.
+ */
+public class JournalNetSimGateway implements NetSimGateway {
+
+    private static final String SIMULATION = "simulation";
+    private static final String ERROR = "error";
+    private static final String FINGERPRINT = "fingerprint";
+    private static final String HOST = "host";
+    private static final String NETWORK_ELEMENT = "networkElement";
+    private static final String DIGEST = "digest";
+
+    private final NetSimGateway delegate;
+
+    private JournalNetSimGateway(final NetSimGateway delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @param delegate
+     *            The NetSim whose interactions are recorded.
+     * @return The recording NetSim.
+     */
+    public static NetSimGateway recording(final NetSimGateway delegate) {
+        return new JournalNetSimGateway(delegate);
+    }
+
+    /**
+     * @return A NetSim serving the outcomes of the journal.
+     */
+    public static NetSimGateway replaying() {
+        return new JournalNetSimGateway(null);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<NeCommandOutcome> execute(final Iterable<String> networkElementIds, final NeCommandSequence sequence) throws InterruptedException {
+        final Journal journal = Journal.getInstance();
+        if (delegate == null) {
+            final List<NeCommandOutcome> outcomes = new ArrayList<>();
+            final Map<String, Long> millisBySimulation = new HashMap<>();
+            for (final String networkElementId : networkElementIds) {
+                final JournalEntry entry = journal.replay(JournalChannel.NETSIM, key(sequence.getName(), networkElementId));
+                final JSONObject json = entry.getResponseObject();
+                final String simulation = (String) json.get(SIMULATION);
+                final Exception error = json.containsKey(ERROR) ? new IllegalStateException((String) json.get(ERROR)) : null;
+                outcomes.add(new NeCommandOutcome(networkElementId, simulation, entry.getDurationMillis(), error));
+                final Long millis = millisBySimulation.get(simulation);
+                millisBySimulation.put(simulation, (millis == null ? 0 : millis) + entry.getDurationMillis());
+            }
+            journal.await(millisBySimulation.isEmpty() ? 0 : Collections.max(millisBySimulation.values()));
+            return outcomes;
+        }
+        final long start = System.nanoTime();
+        final List<NeCommandOutcome> outcomes = delegate.execute(networkElementIds, sequence);
+        for (final NeCommandOutcome outcome : outcomes) {
+            final JSONObject json = new JSONObject();
+            json.put(SIMULATION, outcome.getSimulationName());
+            if (!outcome.isSuccess()) {
+                json.put(ERROR, String.valueOf(outcome.getError().getMessage()));
+            }
+            journal.record(JournalChannel.NETSIM, key(sequence.getName(), outcome.getNetworkElementId()), json, start, outcome.getElapsedMillis());
+        }
+        return outcomes;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, NeFingerprint> fingerprint(final Iterable<String> networkElementIds) throws InterruptedException {
+        final Journal journal = Journal.getInstance();
+        if (delegate == null) {
+            final Map<String, NeFingerprint> fingerprints = new HashMap<>();
+            long millis = 0;
+            for (final String networkElementId : networkElementIds) {
+                final JournalEntry entry = journal.replay(JournalChannel.NETSIM, key(FINGERPRINT, networkElementId));
+                if (entry.getResponse() != null) {
+                    final JSONObject json = entry.getResponseObject();
+                    fingerprints.put(networkElementId, new NeFingerprint((String) json.get(HOST), (String) json.get(SIMULATION),
+                            (String) json.get(NETWORK_ELEMENT), (String) json.get(DIGEST)));
+                }
+                millis += entry.getDurationMillis();
+            }
+            journal.await(millis);
+            return fingerprints;
+        }
+        final List<String> ids = Lists.newArrayList(networkElementIds);
+        final long start = System.nanoTime();
+        final Map<String, NeFingerprint> fingerprints = delegate.fingerprint(ids);
+        final long millisPerNetworkElement = ids.isEmpty() ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) / ids.size();
+        for (final String networkElementId : ids) {
+            final NeFingerprint fingerprint = fingerprints.get(networkElementId);
+            JSONObject json = null;
+            if (fingerprint != null) {
+                json = new JSONObject();
+                json.put(HOST, fingerprint.getHost());
+                json.put(SIMULATION, fingerprint.getSimulationName());
+                json.put(NETWORK_ELEMENT, fingerprint.getNetworkElementName());
+                json.put(DIGEST, fingerprint.getDigest());
+            }
+            journal.record(JournalChannel.NETSIM, key(FINGERPRINT, networkElementId), json, start, millisPerNetworkElement);
+        }
+        return fingerprints;
+    }
+
+    private static String key(final String operation, final String networkElementId) {
+        return operation + ' ' + networkElementId;
+    }
+
+}
@@ -0,0 +1,79 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.journal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.json.simple.JSONObject;
+
+import com.ericsson.oss.services.nodesyncmonitor.gateway.PibShell;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.ShellResult;
+
+/**
+ * Records the commands executed in a shell on the server the PIB commands are executed from, or replays their results, in the
+ * {@link Journal}.
+ */
+public class JournalPibShell implements PibShell {
+
+    private static final String SUCCESS = "success";
+    private static final String OUTPUT = "output";
+
+    private final PibShell delegate;
+
+    private JournalPibShell(final PibShell delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @param delegate
+     *            The shell whose commands are recorded, closed with this shell.
+     * @return The recording shell.
+     */
+    public static PibShell recording(final PibShell delegate) {
+        return new JournalPibShell(delegate);
+    }
+
+    /**
+     * @return A shell serving the results of the journal.
+     */
+    public static PibShell replaying() {
+        return new JournalPibShell(null);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ShellResult execute(final String command) {
+        final Journal journal = Journal.getInstance();
+        if (delegate == null) {
+            final JournalEntry entry = journal.replay(JournalChannel.PIB, command);
+            journal.await(entry.getDurationMillis());
+            final JSONObject json = entry.getResponseObject();
+            return new ShellResult((Boolean) json.get(SUCCESS), (String) json.get(OUTPUT));
+        }
+        final long start = System.nanoTime();
+        final ShellResult result = delegate.execute(command);
+        final JSONObject json = new JSONObject();
+        json.put(SUCCESS, result.isSuccess());
+        json.put(OUTPUT, result.getOutput());
+        journal.record(JournalChannel.PIB, command, json, start, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return result;
+    }
+
+    @Override
+    public void close() {
+        if (delegate != null) {
+            delegate.close();
+        }
+    }
+
+}
@@ -0,0 +1,25 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.latency;
+
+/**
+ * The node sync monitor reactions whose latency is measured.
+ */
+public enum LatencyKind {
+
+    /** From the moment the failed sync threshold of a stopped node is crossed until the alarm is reported as raised. */
+    RAISE,
+    /** From the moment a node is started and resynced until the alarm is reported as cleared. */
+    CLEAR
+
+}
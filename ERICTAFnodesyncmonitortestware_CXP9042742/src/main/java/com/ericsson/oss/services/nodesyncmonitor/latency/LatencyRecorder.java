@@ -0,0 +1,168 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.latency;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.SynchronizedHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Collects the alarm raise and clear latencies of the node sync monitor for the run.
+ * <p>
+ * A test step marks the moment a reaction is triggered for a node with {@link #markTriggered}; the step which observes the reaction calls
+ * {@link #recordObserved} with the time of the alarm query which first reported it. The latency is recorded in one histogram per
+ * {@link LatencyKind} (HdrHistogram, 3 significant digits) and kept as a sample for the per run report (see {@link LatencyReport}). Marking a
+ * node again replaces the previous mark, so the most precise step to run wins.
+ */
+public final class LatencyRecorder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LatencyRecorder.class);
+
+    private static final LatencyRecorder INSTANCE = new LatencyRecorder();
+
+    private final ConcurrentMap<String, Trigger> triggers = new ConcurrentHashMap<>();
+    private final Map<LatencyKind, Histogram> histograms = new EnumMap<>(LatencyKind.class);
+    private final List<LatencySample> samples = new CopyOnWriteArrayList<>();
+
+    private LatencyRecorder() {
+        for (final LatencyKind kind : LatencyKind.values()) {
+            histograms.put(kind, new SynchronizedHistogram(3));
+        }
+    }
+
+    public static LatencyRecorder getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Marks the current time as the trigger of a reaction of the node sync monitor.
+     *
+     * @param kind
+     *            The reaction.
+     * @param networkElementId
+     *            The node.
+     */
+    public void markTriggered(final LatencyKind kind, final String networkElementId) {
+        markTriggered(kind, networkElementId, System.nanoTime(), System.currentTimeMillis());
+    }
+
+    /**
+     * Marks an earlier time as the trigger of a reaction of the node sync monitor, for a step which only knows after the fact that the
+     * command it sent was the trigger.
+     *
+     * @param kind
+     *            The reaction.
+     * @param networkElementId
+     *            The node.
+     * @param triggeredAtNanos
+     *            The {@link System#nanoTime()} at which the trigger was sent.
+     * @param triggeredAtMillis
+     *            The {@link System#currentTimeMillis()} at which the trigger was sent.
+     */
+    public void markTriggered(final LatencyKind kind, final String networkElementId, final long triggeredAtNanos, final long triggeredAtMillis) {
+        triggers.put(key(kind, networkElementId), new Trigger(triggeredAtNanos, triggeredAtMillis));
+        LOGGER.debug("{} of {} triggered", kind, networkElementId);
+    }
+
+    /**
+     * Records the latency of a reaction which was observed at {@code observedAtNanos}, and forgets its trigger.
+     *
+     * @param kind
+     *            The reaction.
+     * @param networkElementId
+     *            The node.
+     * @param observedAtNanos
+     *            The {@link System#nanoTime()} of the alarm query which first reported the reaction.
+     * @param attempts
+     *            The number of alarm queries sent.
+     * @return The recorded sample, or null if the reaction was not marked as triggered, or only after it was observed.
+     */
+    public LatencySample recordObserved(final LatencyKind kind, final String networkElementId, final long observedAtNanos, final int attempts) {
+        final Trigger trigger = triggers.remove(key(kind, networkElementId));
+        if (trigger == null) {
+            LOGGER.warn("{} of {} observed but never marked as triggered, latency not recorded", kind, networkElementId);
+            return null;
+        }
+        if (observedAtNanos < trigger.nanos) {
+            LOGGER.warn("{} of {} observed before it was marked as triggered, latency not recorded", kind, networkElementId);
+            return null;
+        }
+        final long latencyMillis = NANOSECONDS.toMillis(observedAtNanos - trigger.nanos);
+        histograms.get(kind).recordValue(latencyMillis);
+        final LatencySample sample = new LatencySample(kind, networkElementId, trigger.wallClockMillis, latencyMillis, attempts);
+        samples.add(sample);
+        LOGGER.info("Alarm {} latency of {}", kind, sample);
+        return sample;
+    }
+
+    /**
+     * @return A copy of the latencies recorded for {@code kind}, in milliseconds.
+     */
+    public Histogram getHistogram(final LatencyKind kind) {
+        return histograms.get(kind).copy();
+    }
+
+    public List<LatencySample> getSamples() {
+        return ImmutableList.copyOf(samples);
+    }
+
+    /**
+     * Returns and forgets the samples recorded so far. The histograms are kept, so long runs can report their samples in parts without holding
+     * every sample in memory.
+     *
+     * @return The samples recorded since the last call, in the order they were recorded.
+     */
+    public List<LatencySample> drainSamples() {
+        final List<LatencySample> drained = ImmutableList.copyOf(samples);
+        samples.removeAll(drained);
+        return drained;
+    }
+
+    /**
+     * Forgets every trigger and recorded latency.
+     */
+    public void reset() {
+        triggers.clear();
+        samples.clear();
+        for (final Histogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    private static String key(final LatencyKind kind, final String networkElementId) {
+        return kind + ":" + networkElementId;
+    }
+
+    private static final class Trigger {
+        private final long nanos;
+        private final long wallClockMillis;
+
+        private Trigger(final long nanos, final long wallClockMillis) {
+            this.nanos = nanos;
+            this.wallClockMillis = wallClockMillis;
+        }
+    }
+
+}
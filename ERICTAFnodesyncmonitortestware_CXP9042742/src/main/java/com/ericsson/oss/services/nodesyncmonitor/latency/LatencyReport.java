@@ -0,0 +1,125 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.latency;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+import org.HdrHistogram.Histogram;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.oss.services.nodesyncmonitor.utils.ReportFiles;
+import com.google.common.io.Files;
+
+/**
+ * Writes the latencies collected by a {@link LatencyRecorder} as one JSON and one CSV file per run to
+ * {@code services.nodeSyncMonitor.latency.reportDir}:
+ * <ul>
+ * <li>{@code node-sync-monitor-latency-<time>.json}: count, min, mean, max and percentiles per {@link LatencyKind}, and every sample</li>
+ * <li>{@code node-sync-monitor-latency-<time>.csv}: one row per sample</li>
+ * </ul>
+ * All latencies are in milliseconds.
+ */
+public final class LatencyReport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LatencyReport.class);
+
+    public static final String REPORT_DIR_PROPERTY = "services.nodeSyncMonitor.latency.reportDir";
+    public static final String DEFAULT_REPORT_DIR = "target/latency";
+    public static final String FILE_PREFIX = "node-sync-monitor-latency-";
+    private static final double[] PERCENTILES = { 50.0, 90.0, 95.0, 99.0, 99.9 };
+
+    private LatencyReport() {}
+
+    /**
+     * Logs a summary of the recorded latencies and writes the report files, if any latency was recorded.
+     *
+     * @param recorder
+     *            The recorder.
+     */
+    public static void export(final LatencyRecorder recorder) {
+        final List<LatencySample> samples = recorder.getSamples();
+        if (samples.isEmpty()) {
+            LOGGER.info("No alarm latency recorded");
+            return;
+        }
+        for (final LatencyKind kind : LatencyKind.values()) {
+            LOGGER.info("Alarm {} latency: {}", kind, summary(recorder.getHistogram(kind)).toJSONString());
+        }
+        try {
+            final File jsonFile = ReportFiles.newReportFile(REPORT_DIR_PROPERTY, DEFAULT_REPORT_DIR, FILE_PREFIX, "json");
+            final File csvFile = new File(jsonFile.getParentFile(), jsonFile.getName().replaceFirst("\\.json$", ".csv"));
+            ReportFiles.writeJson(toJson(recorder, samples), jsonFile);
+            writeCsv(samples, csvFile);
+            LOGGER.info("Alarm latency report written to {} and {}", jsonFile, csvFile);
+        } catch (final IOException e) {
+            LOGGER.warn("Could not write the alarm latency report", e);
+        }
+    }
+
+    private static void writeCsv(final List<LatencySample> samples, final File csvFile) throws IOException {
+        try (Writer writer = Files.newWriter(csvFile, StandardCharsets.UTF_8)) {
+            writer.write("kind,networkElementId,triggeredAt,latencyMillis,attempts\n");
+            for (final LatencySample sample : samples) {
+                writer.write(String.format("%s,%s,%d,%d,%d%n", sample.getKind(), sample.getNetworkElementId(), sample.getTriggeredAtMillis(),
+                        sample.getLatencyMillis(), sample.getAttempts()));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONObject toJson(final LatencyRecorder recorder, final List<LatencySample> samples) {
+        final JSONObject report = new JSONObject();
+        for (final LatencyKind kind : LatencyKind.values()) {
+            report.put(kind.name().toLowerCase(Locale.ROOT), summary(recorder.getHistogram(kind)));
+        }
+        final JSONArray sampleArray = new JSONArray();
+        for (final LatencySample sample : samples) {
+            final JSONObject entry = new JSONObject();
+            entry.put("kind", sample.getKind().name());
+            entry.put("networkElementId", sample.getNetworkElementId());
+            entry.put("triggeredAt", sample.getTriggeredAtMillis());
+            entry.put("latencyMillis", sample.getLatencyMillis());
+            entry.put("attempts", sample.getAttempts());
+            sampleArray.add(entry);
+        }
+        report.put("samples", sampleArray);
+        return report;
+    }
+
+    /**
+     * @return The count, min, mean, max and percentiles of the latencies in {@code histogram}.
+     */
+    @SuppressWarnings("unchecked")
+    public static JSONObject summary(final Histogram histogram) {
+        final JSONObject summary = new JSONObject();
+        summary.put("count", histogram.getTotalCount());
+        if (histogram.getTotalCount() > 0) {
+            summary.put("min", histogram.getMinValue());
+            summary.put("mean", histogram.getMean());
+            summary.put("max", histogram.getMaxValue());
+            for (final double percentile : PERCENTILES) {
+                summary.put("p" + String.valueOf(percentile).replace(".0", "").replace('.', '_'), histogram.getValueAtPercentile(percentile));
+            }
+        }
+        return summary;
+    }
+
+}
@@ -0,0 +1,65 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.latency;
+
+/**
+ * One measured latency of the node sync monitor.
+ */
+public final class LatencySample {
+
+    private final LatencyKind kind;
+    private final String networkElementId;
+    private final long triggeredAtMillis;
+    private final long latencyMillis;
+    private final int attempts;
+
+    LatencySample(final LatencyKind kind, final String networkElementId, final long triggeredAtMillis, final long latencyMillis, final int attempts) {
+        this.kind = kind;
+        this.networkElementId = networkElementId;
+        this.triggeredAtMillis = triggeredAtMillis;
+        this.latencyMillis = latencyMillis;
+        this.attempts = attempts;
+    }
+
+    public LatencyKind getKind() {
+        return kind;
+    }
+
+    public String getNetworkElementId() {
+        return networkElementId;
+    }
+
+    /**
+     * @return The wall clock time of the trigger, in milliseconds since the epoch.
+     */
+    public long getTriggeredAtMillis() {
+        return triggeredAtMillis;
+    }
+
+    public long getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    /**
+     * @return The number of alarm queries sent until the reaction was observed.
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s: %d ms (%d attempt(s))", kind, networkElementId, latencyMillis, attempts);
+    }
+
+}
@@ -0,0 +1,71 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.load;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.PREFIX;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getDouble;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getInt;
+
+/**
+ * The settings of the load scenarios, read from the {@code services.nodeSyncMonitor.load.*} properties:
+ * <ul>
+ * <li>{@code nodes}: the number of nodes under test pushed into failed sync state at the same time, 0 for every node under test</li>
+ * <li>{@code syncRate}: the target rate of {@code cmedit action ... sync} commands per second over all vUsers, 0 for no limit</li>
+ * <li>{@code vUsers}: the number of vUsers sharing the nodes</li>
+ * </ul>
+ */
+public final class LoadProfile {
+
+    private static final String LOAD_PREFIX = PREFIX + "load.";
+
+    private final int nodes;
+    private final double syncRate;
+    private final int vUsers;
+
+    public LoadProfile(final int nodes, final double syncRate, final int vUsers) {
+        if (nodes < 0 || syncRate < 0 || vUsers < 1) {
+            throw new IllegalArgumentException(String.format("Invalid load profile: nodes=%d, syncRate=%s, vUsers=%d", nodes, syncRate, vUsers));
+        }
+        this.nodes = nodes;
+        this.syncRate = syncRate;
+        this.vUsers = vUsers;
+    }
+
+    public static LoadProfile fromConfiguration() {
+        return new LoadProfile(getInt(LOAD_PREFIX + "nodes", 0), getDouble(LOAD_PREFIX + "syncRate", 0), getInt(LOAD_PREFIX + "vUsers", 10));
+    }
+
+    /**
+     * @return The number of nodes pushed into failed sync state, 0 for every node under test.
+     */
+    public int getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return The target number of sync actions per second, 0 for no limit.
+     */
+    public double getSyncRate() {
+        return syncRate;
+    }
+
+    public int getVUsers() {
+        return vUsers;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("nodes=%s, syncRate=%s/s, vUsers=%d", nodes == 0 ? "all" : nodes, syncRate == 0 ? "unlimited" : syncRate, vUsers);
+    }
+
+}
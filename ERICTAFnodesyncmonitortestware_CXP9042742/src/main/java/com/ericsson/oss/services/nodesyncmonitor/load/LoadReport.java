@@ -0,0 +1,81 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.load;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.HdrHistogram.Histogram;
+import org.json.simple.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyKind;
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyRecorder;
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyReport;
+import com.ericsson.oss.services.nodesyncmonitor.utils.ReportFiles;
+
+/**
+ * Reports the throughput of the node sync monitor under a load scenario: the alarms raised and sync commands sent per second over the load
+ * window, and the alarm raise (detection) latency percentiles recorded by the {@link LatencyRecorder}. The report is logged and written as
+ * {@code node-sync-monitor-load-<time>.json} to {@code services.nodeSyncMonitor.load.reportDir}.
+ */
+public final class LoadReport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadReport.class);
+
+    private static final String REPORT_DIR_PROPERTY = "services.nodeSyncMonitor.load.reportDir";
+    private static final String DEFAULT_REPORT_DIR = "target/load";
+    private static final String FILE_PREFIX = "node-sync-monitor-load-";
+
+    private LoadReport() {}
+
+    /**
+     * @param profile
+     *            The settings of the load scenario.
+     * @param nodes
+     *            The number of nodes pushed into failed sync state.
+     * @param windowNanos
+     *            The time from the first sync command until the last alarm was observed.
+     * @param recorder
+     *            The recorder holding the alarm raise latencies of the load window only.
+     */
+    @SuppressWarnings("unchecked")
+    public static void export(final LoadProfile profile, final int nodes, final long windowNanos, final LatencyRecorder recorder) {
+        final Histogram raiseLatency = recorder.getHistogram(LatencyKind.RAISE);
+        final long syncActions = SyncRateLimiter.getInstance().getAcquired();
+        final double windowSeconds = Math.max(1L, NANOSECONDS.toMillis(windowNanos)) / 1000.0;
+
+        final JSONObject report = new JSONObject();
+        report.put("nodes", nodes);
+        report.put("vUsers", profile.getVUsers());
+        report.put("targetSyncRate", profile.getSyncRate());
+        report.put("windowMillis", NANOSECONDS.toMillis(windowNanos));
+        report.put("syncActions", syncActions);
+        report.put("syncActionsPerSecond", syncActions / windowSeconds);
+        report.put("alarmsRaised", raiseLatency.getTotalCount());
+        report.put("alarmsRaisedPerSecond", raiseLatency.getTotalCount() / windowSeconds);
+        report.put("raiseLatency", LatencyReport.summary(raiseLatency));
+        LOGGER.info("Load with {} on {} node(s): {}", profile, nodes, report.toJSONString());
+        try {
+            final File file = ReportFiles.newReportFile(REPORT_DIR_PROPERTY, DEFAULT_REPORT_DIR, FILE_PREFIX, "json");
+            ReportFiles.writeJson(report, file);
+            LOGGER.info("Load report written to {}", file);
+        } catch (final IOException e) {
+            LOGGER.warn("Could not write the load report", e);
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.load;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.util.concurrent.RateLimiter;
+
+/**
+ * Paces the {@code cmedit action ... sync} commands sent by all vUsers to the rate of the running load scenario, and counts them.
+ * <p>
+ * Outside a load scenario no rate is set and {@link #acquire()} only counts the command.
+ */
+public final class SyncRateLimiter {
+
+    private static final SyncRateLimiter INSTANCE = new SyncRateLimiter();
+
+    private final AtomicLong acquired = new AtomicLong();
+    private volatile RateLimiter rateLimiter;
+
+    private SyncRateLimiter() {}
+
+    public static SyncRateLimiter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Limits the sync commands to {@code permitsPerSecond} from now on and resets the count.
+     *
+     * @param permitsPerSecond
+     *            The target rate, 0 for no limit.
+     */
+    public void start(final double permitsPerSecond) {
+        acquired.set(0);
+        rateLimiter = permitsPerSecond > 0 ? RateLimiter.create(permitsPerSecond) : null;
+    }
+
+    /**
+     * Removes the limit.
+     */
+    public void stop() {
+        rateLimiter = null;
+    }
+
+    /**
+     * Blocks until the next sync command may be sent at the target rate.
+     */
+    public void acquire() {
+        final RateLimiter limiter = rateLimiter;
+        if (limiter != null) {
+            limiter.acquire();
+        }
+        acquired.incrementAndGet();
+    }
+
+    /**
+     * @return The number of sync commands sent since the last {@link #start}.
+     */
+    public long getAcquired() {
+        return acquired.get();
+    }
+
+}
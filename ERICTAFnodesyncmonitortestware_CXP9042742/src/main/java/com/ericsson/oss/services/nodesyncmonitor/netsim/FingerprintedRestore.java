@@ -0,0 +1,112 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.netsim;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getBoolean;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.oss.services.nodesyncmonitor.gateway.NetSimGateway;
+
+/**
+ * Restores only the network elements whose database diverged from the one they were last restored with.
+ * <p>
+ * The network elements are stopped first, so NetSim has written their database and is no longer writing it, and their fingerprints are compared
+ * with those recorded in the {@link NeFingerprintStore}. The database of the network elements which differ, or were never fingerprinted, is
+ * restored (in parallel per simulation by the gateway) and fingerprinted again while they are still stopped; those fingerprints are recorded.
+ * Every network element is then started. A network element which could not be stopped is not restored. Can be disabled with
+ * {@code services.nodeSyncMonitor.netsim.fingerprint=false}, in which case every network element is restored.
+ */
+public final class FingerprintedRestore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FingerprintedRestore.class);
+
+    private static final String FINGERPRINT_PROPERTY = "services.nodeSyncMonitor.netsim.fingerprint";
+
+    private FingerprintedRestore() {}
+
+    /**
+     * @param netSim
+     *            The NetSim gateway.
+     * @param networkElementIds
+     *            The network elements to bring back to their restored state.
+     * @return One outcome per network element, failed at the first command sequence which failed on it. The elapsed time is that of every
+     *         sequence executed on it.
+     * @throws InterruptedException
+     *             If the thread is interrupted while waiting for NetSim.
+     */
+    public static List<NeCommandOutcome> restore(final NetSimGateway netSim, final List<String> networkElementIds) throws InterruptedException {
+        if (!getBoolean(FINGERPRINT_PROPERTY, true)) {
+            return netSim.execute(networkElementIds, NeCommandSequence.restore());
+        }
+        final NeFingerprintStore store = NeFingerprintStore.getInstance();
+        final Map<String, NeCommandOutcome> outcomes = new LinkedHashMap<>();
+        final List<String> stopped = execute(netSim, networkElementIds, NeCommandSequence.stop(), outcomes);
+
+        final Map<String, NeFingerprint> current = netSim.fingerprint(stopped);
+        final List<String> diverged = new ArrayList<>();
+        final List<String> unchanged = new ArrayList<>();
+        for (final String networkElementId : stopped) {
+            final NeFingerprint fingerprint = current.get(networkElementId);
+            if (fingerprint != null && store.matches(fingerprint)) {
+                unchanged.add(networkElementId);
+            } else {
+                diverged.add(networkElementId);
+                if (fingerprint != null) {
+                    store.remove(fingerprint);
+                }
+            }
+        }
+        LOGGER.info("{} of {} stopped network element(s) still match their restored database, restoring {}", unchanged.size(), stopped.size(),
+                diverged);
+
+        final List<String> restored = execute(netSim, diverged, NeCommandSequence.restoreDatabase(), outcomes);
+        for (final NeFingerprint fingerprint : netSim.fingerprint(restored).values()) {
+            store.put(fingerprint);
+        }
+        store.save();
+
+        final List<String> toStart = new ArrayList<>(unchanged);
+        toStart.addAll(restored);
+        execute(netSim, toStart, NeCommandSequence.start(), outcomes);
+        return new ArrayList<>(outcomes.values());
+    }
+
+    /*
+     * Executes the sequence and merges its outcomes into those of the earlier sequences. Returns the network elements it succeeded on.
+     */
+    private static List<String> execute(final NetSimGateway netSim, final List<String> networkElementIds, final NeCommandSequence sequence,
+                                        final Map<String, NeCommandOutcome> outcomes) throws InterruptedException {
+        final List<String> succeeded = new ArrayList<>(networkElementIds.size());
+        if (networkElementIds.isEmpty()) {
+            return succeeded;
+        }
+        for (final NeCommandOutcome outcome : netSim.execute(networkElementIds, sequence)) {
+            final NeCommandOutcome previous = outcomes.get(outcome.getNetworkElementId());
+            outcomes.put(outcome.getNetworkElementId(), previous == null ? outcome
+                    : new NeCommandOutcome(outcome.getNetworkElementId(), outcome.getSimulationName(),
+                            previous.getElapsedMillis() + outcome.getElapsedMillis(), outcome.getError()));
+            if (outcome.isSuccess()) {
+                succeeded.add(outcome.getNetworkElementId());
+            }
+        }
+        return succeeded;
+    }
+
+}
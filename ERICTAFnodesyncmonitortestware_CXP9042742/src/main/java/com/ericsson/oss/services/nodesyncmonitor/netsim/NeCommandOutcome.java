@@ -0,0 +1,64 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.netsim;
+
+/**
+ * The result of executing a {@link NeCommandSequence} on one network element.
+ */
+public final class NeCommandOutcome {
+
+    private final String networkElementId;
+    private final String simulationName;
+    private final long elapsedMillis;
+    private final Exception error;
+
+    public NeCommandOutcome(final String networkElementId, final String simulationName, final long elapsedMillis, final Exception error) {
+        this.networkElementId = networkElementId;
+        this.simulationName = simulationName;
+        this.elapsedMillis = elapsedMillis;
+        this.error = error;
+    }
+
+    public String getNetworkElementId() {
+        return networkElementId;
+    }
+
+    /**
+     * @return The simulation of the network element, or null if the network element could not be found in NetSim.
+     */
+    public String getSimulationName() {
+        return simulationName;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * @return The exception which made the commands fail, or null if they succeeded.
+     */
+    public Exception getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s): %s in %d ms", networkElementId, simulationName, isSuccess() ? "OK" : "FAILED [" + error.getMessage() + "]",
+                elapsedMillis);
+    }
+
+}
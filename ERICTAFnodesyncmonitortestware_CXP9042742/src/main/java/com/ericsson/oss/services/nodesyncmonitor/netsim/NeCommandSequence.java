@@ -0,0 +1,129 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.netsim;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The NetSim commands executed on a network element, sent to {@code netsim_pipe} after selecting it (see {@link NetSimPipe}).
+ */
+public abstract class NeCommandSequence {
+
+    public static final String RESTORE = "restore";
+    public static final String RESTORE_DATABASE = "restoreDatabase";
+    public static final String STOP = "stop";
+    public static final String START = "start";
+
+    private final String name;
+
+    protected NeCommandSequence(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param simulationName
+     *            The simulation of the network element.
+     * @param networkElementName
+     *            The name of the network element the commands are executed on.
+     * @return The commands, in execution order.
+     */
+    public abstract List<String> commandsFor(String simulationName, String networkElementName);
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return True if the sequence replaces the NetSim side of the network element, so cached handles of it must be invalidated.
+     */
+    public boolean changesNetworkElement() {
+        return false;
+    }
+
+    /**
+     * @return Stops the network element, restores its database from {@code /netsim/netsimdir/<sim>/allsaved/dbs/curr_<ne>} and starts it again.
+     */
+    public static NeCommandSequence restore() {
+        return new NeCommandSequence(RESTORE) {
+            @Override
+            public List<String> commandsFor(final String simulationName, final String networkElementName) {
+                return Arrays.asList(".stop", restoreDatabaseCommand(simulationName, networkElementName), ".start");
+            }
+
+            @Override
+            public boolean changesNetworkElement() {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return Restores the database of the stopped network element from {@code /netsim/netsimdir/<sim>/allsaved/dbs/curr_<ne>}, leaving it
+     *         stopped.
+     */
+    public static NeCommandSequence restoreDatabase() {
+        return new NeCommandSequence(RESTORE_DATABASE) {
+            @Override
+            public List<String> commandsFor(final String simulationName, final String networkElementName) {
+                return Collections.singletonList(restoreDatabaseCommand(simulationName, networkElementName));
+            }
+
+            @Override
+            public boolean changesNetworkElement() {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return Stops the network element.
+     */
+    public static NeCommandSequence stop() {
+        return new NeCommandSequence(STOP) {
+            @Override
+            public List<String> commandsFor(final String simulationName, final String networkElementName) {
+                return Collections.singletonList(".stop");
+            }
+        };
+    }
+
+    /**
+     * @return Starts the network element.
+     */
+    public static NeCommandSequence start() {
+        return new NeCommandSequence(START) {
+            @Override
+            public List<String> commandsFor(final String simulationName, final String networkElementName) {
+                return Collections.singletonList(".start");
+            }
+        };
+    }
+
+    /**
+     * @param simulationName
+     *            The simulation of the network element.
+     * @param networkElementName
+     *            The name of the network element.
+     * @return The path of the saved database the network element is restored from.
+     */
+    public static String restoreImagePath(final String simulationName, final String networkElementName) {
+        return String.format("/netsim/netsimdir/%s/allsaved/dbs/%s_%s", simulationName, "curr", networkElementName);
+    }
+
+    private static String restoreDatabaseCommand(final String simulationName, final String networkElementName) {
+        return ".restorenedatabase " + restoreImagePath(simulationName, networkElementName);
+    }
+
+}
@@ -0,0 +1,56 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.netsim;
+
+/**
+ * The fingerprint of the database of a network element, with the NetSim host and simulation it was taken on (see {@link NeFingerprints}).
+ */
+public final class NeFingerprint {
+
+    private final String host;
+    private final String simulationName;
+    private final String networkElementName;
+    private final String digest;
+
+    public NeFingerprint(final String host, final String simulationName, final String networkElementName, final String digest) {
+        this.host = host;
+        this.simulationName = simulationName;
+        this.networkElementName = networkElementName;
+        this.digest = digest;
+    }
+
+    /**
+     * @return The NetSim host the network element is simulated on.
+     */
+    public String getHost() {
+        return host;
+    }
+
+    public String getSimulationName() {
+        return simulationName;
+    }
+
+    public String getNetworkElementName() {
+        return networkElementName;
+    }
+
+    public String getDigest() {
+        return digest;
+    }
+
+    @Override
+    public String toString() {
+        return host + '/' + simulationName + '/' + networkElementName + ' ' + digest;
+    }
+
+}
@@ -0,0 +1,116 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.netsim;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.PREFIX;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getString;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.io.Files;
+
+/**
+ * The fingerprints of the network elements recorded right after their database was restored, while they were still stopped. They are kept
+ * between runs in one properties file per NetSim host, {@code <directory>/<host>.properties} under {@value #DIRECTORY_PROPERTY}, keyed by
+ * {@code <simulation>/<network element>}, so a recorded fingerprint is only ever compared with the same network element of the same deployment.
+ * A network element whose fingerprint, taken while it is stopped, equals the recorded one still has the database it was restored with.
+ */
+public final class NeFingerprintStore {
+
+    public static final String DIRECTORY_PROPERTY = PREFIX + "netsim.fingerprintDir";
+    public static final String DEFAULT_DIRECTORY = "ne-fingerprints";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NeFingerprintStore.class);
+
+    private static final NeFingerprintStore INSTANCE = new NeFingerprintStore();
+
+    private final Map<String, Properties> fingerprintsByHost = new HashMap<>();
+
+    private NeFingerprintStore() {}
+
+    public static NeFingerprintStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param current
+     *            A fingerprint taken while the network element was stopped.
+     * @return True if the fingerprint equals the one recorded after the last restore of the same network element.
+     */
+    public synchronized boolean matches(final NeFingerprint current) {
+        return current.getDigest().equals(load(current.getHost()).getProperty(key(current)));
+    }
+
+    public synchronized void put(final NeFingerprint fingerprint) {
+        load(fingerprint.getHost()).setProperty(key(fingerprint), fingerprint.getDigest());
+    }
+
+    public synchronized void remove(final NeFingerprint fingerprint) {
+        load(fingerprint.getHost()).remove(key(fingerprint));
+    }
+
+    /**
+     * Writes the fingerprints of every NetSim host used in this run to their files. A failure is logged, as it only costs restores in the next
+     * run.
+     */
+    public synchronized void save() {
+        for (final Map.Entry<String, Properties> host : fingerprintsByHost.entrySet()) {
+            final File file = fileOf(host.getKey());
+            try {
+                Files.createParentDirs(file);
+                try (Writer writer = Files.newWriter(file, StandardCharsets.UTF_8)) {
+                    host.getValue().store(writer, "Network element database fingerprints of " + host.getKey() + " recorded after restore");
+                }
+            } catch (final IOException e) {
+                LOGGER.warn("Could not write the network element fingerprints to {}", file, e);
+            }
+        }
+    }
+
+    private Properties load(final String host) {
+        Properties fingerprints = fingerprintsByHost.get(host);
+        if (fingerprints == null) {
+            fingerprints = new Properties();
+            final File file = fileOf(host);
+            if (file.isFile()) {
+                try (Reader reader = Files.newReader(file, StandardCharsets.UTF_8)) {
+                    fingerprints.load(reader);
+                } catch (final IOException e) {
+                    LOGGER.warn("Could not read the network element fingerprints from {}, its network elements will be restored", file, e);
+                    fingerprints.clear();
+                }
+            }
+            fingerprintsByHost.put(host, fingerprints);
+        }
+        return fingerprints;
+    }
+
+    private static File fileOf(final String host) {
+        return new File(getString(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY), host.replaceAll("[^A-Za-z0-9._-]", "_") + ".properties");
+    }
+
+    private static String key(final NeFingerprint fingerprint) {
+        return fingerprint.getSimulationName() + '/' + fingerprint.getNetworkElementName();
+    }
+
+}
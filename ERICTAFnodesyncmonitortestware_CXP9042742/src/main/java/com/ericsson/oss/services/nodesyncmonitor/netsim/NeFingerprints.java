@@ -0,0 +1,69 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.netsim;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+
+/**
+ * Builds and parses the shell command which fingerprints the databases of the network elements of a simulation on a NetSim host.
+ * <p>
+ * The fingerprint of a network element is the MD5 of the relative path, size and modification time of every file of its database under
+ * {@value #DATABASE_DIRECTORY}. It changes whenever NetSim writes the database, and costs one round trip per simulation and a directory listing
+ * per network element, whatever the size of the database. It only covers what NetSim wrote to disk, so it is only meaningful for a stopped
+ * network element: a started one keeps changes in memory until it is stopped.
+ */
+public final class NeFingerprints {
+
+    static final String DATABASE_DIRECTORY = "/netsim/netsim_dbdir/simdir/netsim/netsimdir";
+
+    private static final Pattern FINGERPRINT_LINE = Pattern.compile("^FP (\\S+) ([0-9a-f]{32})$");
+    private static final Splitter LINE_SPLITTER = Splitter.on('\n').trimResults().omitEmptyStrings();
+
+    private NeFingerprints() {}
+
+    /**
+     * @param simulationName
+     *            The simulation of the network elements.
+     * @param networkElementNames
+     *            The names of the network elements.
+     * @return The command printing {@code FP <network element> <fingerprint>} for every network element which has a database on the host.
+     */
+    public static String command(final String simulationName, final Iterable<String> networkElementNames) {
+        return String.format("cd %s/%s 2>/dev/null && for ne in %s; do [ -d \"$ne\" ] && echo \"FP $ne $(find \"$ne\" -type f "
+                + "-printf '%%P %%s %%T@\\n' | sort | md5sum | cut -d' ' -f1)\"; done; true", DATABASE_DIRECTORY, simulationName,
+                Joiner.on(' ').join(networkElementNames));
+    }
+
+    /**
+     * @param output
+     *            The output of {@link #command}.
+     * @return The fingerprint of every network element in the output, keyed by network element name. Any other line is ignored.
+     */
+    public static Map<String, String> parse(final String output) {
+        final Map<String, String> fingerprints = new LinkedHashMap<>();
+        for (final String line : LINE_SPLITTER.split(output == null ? "" : output)) {
+            final Matcher matcher = FINGERPRINT_LINE.matcher(line);
+            if (matcher.matches()) {
+                fingerprints.put(matcher.group(1), matcher.group(2));
+            }
+        }
+        return fingerprints;
+    }
+
+}
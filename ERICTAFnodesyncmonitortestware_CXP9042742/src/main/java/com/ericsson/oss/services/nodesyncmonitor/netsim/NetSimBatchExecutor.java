@@ -0,0 +1,274 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.netsim;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getInt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.cifwk.taf.data.Host;
+import com.ericsson.cifwk.taf.handlers.netsim.domain.NetworkElement;
+import com.ericsson.cifwk.taf.tools.cli.TafCliToolShell;
+import com.ericsson.cifwk.taf.tools.cli.TafCliTools;
+import com.ericsson.oss.services.nodesyncmonitor.dataprovider.NetSimOperatorProvider;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.NetSimGateway;
+import com.ericsson.oss.services.nodesyncmonitor.resilience.Resilience;
+import com.ericsson.oss.testware.hostconfigurator.HostConfigurator;
+import com.google.common.base.Supplier;
+import com.google.common.collect.Lists;
+
+/**
+ * Executes a {@link NeCommandSequence} on many network elements at once.
+ * <p>
+ * The network elements are grouped by simulation. Every NetSim host is handled by one worker over a single SSH shell: it lists the
+ * simulations of the host and, for each simulation of the batch found on it, pipes {@code .open <sim>}, then {@code .select <ne>} and the
+ * command sequence of each network element of the simulation to {@code netsim_pipe} in a single call (see {@link NetSimPipe}). A batch
+ * therefore costs one round trip per simulation, whatever the number of network elements. Hosts are processed in parallel, up to
+ * {@code services.nodeSyncMonitor.netsim.parallelHosts} at a time; the simulations of a host are handled one after the other. A single host
+ * is handled on the calling thread. A network element fails unless NetSim answers {@code OK} to the opening of its simulation and to every
+ * command of its own.
+ * <p>
+ * Fingerprints (see {@link NeFingerprints}) are taken over SSH on every NetSim host of the deployment, with one command per simulation.
+ * <p>
+ * The {@code netsim_pipe} calls and the fingerprint commands are retried through {@link Resilience} as the {@value Resilience#NETSIM} endpoint.
+ */
+public class NetSimBatchExecutor implements NetSimGateway {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NetSimBatchExecutor.class);
+
+    private static final String PARALLEL_HOSTS_PROPERTY = "services.nodeSyncMonitor.netsim.parallelHosts";
+    private static final int DEFAULT_PARALLEL_HOSTS = 4;
+    private static final Pattern OK = Pattern.compile("\\bOK\\b");
+
+    @Override
+    public List<NeCommandOutcome> execute(final Iterable<String> networkElementIds, final NeCommandSequence sequence) throws InterruptedException {
+        final List<NeCommandOutcome> outcomes = Lists.newArrayList();
+        final Map<String, Map<String, NetworkElement>> networkElementsBySimulation = groupBySimulation(networkElementIds, outcomes);
+        if (networkElementsBySimulation.isEmpty()) {
+            return outcomes;
+        }
+        final List<Host> hosts = HostConfigurator.getAllNetsimHosts();
+        final Set<String> handled = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        if (hosts.size() == 1) {
+            outcomes.addAll(executeOnHost(hosts.get(0), networkElementsBySimulation, sequence, handled));
+        } else if (!hosts.isEmpty()) {
+            final int workers = Math.max(1, Math.min(getInt(PARALLEL_HOSTS_PROPERTY, DEFAULT_PARALLEL_HOSTS), hosts.size()));
+            LOGGER.info("Executing {} on {} simulation(s) over {} NetSim host(s) with {} worker(s)", sequence.getName(),
+                    networkElementsBySimulation.size(), hosts.size(), workers);
+            final ExecutorService executor = Executors.newFixedThreadPool(workers);
+            try {
+                final List<Future<List<NeCommandOutcome>>> futures = new ArrayList<>();
+                for (final Host host : hosts) {
+                    futures.add(executor.submit(new Callable<List<NeCommandOutcome>>() {
+                        @Override
+                        public List<NeCommandOutcome> call() {
+                            return executeOnHost(host, networkElementsBySimulation, sequence, handled);
+                        }
+                    }));
+                }
+                for (final Future<List<NeCommandOutcome>> future : futures) {
+                    outcomes.addAll(getResult(future));
+                }
+            } finally {
+                executor.shutdownNow();
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            }
+        }
+        for (final Map.Entry<String, Map<String, NetworkElement>> simulation : networkElementsBySimulation.entrySet()) {
+            if (!handled.contains(simulation.getKey())) {
+                final Exception error = new IllegalStateException("Simulation not found on any reachable NetSim host");
+                for (final String networkElementId : simulation.getValue().keySet()) {
+                    outcomes.add(new NeCommandOutcome(networkElementId, simulation.getKey(), 0, error));
+                }
+            }
+        }
+        return outcomes;
+    }
+
+    @Override
+    public Map<String, NeFingerprint> fingerprint(final Iterable<String> networkElementIds) {
+        final Map<String, Map<String, NetworkElement>> networkElementsBySimulation = groupBySimulation(networkElementIds,
+                new ArrayList<NeCommandOutcome>());
+        final Map<String, NeFingerprint> fingerprints = new HashMap<>();
+        if (networkElementsBySimulation.isEmpty()) {
+            return fingerprints;
+        }
+        for (final Host host : HostConfigurator.getAllNetsimHosts()) {
+            final TafCliToolShell shell = TafCliTools.sshShell(host).build();
+            try {
+                for (final Map.Entry<String, Map<String, NetworkElement>> simulation : networkElementsBySimulation.entrySet()) {
+                    final Map<String, String> idsByName = new HashMap<>();
+                    for (final Map.Entry<String, NetworkElement> networkElement : simulation.getValue().entrySet()) {
+                        idsByName.put(networkElement.getValue().getName(), networkElement.getKey());
+                    }
+                    final String command = NeFingerprints.command(simulation.getKey(), idsByName.keySet());
+                    final Map<String, String> digests = NeFingerprints.parse(execute(shell, "Fingerprint " + simulation.getKey(),
+                            command));
+                    for (final Map.Entry<String, String> digest : digests.entrySet()) {
+                        fingerprints.put(idsByName.get(digest.getKey()),
+                                new NeFingerprint(host.getHostname(), simulation.getKey(), digest.getKey(), digest.getValue()));
+                    }
+                }
+            } finally {
+                shell.close();
+            }
+        }
+        LOGGER.info("Fingerprinted {} network element(s) in {} simulation(s)", fingerprints.size(), networkElementsBySimulation.size());
+        return fingerprints;
+    }
+
+    /*
+     * The network elements keyed by simulation, then by network element id. An outcome is added for every network element not found.
+     */
+    private static Map<String, Map<String, NetworkElement>> groupBySimulation(final Iterable<String> networkElementIds,
+                                                                             final List<NeCommandOutcome> outcomes) {
+        final NetSimOperatorProvider netSimOperatorProvider = NetSimOperatorProvider.getInstance();
+        final Map<String, Map<String, NetworkElement>> networkElementsBySimulation = new LinkedHashMap<>();
+        for (final String networkElementId : networkElementIds) {
+            try {
+                final NetworkElement networkElement = netSimOperatorProvider.getNetworkElement(networkElementId);
+                if (networkElement == null) {
+                    throw new IllegalStateException("Network element not found in NetSim");
+                }
+                Map<String, NetworkElement> networkElements = networkElementsBySimulation.get(networkElement.getSimulationName());
+                if (networkElements == null) {
+                    networkElements = new LinkedHashMap<>();
+                    networkElementsBySimulation.put(networkElement.getSimulationName(), networkElements);
+                }
+                networkElements.put(networkElementId, networkElement);
+            } catch (final RuntimeException e) {
+                outcomes.add(new NeCommandOutcome(networkElementId, null, 0, e));
+            }
+        }
+        return networkElementsBySimulation;
+    }
+
+    /*
+     * Executes the sequence on the simulations of the batch which are on the host and not handled yet by another host.
+     */
+    private static List<NeCommandOutcome> executeOnHost(final Host host,
+                                                        final Map<String, Map<String, NetworkElement>> networkElementsBySimulation,
+                                                        final NeCommandSequence sequence, final Set<String> handled) {
+        final List<NeCommandOutcome> outcomes = new ArrayList<>();
+        final TafCliToolShell shell;
+        try {
+            shell = TafCliTools.sshShell(host).build();
+        } catch (final RuntimeException e) {
+            LOGGER.warn("Could not open a shell on NetSim host {}", host.getHostname(), e);
+            return outcomes;
+        }
+        try {
+            final List<String> simulationsOnHost = NetSimPipe.simulations(execute(shell, "List simulations on " + host.getHostname(),
+                    NetSimPipe.listSimulationsCommand()));
+            for (final Map.Entry<String, Map<String, NetworkElement>> simulation : networkElementsBySimulation.entrySet()) {
+                if (simulationsOnHost.contains(simulation.getKey()) && handled.add(simulation.getKey())) {
+                    outcomes.addAll(executeOnSimulation(shell, simulation.getKey(), simulation.getValue(), sequence));
+                }
+            }
+        } catch (final RuntimeException e) {
+            LOGGER.warn("Could not list the simulations of NetSim host {}", host.getHostname(), e);
+        } finally {
+            shell.close();
+        }
+        return outcomes;
+    }
+
+    /*
+     * Pipes the sequence of every network element of the simulation to netsim_pipe in one call, and checks the response to each command.
+     */
+    private static List<NeCommandOutcome> executeOnSimulation(final TafCliToolShell shell, final String simulationName,
+                                                              final Map<String, NetworkElement> networkElements,
+                                                              final NeCommandSequence sequence) {
+        final List<String> commands = Lists.newArrayList(".open " + simulationName);
+        final Map<String, int[]> commandRanges = new LinkedHashMap<>();
+        for (final Map.Entry<String, NetworkElement> networkElement : networkElements.entrySet()) {
+            final int from = commands.size();
+            commands.add(".select " + networkElement.getValue().getName());
+            commands.addAll(sequence.commandsFor(simulationName, networkElement.getValue().getName()));
+            commandRanges.put(networkElement.getKey(), new int[] { from, commands.size() });
+        }
+
+        final long start = System.nanoTime();
+        List<String> responses = Collections.emptyList();
+        Exception simulationError = null;
+        try {
+            responses = NetSimPipe.responses(execute(shell, sequence.getName() + " " + simulationName, NetSimPipe.command(commands)));
+            checkResponse(commands, responses, 0);
+        } catch (final RuntimeException e) {
+            simulationError = e;
+        }
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) / networkElements.size();
+
+        final List<NeCommandOutcome> outcomes = new ArrayList<>(networkElements.size());
+        for (final Map.Entry<String, int[]> networkElement : commandRanges.entrySet()) {
+            final String networkElementId = networkElement.getKey();
+            Exception error = simulationError;
+            try {
+                for (int i = networkElement.getValue()[0]; error == null && i < networkElement.getValue()[1]; i++) {
+                    checkResponse(commands, responses, i);
+                }
+            } catch (final RuntimeException e) {
+                error = e;
+            }
+            if (error != null || sequence.changesNetworkElement()) {
+                NetSimOperatorProvider.getInstance().invalidate(networkElementId);
+            }
+            final NeCommandOutcome outcome = new NeCommandOutcome(networkElementId, simulationName, elapsedMillis, error);
+            LOGGER.info("{} {}", sequence.getName(), outcome);
+            outcomes.add(outcome);
+        }
+        return outcomes;
+    }
+
+    private static void checkResponse(final List<String> commands, final List<String> responses, final int index) {
+        final String response = index < responses.size() ? responses.get(index) : null;
+        if (response == null || !OK.matcher(response).find()) {
+            throw new IllegalStateException(String.format("Command [%s] failed with output [%s]", commands.get(index), response));
+        }
+    }
+
+    private static String execute(final TafCliToolShell shell, final String description, final String command) {
+        return Resilience.getInstance().call(Resilience.NETSIM, description, new Supplier<String>() {
+            @Override
+            public String get() {
+                return shell.execute(command).getOutput();
+            }
+        });
+    }
+
+    private static List<NeCommandOutcome> getResult(final Future<List<NeCommandOutcome>> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("NetSim worker failed unexpectedly", e.getCause());
+        }
+    }
+
+}
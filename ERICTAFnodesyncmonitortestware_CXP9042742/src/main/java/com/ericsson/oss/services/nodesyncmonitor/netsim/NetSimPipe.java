@@ -0,0 +1,90 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.netsim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+
+/**
+ * Builds and parses the shell command which pipes NetSim commands to {@value #NETSIM_PIPE} on a NetSim host.
+ * <p>
+ * {@code netsim_pipe} echoes every command it reads as {@code >> <command>} followed by its response, so the output is split back into one
+ * response per command and the response of every command of a network element can be checked, whatever the number of network elements
+ * driven in the same call.
+ */
+public final class NetSimPipe {
+
+    static final String NETSIM_PIPE = "/netsim/inst/netsim_pipe";
+    static final String SIMULATIONS_DIRECTORY = "/netsim/netsimdir";
+
+    private static final String ECHO_PREFIX = ">>";
+    private static final Splitter LINE_SPLITTER = Splitter.on('\n').trimResults().omitEmptyStrings();
+
+    private NetSimPipe() {}
+
+    /**
+     * @param commands
+     *            The NetSim commands, e.g. {@code .open <sim>}, {@code .select <ne>} and {@code .start}. None may contain a single quote or a
+     *            line break.
+     * @return The shell command sending the NetSim commands, one per line, to {@code netsim_pipe}.
+     */
+    public static String command(final List<String> commands) {
+        return String.format("printf '%%s\\n' '%s' | %s", Joiner.on("' '").join(commands), NETSIM_PIPE);
+    }
+
+    /**
+     * @return The shell command listing the simulations of a NetSim host, one per line.
+     */
+    public static String listSimulationsCommand() {
+        return "ls -1 " + SIMULATIONS_DIRECTORY;
+    }
+
+    /**
+     * @param output
+     *            The output of {@link #command}.
+     * @return The response to every command echoed in the output, in order; a command which got no response has an empty one. Anything before
+     *         the first echoed command is ignored.
+     */
+    public static List<String> responses(final String output) {
+        final List<String> responses = new ArrayList<>();
+        StringBuilder response = null;
+        for (final String line : LINE_SPLITTER.split(output == null ? "" : output)) {
+            if (line.startsWith(ECHO_PREFIX)) {
+                if (response != null) {
+                    responses.add(response.toString());
+                }
+                response = new StringBuilder();
+            } else if (response != null) {
+                response.append(response.length() == 0 ? "" : "\n").append(line);
+            }
+        }
+        if (response != null) {
+            responses.add(response.toString());
+        }
+        return responses;
+    }
+
+    /**
+     * @param output
+     *            The output of {@link #listSimulationsCommand}.
+     * @return The names of the simulations.
+     */
+    public static List<String> simulations(final String output) {
+        return Lists.newArrayList(LINE_SPLITTER.split(output == null ? "" : output));
+    }
+
+}
@@ -0,0 +1,58 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.pib;
+
+import com.ericsson.oss.services.nodesyncmonitor.journal.Journal;
+import com.ericsson.oss.services.nodesyncmonitor.standin.StandIn;
+import com.ericsson.oss.testware.hostconfigurator.HostConfigurator;
+import com.google.common.base.Supplier;
+
+/**
+ * The kind of ENM deployment under test, which decides where and how PIB commands are executed.
+ */
+public enum DeploymentType {
+
+    /** pENM: commands are executed from the LMS. */
+    PHYSICAL,
+    /** vENM (IaaS using Openstack): commands are executed from the EMP VM. */
+    VIRTUAL,
+    /** cENM (CaaS using Kubernetes): commands are executed from the director node. */
+    CLOUD;
+
+    /**
+     * @return The deployment type of the system under test. The stand-in (see {@link StandIn}) behaves as a vENM deployment. A replayed
+     *         journal behaves as the deployment it was recorded on (see {@link Journal}).
+     */
+    public static DeploymentType current() {
+        return valueOf(Journal.getInstance().value("deploymentType", new Supplier<String>() {
+            @Override
+            public String get() {
+                return detect().name();
+            }
+        }));
+    }
+
+    private static DeploymentType detect() {
+        if (StandIn.isEnabled()) {
+            return VIRTUAL;
+        }
+        if (HostConfigurator.isCloudEnvironment()) {
+            return CLOUD;
+        }
+        if (HostConfigurator.isVirtualEnvironment()) {
+            return VIRTUAL;
+        }
+        return PHYSICAL;
+    }
+
+}
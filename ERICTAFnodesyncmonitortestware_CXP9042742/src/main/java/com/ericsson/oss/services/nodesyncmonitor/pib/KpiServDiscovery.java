@@ -0,0 +1,145 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.pib;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.oss.services.nodesyncmonitor.gateway.Gateways;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.PibShell;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.ShellResult;
+import com.ericsson.oss.services.nodesyncmonitor.journal.Journal;
+import com.ericsson.oss.testware.hostconfigurator.HostConfigurator;
+import com.ericsson.oss.testware.remoteexecution.operators.PibConnectorImpl;
+import com.google.common.base.Splitter;
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Finds every kpiserv instance of the deployment under test. The instances are discovered on first use and cached for the rest of the run.
+ * <ul>
+ * <li>For pENM the kpiserv service group hosts are listed from the hosts file of the LMS; if there is none, the kpiserv service address of
+ * the host configuration is used</li>
+ * <li>For cENM the kpiserv pods are listed with {@code kubectl} from the director node</li>
+ * <li>For vENM the kpiserv VMs are listed with {@code consul members} from the EMP VM</li>
+ * </ul>
+ */
+public final class KpiServDiscovery {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KpiServDiscovery.class);
+
+    private static final Pattern INSTANCE_NAME_PATTERN = Pattern.compile("^[\\w.-]*kpiserv[\\w.-]*$");
+    private static final Splitter LINE_SPLITTER = Splitter.on('\n').trimResults().omitEmptyStrings();
+
+    private static volatile List<KpiServInstance> instances;
+
+    private KpiServDiscovery() {}
+
+    /**
+     * @param pibConnector
+     *            The connector to the server the PIB commands are executed from.
+     * @return The kpiserv instances of the deployment, discovered on the first call.
+     * @throws IllegalStateException
+     *             If no instance can be found.
+     */
+    public static List<KpiServInstance> instances(final PibConnectorImpl pibConnector) {
+        List<KpiServInstance> discovered = instances;
+        if (discovered == null) {
+            synchronized (KpiServDiscovery.class) {
+                discovered = instances;
+                if (discovered == null) {
+                    discovered = discover(pibConnector);
+                    instances = discovered;
+                }
+            }
+        }
+        return discovered;
+    }
+
+    /**
+     * Forgets the cached instances, so the next call to {@link #instances} discovers them again.
+     */
+    public static void reset() {
+        instances = null;
+    }
+
+    /**
+     * @param output
+     *            The output of the discovery command.
+     * @return The kpiserv instance names in the output, ignoring any line which is not an instance name (e.g. the echoed command or a prompt).
+     */
+    public static List<String> parseInstanceNames(final String output) {
+        final ImmutableList.Builder<String> names = ImmutableList.builder();
+        for (final String line : LINE_SPLITTER.split(output)) {
+            if (INSTANCE_NAME_PATTERN.matcher(line).matches()) {
+                names.add(line);
+            }
+        }
+        return names.build();
+    }
+
+    private static List<KpiServInstance> discover(final PibConnectorImpl pibConnector) {
+        final DeploymentType deploymentType = DeploymentType.current();
+        final String namespace = deploymentType == DeploymentType.CLOUD ? pibHostNamespace() : null;
+        final String command = PibCommandBuilder.discover(deploymentType, namespace);
+        PibShell shell = null;
+        try {
+            shell = Gateways.openPibShell(pibConnector);
+            final ShellResult result = shell.execute(command);
+            final ImmutableList.Builder<KpiServInstance> discovered = ImmutableList.builder();
+            for (final String name : parseInstanceNames(result.getOutput())) {
+                discovered.add(new KpiServInstance(deploymentType, name, namespace));
+            }
+            final List<KpiServInstance> kpiServInstances = discovered.build();
+            if (kpiServInstances.isEmpty() && deploymentType == DeploymentType.PHYSICAL) {
+                LOGGER.warn("No kpiserv host found by [{}], using the kpiserv service address of the host configuration", command);
+                return Collections.singletonList(new KpiServInstance(deploymentType, kpiServiceIp(), null));
+            }
+            if (kpiServInstances.isEmpty()) {
+                throw new IllegalStateException(String.format("No kpiserv instance found by [%s], output [%s]", command, result.getOutput()));
+            }
+            LOGGER.info("Discovered {} kpiserv instance(s) on {} deployment: {}", kpiServInstances.size(), deploymentType, kpiServInstances);
+            return kpiServInstances;
+        } finally {
+            if (shell != null) {
+                shell.close();
+            }
+        }
+    }
+
+    /*
+     * Host configuration values are journaled, as they are not available where a journal is replayed.
+     */
+    private static String kpiServiceIp() {
+        return Journal.getInstance().value("kpiService.ip", new Supplier<String>() {
+            @Override
+            public String get() {
+                return HostConfigurator.getKpiService().getIp();
+            }
+        });
+    }
+
+    private static String pibHostNamespace() {
+        return Journal.getInstance().value("pibHost.namespace", new Supplier<String>() {
+            @Override
+            public String get() {
+                return HostConfigurator.getPibHost().getNamespace();
+            }
+        });
+    }
+
+}
@@ -0,0 +1,72 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.pib;
+
+import java.util.Objects;
+
+/**
+ * One kpiserv instance hosting the node-sync-monitor service: a pod name on cENM, or a host name or IP address on vENM and pENM.
+ */
+public final class KpiServInstance {
+
+    private final DeploymentType deploymentType;
+    private final String name;
+    private final String namespace;
+
+    public KpiServInstance(final DeploymentType deploymentType, final String name, final String namespace) {
+        this.deploymentType = deploymentType;
+        this.name = name;
+        this.namespace = namespace;
+    }
+
+    public DeploymentType getDeploymentType() {
+        return deploymentType;
+    }
+
+    /**
+     * @return The pod name on cENM, otherwise the host name or IP address of the instance.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The Kubernetes namespace on cENM, otherwise null.
+     */
+    public String getNamespace() {
+        return namespace;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof KpiServInstance)) {
+            return false;
+        }
+        final KpiServInstance that = (KpiServInstance) other;
+        return deploymentType == that.deploymentType && Objects.equals(name, that.name) && Objects.equals(namespace, that.namespace);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(deploymentType, name, namespace);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
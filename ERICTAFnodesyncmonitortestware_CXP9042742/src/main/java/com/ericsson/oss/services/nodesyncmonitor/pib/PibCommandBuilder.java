@@ -0,0 +1,91 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.pib;
+
+/**
+ * Builds the PIB {@code config.py} commands which update or read a configuration parameter of the node-sync-monitor service on one kpiserv
+ * instance.
+ */
+public final class PibCommandBuilder {
+
+    public static final String SERVICE_NAME = "node-sync-monitor";
+
+    private static final String PIB_COMMANDS_SCRIPTPATH = "/ericsson/pib-scripts/etc/config.py";
+    private static final String PIB_COMMANDS_SCRIPTPATH_CENM = "/opt/ericsson/PlatformIntegrationBridge/etc/config.py";
+    private static final String SPACE = " ";
+    private static final String PORT_8080 = ":8080";
+    private static final String APP_SERVER_ADDRESS = "--app_server_address=";
+    private static final String SERVICE_IDENTIFIER = "--service_identifier=";
+    private static final String NAME = "--name=";
+    private static final String VALUE = "--value=";
+    private static final String UPDATE = "update";
+    private static final String READ = "read";
+    private static final String SUDO = "sudo";
+
+    private PibCommandBuilder() {}
+
+    /**
+     * @return The command which sets {@code parameter} to {@code value} on {@code instance}.
+     */
+    public static String update(final KpiServInstance instance, final String parameter, final String value) {
+        return forInstance(instance, UPDATE, parameter, value);
+    }
+
+    /**
+     * @return The command which prints the value of {@code parameter} on {@code instance}.
+     */
+    public static String read(final KpiServInstance instance, final String parameter) {
+        return forInstance(instance, READ, parameter, null);
+    }
+
+    /**
+     * @return The command which lists the kpiserv pods (cENM), hosts (vENM) or service group hosts in the hosts file of the LMS (pENM) of the
+     *         deployment, one per line.
+     */
+    public static String discover(final DeploymentType deploymentType, final String namespace) {
+        if (deploymentType == DeploymentType.CLOUD) {
+            return "kubectl get pods -n " + namespace + " | grep kpiserv | awk '{print $1}'";
+        }
+        if (deploymentType == DeploymentType.PHYSICAL) {
+            return "awk '{for (i = 2; i <= NF; i++) print $i}' /etc/hosts | grep -E '^svc-[0-9]+-kpiserv$' | sort -u";
+        }
+        return "sudo consul members | grep kpiserv | awk '{print $1}'";
+    }
+
+    private static String forInstance(final KpiServInstance instance, final String operation, final String parameter, final String value) {
+        if (instance.getDeploymentType() == DeploymentType.CLOUD) {
+            /*
+             * Executed from the director node of the cENM deployment inside the kpiserv container.
+             */
+            final String command = buildPibCommand("localhost", operation, parameter, value, PIB_COMMANDS_SCRIPTPATH_CENM, false);
+            return "kubectl -n " + instance.getNamespace() + " exec -it " + instance.getName() + " -c kpiserv -- " + command;
+        }
+        /*
+         * Executed from the EMP VM of the vENM deployment or the LMS of the pENM deployment.
+         */
+        return buildPibCommand(instance.getName(), operation, parameter, value, PIB_COMMANDS_SCRIPTPATH, true);
+    }
+
+    private static String buildPibCommand(final String host, final String operation, final String parameter, final String value,
+                                          final String scriptPath, final boolean sudo) {
+        final StringBuilder command = new StringBuilder(sudo ? SUDO + SPACE + scriptPath + SPACE + operation : scriptPath + SPACE + operation)
+                .append(SPACE + APP_SERVER_ADDRESS + host + PORT_8080)
+                .append(SPACE + SERVICE_IDENTIFIER + SERVICE_NAME)
+                .append(SPACE + NAME + parameter);
+        if (value != null) {
+            command.append(SPACE + VALUE + value);
+        }
+        return command.toString();
+    }
+
+}
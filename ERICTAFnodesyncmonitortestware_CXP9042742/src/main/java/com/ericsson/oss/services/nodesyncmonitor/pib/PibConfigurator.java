@@ -0,0 +1,191 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.pib;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getInt;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.oss.services.nodesyncmonitor.await.Await;
+import com.ericsson.oss.services.nodesyncmonitor.await.AwaitResult;
+import com.ericsson.oss.services.nodesyncmonitor.await.BackoffPolicy;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.Gateways;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.PibShell;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.ShellResult;
+import com.ericsson.oss.testware.remoteexecution.operators.PibConnectorImpl;
+import com.google.common.base.Predicate;
+import com.google.common.base.Splitter;
+import com.google.common.base.Supplier;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Updates a configuration parameter of the node-sync-monitor service on every kpiserv instance of the deployment.
+ * <p>
+ * The instances are found once per run by {@link KpiServDiscovery}. Each instance is updated over its own {@link PibShell}, up to
+ * {@code services.nodeSyncMonitor.pib.parallelInstances} at a time on a pool shared by every update of the run, and the value is then read
+ * back on the same connection until it matches (see {@code services.nodeSyncMonitor.pibAwait.*}). The time from the start of the update
+ * until each instance confirmed the value is logged, so the propagation time of the change is visible.
+ * <p>
+ * Note that {@code PibConnector#getConnection} will return a connection to the LMS, director node, or EMP VM depending on the SUT.
+ */
+public class PibConfigurator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PibConfigurator.class);
+
+    private static final String PARALLEL_INSTANCES_PROPERTY = "services.nodeSyncMonitor.pib.parallelInstances";
+    private static final int DEFAULT_PARALLEL_INSTANCES = 8;
+    private static final String PIB_AWAIT_PROPERTY_PREFIX = "services.nodeSyncMonitor.pibAwait";
+    private static final BackoffPolicy DEFAULT_PIB_AWAIT_POLICY = new BackoffPolicy(500, 5000, 2.0, 60000);
+    private static final Splitter LINE_SPLITTER = Splitter.on('\n').trimResults().omitEmptyStrings();
+
+    @Inject
+    private PibConnectorImpl pibConnector;
+
+    /**
+     * Sets a parameter on every kpiserv instance and waits until every instance reports the new value.
+     *
+     * @param parameter
+     *            The PIB parameter name.
+     * @param value
+     *            The new value.
+     * @return The time in milliseconds from the start of the update until each instance confirmed the value.
+     * @throws Exception
+     *             If the update or the confirmation failed on any instance.
+     */
+    public Map<KpiServInstance, Long> update(final String parameter, final String value) throws Exception {
+        final List<KpiServInstance> instances = KpiServDiscovery.instances(pibConnector);
+        final int workers = Math.min(parallelInstances(), instances.size());
+        final long start = System.nanoTime();
+        LOGGER.info("Setting {}={} on {} kpiserv instance(s) with {} worker(s)", parameter, value, instances.size(), workers);
+
+        final Map<KpiServInstance, Future<Long>> futures = new LinkedHashMap<>();
+        try {
+            for (final KpiServInstance instance : instances) {
+                futures.put(instance, UpdatePool.EXECUTOR.submit(new Callable<Long>() {
+                    @Override
+                    public Long call() throws Exception {
+                        return updateInstance(instance, parameter, value, start);
+                    }
+                }));
+            }
+            final Map<KpiServInstance, Long> propagation = new LinkedHashMap<>();
+            for (final Map.Entry<KpiServInstance, Future<Long>> future : futures.entrySet()) {
+                propagation.put(future.getKey(), getResult(future.getKey(), future.getValue()));
+            }
+            LOGGER.info("{}={} confirmed on all kpiserv instances in {} ms: {}", parameter, value,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), propagation);
+            return propagation;
+        } finally {
+            for (final Future<Long> future : futures.values()) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private long updateInstance(final KpiServInstance instance, final String parameter, final String value, final long start) throws Exception {
+        PibShell shell = null;
+        try {
+            shell = Gateways.openPibShell(pibConnector);
+            final String command = PibCommandBuilder.update(instance, parameter, value);
+            final ShellResult result = shell.execute(command);
+            if (!result.isSuccess()) {
+                final String errorMsg = String.format("Command [%s] failed with response [%s]", command, result.getOutput());
+                LOGGER.error(errorMsg);
+                throw new Exception(errorMsg);
+            }
+            confirmValue(shell, instance, parameter, value);
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        } finally {
+            if (shell != null) {
+                shell.close();
+            }
+        }
+    }
+
+    private static void confirmValue(final PibShell shell, final KpiServInstance instance, final String parameter, final String value)
+            throws Exception {
+        final String readCommand = PibCommandBuilder.read(instance, parameter);
+        final BackoffPolicy policy = BackoffPolicy.fromConfiguration(PIB_AWAIT_PROPERTY_PREFIX, DEFAULT_PIB_AWAIT_POLICY);
+        final AwaitResult<String> result = Await.until(parameter + "=" + value + " on " + instance, new Supplier<String>() {
+            @Override
+            public String get() {
+                return shell.execute(readCommand).getOutput();
+            }
+        }, new Predicate<String>() {
+            @Override
+            public boolean apply(final String output) {
+                return reportsValue(output, value);
+            }
+        }, policy);
+        if (!result.isSatisfied()) {
+            throw new Exception(String.format("Command [%s] did not report value [%s] within %d ms, last response [%s]", readCommand, value,
+                    policy.getTimeoutMillis(), result.getValue()));
+        }
+    }
+
+    /**
+     * @return True if a line of the PIB read output is exactly the expected value.
+     */
+    static boolean reportsValue(final String output, final String value) {
+        if (output == null) {
+            return false;
+        }
+        for (final String line : LINE_SPLITTER.split(output)) {
+            if (line.equalsIgnoreCase(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int parallelInstances() {
+        return Math.max(1, getInt(PARALLEL_INSTANCES_PROPERTY, DEFAULT_PARALLEL_INSTANCES));
+    }
+
+    private static long getResult(final KpiServInstance instance, final Future<Long> future) throws Exception {
+        try {
+            return future.get();
+        } catch (final ExecutionException e) {
+            LOGGER.error("PIB update failed on kpiserv instance {}", instance, e.getCause());
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /*
+     * Created on first use, as the configuration is not loaded when the class is. The threads are daemons, so the idle pool does not keep the
+     * run alive.
+     */
+    private static final class UpdatePool {
+
+        private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(parallelInstances(),
+                new ThreadFactoryBuilder().setNameFormat("pib-update-%d").setDaemon(true).build());
+
+    }
+
+}
@@ -0,0 +1,289 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.preflight;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.PREFIX;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getBoolean;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getLong;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getString;
+import static com.ericsson.oss.testware.enmbase.data.CommonDataSources.NODES_TO_ADD;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.cifwk.taf.TestContext;
+import com.ericsson.cifwk.taf.data.Host;
+import com.ericsson.cifwk.taf.data.User;
+import com.ericsson.cifwk.taf.data.UserType;
+import com.ericsson.cifwk.taf.datasource.DataRecord;
+import com.ericsson.cifwk.taf.handlers.netsim.domain.NetworkElement;
+import com.ericsson.cifwk.taf.tools.cli.TafCliToolShell;
+import com.ericsson.de.tools.cli.CliCommandResult;
+import com.ericsson.oss.services.nodesyncmonitor.dataprovider.NetSimOperatorProvider;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.CliResult;
+import com.ericsson.oss.services.nodesyncmonitor.journal.Journal;
+import com.ericsson.oss.services.nodesyncmonitor.session.SessionLogin;
+import com.ericsson.oss.services.nodesyncmonitor.session.SessionPool;
+import com.ericsson.oss.services.nodesyncmonitor.standin.StandIn;
+import com.ericsson.oss.testware.fm.impl.RestImpl;
+import com.ericsson.oss.testware.hostconfigurator.HostConfigurator;
+import com.ericsson.oss.testware.remoteexecution.operators.PibConnectorImpl;
+import com.ericsson.oss.testware.security.authentication.tool.TafToolProvider;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Probes every system the suite depends on, all at the same time and with a short timeout, before the setup adds and syncs any node:
+ * <ul>
+ * <li>NetSim: the NetSim hosts are configured and the first node to add is resolved in NetSim (see {@link NetSimOperatorProvider})</li>
+ * <li>PIB host: a command is executed on the server the PIB commands are executed from, i.e. the LMS, the director node or the EMP VM (see
+ * {@link PibConnectorImpl})</li>
+ * <li>SSO: the preflight user logs in on the ENM Apache host (see {@link SessionPool}). The user is set by
+ * {@code services.nodeSyncMonitor.preflight.username} and {@code services.nodeSyncMonitor.preflight.password}, or is the web user of the
+ * Apache host in the TAF host configuration</li>
+ * <li>ENM Cli: a read only command is sent in the session of the preflight user (see {@link RestImpl})</li>
+ * </ul>
+ * The probes bypass the retries of {@link com.ericsson.oss.services.nodesyncmonitor.resilience.Resilience}, so a broken environment fails the
+ * run within {@code services.nodeSyncMonitor.preflight.timeoutMillis}. The readiness and latency of every dependency is reported (see
+ * {@link PreflightReport}). The preflight is skipped against the stand-in (see {@link StandIn}), when replaying a {@link Journal}, or
+ * with {@code services.nodeSyncMonitor.preflight.enabled=false}.
+ */
+public class Preflight {
+
+    public static final String NETSIM = "netsim";
+    public static final String PIB_HOST = "pibHost";
+    public static final String SSO = "sso";
+    public static final String CLI = "cli";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Preflight.class);
+
+    private static final String ENABLED_PROPERTY = PREFIX + "preflight.enabled";
+    private static final String TIMEOUT_PROPERTY = PREFIX + "preflight.timeoutMillis";
+    private static final String USERNAME_PROPERTY = PREFIX + "preflight.username";
+    private static final String PASSWORD_PROPERTY = PREFIX + "preflight.password";
+    private static final String CLI_COMMAND_PROPERTY = PREFIX + "preflight.cliCommand";
+    private static final long DEFAULT_TIMEOUT_MILLIS = 15000;
+    private static final String DEFAULT_CLI_COMMAND = "cmedit get * NetworkElement -cn";
+    private static final String PIB_HOST_COMMAND = "hostname";
+    private static final String NETWORK_ELEMENT_ID = "networkElementId";
+
+    @Inject
+    private PibConnectorImpl pibConnector;
+
+    @Inject
+    private Provider<RestImpl> provider;
+
+    @Inject
+    private TafToolProvider tafToolProvider;
+
+    @Inject
+    private SessionLogin sessionLogin;
+
+    @Inject
+    private TestContext context;
+
+    /**
+     * Probes every dependency and reports their readiness.
+     *
+     * @throws IllegalStateException
+     *             If a dependency is not ready.
+     * @throws InterruptedException
+     *             If interrupted while waiting for the probes.
+     */
+    public void check() throws InterruptedException {
+        if (StandIn.isEnabled() || Journal.getInstance().isReplaying() || !getBoolean(ENABLED_PROPERTY, true)) {
+            LOGGER.info("Preflight skipped");
+            return;
+        }
+        final PreflightReport report = run(getLong(TIMEOUT_PROPERTY, DEFAULT_TIMEOUT_MILLIS));
+        report.export();
+        if (!report.isReady()) {
+            throw new IllegalStateException(String.format("Preflight failed in %d ms, not ready: %s", report.getDurationMillis(),
+                    report.getFailures()));
+        }
+    }
+
+    /**
+     * @param timeoutMillis
+     *            The time every probe is given, from the start of the preflight.
+     * @return The result of every probe. A probe which did not answer in time is not ready.
+     * @throws InterruptedException
+     *             If interrupted while waiting for the probes.
+     */
+    public PreflightReport run(final long timeoutMillis) throws InterruptedException {
+        final Map<String, Callable<String>> probes = probes();
+        final ExecutorService executor = Executors.newFixedThreadPool(probes.size(),
+                new ThreadFactoryBuilder().setNameFormat("preflight-%d").setDaemon(true).build());
+        final long start = System.nanoTime();
+        try {
+            final Map<String, Future<ProbeResult>> futures = new LinkedHashMap<>();
+            for (final Map.Entry<String, Callable<String>> probe : probes.entrySet()) {
+                futures.put(probe.getKey(), executor.submit(timed(probe.getKey(), probe.getValue())));
+            }
+            final List<ProbeResult> results = new ArrayList<>();
+            for (final Map.Entry<String, Future<ProbeResult>> future : futures.entrySet()) {
+                results.add(getResult(future.getKey(), future.getValue(), start, timeoutMillis));
+            }
+            return new PreflightReport(results, elapsedMillis(start));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<String, Callable<String>> probes() {
+        final Map<String, Callable<String>> probes = new LinkedHashMap<>();
+        probes.put(NETSIM, new Callable<String>() {
+            @Override
+            public String call() {
+                return probeNetSim();
+            }
+        });
+        probes.put(PIB_HOST, new Callable<String>() {
+            @Override
+            public String call() {
+                return probePibHost();
+            }
+        });
+        probes.put(SSO, new Callable<String>() {
+            @Override
+            public String call() {
+                final User user = preflightUser();
+                acquireSession(user);
+                return "logged in " + user.getUsername() + " on " + HostConfigurator.getApache().getIp();
+            }
+        });
+        probes.put(CLI, new Callable<String>() {
+            @Override
+            public String call() {
+                return probeCli();
+            }
+        });
+        return probes;
+    }
+
+    private String probeNetSim() {
+        final List<Host> hosts = HostConfigurator.getAllNetsimHosts();
+        if (hosts == null || hosts.isEmpty()) {
+            throw new IllegalStateException("No NetSim host is configured");
+        }
+        final Iterator<DataRecord> nodesToAdd = context.dataSource(NODES_TO_ADD).iterator();
+        if (!nodesToAdd.hasNext()) {
+            return hosts.size() + " host(s), no node to resolve";
+        }
+        final String networkElementId = (String) nodesToAdd.next().getFieldValue(NETWORK_ELEMENT_ID);
+        final NetworkElement networkElement = NetSimOperatorProvider.getInstance().getNetworkElement(networkElementId);
+        if (networkElement == null) {
+            throw new IllegalStateException(String.format("Node %s not found in NetSim", networkElementId));
+        }
+        return String.format("%d host(s), %s in simulation %s", hosts.size(), networkElementId, networkElement.getSimulationName());
+    }
+
+    private String probePibHost() {
+        final TafCliToolShell shell = pibConnector.getConnection();
+        try {
+            final CliCommandResult result = shell.execute(PIB_HOST_COMMAND);
+            if (!result.isSuccess()) {
+                throw new IllegalStateException(String.format("Command [%s] failed with output [%s]", PIB_HOST_COMMAND, result.getOutput()));
+            }
+            return "connected to " + result.getOutput().trim();
+        } finally {
+            shell.close();
+        }
+    }
+
+    /*
+     * The ENM Cli client uses the HTTP tool bound to the calling thread, so the session is bound in the probe thread itself.
+     */
+    private String probeCli() {
+        tafToolProvider.setHttpTool(SessionPool.getInstance().acquire(preflightUser(), sessionLogin));
+        final String command = getString(CLI_COMMAND_PROPERTY, DEFAULT_CLI_COMMAND);
+        final CliResult result = CliResult.of(provider.get().sendCommand(command));
+        if (result.getStatusMessage() == null && result.getLines().isEmpty()) {
+            throw new IllegalStateException(String.format("Command [%s] returned an empty response", command));
+        }
+        return String.format("[%s] answered %s", command, result.getStatusMessage() == null ? result.getLines().size() + " line(s)"
+                : result.getStatusMessage());
+    }
+
+    /*
+     * No credentials are kept in the testware: the preflight user is given on the command line, or else is the web user of the Apache host in
+     * the TAF host configuration of the deployment.
+     */
+    private static User preflightUser() {
+        final String username = getString(USERNAME_PROPERTY, null);
+        final String password = getString(PASSWORD_PROPERTY, null);
+        if (StringUtils.isNotBlank(username) && StringUtils.isNotBlank(password)) {
+            return new User(username, password, UserType.WEB);
+        }
+        final List<User> webUsers = HostConfigurator.getApache().getUsers(UserType.WEB);
+        if (webUsers == null || webUsers.isEmpty()) {
+            throw new IllegalStateException(String.format("No preflight user: set %s and %s, or configure a web user of the Apache host",
+                    USERNAME_PROPERTY, PASSWORD_PROPERTY));
+        }
+        return webUsers.get(0);
+    }
+
+    /*
+     * Each probe measures its own latency, as the results are collected in order.
+     */
+    private static Callable<ProbeResult> timed(final String dependency, final Callable<String> probe) {
+        return new Callable<ProbeResult>() {
+            @Override
+            public ProbeResult call() {
+                final long start = System.nanoTime();
+                try {
+                    final String detail = probe.call();
+                    return new ProbeResult(dependency, true, elapsedMillis(start), detail);
+                } catch (final Exception e) {
+                    final Throwable cause = Throwables.getRootCause(e);
+                    LOGGER.debug("Preflight probe of {} failed", dependency, e);
+                    return new ProbeResult(dependency, false, elapsedMillis(start), cause.getClass().getSimpleName() + ": " + cause.getMessage());
+                }
+            }
+        };
+    }
+
+    private static ProbeResult getResult(final String dependency, final Future<ProbeResult> future, final long start, final long timeoutMillis)
+            throws InterruptedException {
+        try {
+            return future.get(Math.max(0, timeoutMillis - elapsedMillis(start)), TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            future.cancel(true);
+            return new ProbeResult(dependency, false, elapsedMillis(start), "no answer within " + timeoutMillis + " ms");
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Preflight probe of " + dependency + " failed unexpectedly", e.getCause());
+        }
+    }
+
+    private static long elapsedMillis(final long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+}
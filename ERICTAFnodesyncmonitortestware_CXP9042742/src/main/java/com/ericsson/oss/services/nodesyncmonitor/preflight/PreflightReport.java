@@ -0,0 +1,98 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.preflight;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.json.simple.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.oss.services.nodesyncmonitor.utils.ReportFiles;
+
+/**
+ * The readiness and latency of every dependency probed by the {@link Preflight}, logged and written to
+ * {@code services.nodeSyncMonitor.preflight.reportDir} as {@code node-sync-monitor-preflight-<time>.json}.
+ */
+public final class PreflightReport {
+
+    public static final String REPORT_DIR_PROPERTY = "services.nodeSyncMonitor.preflight.reportDir";
+    public static final String DEFAULT_REPORT_DIR = "target/preflight";
+    public static final String FILE_PREFIX = "node-sync-monitor-preflight-";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreflightReport.class);
+
+    private final List<ProbeResult> results;
+    private final long durationMillis;
+
+    PreflightReport(final List<ProbeResult> results, final long durationMillis) {
+        this.results = Collections.unmodifiableList(new ArrayList<>(results));
+        this.durationMillis = durationMillis;
+    }
+
+    public List<ProbeResult> getResults() {
+        return results;
+    }
+
+    /**
+     * @return The time the preflight took, bounded by its timeout.
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * @return True if every dependency is ready.
+     */
+    public boolean isReady() {
+        return getFailures().isEmpty();
+    }
+
+    /**
+     * @return The dependencies which are not ready.
+     */
+    public List<ProbeResult> getFailures() {
+        final List<ProbeResult> failures = new ArrayList<>();
+        for (final ProbeResult result : results) {
+            if (!result.isReady()) {
+                failures.add(result);
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Logs the result of every probe and writes them to the report directory.
+     */
+    @SuppressWarnings("unchecked")
+    public void export() {
+        final JSONObject report = new JSONObject();
+        for (final ProbeResult result : results) {
+            LOGGER.info("Preflight: {}", result);
+            report.put(result.getDependency(), result.toJson());
+        }
+        LOGGER.info("Preflight of {} dependencies took {} ms, {} not ready", results.size(), durationMillis, getFailures().size());
+        try {
+            final File file = ReportFiles.newReportFile(REPORT_DIR_PROPERTY, DEFAULT_REPORT_DIR, FILE_PREFIX, "json");
+            ReportFiles.writeJson(report, file);
+            LOGGER.info("Preflight report written to {}", file);
+        } catch (final IOException e) {
+            LOGGER.warn("Could not write the preflight report", e);
+        }
+    }
+
+}
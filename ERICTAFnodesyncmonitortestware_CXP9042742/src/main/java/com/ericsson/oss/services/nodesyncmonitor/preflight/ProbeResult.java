@@ -0,0 +1,73 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.preflight;
+
+import org.json.simple.JSONObject;
+
+/**
+ * The outcome of probing one dependency of the suite before the setup.
+ */
+public final class ProbeResult {
+
+    private final String dependency;
+    private final boolean ready;
+    private final long latencyMillis;
+    private final String detail;
+
+    ProbeResult(final String dependency, final boolean ready, final long latencyMillis, final String detail) {
+        this.dependency = dependency;
+        this.ready = ready;
+        this.latencyMillis = latencyMillis;
+        this.detail = detail;
+    }
+
+    public String getDependency() {
+        return dependency;
+    }
+
+    /**
+     * @return True if the dependency answered as expected within the preflight timeout.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return The time the dependency took to answer, or the time until the probe was given up.
+     */
+    public long getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    /**
+     * @return What the dependency answered, or why the probe failed.
+     */
+    public String getDetail() {
+        return detail;
+    }
+
+    @SuppressWarnings("unchecked")
+    JSONObject toJson() {
+        final JSONObject json = new JSONObject();
+        json.put("ready", ready);
+        json.put("latencyMillis", latencyMillis);
+        json.put("detail", detail);
+        return json;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s in %d ms (%s)", dependency, ready ? "READY" : "NOT READY", latencyMillis, detail);
+    }
+
+}
@@ -0,0 +1,119 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.resilience;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Stops calls to an endpoint which keeps failing, so the vUsers fail fast instead of piling retries on an unhealthy ENM or NetSim.
+ * <p>
+ * The breaker opens after {@code failureThreshold} consecutive endpoint failures (see {@link ErrorClass#isEndpointFailure()}) and rejects
+ * every call for {@code openMillis}. It then lets a single call through: the breaker closes if that call succeeds and opens again if it fails.
+ */
+public final class CircuitBreaker {
+
+    /**
+     * The states of a breaker.
+     */
+    public enum State {
+        /** Calls are let through. */
+        CLOSED,
+        /** Calls are rejected. */
+        OPEN,
+        /** A single trial call is let through. */
+        HALF_OPEN
+    }
+
+    private final String endpoint;
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+    private int timesOpened;
+
+    public CircuitBreaker(final String endpoint, final int failureThreshold, final long openMillis) {
+        if (failureThreshold < 1 || openMillis < 0) {
+            throw new IllegalArgumentException(
+                    String.format("Invalid circuit breaker for [%s]: failureThreshold=%d, openMillis=%d", endpoint, failureThreshold, openMillis));
+        }
+        this.endpoint = endpoint;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = MILLISECONDS.toNanos(openMillis);
+    }
+
+    /**
+     * @return True if a call may be made now. A call let through must be followed by {@link #recordSuccess()} or {@link #recordFailure()}.
+     */
+    public synchronized boolean allowRequest() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openNanos) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+            return true;
+        }
+        return state == State.CLOSED;
+    }
+
+    /**
+     * Records that the endpoint answered.
+     */
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    /**
+     * Records an endpoint failure.
+     */
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            if (state != State.OPEN) {
+                timesOpened++;
+            }
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+        }
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return The number of times the breaker opened.
+     */
+    public synchronized int getTimesOpened() {
+        return timesOpened;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("CircuitBreaker[%s, %s, consecutiveFailures=%d, timesOpened=%d]", endpoint, state, consecutiveFailures, timesOpened);
+    }
+
+}
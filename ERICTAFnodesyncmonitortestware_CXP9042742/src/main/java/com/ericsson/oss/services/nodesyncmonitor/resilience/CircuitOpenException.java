@@ -0,0 +1,27 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.resilience;
+
+/**
+ * Thrown instead of making a call while the {@link CircuitBreaker} of its endpoint is open. The cause is the failure of the previous attempt of
+ * the call, if the breaker opened while the call was being retried.
+ */
+public class CircuitOpenException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(final String endpoint, final String description, final Throwable cause) {
+        super(String.format("Circuit breaker of [%s] is open, [%s] not attempted", endpoint, description), cause);
+    }
+
+}
@@ -0,0 +1,42 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.resilience;
+
+/**
+ * The kinds of failure of a call to ENM, NetSim or PIB, which decide whether the call is retried (see {@link ErrorClassifier}).
+ */
+public enum ErrorClass {
+
+    /** ENM redirected the request to the login page ({@code 302 Found}): the session of the user expired and only a new login helps. */
+    SESSION_EXPIRED(false),
+    /** ENM answered with a 5xx status, e.g. while a service is restarting or overloaded. */
+    SERVER_ERROR(true),
+    /** The call, or the SSH session it was sent on, timed out. */
+    TIMEOUT(true),
+    /** Any other failure, including failed assertions. Never retried. */
+    FATAL(false);
+
+    private final boolean endpointFailure;
+
+    ErrorClass(final boolean endpointFailure) {
+        this.endpointFailure = endpointFailure;
+    }
+
+    /**
+     * @return True if the failure means the endpoint is unhealthy, so it counts towards opening its {@link CircuitBreaker}.
+     */
+    public boolean isEndpointFailure() {
+        return endpointFailure;
+    }
+
+}
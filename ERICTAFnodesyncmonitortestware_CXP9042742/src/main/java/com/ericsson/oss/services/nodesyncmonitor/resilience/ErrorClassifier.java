@@ -0,0 +1,75 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.resilience;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Classifies the exception of a failed call by its type and message, and the types and messages of its causes, since the REST and SSH clients
+ * usually wrap the original error.
+ */
+public final class ErrorClassifier {
+
+    private static final int MAX_CAUSE_DEPTH = 10;
+
+    private static final Pattern SESSION_EXPIRED = Pattern.compile("\\b302 Found\\b|HTTP/1\\.[01] 302\\b");
+    private static final Pattern SERVER_ERROR = Pattern.compile(
+            "\\b5\\d\\d (Internal Server Error|Not Implemented|Bad Gateway|Service Unavailable|Gateway Timeout)\\b"
+                    + "|HTTP/1\\.[01] 5\\d\\d\\b|(?i)\\b(status|status code|response code)[ :=]+5\\d\\d\\b");
+    private static final Pattern TIMEOUT = Pattern.compile("(?i)\\btimed out\\b|\\btimeout\\b");
+
+    private ErrorClassifier() {}
+
+    /**
+     * @param error
+     *            The exception thrown by the call.
+     * @return The class of the first cause which is not {@link ErrorClass#FATAL}, or {@link ErrorClass#FATAL}.
+     */
+    public static ErrorClass classify(final Throwable error) {
+        if (error instanceof AssertionError) {
+            return ErrorClass.FATAL;
+        }
+        Throwable cause = error;
+        for (int depth = 0; cause != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            final ErrorClass errorClass = classifyOne(cause);
+            if (errorClass != ErrorClass.FATAL) {
+                return errorClass;
+            }
+            cause = cause.getCause() == cause ? null : cause.getCause();
+        }
+        return ErrorClass.FATAL;
+    }
+
+    private static ErrorClass classifyOne(final Throwable error) {
+        if (error instanceof SocketTimeoutException || error instanceof TimeoutException) {
+            return ErrorClass.TIMEOUT;
+        }
+        final String message = error.getMessage();
+        if (message == null) {
+            return ErrorClass.FATAL;
+        }
+        if (SESSION_EXPIRED.matcher(message).find()) {
+            return ErrorClass.SESSION_EXPIRED;
+        }
+        if (SERVER_ERROR.matcher(message).find()) {
+            return ErrorClass.SERVER_ERROR;
+        }
+        if (TIMEOUT.matcher(message).find()) {
+            return ErrorClass.TIMEOUT;
+        }
+        return ErrorClass.FATAL;
+    }
+
+}
@@ -0,0 +1,231 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.resilience;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.PREFIX;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getInt;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getLong;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.json.simple.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.oss.services.nodesyncmonitor.await.BackoffPolicy;
+import com.ericsson.oss.services.nodesyncmonitor.timing.TimingTree;
+import com.ericsson.oss.services.nodesyncmonitor.utils.ReportFiles;
+import com.google.common.base.Supplier;
+
+/**
+ * Makes the calls to ENM, NetSim and PIB, and the scenarios built on them, resilient to the transient failures of a loaded deployment.
+ * <p>
+ * Every call names its endpoint, e.g. {@value #CLI}. A failed attempt is classified by {@link ErrorClassifier} and retried after a jittered
+ * backoff if the {@link RetryPolicy} of the endpoint retries its class; any other failure is thrown at once, unchanged. The policy of an
+ * endpoint is read from {@code services.nodeSyncMonitor.retry.<endpoint>.*}, falling back to {@code services.nodeSyncMonitor.retry.*}. An
+ * expired session is only retried by default for the {@value #SCENARIO} endpoint, since retrying a scenario logs in again. Each
+ * endpoint has a {@link CircuitBreaker}, set by {@code services.nodeSyncMonitor.circuitBreaker.failureThreshold} and {@code openMillis}.
+ * <p>
+ * Every retry is reported to the {@link TimingTree}. The {@link ResilienceCounters} of every endpoint are logged and written by
+ * {@link #export()} as {@code node-sync-monitor-resilience-<time>.json} to {@code services.nodeSyncMonitor.resilience.reportDir}.
+ */
+public final class Resilience {
+
+    public static final String CLI = "cli";
+    public static final String NETSIM = "netsim";
+    public static final String PIB = "pib";
+    public static final String SCENARIO = "scenario";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Resilience.class);
+
+    private static final String RETRY_PREFIX = PREFIX + "retry";
+    private static final BackoffPolicy DEFAULT_BACKOFF = new BackoffPolicy(1000, 15000, 2.0, 120000);
+    private static final RetryPolicy DEFAULT_RETRY_POLICY = new RetryPolicy(3, DEFAULT_BACKOFF, 0.5,
+            EnumSet.of(ErrorClass.SERVER_ERROR, ErrorClass.TIMEOUT));
+    private static final RetryPolicy DEFAULT_SCENARIO_RETRY_POLICY = new RetryPolicy(2, DEFAULT_BACKOFF, 0.5,
+            EnumSet.of(ErrorClass.SESSION_EXPIRED, ErrorClass.SERVER_ERROR, ErrorClass.TIMEOUT));
+    private static final String CIRCUIT_BREAKER_PREFIX = PREFIX + "circuitBreaker.";
+    public static final String REPORT_DIR_PROPERTY = PREFIX + "resilience.reportDir";
+    public static final String DEFAULT_REPORT_DIR = "target/resilience";
+    public static final String FILE_PREFIX = "node-sync-monitor-resilience-";
+
+    private static final Resilience INSTANCE = new Resilience();
+
+    private final ConcurrentMap<String, RetryPolicy> policies = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ResilienceCounters> counters = new ConcurrentHashMap<>();
+
+    private Resilience() {}
+
+    public static Resilience getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Makes a call, retrying it as set by the retry policy of the endpoint.
+     *
+     * @param endpoint
+     *            The endpoint the call is made to.
+     * @param description
+     *            Human readable description of the call, used for logging.
+     * @param call
+     *            The call.
+     * @return The result of the first successful attempt.
+     * @throws CircuitOpenException
+     *             If the circuit breaker of the endpoint is open.
+     * @throws RuntimeException
+     *             The failure of the last attempt, if no attempt succeeded. If the thread is interrupted while waiting for a retry, the failure
+     *             of the last attempt is thrown and the thread is left interrupted.
+     */
+    public <T> T call(final String endpoint, final String description, final Supplier<T> call) {
+        final RetryPolicy policy = policy(endpoint);
+        final CircuitBreaker breaker = breaker(endpoint);
+        final ResilienceCounters endpointCounters = counters(endpoint);
+        endpointCounters.call();
+        final long start = System.nanoTime();
+        int attempts = 0;
+        RuntimeException lastError = null;
+        while (true) {
+            if (!breaker.allowRequest()) {
+                endpointCounters.rejected();
+                throw new CircuitOpenException(endpoint, description, lastError);
+            }
+            attempts++;
+            try {
+                final T result = call.get();
+                breaker.recordSuccess();
+                endpointCounters.success();
+                return result;
+            } catch (final RuntimeException e) {
+                lastError = e;
+                final ErrorClass errorClass = ErrorClassifier.classify(e);
+                endpointCounters.failure(errorClass);
+                if (errorClass.isEndpointFailure()) {
+                    breaker.recordFailure();
+                } else {
+                    breaker.recordSuccess();
+                }
+                if (!policy.shouldRetry(errorClass, attempts, NANOSECONDS.toMillis(System.nanoTime() - start))) {
+                    throw e;
+                }
+                final long delay = policy.delayMillis(attempts);
+                LOGGER.warn("[{}] {} failed with {} on attempt {}, retrying in {} ms: {}", endpoint, description, errorClass, attempts, delay,
+                        e.getMessage());
+                endpointCounters.retry();
+                TimingTree.getInstance().recordRetries(1);
+                try {
+                    MILLISECONDS.sleep(delay);
+                } catch (final InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * As {@link #call}, for a call without a result.
+     */
+    public void run(final String endpoint, final String description, final Runnable call) {
+        call(endpoint, description, new Supplier<Void>() {
+            @Override
+            public Void get() {
+                call.run();
+                return null;
+            }
+        });
+    }
+
+    /**
+     * @param endpoint
+     *            The endpoint.
+     * @return The counters of the endpoint.
+     */
+    public ResilienceCounters counters(final String endpoint) {
+        ResilienceCounters endpointCounters = counters.get(endpoint);
+        if (endpointCounters == null) {
+            final ResilienceCounters created = new ResilienceCounters();
+            endpointCounters = counters.putIfAbsent(endpoint, created);
+            if (endpointCounters == null) {
+                endpointCounters = created;
+            }
+        }
+        return endpointCounters;
+    }
+
+    /**
+     * Logs the counters of every endpoint called and writes them to the report directory.
+     */
+    @SuppressWarnings("unchecked")
+    public void export() {
+        if (counters.isEmpty()) {
+            return;
+        }
+        final JSONObject report = new JSONObject();
+        for (final Map.Entry<String, ResilienceCounters> entry : new TreeMap<>(counters).entrySet()) {
+            final JSONObject endpoint = entry.getValue().toJson();
+            final CircuitBreaker breaker = breakers.get(entry.getKey());
+            if (breaker != null) {
+                endpoint.put("circuitBreakerState", breaker.getState().name());
+                endpoint.put("circuitBreakerOpened", breaker.getTimesOpened());
+            }
+            LOGGER.info("Resilience of [{}]: {}", entry.getKey(), endpoint.toJSONString());
+            report.put(entry.getKey(), endpoint);
+        }
+        try {
+            final File file = ReportFiles.newReportFile(REPORT_DIR_PROPERTY, DEFAULT_REPORT_DIR, FILE_PREFIX, "json");
+            ReportFiles.writeJson(report, file);
+            LOGGER.info("Resilience counters written to {}", file);
+        } catch (final IOException e) {
+            LOGGER.warn("Could not write the resilience report", e);
+        }
+    }
+
+    private RetryPolicy policy(final String endpoint) {
+        RetryPolicy policy = policies.get(endpoint);
+        if (policy == null) {
+            final RetryPolicy defaults = RetryPolicy.fromConfiguration(RETRY_PREFIX,
+                    SCENARIO.equals(endpoint) ? DEFAULT_SCENARIO_RETRY_POLICY : DEFAULT_RETRY_POLICY);
+            policy = RetryPolicy.fromConfiguration(RETRY_PREFIX + "." + endpoint, defaults);
+            final RetryPolicy previous = policies.putIfAbsent(endpoint, policy);
+            if (previous != null) {
+                policy = previous;
+            } else {
+                LOGGER.info("Retry policy of [{}]: {}", endpoint, policy);
+            }
+        }
+        return policy;
+    }
+
+    private CircuitBreaker breaker(final String endpoint) {
+        CircuitBreaker breaker = breakers.get(endpoint);
+        if (breaker == null) {
+            final CircuitBreaker created = new CircuitBreaker(endpoint, getInt(CIRCUIT_BREAKER_PREFIX + "failureThreshold", 5),
+                    getLong(CIRCUIT_BREAKER_PREFIX + "openMillis", 30000));
+            breaker = breakers.putIfAbsent(endpoint, created);
+            if (breaker == null) {
+                breaker = created;
+            }
+        }
+        return breaker;
+    }
+
+}
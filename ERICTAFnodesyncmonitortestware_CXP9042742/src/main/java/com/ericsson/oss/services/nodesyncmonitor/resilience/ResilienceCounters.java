@@ -0,0 +1,111 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.resilience;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.simple.JSONObject;
+
+/**
+ * The calls made to one endpoint through {@link Resilience}, and how they ended.
+ */
+public final class ResilienceCounters {
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final Map<ErrorClass, AtomicLong> failures = new EnumMap<>(ErrorClass.class);
+
+    ResilienceCounters() {
+        for (final ErrorClass errorClass : ErrorClass.values()) {
+            failures.put(errorClass, new AtomicLong());
+        }
+    }
+
+    void call() {
+        calls.incrementAndGet();
+    }
+
+    void success() {
+        successes.incrementAndGet();
+    }
+
+    void retry() {
+        retries.incrementAndGet();
+    }
+
+    void rejected() {
+        rejected.incrementAndGet();
+    }
+
+    void failure(final ErrorClass errorClass) {
+        failures.get(errorClass).incrementAndGet();
+    }
+
+    /**
+     * @return The number of calls, each counted once however many attempts it took.
+     */
+    public long getCalls() {
+        return calls.get();
+    }
+
+    /**
+     * @return The number of calls which eventually succeeded.
+     */
+    public long getSuccesses() {
+        return successes.get();
+    }
+
+    /**
+     * @return The number of attempts which were retries of a failed attempt.
+     */
+    public long getRetries() {
+        return retries.get();
+    }
+
+    /**
+     * @return The number of attempts rejected by the open circuit breaker.
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * @param errorClass
+     *            The class of failure.
+     * @return The number of failed attempts of the class, whether retried or not.
+     */
+    public long getFailures(final ErrorClass errorClass) {
+        return failures.get(errorClass).get();
+    }
+
+    @SuppressWarnings("unchecked")
+    JSONObject toJson() {
+        final JSONObject json = new JSONObject();
+        json.put("calls", getCalls());
+        json.put("successes", getSuccesses());
+        json.put("retries", getRetries());
+        json.put("rejected", getRejected());
+        final JSONObject failuresJson = new JSONObject();
+        for (final ErrorClass errorClass : ErrorClass.values()) {
+            failuresJson.put(errorClass.name().toLowerCase(Locale.ROOT), getFailures(errorClass));
+        }
+        json.put("failures", failuresJson);
+        return json;
+    }
+
+}
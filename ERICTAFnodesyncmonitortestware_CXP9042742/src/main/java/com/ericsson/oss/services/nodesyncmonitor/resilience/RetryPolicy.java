@@ -0,0 +1,141 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.resilience;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getDouble;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getInt;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getString;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.ericsson.oss.services.nodesyncmonitor.await.BackoffPolicy;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+
+/**
+ * Describes how a failed call is retried: which {@link ErrorClass}es are retried, how many attempts are made, and how long to wait before each
+ * retry. The wait grows like a {@link BackoffPolicy} interval and is jittered by up to {@code jitter} of its value in either direction, so
+ * vUsers which failed together do not retry together. No retry is started after the {@code timeout} of the backoff has elapsed.
+ * <p>
+ * Policies are read from the TAF configuration with {@link #fromConfiguration(String, RetryPolicy)}, e.g. for the prefix
+ * {@code services.nodeSyncMonitor.retry}:
+ *
+ * <pre>
+ * services.nodeSyncMonitor.retry.maxAttempts=3
+ * services.nodeSyncMonitor.retry.initialInterval=1000
+ * services.nodeSyncMonitor.retry.maxInterval=15000
+ * services.nodeSyncMonitor.retry.multiplier=2.0
+ * services.nodeSyncMonitor.retry.timeout=120000
+ * services.nodeSyncMonitor.retry.jitter=0.5
+ * services.nodeSyncMonitor.retry.retryOn=SERVER_ERROR,TIMEOUT
+ * </pre>
+ */
+public final class RetryPolicy {
+
+    private static final Splitter LIST_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+    private final int maxAttempts;
+    private final BackoffPolicy backoff;
+    private final double jitter;
+    private final EnumSet<ErrorClass> retryOn;
+
+    public RetryPolicy(final int maxAttempts, final BackoffPolicy backoff, final double jitter, final Set<ErrorClass> retryOn) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException(String.format("Max attempts must be at least 1 but was [%d]", maxAttempts));
+        }
+        if (jitter < 0.0 || jitter > 1.0) {
+            throw new IllegalArgumentException(String.format("Jitter must be between 0.0 and 1.0 but was [%s]", jitter));
+        }
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.jitter = jitter;
+        this.retryOn = retryOn.isEmpty() ? EnumSet.noneOf(ErrorClass.class) : EnumSet.copyOf(retryOn);
+    }
+
+    /**
+     * Reads a policy from the TAF configuration, falling back to the values of {@code defaults} for any property which is not set.
+     *
+     * @param prefix
+     *            The property prefix, without the trailing dot.
+     * @param defaults
+     *            The policy used for properties which are not configured.
+     * @return The configured policy.
+     */
+    public static RetryPolicy fromConfiguration(final String prefix, final RetryPolicy defaults) {
+        return new RetryPolicy(
+                getInt(prefix + ".maxAttempts", defaults.maxAttempts),
+                BackoffPolicy.fromConfiguration(prefix, defaults.backoff),
+                getDouble(prefix + ".jitter", defaults.jitter),
+                parseErrorClasses(getString(prefix + ".retryOn", Joiner.on(',').join(defaults.retryOn))));
+    }
+
+    /**
+     * @param errorClass
+     *            The class of the failure.
+     * @param attempts
+     *            The number of attempts made so far.
+     * @param elapsedMillis
+     *            The time since the first attempt.
+     * @return True if another attempt may be made.
+     */
+    public boolean shouldRetry(final ErrorClass errorClass, final int attempts, final long elapsedMillis) {
+        return retryOn.contains(errorClass) && attempts < maxAttempts && elapsedMillis < backoff.getTimeoutMillis();
+    }
+
+    /**
+     * @param attempts
+     *            The number of attempts made so far, at least 1.
+     * @return The jittered time to wait before the next attempt.
+     */
+    public long delayMillis(final int attempts) {
+        long interval = backoff.getInitialIntervalMillis();
+        for (int i = 1; i < attempts; i++) {
+            interval = backoff.nextInterval(interval);
+        }
+        final double factor = 1.0 + jitter * (2.0 * ThreadLocalRandom.current().nextDouble() - 1.0);
+        return Math.max(1L, (long) (interval * factor));
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public BackoffPolicy getBackoff() {
+        return backoff;
+    }
+
+    public double getJitter() {
+        return jitter;
+    }
+
+    public Set<ErrorClass> getRetryOn() {
+        return EnumSet.copyOf(retryOn);
+    }
+
+    private static Set<ErrorClass> parseErrorClasses(final String value) {
+        final Set<ErrorClass> errorClasses = EnumSet.noneOf(ErrorClass.class);
+        for (final String name : LIST_SPLITTER.split(value)) {
+            errorClasses.add(ErrorClass.valueOf(name.toUpperCase(Locale.ROOT)));
+        }
+        return errorClasses;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RetryPolicy[maxAttempts=%d, %s, jitter=%s, retryOn=%s]", maxAttempts, backoff, jitter, retryOn);
+    }
+
+}
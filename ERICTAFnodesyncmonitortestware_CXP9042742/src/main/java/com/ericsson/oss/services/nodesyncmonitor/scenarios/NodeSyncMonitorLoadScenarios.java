@@ -0,0 +1,184 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.scenarios;
+
+import static com.ericsson.cifwk.taf.scenario.TestScenarios.flow;
+import static com.ericsson.cifwk.taf.scenario.TestScenarios.scenario;
+import static com.ericsson.oss.services.nodesyncmonitor.dataprovider.NodeIdDataProvider.limitNodesUnderTest;
+
+import java.util.EnumSet;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.ericsson.cifwk.taf.TafTestBase;
+import com.ericsson.cifwk.taf.annotations.TestSuite;
+import com.ericsson.cifwk.taf.configuration.TafProperty;
+import com.ericsson.cifwk.taf.scenario.TestScenario;
+import com.ericsson.cifwk.taf.scenario.TestStepFlow;
+import com.ericsson.cifwk.taf.scenario.api.TestScenarioBuilder;
+import com.ericsson.oss.services.nodesyncmonitor.dataprovider.NetSimOperatorProvider;
+import com.ericsson.oss.services.nodesyncmonitor.flows.CliAlarmCommandFlows;
+import com.ericsson.oss.services.nodesyncmonitor.flows.FlowGraph;
+import com.ericsson.oss.services.nodesyncmonitor.flows.SessionFlows;
+import com.ericsson.oss.services.nodesyncmonitor.flows.SetupTearDownFlows;
+import com.ericsson.oss.services.nodesyncmonitor.flows.TeardownFlows;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.Gateways;
+import com.ericsson.oss.services.nodesyncmonitor.journal.Journal;
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyRecorder;
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyReport;
+import com.ericsson.oss.services.nodesyncmonitor.load.LoadProfile;
+import com.ericsson.oss.services.nodesyncmonitor.load.LoadReport;
+import com.ericsson.oss.services.nodesyncmonitor.load.SyncRateLimiter;
+import com.ericsson.oss.services.nodesyncmonitor.preflight.Preflight;
+import com.ericsson.oss.services.nodesyncmonitor.resilience.Resilience;
+import com.ericsson.oss.services.nodesyncmonitor.shard.Shard;
+import com.ericsson.oss.services.nodesyncmonitor.teardown.ResourceType;
+import com.ericsson.oss.services.nodesyncmonitor.timing.TimingTree;
+
+/**
+ * Executes the Node Sync Monitor load scenario: many nodes are stopped in NetSim at once, as when a whole simulation goes down, and pushed past
+ * the failed sync threshold by several vUsers at a target rate of sync actions. The scenario reports the alarms raised per second and the
+ * alarm raise latency percentiles (see {@link LoadReport}), showing whether the node sync monitor keeps up.
+ * <p>
+ * The load is set by the {@code services.nodeSyncMonitor.load.*} properties (see {@link LoadProfile}). The flows which only exist on a
+ * deployment are skipped against the stand-in (see {@link Gateways#deploymentFlows}).
+ */
+public class NodeSyncMonitorLoadScenarios extends TafTestBase {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NodeSyncMonitorLoadScenarios.class);
+
+    private static final String LOAD = "LOAD";
+    private static final String USERNAME = Shard.current().qualify("nodesyncmonitor_administrator");
+    private static final String READ_ACTIVE_ALARMS_DATA_SOURCE = "readActiveAlarms";
+    private static final String NODES_STARTED = "nodesStarted";
+
+    @TafProperty("services.nodeSyncMonitor.skipSetup")
+    private boolean skipSetup;
+
+    @TafProperty("services.nodeSyncMonitor.skipTeardown")
+    private boolean skipTeardown;
+
+    @Inject
+    private SetupTearDownFlows setupTearDownFlows;
+
+    @Inject
+    private SessionFlows sessionFlows;
+
+    @Inject
+    private TeardownFlows teardownFlows;
+
+    @Inject
+    private CliAlarmCommandFlows cliAlarmCommandFlows;
+
+    @Inject
+    private Preflight preflight;
+
+    private LoadProfile profile;
+    private int nodes;
+
+    @BeforeClass(groups = { LOAD }, alwaysRun = true)
+    public void setUp() throws InterruptedException {
+        NetSimOperatorProvider.getInstance().invalidateAll();
+        preflight.check();
+        profile = LoadProfile.fromConfiguration();
+        LatencyRecorder.getInstance().reset();
+
+        executeScenario(scenario("Node Sync Monitor Load Node Ids Scenario")
+                .addFlow(setupTearDownFlows.enableCmNodeSyncMonitorFeature())
+                .addFlow(setupTearDownFlows.cleanUpUsers())
+                .addFlow(setupTearDownFlows.createUser())
+                .addFlow(setupTearDownFlows.setNodeIds())
+                .build());
+        nodes = limitNodesUnderTest(profile.getNodes());
+        LOGGER.info("Load with {} on {} node(s)", profile, nodes);
+
+        final TestScenarioBuilder setupScenario = scenario("Node Sync Monitor Load Setup Scenario")
+                .addFlow(sessionFlows.useSession(USERNAME));
+        if (!skipSetup) {
+            setupScenario
+                    .addFlow(setupTearDownFlows.restoreNeState()).alwaysRun()
+                    .addFlow(setupTearDownFlows.addAndSyncNodes())
+                    .addFlow(setupTearDownFlows.enableFmAlarms())
+                    .addFlow(setupTearDownFlows.stopNodeInNetsim());
+        } else {
+            setupScenario.addFlow(setupTearDownFlows.recordExistingNodes());
+        }
+        executeScenario(setupScenario.build());
+    }
+
+    /**
+     * Pushes every stopped node past the failed sync threshold, then awaits the alarm of every node. The load window spans both flows.
+     */
+    @Test(groups = { LOAD })
+    @TestSuite
+    public void raiseAlarmsUnderLoad() {
+        SyncRateLimiter.getInstance().start(profile.getSyncRate());
+        final long start = System.nanoTime();
+        try {
+            executeScenario(scenario("Node sync monitor load scenario")
+                    .addFlow(vUserFlow("Push nodes past the failed sync threshold under load",
+                            setupTearDownFlows.pushNodesPastFailedSyncThreshold()))
+                    .addFlow(vUserFlow("Await alarms raised under load",
+                            cliAlarmCommandFlows.awaitAlarmRaisedShared(READ_ACTIVE_ALARMS_DATA_SOURCE).build()))
+                    .build());
+        } finally {
+            SyncRateLimiter.getInstance().stop();
+            LoadReport.export(profile, nodes, System.nanoTime() - start, LatencyRecorder.getInstance());
+        }
+    }
+
+    /**
+     * Releases the resources recorded by the scenario, concurrently (see {@link TeardownFlows}). With {@code skipTeardown} only the user is
+     * deleted, and the nodes are started.
+     */
+    @AfterClass(groups = { LOAD }, alwaysRun = true)
+    public void teardown() {
+        final FlowGraph teardown;
+        if (skipTeardown) {
+            teardown = teardownFlows.cleanUp(USERNAME, EnumSet.of(ResourceType.USER))
+                    .add(NODES_STARTED, setupTearDownFlows.startNodeInNetsim());
+        } else {
+            teardown = teardownFlows.cleanUp(USERNAME, EnumSet.allOf(ResourceType.class));
+        }
+        try {
+            executeScenario(teardown.alwaysRun().toScenario("Node Sync Monitor Load Teardown Scenario"));
+        } finally {
+            LatencyReport.export(LatencyRecorder.getInstance());
+            TimingTree.getInstance().export();
+            Resilience.getInstance().export();
+            Journal.getInstance().close();
+        }
+    }
+
+    /*
+     * Runs the flow in every vUser, each with its own pooled session of the test user.
+     */
+    private TestStepFlow vUserFlow(final String name, final TestStepFlow body) {
+        return flow(name)
+                .addSubFlow(sessionFlows.useSession(USERNAME))
+                .addSubFlow(body)
+                .withVusers(profile.getVUsers())
+                .build();
+    }
+
+    private static void executeScenario(final TestScenario scenario) {
+        SuiteRunner.start(scenario);
+    }
+
+}
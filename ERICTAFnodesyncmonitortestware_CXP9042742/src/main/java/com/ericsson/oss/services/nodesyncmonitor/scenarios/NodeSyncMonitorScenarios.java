@@ -16,99 +16,122 @@ import com.ericsson.cifwk.taf.TafTestBase;
 import com.ericsson.cifwk.taf.annotations.TestSuite;
 import com.ericsson.cifwk.taf.configuration.TafProperty;
 import com.ericsson.cifwk.taf.scenario.TestScenario;
-import com.ericsson.cifwk.taf.scenario.TestScenarioRunner;
-import com.ericsson.cifwk.taf.scenario.api.TestScenarioBuilder;
-import com.ericsson.cifwk.taf.scenario.impl.LoggingScenarioListener;
+import com.ericsson.cifwk.taf.scenario.TestStepFlow;
+import com.ericsson.cifwk.taf.scenario.api.TestStepFlowBuilder;
+import com.ericsson.oss.services.nodesyncmonitor.baseline.RegressionGate;
+import com.ericsson.oss.services.nodesyncmonitor.dataprovider.NetSimOperatorProvider;
 import com.ericsson.oss.services.nodesyncmonitor.flows.CliAlarmCommandFlows;
+import com.ericsson.oss.services.nodesyncmonitor.flows.FlowGraph;
+import com.ericsson.oss.services.nodesyncmonitor.flows.SessionFlows;
 import com.ericsson.oss.services.nodesyncmonitor.flows.SetupTearDownFlows;
-import com.ericsson.oss.testware.security.authentication.flows.LoginLogoutRestFlows;
-import com.ericsson.oss.testware.security.gim.flows.GimCleanupFlows;
-import com.ericsson.oss.testware.security.gim.flows.UserManagementTestFlows;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.ericsson.oss.services.nodesyncmonitor.flows.TeardownFlows;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.Gateways;
+import com.ericsson.oss.services.nodesyncmonitor.journal.Journal;
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyRecorder;
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyReport;
+import com.ericsson.oss.services.nodesyncmonitor.preflight.Preflight;
+import com.ericsson.oss.services.nodesyncmonitor.resilience.ErrorClass;
+import com.ericsson.oss.services.nodesyncmonitor.resilience.ErrorClassifier;
+import com.ericsson.oss.services.nodesyncmonitor.resilience.Resilience;
+import com.ericsson.oss.services.nodesyncmonitor.shard.Shard;
+import com.ericsson.oss.services.nodesyncmonitor.session.SessionPool;
+import com.ericsson.oss.services.nodesyncmonitor.teardown.ResourceType;
+import com.ericsson.oss.services.nodesyncmonitor.timing.TimingTree;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.util.EnumSet;
 import javax.inject.Inject;
 
 import static com.ericsson.cifwk.taf.scenario.TestScenarios.dataDrivenScenario;
 import static com.ericsson.cifwk.taf.scenario.TestScenarios.dataSource;
-import static com.ericsson.cifwk.taf.scenario.TestScenarios.runner;
+import static com.ericsson.cifwk.taf.scenario.TestScenarios.flow;
 import static com.ericsson.cifwk.taf.scenario.TestScenarios.scenario;
-import static com.ericsson.oss.testware.security.gim.flows.GimCleanupFlows.EnmObjectType.USER;
 
 /**
- * Executes Node Sync Monitor Test Scenarios
+ * Executes Node Sync Monitor Test Scenarios. The scenarios reuse the pooled sessions of the test user (see {@link SessionPool}), which are
+ * logged out before the user is deleted at the end of the suite.
+ * <p>
+ * Against the stand-in, and so when replaying a journal recorded by these scenarios (see {@link Journal}), the flows which only exist on a
+ * deployment are skipped (see {@link Gateways#deploymentFlows}).
  */
 public class NodeSyncMonitorScenarios extends TafTestBase {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(NodeSyncMonitorScenarios.class);
-
     @TafProperty("services.nodeSyncMonitor.skipSetup")
     private boolean skipSetup;
 
     @TafProperty("services.nodeSyncMonitor.skipTeardown")
     private boolean skipTeardown;
 
-    @TafProperty("services.nodeSyncMonitor.delay")
-    private long delay;
-
-    @TafProperty("services.nodeSyncMonitor.triggerAlarmDelay")
-    private long triggerAlarmDelay;
-
     @Inject
-    private GimCleanupFlows idmCleanupFlows;
+    private SetupTearDownFlows setupTearDownFlows;
 
     @Inject
-    private UserManagementTestFlows userManagementTestFlows;
+    private SessionFlows sessionFlows;
 
     @Inject
-    private SetupTearDownFlows setupTearDownFlows;
+    private TeardownFlows teardownFlows;
 
     @Inject
-    private LoginLogoutRestFlows loginLogoutRestFlows;
+    private CliAlarmCommandFlows cliAlarmCommandFlows;
 
     @Inject
-    private CliAlarmCommandFlows cliAlarmCommandFlows;
+    private Preflight preflight;
 
     private static final String RFA250 = "RFA250";
+    private static final String USERNAME = Shard.current().qualify("nodesyncmonitor_administrator");
+
+    private static final String FEATURE = "feature";
+    private static final String USER_CLEANUP = "userCleanup";
+    private static final String USER_CREATED = "userCreated";
+    private static final String SESSION = "session";
+    private static final String NODE_IDS = "nodeIds";
+    private static final String NE_STATE = "neState";
+    private static final String NODES = "nodes";
+    private static final String FM_ALARMS = "fmAlarms";
+    private static final String NODES_STOPPED = "nodesStopped";
 
     private static final int INCREMENT_FAILED_SYNCS_COUNT_BY = 8;
 
     private static final String READ_ACTIVE_ALARMS_DATA_SOURCE = "readActiveAlarms";
     private static final String READ_CLEAR_ALARMS_DATA_SOURCE = "readClearedAlarms";
 
+    /**
+     * Sets up the deployment. Each setup flow declares the flows it depends on, and the flows on different systems (PIB, user management and
+     * NetSim) run concurrently (see {@link FlowGraph}), once every system is found ready (see {@link Preflight}).
+     */
     @BeforeClass(groups = { RFA250 }, alwaysRun = true)
     public void setUp() throws Exception {
-        final TestScenarioBuilder setupScenario = scenario("Node Sync Monitor Setup Scenario")
-                .addFlow(setupTearDownFlows.enableCmNodeSyncMonitorFeature())
-                .addFlow(idmCleanupFlows.cleanUp(USER))
-                .addFlow(userManagementTestFlows.createUserWithoutRoleVerification())
-                .addFlow(loginLogoutRestFlows.loginWithUserName("nodesyncmonitor_administrator"))
-                .addFlow(setupTearDownFlows.setNodeIds());
+        NetSimOperatorProvider.getInstance().invalidateAll();
+        preflight.check();
+        final FlowGraph setup = new FlowGraph()
+                .add(FEATURE, setupTearDownFlows.enableCmNodeSyncMonitorFeature())
+                .add(NODE_IDS, setupTearDownFlows.setNodeIds())
+                .add(USER_CLEANUP, setupTearDownFlows.cleanUpUsers())
+                .add(USER_CREATED, setupTearDownFlows.createUser(), USER_CLEANUP)
+                .add(SESSION, sessionFlows.useSession(USERNAME), USER_CREATED);
 
         if (!skipSetup) {
-            setupScenario
-                    .addFlow(setupTearDownFlows.restoreNeState()).alwaysRun()
-                    .addFlow(setupTearDownFlows.addAndSyncNodes())
-                    .addFlow(setupTearDownFlows.enableFmAlarms())
-                    .addFlow(setupTearDownFlows.stopNodeInNetsim());
+            setup
+                    .add(NE_STATE, setupTearDownFlows.restoreNeState())
+                    .add(NODES, sessionFlows.withSession(USERNAME, "Add and Sync Nodes", setupTearDownFlows.addAndSyncNodes()),
+                            SESSION, NE_STATE)
+                    .add(FM_ALARMS, asTestUser("Enable FM Alarms", setupTearDownFlows.enableFmAlarms()), NODES, NODE_IDS)
+                    .add(NODES_STOPPED, setupTearDownFlows.stopNodeInNetsim(), FM_ALARMS);
+        } else {
+            setup.add(NODES, setupTearDownFlows.recordExistingNodes());
         }
-        setupScenario.addFlow(loginLogoutRestFlows.logout());
-        executeScenario(setupScenario.build());
+        executeScenario(setup.toScenario("Node Sync Monitor Setup Scenario"));
     }
 
     @Test(groups = { RFA250 })
     @TestSuite
-    public void triggerAlarm() throws InterruptedException {
+    public void triggerAlarm() {
         incrementFailedSyncsCount();
-        Thread.sleep(triggerAlarmDelay);
         final TestScenario scenario = dataDrivenScenario("Triggering node sync monitor alarm")
-                .addFlow(loginLogoutRestFlows.loginWithUserName("nodesyncmonitor_administrator"))
-                .addFlow(setupTearDownFlows.setNodeIds())
-                .addFlow(cliAlarmCommandFlows.sendCliAlarmCommand("readActiveAlarms"))
-                .addFlow(loginLogoutRestFlows.logout())
+                .addFlow(asTestUser("Await node sync monitor alarm raised", setupTearDownFlows.setNodeIds(),
+                        cliAlarmCommandFlows.awaitAlarmRaised(READ_ACTIVE_ALARMS_DATA_SOURCE).build()))
                 .withScenarioDataSources(dataSource(READ_ACTIVE_ALARMS_DATA_SOURCE))
                 .build();
         executeScenario(scenario);
@@ -118,61 +141,93 @@ public class NodeSyncMonitorScenarios extends TafTestBase {
     @TestSuite
     public void clearAlarm() {
         final TestScenario scenario = dataDrivenScenario("Clearing node sync monitor alarm")
-                .addFlow(loginLogoutRestFlows.loginWithUserName("nodesyncmonitor_administrator"))
-                .addFlow(setupTearDownFlows.setNodeIds())
-                .addFlow(setupTearDownFlows.startNodeInNetsim())
-                .addFlow(setupTearDownFlows.resyncNodes())
-                .addFlow(cliAlarmCommandFlows.sendCliAlarmCommand("readClearedAlarms"))
-                .addFlow(loginLogoutRestFlows.logout())
+                .addFlow(asTestUser("Await node sync monitor alarm cleared", setupTearDownFlows.setNodeIds(),
+                        setupTearDownFlows.startNodeInNetsim(), setupTearDownFlows.resyncNodes(),
+                        cliAlarmCommandFlows.awaitAlarmCleared(READ_CLEAR_ALARMS_DATA_SOURCE).build()))
                 .withScenarioDataSources(dataSource(READ_CLEAR_ALARMS_DATA_SOURCE))
                 .build();
         executeScenario(scenario);
 
     }
 
+    /**
+     * Fails if the alarm latencies or scenario times of the run regressed against the baseline of earlier runs of the same testware version on
+     * the same deployment type (see {@link RegressionGate}).
+     */
+    @Test(groups = { RFA250 }, dependsOnMethods = { "triggerAlarm", "clearAlarm" })
+    @TestSuite
+    public void noPerformanceRegression() {
+        RegressionGate.check();
+    }
+
+    /**
+     * Releases the resources recorded by the suite, concurrently (see {@link TeardownFlows}): the nodes restored, stopped or started in NetSim
+     * are restored, and the nodes added, or found with {@code skipSetup}, are deleted. With {@code skipTeardown} only the user is deleted, and
+     * the nodes are stopped again so a later run with {@code skipSetup} finds them as the setup left them.
+     */
     @AfterSuite(groups = { RFA250 }, alwaysRun = true)
     public void teardown() {
-        final TestScenarioBuilder teardownScenario = scenario("Node Sync Monitor Teardown Scenario")
-                .addFlow(loginLogoutRestFlows.loginWithUserName("nodesyncmonitor_administrator")).alwaysRun()
-                .addFlow(setupTearDownFlows.stopNodeInNetsim());
-        if (!skipTeardown) {
-            teardownScenario
-                    .addFlow(setupTearDownFlows.disableCmNodeSyncMonitorFeature()).alwaysRun()
-                    .addFlow(setupTearDownFlows.deleteNodes()).alwaysRun()
-                    .addFlow(loginLogoutRestFlows.logout()).alwaysRun()
-                    .addFlow(setupTearDownFlows.restoreNeState()).alwaysRun();
+        final FlowGraph teardown;
+        if (skipTeardown) {
+            teardown = teardownFlows.cleanUp(USERNAME, EnumSet.of(ResourceType.USER))
+                    .add(NODES_STOPPED, setupTearDownFlows.stopNodeInNetsim());
+        } else {
+            teardown = teardownFlows.cleanUp(USERNAME, EnumSet.allOf(ResourceType.class));
+        }
+        try {
+            executeScenario(teardown.alwaysRun().toScenario("Node Sync Monitor Teardown Scenario"));
+        } finally {
+            LatencyReport.export(LatencyRecorder.getInstance());
+            TimingTree.getInstance().export();
+            Resilience.getInstance().export();
+            Journal.getInstance().close();
         }
-        teardownScenario.addFlow(loginLogoutRestFlows.logout()).alwaysRun();
-        teardownScenario.addFlow(setupTearDownFlows.deleteUser()).alwaysRun();
-        executeScenario(teardownScenario.build());
     }
 
     private void executeScenario(final TestScenario scenario) {
-        final TestScenarioRunner runner = runner()
-                .withListener(new LoggingScenarioListener())
-                .build();
-        runner.start(scenario);
+        SuiteRunner.start(scenario);
+    }
+
+    /*
+     * Runs the flows with a pooled session of the test user bound.
+     */
+    private TestStepFlow asTestUser(final String name, final TestStepFlow... flows) {
+        final TestStepFlowBuilder userFlow = flow(name)
+                .addSubFlow(sessionFlows.useSession(USERNAME));
+        for (final TestStepFlow body : flows) {
+            userFlow.addSubFlow(body);
+        }
+        return userFlow.build();
     }
 
-    private void incrementFailedSyncsCount() throws InterruptedException {
+    /*
+     * Pushes the node past the failed sync threshold using a single session. Each sync is triggered as soon as the previous one is reported as
+     * failed by the CmFunction. Every sync runs as its own scenario, so only the sync which failed is retried. If the session expired, it is
+     * dropped from the pool so the retried sync logs in again (see Resilience).
+     */
+    private void incrementFailedSyncsCount() {
         for (int i = 0; i <= INCREMENT_FAILED_SYNCS_COUNT_BY; i++) {
-            try {
-                executeScenario(getIncrementFailedSyncsCountScenario());
-            } catch (Exception e) {
-                if (e.getMessage().contains("302 Found")) {
-                    executeScenario(getIncrementFailedSyncsCountScenario());
-                    LOGGER.debug("Exception on incrementing failedSyncCount {} ", e.getMessage());
+            final int sync = i + 1;
+            Resilience.getInstance().run(Resilience.SCENARIO, "Increasing failed sync count scenario, sync " + sync, new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        executeScenario(getIncrementFailedSyncsCountScenario());
+                    } catch (final RuntimeException e) {
+                        if (ErrorClassifier.classify(e) == ErrorClass.SESSION_EXPIRED) {
+                            SessionPool.getInstance().invalidate(USERNAME);
+                        }
+                        throw e;
+                    }
                 }
-            }
-            Thread.sleep(delay);
+            });
         }
     }
 
     private TestScenario getIncrementFailedSyncsCountScenario() {
         return scenario("Increasing failed sync count scenario")
-                .addFlow(loginLogoutRestFlows.loginWithUserName("nodesyncmonitor_administrator"))
+                .addFlow(sessionFlows.useSession(USERNAME))
                 .addFlow(setupTearDownFlows.incrementFailedSyncsCount())
-                .addFlow(loginLogoutRestFlows.logout())
                 .build();
     }
 
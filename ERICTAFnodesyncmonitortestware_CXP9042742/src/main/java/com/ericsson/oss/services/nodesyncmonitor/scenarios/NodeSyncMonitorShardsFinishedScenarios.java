@@ -0,0 +1,43 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.scenarios;
+
+import static com.ericsson.cifwk.taf.scenario.TestScenarios.scenario;
+
+import javax.inject.Inject;
+
+import org.testng.annotations.Test;
+
+import com.ericsson.cifwk.taf.TafTestBase;
+import com.ericsson.cifwk.taf.annotations.TestSuite;
+import com.ericsson.oss.services.nodesyncmonitor.flows.SetupTearDownFlows;
+import com.ericsson.oss.services.nodesyncmonitor.shard.Shard;
+
+/**
+ * Executes the final step of a sharded run, once every shard has finished: switching the cmNodeSyncMonitorFeature PIB parameter off, which
+ * the teardown of a sharded executor leaves on for the shards still running (see {@link Shard}).
+ */
+public class NodeSyncMonitorShardsFinishedScenarios extends TafTestBase {
+
+    @Inject
+    private SetupTearDownFlows setupTearDownFlows;
+
+    @Test
+    @TestSuite
+    public void disableCmNodeSyncMonitorFeature() {
+        SuiteRunner.start(scenario("Node Sync Monitor Shards Finished Scenario")
+                .addFlow(setupTearDownFlows.disableCmNodeSyncMonitorFeature())
+                .build());
+    }
+
+}
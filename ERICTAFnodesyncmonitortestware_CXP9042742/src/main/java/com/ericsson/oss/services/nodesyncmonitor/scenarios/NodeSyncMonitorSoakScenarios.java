@@ -0,0 +1,234 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.scenarios;
+
+import static com.ericsson.cifwk.taf.scenario.TestScenarios.scenario;
+import static com.ericsson.oss.services.nodesyncmonitor.dataprovider.NodeIdDataProvider.limitNodesUnderTest;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+
+import org.assertj.core.api.Assertions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.ericsson.cifwk.taf.TafTestBase;
+import com.ericsson.cifwk.taf.annotations.TestSuite;
+import com.ericsson.cifwk.taf.configuration.TafProperty;
+import com.ericsson.cifwk.taf.scenario.TestScenario;
+import com.ericsson.oss.services.nodesyncmonitor.dataprovider.NetSimOperatorProvider;
+import com.ericsson.oss.services.nodesyncmonitor.flows.CliAlarmCommandFlows;
+import com.ericsson.oss.services.nodesyncmonitor.flows.SessionFlows;
+import com.ericsson.oss.services.nodesyncmonitor.flows.SetupTearDownFlows;
+import com.ericsson.oss.services.nodesyncmonitor.flows.TeardownFlows;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.Gateways;
+import com.ericsson.oss.services.nodesyncmonitor.journal.Journal;
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyKind;
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyRecorder;
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencySample;
+import com.ericsson.oss.services.nodesyncmonitor.preflight.Preflight;
+import com.ericsson.oss.services.nodesyncmonitor.resilience.Resilience;
+import com.ericsson.oss.services.nodesyncmonitor.shard.Shard;
+import com.ericsson.oss.services.nodesyncmonitor.soak.SoakCycle;
+import com.ericsson.oss.services.nodesyncmonitor.soak.SoakHistory;
+import com.ericsson.oss.services.nodesyncmonitor.soak.SoakProfile;
+import com.ericsson.oss.services.nodesyncmonitor.soak.SoakReport;
+import com.ericsson.oss.services.nodesyncmonitor.teardown.ResourceType;
+import com.ericsson.oss.services.nodesyncmonitor.timing.TimingTree;
+
+/**
+ * Executes the Node Sync Monitor soak scenario: the stop, failed syncs, alarm raised, start, resync and alarm cleared cycle of
+ * {@link NodeSyncMonitorScenarios} is repeated on the nodes under test for a duration or a number of iterations.
+ * <p>
+ * The latencies and failure of every cycle are kept in a {@link SoakHistory} and the trend of the latency percentiles over the soak is
+ * reported by {@link SoakReport}, rewritten at the end of every trend bucket. A failed cycle is recorded and followed by a recovery (start and
+ * resync) before the next cycle; the soak stops after {@code services.nodeSyncMonitor.soak.maxConsecutiveFailures} failed cycles in a row.
+ * The alarms of the nodes are queried in batches (see {@link CliAlarmCommandFlows#awaitAlarmsRaisedBatched()}).
+ * <p>
+ * The soak is set by the {@code services.nodeSyncMonitor.soak.*} properties (see {@link SoakProfile}). The flows which only exist on a
+ * deployment are skipped against the stand-in (see {@link Gateways#deploymentFlows}).
+ */
+public class NodeSyncMonitorSoakScenarios extends TafTestBase {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NodeSyncMonitorSoakScenarios.class);
+
+    private static final String SOAK = "SOAK";
+    private static final String USERNAME = Shard.current().qualify("nodesyncmonitor_administrator");
+
+    @TafProperty("services.nodeSyncMonitor.skipSetup")
+    private boolean skipSetup;
+
+    @TafProperty("services.nodeSyncMonitor.skipTeardown")
+    private boolean skipTeardown;
+
+    @Inject
+    private SetupTearDownFlows setupTearDownFlows;
+
+    @Inject
+    private SessionFlows sessionFlows;
+
+    @Inject
+    private TeardownFlows teardownFlows;
+
+    @Inject
+    private CliAlarmCommandFlows cliAlarmCommandFlows;
+
+    @Inject
+    private Preflight preflight;
+
+    private SoakProfile profile;
+
+    @BeforeClass(groups = { SOAK }, alwaysRun = true)
+    public void setUp() throws InterruptedException {
+        NetSimOperatorProvider.getInstance().invalidateAll();
+        preflight.check();
+        profile = SoakProfile.fromConfiguration();
+        LatencyRecorder.getInstance().reset();
+
+        executeScenario(scenario("Node Sync Monitor Soak Node Ids Scenario")
+                .addFlow(setupTearDownFlows.enableCmNodeSyncMonitorFeature())
+                .addFlow(setupTearDownFlows.cleanUpUsers())
+                .addFlow(setupTearDownFlows.createUser())
+                .addFlow(setupTearDownFlows.setNodeIds())
+                .build());
+        LOGGER.info("Soak with {} on {} node(s)", profile, limitNodesUnderTest(profile.getNodes()));
+
+        if (!skipSetup) {
+            executeScenario(scenario("Node Sync Monitor Soak Setup Scenario")
+                    .addFlow(sessionFlows.useSession(USERNAME))
+                    .addFlow(setupTearDownFlows.restoreNeState()).alwaysRun()
+                    .addFlow(setupTearDownFlows.addAndSyncNodes())
+                    .addFlow(setupTearDownFlows.enableFmAlarms())
+                    .build());
+        } else {
+            executeScenario(scenario("Node Sync Monitor Soak Existing Nodes Scenario")
+                    .addFlow(setupTearDownFlows.recordExistingNodes())
+                    .build());
+        }
+    }
+
+    @Test(groups = { SOAK })
+    @TestSuite
+    public void soak() {
+        final SoakHistory history = new SoakHistory(profile.getHistorySize());
+        final SoakReport report = new SoakReport(profile, history, System.currentTimeMillis());
+        final long start = System.nanoTime();
+        long bucket = 0;
+        int consecutiveFailures = 0;
+        try {
+            while (!profile.isComplete(history.getTotalCycles(), elapsedMillis(start))
+                    && consecutiveFailures < profile.getMaxConsecutiveFailures()) {
+                final SoakCycle cycle = runCycle(history.getTotalCycles() + 1);
+                history.add(cycle);
+                LOGGER.info("Soak {}", cycle);
+                consecutiveFailures = cycle.isFailed() ? consecutiveFailures + 1 : 0;
+                if (elapsedMillis(start) / profile.getTrendBucketMillis() != bucket) {
+                    bucket = elapsedMillis(start) / profile.getTrendBucketMillis();
+                    report.write();
+                }
+            }
+        } finally {
+            report.write();
+        }
+        Assertions.assertThat(consecutiveFailures)
+                .as("Soak stopped after %d failed cycle(s) in a row", consecutiveFailures)
+                .isLessThan(profile.getMaxConsecutiveFailures());
+    }
+
+    /**
+     * Releases the resources recorded by the soak, concurrently (see {@link TeardownFlows}). With {@code skipTeardown} only the user is
+     * deleted.
+     */
+    @AfterClass(groups = { SOAK }, alwaysRun = true)
+    public void teardown() {
+        final Set<ResourceType> types = skipTeardown ? EnumSet.of(ResourceType.USER) : EnumSet.allOf(ResourceType.class);
+        try {
+            executeScenario(teardownFlows.cleanUp(USERNAME, types).alwaysRun().toScenario("Node Sync Monitor Soak Teardown Scenario"));
+        } finally {
+            TimingTree.getInstance().export();
+            Resilience.getInstance().export();
+            Journal.getInstance().close();
+        }
+    }
+
+    /*
+     * Runs one cycle and takes its latencies from the samples recorded meanwhile, which are drained so the soak holds no sample between
+     * cycles. After a failure the nodes are started and resynced, so the next cycle starts from a synchronized node.
+     */
+    private SoakCycle runCycle(final int iteration) {
+        LatencyRecorder.getInstance().drainSamples();
+        final long startedAtMillis = System.currentTimeMillis();
+        final long start = System.nanoTime();
+        String failure = null;
+        try {
+            executeScenario(cycleScenario());
+        } catch (final RuntimeException | AssertionError e) {
+            failure = String.valueOf(e.getMessage());
+            LOGGER.warn("Soak cycle {} failed", iteration, e);
+            recover();
+        }
+        final List<LatencySample> samples = LatencyRecorder.getInstance().drainSamples();
+        return new SoakCycle(iteration, startedAtMillis, elapsedMillis(start), maxLatency(samples, LatencyKind.RAISE),
+                maxLatency(samples, LatencyKind.CLEAR), failure);
+    }
+
+    private TestScenario cycleScenario() {
+        return scenario("Node sync monitor soak cycle")
+                .addFlow(sessionFlows.useSession(USERNAME))
+                .addFlow(setupTearDownFlows.stopNodeInNetsim())
+                .addFlow(setupTearDownFlows.pushNodesPastFailedSyncThreshold())
+                .addFlow(cliAlarmCommandFlows.awaitAlarmsRaisedBatched())
+                .addFlow(setupTearDownFlows.startNodeInNetsim())
+                .addFlow(setupTearDownFlows.resyncNodes())
+                .addFlow(cliAlarmCommandFlows.awaitAlarmsClearedBatched())
+                .build();
+    }
+
+    private void recover() {
+        try {
+            executeScenario(scenario("Node sync monitor soak recovery")
+                    .addFlow(sessionFlows.useSession(USERNAME)).alwaysRun()
+                    .addFlow(setupTearDownFlows.startNodeInNetsim()).alwaysRun()
+                    .addFlow(setupTearDownFlows.resyncNodes()).alwaysRun()
+                    .build());
+        } catch (final RuntimeException | AssertionError e) {
+            LOGGER.warn("Soak recovery failed", e);
+        }
+    }
+
+    private static long maxLatency(final List<LatencySample> samples, final LatencyKind kind) {
+        long max = -1;
+        for (final LatencySample sample : samples) {
+            if (sample.getKind() == kind) {
+                max = Math.max(max, sample.getLatencyMillis());
+            }
+        }
+        return max;
+    }
+
+    private static long elapsedMillis(final long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static void executeScenario(final TestScenario scenario) {
+        SuiteRunner.start(scenario);
+    }
+
+}
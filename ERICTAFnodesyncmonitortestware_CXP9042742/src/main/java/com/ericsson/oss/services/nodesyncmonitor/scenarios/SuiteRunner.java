@@ -0,0 +1,39 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.scenarios;
+
+import static com.ericsson.cifwk.taf.scenario.TestScenarios.runner;
+
+import com.ericsson.cifwk.taf.scenario.TestScenario;
+import com.ericsson.cifwk.taf.scenario.TestScenarioRunner;
+import com.ericsson.oss.services.nodesyncmonitor.context.ScopedScenarioListener;
+import com.ericsson.oss.services.nodesyncmonitor.timing.TimingExceptionHandler;
+
+/**
+ * The scenario runner of the suite, built once with the {@link ScopedScenarioListener} and the {@link TimingExceptionHandler} and reused by
+ * every scenario.
+ */
+final class SuiteRunner {
+
+    private static final TestScenarioRunner RUNNER = runner()
+            .withListener(new ScopedScenarioListener())
+            .withDefaultExceptionHandler(new TimingExceptionHandler())
+            .build();
+
+    private SuiteRunner() {}
+
+    static void start(final TestScenario scenario) {
+        RUNNER.start(scenario);
+    }
+
+}
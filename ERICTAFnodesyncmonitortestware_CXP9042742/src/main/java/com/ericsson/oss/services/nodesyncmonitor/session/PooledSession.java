@@ -0,0 +1,66 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.session;
+
+import com.ericsson.cifwk.taf.tools.http.HttpTool;
+
+/**
+ * An authenticated HTTP session of one user, with the times used to decide when it must be refreshed and the login which logs it out.
+ */
+final class PooledSession {
+
+    private final String username;
+    private final HttpTool httpTool;
+    private final SessionLogin login;
+    private final long loggedInAtMillis;
+    private long lastUsedAtMillis;
+    private boolean invalidated;
+
+    PooledSession(final String username, final HttpTool httpTool, final SessionLogin login, final long loggedInAtMillis) {
+        this.username = username;
+        this.httpTool = httpTool;
+        this.login = login;
+        this.loggedInAtMillis = loggedInAtMillis;
+        this.lastUsedAtMillis = loggedInAtMillis;
+    }
+
+    HttpTool use(final long nowMillis) {
+        lastUsedAtMillis = nowMillis;
+        return httpTool;
+    }
+
+    /**
+     * @return True if the session may have expired, or will soon: it was invalidated, is older than {@code maxAgeMillis} or was idle longer
+     *         than {@code maxIdleMillis}.
+     */
+    boolean isExpiring(final long nowMillis, final long maxAgeMillis, final long maxIdleMillis) {
+        return invalidated || nowMillis - loggedInAtMillis >= maxAgeMillis || nowMillis - lastUsedAtMillis >= maxIdleMillis;
+    }
+
+    void invalidate() {
+        invalidated = true;
+    }
+
+    String getUsername() {
+        return username;
+    }
+
+    SessionLogin getLogin() {
+        return login;
+    }
+
+    HttpTool getHttpTool() {
+        return httpTool;
+    }
+
+}
@@ -0,0 +1,50 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.session;
+
+import javax.inject.Inject;
+
+import com.ericsson.cifwk.taf.data.User;
+import com.ericsson.cifwk.taf.tools.http.HttpTool;
+import com.ericsson.oss.testware.security.authentication.operators.LoginLogoutRestOperator;
+
+/**
+ * Logs users in and out of ENM through SSO with the login operator of the security testware, for the sessions of the {@link SessionPool}.
+ */
+public class SessionLogin {
+
+    @Inject
+    private LoginLogoutRestOperator loginLogoutRestOperator;
+
+    /**
+     * @param user
+     *            The user.
+     * @return A new HTTP tool holding the SSO session of the user.
+     */
+    HttpTool login(final User user) {
+        return loginLogoutRestOperator.login(user);
+    }
+
+    /**
+     * @param tool
+     *            The HTTP tool of a session, closed once the user is logged out.
+     */
+    void logout(final HttpTool tool) {
+        try {
+            loginLogoutRestOperator.logout(tool);
+        } finally {
+            tool.close();
+        }
+    }
+
+}
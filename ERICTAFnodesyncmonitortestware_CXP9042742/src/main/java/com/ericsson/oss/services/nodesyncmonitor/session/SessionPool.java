@@ -0,0 +1,196 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.session;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.PREFIX;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getLong;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.cifwk.taf.data.User;
+import com.ericsson.cifwk.taf.tools.http.HttpTool;
+import com.ericsson.oss.services.nodesyncmonitor.context.ScopedScenarioListener;
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+
+/**
+ * Authenticated ENM HTTP sessions reused by the scenarios and vUsers of the suite, so that flows do not log in and out around every
+ * scenario.
+ * <p>
+ * A session is lent to one vUser (thread) at a time: {@link #acquire} hands the calling thread the session it already holds for the user, or
+ * else an idle session of the user, or else a new session logged in through SSO. The sessions lent during a scenario are given back when it
+ * finishes (see {@link ScopedScenarioListener}), so the vUsers of the next scenario reuse them.
+ * <p>
+ * A session is logged in again once it is older than {@code services.nodeSyncMonitor.session.maxAgeMillis} or was idle longer than
+ * {@code services.nodeSyncMonitor.session.maxIdleMillis}, both set below the SSO token lifetime and idle timeout of the deployment. A session
+ * the deployment rejected anyway (e.g. '302 Found') is dropped with {@link #invalidate(String)}. A replaced session is logged out as soon as
+ * no vUser holds it, and {@link #closeAll()} logs out the others at the end of the suite.
+ */
+public final class SessionPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SessionPool.class);
+
+    private static final String MAX_AGE_PROPERTY = PREFIX + "session.maxAgeMillis";
+    private static final String MAX_IDLE_PROPERTY = PREFIX + "session.maxIdleMillis";
+    private static final long DEFAULT_MAX_AGE_MILLIS = 9 * 60 * 60 * 1000L;
+    private static final long DEFAULT_MAX_IDLE_MILLIS = 50 * 60 * 1000L;
+
+    private static final SessionPool INSTANCE = new SessionPool();
+
+    private final Map<String, Deque<PooledSession>> idle = new HashMap<>();
+    private final Table<Thread, String, PooledSession> lent = HashBasedTable.create();
+
+    private SessionPool() {}
+
+    public static SessionPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param user
+     *            The user.
+     * @param login
+     *            Logs the user in if the pool holds no session of the user which is free and not about to expire.
+     * @return The session of the user lent to the calling thread until the scenario finishes.
+     * @throws RuntimeException
+     *             If the user cannot log in.
+     */
+    public HttpTool acquire(final User user, final SessionLogin login) {
+        final Thread thread = Thread.currentThread();
+        final String username = user.getUsername();
+        final List<PooledSession> expired = new ArrayList<>();
+        try {
+            synchronized (this) {
+                final long now = System.currentTimeMillis();
+                final PooledSession held = lent.get(thread, username);
+                if (held != null && !isExpiring(held, now)) {
+                    return held.use(now);
+                }
+                if (held != null) {
+                    lent.remove(thread, username);
+                    expired.add(held);
+                }
+                final Deque<PooledSession> free = idle(username);
+                PooledSession session;
+                while ((session = free.poll()) != null) {
+                    if (!isExpiring(session, now)) {
+                        lent.put(thread, username, session);
+                        return session.use(now);
+                    }
+                    expired.add(session);
+                }
+            }
+        } finally {
+            logout(expired, "Refreshed");
+        }
+        final long now = System.currentTimeMillis();
+        final PooledSession loggedIn = new PooledSession(username, login.login(user), login, now);
+        LOGGER.info("Logged in {}", username);
+        synchronized (this) {
+            lent.put(thread, username, loggedIn);
+        }
+        return loggedIn.use(now);
+    }
+
+    /**
+     * Gives back every lent session, so the vUsers of the next scenario reuse them. An invalidated session is logged out instead.
+     */
+    public void releaseAll() {
+        final List<PooledSession> invalidated = new ArrayList<>();
+        synchronized (this) {
+            for (final PooledSession session : lent.values()) {
+                if (isExpiring(session, System.currentTimeMillis())) {
+                    invalidated.add(session);
+                } else {
+                    idle(session.getUsername()).push(session);
+                }
+            }
+            lent.clear();
+        }
+        logout(invalidated, "Released");
+    }
+
+    /**
+     * Drops the sessions of a user, e.g. after the deployment rejected one, so the next {@link #acquire} logs in again. A session still lent
+     * to a vUser is logged out once it is given back.
+     *
+     * @param username
+     *            The user.
+     */
+    public void invalidate(final String username) {
+        final List<PooledSession> dropped = new ArrayList<>();
+        synchronized (this) {
+            dropped.addAll(idle(username));
+            idle.remove(username);
+            for (final PooledSession session : lent.column(username).values()) {
+                session.invalidate();
+            }
+        }
+        LOGGER.info("Invalidated the sessions of {}", username);
+        logout(dropped, "Invalidated");
+    }
+
+    /**
+     * Logs out and closes every session of the pool.
+     */
+    public void closeAll() {
+        final List<PooledSession> sessions = new ArrayList<>();
+        synchronized (this) {
+            for (final Deque<PooledSession> free : idle.values()) {
+                sessions.addAll(free);
+            }
+            sessions.addAll(lent.values());
+            idle.clear();
+            lent.clear();
+        }
+        logout(sessions, "Closed");
+    }
+
+    private Deque<PooledSession> idle(final String username) {
+        Deque<PooledSession> free = idle.get(username);
+        if (free == null) {
+            free = new ArrayDeque<>();
+            idle.put(username, free);
+        }
+        return free;
+    }
+
+    private static boolean isExpiring(final PooledSession session, final long now) {
+        return session.isExpiring(now, getLong(MAX_AGE_PROPERTY, DEFAULT_MAX_AGE_MILLIS), getLong(MAX_IDLE_PROPERTY, DEFAULT_MAX_IDLE_MILLIS));
+    }
+
+    /*
+     * Sessions are logged out outside of the pool lock, as logging out is a request to the deployment.
+     */
+    private static void logout(final List<PooledSession> sessions, final String reason) {
+        for (final PooledSession session : sessions) {
+            try {
+                session.getLogin().logout(session.getHttpTool());
+            } catch (final RuntimeException e) {
+                LOGGER.warn("Could not log out a session of {}", session.getUsername(), e);
+            }
+        }
+        if (!sessions.isEmpty()) {
+            LOGGER.info("{} {} session(s)", reason, sessions.size());
+        }
+    }
+
+}
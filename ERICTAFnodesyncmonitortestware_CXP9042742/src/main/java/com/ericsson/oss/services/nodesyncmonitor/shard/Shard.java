@@ -0,0 +1,135 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.shard;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.math.IntMath;
+
+/**
+ * One of the N shards the nodes under test are split into, so that N TAF executors can each set up, trigger and tear down their own nodes.
+ * <p>
+ * A node belongs to the shard selected by the murmur3 hash of its network element id modulo N, so every executor computes the same split from
+ * the same node list without coordinating with the others. The shard of an executor is set with {@code -Dshard=<i>/<N>}, where {@code i}
+ * counts from 1; {@code 1/1}, the default, holds every node.
+ */
+public final class Shard {
+
+    public static final String SHARD_PROPERTY = "shard";
+
+    private static final Shard ALL = new Shard(1, 1);
+    private static final Pattern SHARD_PATTERN = Pattern.compile("^\\s*(\\d+)\\s*/\\s*(\\d+)\\s*$");
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_32();
+
+    private final int index;
+    private final int count;
+
+    private Shard(final int index, final int count) {
+        this.index = index;
+        this.count = count;
+    }
+
+    /**
+     * @return The shard of this executor, as set by the {@value #SHARD_PROPERTY} property.
+     * @throws IllegalArgumentException
+     *             If the property is malformed.
+     */
+    public static Shard current() {
+        return parse(getString(SHARD_PROPERTY, "1/1"));
+    }
+
+    /**
+     * @param specification
+     *            The shard as {@code <i>/<N>}, with {@code 1 <= i <= N}.
+     * @return The shard.
+     * @throws IllegalArgumentException
+     *             If the specification is malformed.
+     */
+    public static Shard parse(final String specification) {
+        final Matcher matcher = SHARD_PATTERN.matcher(specification == null ? "" : specification);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException(String.format("Shard [%s] is not of the form <i>/<N>", specification));
+        }
+        final int index = Integer.parseInt(matcher.group(1));
+        final int count = Integer.parseInt(matcher.group(2));
+        if (count < 1 || index < 1 || index > count) {
+            throw new IllegalArgumentException(String.format("Shard [%s] must be between 1/%d and %d/%d", specification, count, count, count));
+        }
+        return count == 1 ? ALL : new Shard(index, count);
+    }
+
+    /**
+     * @param networkElementId
+     *            The network element id of a node.
+     * @param count
+     *            The number of shards.
+     * @return The index, from 1, of the shard the node belongs to when the nodes are split into {@code count} shards.
+     */
+    public static int indexOf(final String networkElementId, final int count) {
+        return IntMath.mod(HASH_FUNCTION.hashString(networkElementId, StandardCharsets.UTF_8).asInt(), count) + 1;
+    }
+
+    /**
+     * @param networkElementId
+     *            The network element id of a node.
+     * @return True if the node belongs to this shard.
+     */
+    public boolean contains(final String networkElementId) {
+        return count == 1 || indexOf(networkElementId, count) == index;
+    }
+
+    /**
+     * @return True if the nodes are split over more than one shard.
+     */
+    public boolean isSharded() {
+        return count > 1;
+    }
+
+    /**
+     * @return {@code shard-<i>-of-<N>-} on a sharded executor, inserted in the name of its report files so the reports of every shard can be
+     *         collected in one directory and merged (see {@link ShardReportMerger}); empty otherwise.
+     */
+    public String getFileNamePart() {
+        return isSharded() ? String.format("shard-%d-of-%d-", index, count) : "";
+    }
+
+    /**
+     * @param name
+     *            The name of a resource every executor creates for itself on the deployment, such as its test user.
+     * @return {@code <name>_<i>} on a sharded executor, so the executors do not create, use and delete the same resource; the name itself
+     *         otherwise.
+     */
+    public String qualify(final String name) {
+        return isSharded() ? name + "_" + index : name;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return index + "/" + count;
+    }
+
+}
@@ -0,0 +1,284 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.shard;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getString;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.HdrHistogram.Histogram;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyKind;
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyReport;
+import com.ericsson.oss.services.nodesyncmonitor.resilience.Resilience;
+import com.ericsson.oss.services.nodesyncmonitor.timing.TimingTree;
+import com.ericsson.oss.services.nodesyncmonitor.utils.ReportFiles;
+import com.google.common.io.Files;
+
+/**
+ * Merges the reports written by the executors of a sharded run (see {@link Shard}) into one report of the suite, written next to them as
+ * {@code <prefix>merged-<time>.json}:
+ * <ul>
+ * <li>scenario timing: the trees are merged by path, adding runs, times, retries, records and failures and keeping the longest run</li>
+ * <li>alarm latency: the samples of every shard are concatenated and the percentiles computed again over all of them</li>
+ * <li>resilience: the counters of every endpoint are added up</li>
+ * </ul>
+ * The reports of a shard are the files named {@code <prefix>shard-<i>-of-<N>-<time>.json} in the report directory; if a shard ran more than
+ * once, its latest report is merged. The report directories are read from the same properties as when the reports were written.
+ */
+public final class ShardReportMerger {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardReportMerger.class);
+
+    private static final String MERGED_FILE_PART = "merged-";
+    private static final Pattern SHARD_FILE_PATTERN = Pattern.compile("^shard-(\\d+)-of-(\\d+)-(.+)\\.json$");
+    private static final List<String> TIMING_SUMS = Arrays.asList("invocations", "totalMillis", "failures", "retries", "dataRecords");
+
+    private ShardReportMerger() {}
+
+    /**
+     * Merges the timing, latency and resilience reports of every shard.
+     *
+     * @param args
+     *            Unused.
+     * @throws IOException
+     *             If a report cannot be read or written.
+     */
+    public static void main(final String[] args) throws IOException {
+        final Map<String, JSONObject> timing = readShardReports(TimingTree.REPORT_DIR_PROPERTY, TimingTree.DEFAULT_REPORT_DIR,
+                TimingTree.FILE_PREFIX);
+        if (!timing.isEmpty()) {
+            write(mergeTiming(timing), TimingTree.REPORT_DIR_PROPERTY, TimingTree.DEFAULT_REPORT_DIR, TimingTree.FILE_PREFIX);
+        }
+        final Map<String, JSONObject> latency = readShardReports(LatencyReport.REPORT_DIR_PROPERTY, LatencyReport.DEFAULT_REPORT_DIR,
+                LatencyReport.FILE_PREFIX);
+        if (!latency.isEmpty()) {
+            write(mergeLatency(latency), LatencyReport.REPORT_DIR_PROPERTY, LatencyReport.DEFAULT_REPORT_DIR, LatencyReport.FILE_PREFIX);
+        }
+        final Map<String, JSONObject> resilience = readShardReports(Resilience.REPORT_DIR_PROPERTY, Resilience.DEFAULT_REPORT_DIR,
+                Resilience.FILE_PREFIX);
+        if (!resilience.isEmpty()) {
+            write(mergeResilience(resilience), Resilience.REPORT_DIR_PROPERTY, Resilience.DEFAULT_REPORT_DIR, Resilience.FILE_PREFIX);
+        }
+    }
+
+    /**
+     * @param reports
+     *            The timing trees of the shards, keyed by shard.
+     * @return One timing tree, merging the nodes of the same kind and name under the same parent.
+     */
+    public static JSONObject mergeTiming(final Map<String, JSONObject> reports) {
+        JSONObject merged = null;
+        for (final JSONObject report : reports.values()) {
+            merged = merged == null ? report : mergeTimingNode(merged, report);
+        }
+        return merged;
+    }
+
+    /**
+     * @param reports
+     *            The latency reports of the shards, keyed by shard.
+     * @return One latency report holding the samples of every shard, with the summaries of all of them.
+     */
+    @SuppressWarnings("unchecked")
+    public static JSONObject mergeLatency(final Map<String, JSONObject> reports) {
+        final Map<String, Histogram> histograms = new LinkedHashMap<>();
+        for (final LatencyKind kind : LatencyKind.values()) {
+            histograms.put(kind.name(), new Histogram(3));
+        }
+        final JSONArray samples = new JSONArray();
+        for (final JSONObject report : reports.values()) {
+            for (final Object sample : (JSONArray) report.get("samples")) {
+                final JSONObject entry = (JSONObject) sample;
+                final Histogram histogram = histograms.get(entry.get("kind"));
+                if (histogram != null) {
+                    histogram.recordValue(((Number) entry.get("latencyMillis")).longValue());
+                }
+                samples.add(entry);
+            }
+        }
+        final JSONObject merged = new JSONObject();
+        for (final Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            merged.put(entry.getKey().toLowerCase(Locale.ROOT), LatencyReport.summary(entry.getValue()));
+        }
+        merged.put("samples", samples);
+        return merged;
+    }
+
+    /**
+     * @param reports
+     *            The resilience reports of the shards, keyed by shard.
+     * @return One resilience report adding up the counters of every endpoint. The circuit breaker state of an endpoint is the state it ended
+     *         in on every shard, or the states per shard if they differ.
+     */
+    @SuppressWarnings("unchecked")
+    public static JSONObject mergeResilience(final Map<String, JSONObject> reports) {
+        final JSONObject merged = new JSONObject();
+        final Map<String, JSONObject> states = new TreeMap<>();
+        for (final Map.Entry<String, JSONObject> report : reports.entrySet()) {
+            for (final Object endpointEntry : report.getValue().entrySet()) {
+                final Map.Entry<String, JSONObject> endpoint = (Map.Entry<String, JSONObject>) endpointEntry;
+                final JSONObject counters = (JSONObject) endpoint.getValue().clone();
+                final Object state = counters.remove("circuitBreakerState");
+                if (state != null) {
+                    if (!states.containsKey(endpoint.getKey())) {
+                        states.put(endpoint.getKey(), new JSONObject());
+                    }
+                    states.get(endpoint.getKey()).put(report.getKey(), state);
+                }
+                final JSONObject previous = (JSONObject) merged.get(endpoint.getKey());
+                merged.put(endpoint.getKey(), previous == null ? counters : addCounters(previous, counters));
+            }
+        }
+        for (final Map.Entry<String, JSONObject> entry : states.entrySet()) {
+            final JSONObject endpoint = (JSONObject) merged.get(entry.getKey());
+            final List<Object> distinct = new ArrayList<>(new LinkedHashSet<>(entry.getValue().values()));
+            endpoint.put("circuitBreakerState", distinct.size() == 1 ? distinct.get(0) : entry.getValue());
+        }
+        return merged;
+    }
+
+    /*
+     * Reads the latest report of every shard, keyed by shard. Empty if the directory holds no sharded report.
+     */
+    private static Map<String, JSONObject> readShardReports(final String directoryProperty, final String defaultDirectory, final String prefix)
+            throws IOException {
+        final File directory = new File(getString(directoryProperty, defaultDirectory));
+        final File[] files = directory.listFiles();
+        final Map<String, File> latest = new TreeMap<>();
+        int shardCount = 0;
+        for (final File file : files == null ? new File[0] : files) {
+            if (!file.getName().startsWith(prefix)) {
+                continue;
+            }
+            final Matcher matcher = SHARD_FILE_PATTERN.matcher(file.getName().substring(prefix.length()));
+            if (!matcher.matches()) {
+                continue;
+            }
+            final int count = Integer.parseInt(matcher.group(2));
+            if (count > shardCount) {
+                shardCount = count;
+                latest.clear();
+            } else if (count < shardCount) {
+                continue;
+            }
+            final String shard = matcher.group(1) + "/" + count;
+            final File previous = latest.get(shard);
+            if (previous == null || previous.getName().compareTo(file.getName()) < 0) {
+                latest.put(shard, file);
+            }
+        }
+        if (latest.isEmpty()) {
+            LOGGER.info("No sharded {} report in {}", prefix, directory);
+            return Collections.<String, JSONObject> emptyMap();
+        }
+        if (latest.size() < shardCount) {
+            LOGGER.warn("Only {} of {} shard(s) wrote a {} report in {}: {}", latest.size(), shardCount, prefix, directory, latest.keySet());
+        }
+        final Map<String, JSONObject> reports = new LinkedHashMap<>();
+        for (final Map.Entry<String, File> entry : latest.entrySet()) {
+            reports.put(entry.getKey(), read(entry.getValue()));
+        }
+        return reports;
+    }
+
+    private static JSONObject read(final File file) throws IOException {
+        try (Reader reader = Files.newReader(file, StandardCharsets.UTF_8)) {
+            return (JSONObject) new JSONParser().parse(reader);
+        } catch (final ParseException e) {
+            throw new IOException(String.format("Could not parse report %s", file), e);
+        }
+    }
+
+    private static void write(final JSONObject report, final String directoryProperty, final String defaultDirectory, final String prefix)
+            throws IOException {
+        final File file = ReportFiles.newReportFile(directoryProperty, defaultDirectory, prefix + MERGED_FILE_PART, "json");
+        ReportFiles.writeJson(report, file);
+        LOGGER.info("Merged report written to {}", file);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONObject mergeTimingNode(final JSONObject merged, final JSONObject node) {
+        for (final String key : TIMING_SUMS) {
+            merged.put(key, longValue(merged, key) + longValue(node, key));
+        }
+        merged.put("maxMillis", Math.max(longValue(merged, "maxMillis"), longValue(node, "maxMillis")));
+        final JSONArray children = (JSONArray) merged.get("children");
+        for (final Object child : (JSONArray) node.get("children")) {
+            final JSONObject childNode = (JSONObject) child;
+            final JSONObject mergedChild = findChild(children, childNode);
+            if (mergedChild == null) {
+                children.add(childNode);
+            } else {
+                mergeTimingNode(mergedChild, childNode);
+            }
+        }
+        return merged;
+    }
+
+    private static JSONObject findChild(final JSONArray children, final JSONObject node) {
+        for (final Iterator<?> iterator = children.iterator(); iterator.hasNext();) {
+            final JSONObject child = (JSONObject) iterator.next();
+            if (child.get("kind").equals(node.get("kind")) && child.get("name").equals(node.get("name"))) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Adds up the numbers of two resilience counters, including nested objects such as the failures per error class.
+     */
+    @SuppressWarnings("unchecked")
+    private static JSONObject addCounters(final JSONObject merged, final JSONObject counters) {
+        for (final Object entry : counters.entrySet()) {
+            final Map.Entry<String, Object> counter = (Map.Entry<String, Object>) entry;
+            final Object previous = merged.get(counter.getKey());
+            if (previous instanceof Number && counter.getValue() instanceof Number) {
+                merged.put(counter.getKey(), ((Number) previous).longValue() + ((Number) counter.getValue()).longValue());
+            } else if (previous instanceof JSONObject && counter.getValue() instanceof JSONObject) {
+                addCounters((JSONObject) previous, (JSONObject) counter.getValue());
+            } else if (previous == null) {
+                merged.put(counter.getKey(), counter.getValue());
+            }
+        }
+        return merged;
+    }
+
+    private static long longValue(final JSONObject json, final String key) {
+        final Object value = json.get(key);
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+}
@@ -0,0 +1,78 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.soak;
+
+/**
+ * The outcome of one stop, failed syncs, alarm raised, start, resync and alarm cleared cycle of the soak scenario. Latencies are the highest
+ * over the nodes of the cycle, in milliseconds, or -1 if none was recorded (e.g. because the cycle failed before).
+ */
+public final class SoakCycle {
+
+    private final int iteration;
+    private final long startedAtMillis;
+    private final long durationMillis;
+    private final long raiseLatencyMillis;
+    private final long clearLatencyMillis;
+    private final String failure;
+
+    public SoakCycle(final int iteration, final long startedAtMillis, final long durationMillis, final long raiseLatencyMillis,
+                     final long clearLatencyMillis, final String failure) {
+        this.iteration = iteration;
+        this.startedAtMillis = startedAtMillis;
+        this.durationMillis = durationMillis;
+        this.raiseLatencyMillis = raiseLatencyMillis;
+        this.clearLatencyMillis = clearLatencyMillis;
+        this.failure = failure;
+    }
+
+    public int getIteration() {
+        return iteration;
+    }
+
+    /**
+     * @return The wall clock time the cycle started, in milliseconds since the epoch.
+     */
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public long getRaiseLatencyMillis() {
+        return raiseLatencyMillis;
+    }
+
+    public long getClearLatencyMillis() {
+        return clearLatencyMillis;
+    }
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * @return The reason the cycle failed, or null if it succeeded.
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("cycle %d: %d ms, raise %d ms, clear %d ms%s", iteration, durationMillis, raiseLatencyMillis, clearLatencyMillis,
+                failure == null ? "" : ", failed: " + failure);
+    }
+
+}
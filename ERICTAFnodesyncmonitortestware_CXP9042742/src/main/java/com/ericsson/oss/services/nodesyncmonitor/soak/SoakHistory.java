@@ -0,0 +1,64 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.soak;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ring buffer of the most recent {@link SoakCycle}s, so a soak of any length is reported in bounded memory. The total number of cycles and
+ * failures is kept over the whole soak, including the cycles which were overwritten.
+ */
+public final class SoakHistory {
+
+    private final SoakCycle[] cycles;
+    private int next;
+    private int size;
+    private int totalCycles;
+    private int totalFailures;
+
+    public SoakHistory(final int capacity) {
+        cycles = new SoakCycle[capacity];
+    }
+
+    public synchronized void add(final SoakCycle cycle) {
+        cycles[next] = cycle;
+        next = (next + 1) % cycles.length;
+        size = Math.min(size + 1, cycles.length);
+        totalCycles++;
+        if (cycle.isFailed()) {
+            totalFailures++;
+        }
+    }
+
+    /**
+     * @return The retained cycles, oldest first.
+     */
+    public synchronized List<SoakCycle> getCycles() {
+        final List<SoakCycle> retained = new ArrayList<>(size);
+        final int oldest = (next - size + cycles.length) % cycles.length;
+        for (int i = 0; i < size; i++) {
+            retained.add(cycles[(oldest + i) % cycles.length]);
+        }
+        return retained;
+    }
+
+    public synchronized int getTotalCycles() {
+        return totalCycles;
+    }
+
+    public synchronized int getTotalFailures() {
+        return totalFailures;
+    }
+
+}
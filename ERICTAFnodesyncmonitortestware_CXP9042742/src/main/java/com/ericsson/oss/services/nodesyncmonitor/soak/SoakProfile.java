@@ -0,0 +1,111 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.soak;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.PREFIX;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getInt;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getLong;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The settings of the soak scenario, read from the {@code services.nodeSyncMonitor.soak.*} properties:
+ * <ul>
+ * <li>{@code durationMinutes}: how long the cycles are repeated, 0 for no time limit</li>
+ * <li>{@code iterations}: how many cycles are run, 0 for no limit. The soak ends at whichever limit is reached first</li>
+ * <li>{@code nodes}: the number of nodes under test cycled together, 0 for every node under test</li>
+ * <li>{@code historySize}: the number of most recent cycles kept for the report</li>
+ * <li>{@code trendBucketMinutes}: the length of the periods the latency percentiles are compared over</li>
+ * <li>{@code maxConsecutiveFailures}: the number of failed cycles in a row after which the soak is stopped</li>
+ * </ul>
+ */
+public final class SoakProfile {
+
+    private static final String SOAK_PREFIX = PREFIX + "soak.";
+
+    private final long durationMillis;
+    private final int iterations;
+    private final int nodes;
+    private final int historySize;
+    private final long trendBucketMillis;
+    private final int maxConsecutiveFailures;
+
+    public SoakProfile(final long durationMillis, final int iterations, final int nodes, final int historySize, final long trendBucketMillis,
+                       final int maxConsecutiveFailures) {
+        if (durationMillis <= 0 && iterations <= 0) {
+            throw new IllegalArgumentException("A soak needs a duration or a number of iterations");
+        }
+        if (historySize < 1 || trendBucketMillis < 1 || maxConsecutiveFailures < 1) {
+            throw new IllegalArgumentException(String.format("Invalid soak profile: historySize=%d, trendBucketMillis=%d, maxConsecutiveFailures=%d",
+                    historySize, trendBucketMillis, maxConsecutiveFailures));
+        }
+        this.durationMillis = durationMillis;
+        this.iterations = iterations;
+        this.nodes = nodes;
+        this.historySize = historySize;
+        this.trendBucketMillis = trendBucketMillis;
+        this.maxConsecutiveFailures = maxConsecutiveFailures;
+    }
+
+    public static SoakProfile fromConfiguration() {
+        return new SoakProfile(TimeUnit.MINUTES.toMillis(getLong(SOAK_PREFIX + "durationMinutes", 60)), getInt(SOAK_PREFIX + "iterations", 0),
+                getInt(SOAK_PREFIX + "nodes", 0), getInt(SOAK_PREFIX + "historySize", 10000),
+                TimeUnit.MINUTES.toMillis(getLong(SOAK_PREFIX + "trendBucketMinutes", 60)), getInt(SOAK_PREFIX + "maxConsecutiveFailures", 3));
+    }
+
+    /**
+     * @param completedIterations
+     *            The number of cycles run so far.
+     * @param elapsedMillis
+     *            The time since the first cycle started.
+     * @return True if no further cycle should be started.
+     */
+    public boolean isComplete(final int completedIterations, final long elapsedMillis) {
+        return iterations > 0 && completedIterations >= iterations || durationMillis > 0 && elapsedMillis >= durationMillis;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * @return The number of nodes cycled together, 0 for every node under test.
+     */
+    public int getNodes() {
+        return nodes;
+    }
+
+    public int getHistorySize() {
+        return historySize;
+    }
+
+    public long getTrendBucketMillis() {
+        return trendBucketMillis;
+    }
+
+    public int getMaxConsecutiveFailures() {
+        return maxConsecutiveFailures;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("duration=%s, iterations=%s, nodes=%s, trendBucket=%d min",
+                durationMillis > 0 ? TimeUnit.MILLISECONDS.toMinutes(durationMillis) + " min" : "unlimited", iterations > 0 ? iterations : "unlimited",
+                nodes > 0 ? nodes : "all", TimeUnit.MILLISECONDS.toMinutes(trendBucketMillis));
+    }
+
+}
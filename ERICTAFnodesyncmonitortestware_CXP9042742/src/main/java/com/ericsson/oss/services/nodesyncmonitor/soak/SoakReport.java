@@ -0,0 +1,192 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.soak;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.oss.services.nodesyncmonitor.utils.ReportFiles;
+
+/**
+ * Reports the trend of a soak: the cycles retained by the {@link SoakHistory} are grouped in buckets of
+ * {@code services.nodeSyncMonitor.soak.trendBucketMinutes} from the start of the soak, and the p50, p99 and max alarm raise and clear
+ * latencies of each bucket are compared. The growth of the p99 latencies per hour is the least squares slope over the buckets; a steady
+ * growth points to a leak or to state building up in the node sync monitor.
+ * <p>
+ * The report is logged and written as {@code node-sync-monitor-soak-<time>.json} to {@code services.nodeSyncMonitor.soak.reportDir}. The same
+ * file is rewritten every time {@link #write()} is called, so the trend of a soak which is interrupted is not lost.
+ */
+public final class SoakReport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SoakReport.class);
+
+    private static final String REPORT_DIR_PROPERTY = "services.nodeSyncMonitor.soak.reportDir";
+    private static final String DEFAULT_REPORT_DIR = "target/soak";
+    private static final String FILE_PREFIX = "node-sync-monitor-soak-";
+    private static final double MILLIS_PER_HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private final SoakProfile profile;
+    private final SoakHistory history;
+    private final long soakStartMillis;
+    private File file;
+
+    public SoakReport(final SoakProfile profile, final SoakHistory history, final long soakStartMillis) {
+        this.profile = profile;
+        this.history = history;
+        this.soakStartMillis = soakStartMillis;
+    }
+
+    /**
+     * Logs the trend and writes the report file.
+     */
+    @SuppressWarnings("unchecked")
+    public void write() {
+        final List<SoakCycle> cycles = history.getCycles();
+        final JSONArray buckets = trend(cycles, soakStartMillis, profile.getTrendBucketMillis());
+        final JSONObject report = new JSONObject();
+        report.put("profile", profile.toString());
+        report.put("startedAt", soakStartMillis);
+        report.put("totalCycles", history.getTotalCycles());
+        report.put("totalFailures", history.getTotalFailures());
+        report.put("raiseP99GrowthPerHour", p99GrowthPerHour(buckets, "raise", profile.getTrendBucketMillis()));
+        report.put("clearP99GrowthPerHour", p99GrowthPerHour(buckets, "clear", profile.getTrendBucketMillis()));
+        report.put("buckets", buckets);
+        report.put("cycles", toJson(cycles));
+        LOGGER.info("Soak after {} cycle(s), {} failed: p99 growth per hour raise {} ms, clear {} ms", history.getTotalCycles(),
+                history.getTotalFailures(), report.get("raiseP99GrowthPerHour"), report.get("clearP99GrowthPerHour"));
+        try {
+            if (file == null) {
+                file = ReportFiles.newReportFile(REPORT_DIR_PROPERTY, DEFAULT_REPORT_DIR, FILE_PREFIX, "json");
+            }
+            ReportFiles.writeJson(report, file);
+            LOGGER.info("Soak report written to {}", file);
+        } catch (final IOException e) {
+            LOGGER.warn("Could not write the soak report", e);
+        }
+    }
+
+    /**
+     * @return One entry per bucket holding at least one cycle, in order: the bucket index, the number of cycles and failures, and the raise and
+     *         clear latency percentiles.
+     */
+    @SuppressWarnings("unchecked")
+    static JSONArray trend(final List<SoakCycle> cycles, final long soakStartMillis, final long bucketMillis) {
+        final Map<Long, List<SoakCycle>> byBucket = new TreeMap<>();
+        for (final SoakCycle cycle : cycles) {
+            final long index = Math.max(0L, cycle.getStartedAtMillis() - soakStartMillis) / bucketMillis;
+            if (!byBucket.containsKey(index)) {
+                byBucket.put(index, new ArrayList<SoakCycle>());
+            }
+            byBucket.get(index).add(cycle);
+        }
+        final JSONArray buckets = new JSONArray();
+        for (final Map.Entry<Long, List<SoakCycle>> entry : byBucket.entrySet()) {
+            final Histogram raise = new Histogram(3);
+            final Histogram clear = new Histogram(3);
+            int failures = 0;
+            for (final SoakCycle cycle : entry.getValue()) {
+                if (cycle.isFailed()) {
+                    failures++;
+                }
+                if (cycle.getRaiseLatencyMillis() >= 0) {
+                    raise.recordValue(cycle.getRaiseLatencyMillis());
+                }
+                if (cycle.getClearLatencyMillis() >= 0) {
+                    clear.recordValue(cycle.getClearLatencyMillis());
+                }
+            }
+            final JSONObject bucket = new JSONObject();
+            bucket.put("index", entry.getKey());
+            bucket.put("cycles", entry.getValue().size());
+            bucket.put("failures", failures);
+            bucket.put("raise", percentiles(raise));
+            bucket.put("clear", percentiles(clear));
+            buckets.add(bucket);
+        }
+        return buckets;
+    }
+
+    /**
+     * @return The least squares slope of the p99 latency of {@code kind} over the middle of each bucket, in milliseconds per hour, or null if
+     *         fewer than two buckets have a latency.
+     */
+    static Double p99GrowthPerHour(final JSONArray buckets, final String kind, final long bucketMillis) {
+        final List<double[]> points = new ArrayList<>();
+        for (final Object entry : buckets) {
+            final JSONObject bucket = (JSONObject) entry;
+            final JSONObject latency = (JSONObject) bucket.get(kind);
+            if (latency.containsKey("p99")) {
+                final double hours = (((Long) bucket.get("index")) + 0.5) * bucketMillis / MILLIS_PER_HOUR;
+                points.add(new double[] { hours, ((Long) latency.get("p99")).doubleValue() });
+            }
+        }
+        if (points.size() < 2) {
+            return null;
+        }
+        double meanX = 0;
+        double meanY = 0;
+        for (final double[] point : points) {
+            meanX += point[0] / points.size();
+            meanY += point[1] / points.size();
+        }
+        double covariance = 0;
+        double variance = 0;
+        for (final double[] point : points) {
+            covariance += (point[0] - meanX) * (point[1] - meanY);
+            variance += (point[0] - meanX) * (point[0] - meanX);
+        }
+        return covariance / variance;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONObject percentiles(final Histogram histogram) {
+        final JSONObject percentiles = new JSONObject();
+        percentiles.put("count", histogram.getTotalCount());
+        if (histogram.getTotalCount() > 0) {
+            percentiles.put("p50", histogram.getValueAtPercentile(50.0));
+            percentiles.put("p99", histogram.getValueAtPercentile(99.0));
+            percentiles.put("max", histogram.getMaxValue());
+        }
+        return percentiles;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONArray toJson(final List<SoakCycle> cycles) {
+        final JSONArray array = new JSONArray();
+        for (final SoakCycle cycle : cycles) {
+            final JSONObject entry = new JSONObject();
+            entry.put("iteration", cycle.getIteration());
+            entry.put("startedAt", cycle.getStartedAtMillis());
+            entry.put("durationMillis", cycle.getDurationMillis());
+            entry.put("raiseLatencyMillis", cycle.getRaiseLatencyMillis());
+            entry.put("clearLatencyMillis", cycle.getClearLatencyMillis());
+            if (cycle.isFailed()) {
+                entry.put("failure", cycle.getFailure());
+            }
+            array.add(entry);
+        }
+        return array;
+    }
+
+}
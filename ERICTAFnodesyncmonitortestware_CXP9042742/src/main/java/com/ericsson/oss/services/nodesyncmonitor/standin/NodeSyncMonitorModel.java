@@ -0,0 +1,245 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.standin;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getFailedSyncThreshold;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getInt;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getLong;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * In-process model of the parts of ENM, NetSim and the node-sync-monitor service the test suite observes.
+ * <p>
+ * Each node is started or stopped in NetSim. A sync of a stopped node fails {@code syncFailureLatency} ms after it was triggered and
+ * increments the {@code CmFunction.failedSyncsCount} of the node. When the count reaches {@code services.nodeSyncMonitor.failedSyncThreshold},
+ * the node is supervised by FM and the {@code cmNodeSyncMonitorFeature} PIB parameter is on, the {@code CM unsynchronized} alarm is raised
+ * {@code alarmRaiseLatency} ms later. Starting the node, or a sync while it is started, resets the count and clears a raised alarm
+ * {@code alarmClearLatency} ms later.
+ * <p>
+ * Time is only evaluated when the model is read, so no threads are involved. All latencies are read from
+ * {@code services.nodeSyncMonitor.standIn.*} and are in milliseconds.
+ */
+public final class NodeSyncMonitorModel {
+
+    public static final String FEATURE_PARAMETER = "cmNodeSyncMonitorFeature";
+
+    private static final String PROPERTY_PREFIX = "services.nodeSyncMonitor.standIn.";
+
+    /**
+     * The state of the {@code CM unsynchronized} alarm of a node.
+     */
+    public enum AlarmState {
+        NONE,
+        ACTIVE_UNACKNOWLEDGED,
+        CLEARED_UNACKNOWLEDGED
+    }
+
+    private final int failedSyncThreshold;
+    private final long syncFailureLatencyMillis;
+    private final long alarmRaiseLatencyMillis;
+    private final long alarmClearLatencyMillis;
+    private final List<String> kpiServInstances;
+
+    private final Map<String, NodeState> nodes = new HashMap<>();
+    private final Map<String, Map<String, String>> pibParameters = new LinkedHashMap<>();
+
+    public NodeSyncMonitorModel(final int failedSyncThreshold, final long syncFailureLatencyMillis, final long alarmRaiseLatencyMillis,
+                                final long alarmClearLatencyMillis, final int kpiServInstances) {
+        if (failedSyncThreshold < 1 || kpiServInstances < 1) {
+            throw new IllegalArgumentException("failedSyncThreshold and kpiServInstances must be at least 1");
+        }
+        this.failedSyncThreshold = failedSyncThreshold;
+        this.syncFailureLatencyMillis = syncFailureLatencyMillis;
+        this.alarmRaiseLatencyMillis = alarmRaiseLatencyMillis;
+        this.alarmClearLatencyMillis = alarmClearLatencyMillis;
+        final ImmutableList.Builder<String> instances = ImmutableList.builder();
+        for (int index = 1; index <= kpiServInstances; index++) {
+            instances.add("svc-" + index + "-kpiserv");
+        }
+        this.kpiServInstances = instances.build();
+    }
+
+    /**
+     * @return A model configured by the {@code services.nodeSyncMonitor.standIn.*} properties.
+     */
+    public static NodeSyncMonitorModel fromConfiguration() {
+        return new NodeSyncMonitorModel(
+                getFailedSyncThreshold(),
+                getLong(PROPERTY_PREFIX + "syncFailureLatency", 50),
+                getLong(PROPERTY_PREFIX + "alarmRaiseLatency", 200),
+                getLong(PROPERTY_PREFIX + "alarmClearLatency", 200),
+                getInt(PROPERTY_PREFIX + "kpiServInstances", 2));
+    }
+
+    public List<String> getKpiServInstances() {
+        return kpiServInstances;
+    }
+
+    public synchronized void start(final String nodeId) {
+        final NodeState node = advance(nodeId);
+        node.started = true;
+        syncSucceeded(node);
+    }
+
+    public synchronized void stop(final String nodeId) {
+        final NodeState node = advance(nodeId);
+        node.started = false;
+        node.databaseRevision++;
+    }
+
+    /**
+     * Restores the saved database of the node: the node is started with no failed syncs and no alarm.
+     */
+    public synchronized void restore(final String nodeId) {
+        final NodeState node = new NodeState();
+        node.supervised = advance(nodeId).supervised;
+        nodes.put(nodeId, node);
+    }
+
+    /**
+     * Restores the saved database of the stopped node: the node is left stopped with no failed syncs and no alarm.
+     */
+    public synchronized void restoreDatabase(final String nodeId) {
+        restore(nodeId);
+        nodes.get(nodeId).started = false;
+    }
+
+    public synchronized void enableAlarmSupervision(final String nodeId) {
+        advance(nodeId).supervised = true;
+    }
+
+    /**
+     * Triggers a sync of the node, which fails later if the node is stopped.
+     */
+    public synchronized void sync(final String nodeId) {
+        final NodeState node = advance(nodeId);
+        if (node.started) {
+            syncSucceeded(node);
+        } else {
+            node.pendingSyncFailures.addLast(now() + syncFailureLatencyMillis);
+        }
+    }
+
+    public synchronized int getFailedSyncsCount(final String nodeId) {
+        return advance(nodeId).failedSyncsCount;
+    }
+
+    /**
+     * @return The number of times the NetSim database of the node was changed, by stopping the node, since it was last restored.
+     */
+    public synchronized int getDatabaseRevision(final String nodeId) {
+        return advance(nodeId).databaseRevision;
+    }
+
+    /**
+     * @return True if the node is started and has no sync pending or failed since its last successful sync.
+     */
+    public synchronized boolean isSynchronized(final String nodeId) {
+        final NodeState node = advance(nodeId);
+        return node.started && node.failedSyncsCount == 0 && node.pendingSyncFailures.isEmpty();
+    }
+
+    public synchronized AlarmState getAlarmState(final String nodeId) {
+        return advance(nodeId).alarmState;
+    }
+
+    public synchronized void setPibParameter(final String instance, final String parameter, final String value) {
+        Map<String, String> parameters = pibParameters.get(instance);
+        if (parameters == null) {
+            parameters = new HashMap<>();
+            pibParameters.put(instance, parameters);
+        }
+        parameters.put(parameter, value);
+    }
+
+    /**
+     * @return The value of the parameter on the instance, or null if it was never set.
+     */
+    public synchronized String getPibParameter(final String instance, final String parameter) {
+        final Map<String, String> parameters = pibParameters.get(instance);
+        return parameters == null ? null : parameters.get(parameter);
+    }
+
+    private boolean isFeatureEnabled() {
+        for (final Map<String, String> parameters : pibParameters.values()) {
+            if ("on".equalsIgnoreCase(parameters.get(FEATURE_PARAMETER))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void syncSucceeded(final NodeState node) {
+        node.failedSyncsCount = 0;
+        node.pendingSyncFailures.clear();
+        node.alarmRaiseDue = null;
+        if (node.alarmState == AlarmState.ACTIVE_UNACKNOWLEDGED && node.alarmClearDue == null) {
+            node.alarmClearDue = now() + alarmClearLatencyMillis;
+        }
+    }
+
+    /*
+     * Applies every transition of the node which is due.
+     */
+    private NodeState advance(final String nodeId) {
+        NodeState node = nodes.get(nodeId);
+        if (node == null) {
+            node = new NodeState();
+            nodes.put(nodeId, node);
+        }
+        final long now = now();
+        while (!node.pendingSyncFailures.isEmpty() && node.pendingSyncFailures.peekFirst() <= now) {
+            final long failedAt = node.pendingSyncFailures.removeFirst();
+            node.failedSyncsCount++;
+            if (node.failedSyncsCount >= failedSyncThreshold && node.supervised && isFeatureEnabled()
+                    && node.alarmState != AlarmState.ACTIVE_UNACKNOWLEDGED && node.alarmRaiseDue == null) {
+                node.alarmRaiseDue = failedAt + alarmRaiseLatencyMillis;
+            }
+        }
+        if (node.alarmRaiseDue != null && node.alarmRaiseDue <= now) {
+            node.alarmRaiseDue = null;
+            node.alarmClearDue = null;
+            node.alarmState = AlarmState.ACTIVE_UNACKNOWLEDGED;
+        }
+        if (node.alarmClearDue != null && node.alarmClearDue <= now) {
+            node.alarmClearDue = null;
+            node.alarmState = AlarmState.CLEARED_UNACKNOWLEDGED;
+        }
+        return node;
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    private static final class NodeState {
+        private boolean started = true;
+        private boolean supervised;
+        private int failedSyncsCount;
+        private int databaseRevision;
+        private AlarmState alarmState = AlarmState.NONE;
+        private final Deque<Long> pendingSyncFailures = new ArrayDeque<>();
+        private Long alarmRaiseDue;
+        private Long alarmClearDue;
+    }
+
+}
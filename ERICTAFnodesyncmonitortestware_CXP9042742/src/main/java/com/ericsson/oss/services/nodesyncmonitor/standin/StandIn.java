@@ -0,0 +1,78 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.standin;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getBoolean;
+
+import com.ericsson.oss.services.nodesyncmonitor.gateway.CliGateway;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.DeploymentFlows;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.NetSimGateway;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.PibShell;
+
+/**
+ * The in-process stand-in for ENM, NetSim and PIB, enabled by {@code services.nodeSyncMonitor.standIn=true}. Every stand-in shares one
+ * {@link NodeSyncMonitorModel}, created on first use from the {@code services.nodeSyncMonitor.standIn.*} properties.
+ */
+public final class StandIn {
+
+    private static final String STAND_IN_PROPERTY = "services.nodeSyncMonitor.standIn";
+
+    private static volatile NodeSyncMonitorModel model;
+
+    private StandIn() {}
+
+    /**
+     * @return True if the suite runs against the stand-in instead of a deployment.
+     */
+    public static boolean isEnabled() {
+        return getBoolean(STAND_IN_PROPERTY, false);
+    }
+
+    public static NodeSyncMonitorModel model() {
+        NodeSyncMonitorModel current = model;
+        if (current == null) {
+            synchronized (StandIn.class) {
+                current = model;
+                if (current == null) {
+                    current = NodeSyncMonitorModel.fromConfiguration();
+                    model = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Forgets the model, so the next stand-in starts from a fresh one.
+     */
+    public static void reset() {
+        model = null;
+    }
+
+    public static CliGateway cli() {
+        return new StandInCliGateway(model());
+    }
+
+    public static NetSimGateway netSim() {
+        return new StandInNetSimGateway(model());
+    }
+
+    public static PibShell pibShell() {
+        return new StandInPibShell(model());
+    }
+
+    public static DeploymentFlows deploymentFlows() {
+        return new StandInDeploymentFlows();
+    }
+
+}
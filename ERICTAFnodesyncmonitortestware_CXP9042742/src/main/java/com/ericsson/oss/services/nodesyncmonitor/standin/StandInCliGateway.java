@@ -0,0 +1,115 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.standin;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.oss.services.nodesyncmonitor.gateway.CliGateway;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.CliResult;
+import com.ericsson.oss.services.nodesyncmonitor.standin.NodeSyncMonitorModel.AlarmState;
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+
+/**
+ * Answers the ENM Cli commands sent by the test suite from a {@link NodeSyncMonitorModel}:
+ * <ul>
+ * <li>{@code alarm enable <node>}</li>
+ * <li>{@code alarm get <node>[;<node>...] --alarmState <state> ...}</li>
+ * <li>{@code cmedit get NetworkElement=<node>,CmFunction=1 CmFunction.failedSyncsCount}</li>
+ * <li>{@code cmedit get NetworkElement=<node>,CmFunction=1 CmFunction.syncStatus}</li>
+ * <li>{@code cmedit action NetworkElement=<node>,CmFunction=1 sync}</li>
+ * </ul>
+ * Any other command is answered with an error status message.
+ */
+public class StandInCliGateway implements CliGateway {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StandInCliGateway.class);
+
+    private static final Pattern ALARM_ENABLE = Pattern.compile("^alarm enable (\\S+)$");
+    private static final Pattern ALARM_GET = Pattern.compile("^alarm get (\\S+)(.*)$");
+    private static final Pattern ALARM_STATE_OPTION = Pattern.compile("--alarmState (\\S+)");
+    private static final Pattern CMEDIT_GET_FAILED_SYNCS_COUNT =
+            Pattern.compile("^cmedit get (NetworkElement=([^,\\s]+),CmFunction=1) CmFunction\\.failedSyncsCount$");
+    private static final Pattern CMEDIT_GET_SYNC_STATUS =
+            Pattern.compile("^cmedit get (NetworkElement=([^,\\s]+),CmFunction=1) CmFunction\\.syncStatus$");
+    private static final Pattern CMEDIT_ACTION_SYNC = Pattern.compile("^cmedit action NetworkElement=([^,\\s]+),CmFunction=1 sync$");
+    private static final Splitter NODE_SPLITTER = Splitter.on(';').trimResults().omitEmptyStrings();
+
+    private final NodeSyncMonitorModel model;
+
+    public StandInCliGateway(final NodeSyncMonitorModel model) {
+        this.model = model;
+    }
+
+    @Override
+    public CliResult send(final String command) {
+        final CliResult result = answer(command.trim());
+        LOGGER.debug("Stand-in ENM Cli [{}] -> [{}]", command, result.getStatusMessage());
+        return result;
+    }
+
+    private CliResult answer(final String command) {
+        Matcher matcher = ALARM_ENABLE.matcher(command);
+        if (matcher.matches()) {
+            model.enableAlarmSupervision(matcher.group(1));
+            return result(String.format("[NetworkElement=%s]Alarm Supervision has been enabled successfully for 1 instance(s).", matcher.group(1)));
+        }
+        matcher = ALARM_GET.matcher(command);
+        if (matcher.matches()) {
+            return alarmGet(matcher.group(1), matcher.group(2));
+        }
+        matcher = CMEDIT_GET_FAILED_SYNCS_COUNT.matcher(command);
+        if (matcher.matches()) {
+            final int failedSyncsCount = model.getFailedSyncsCount(matcher.group(2));
+            return result("1 instance(s)", "FDN : " + matcher.group(1), "failedSyncsCount : " + failedSyncsCount);
+        }
+        matcher = CMEDIT_GET_SYNC_STATUS.matcher(command);
+        if (matcher.matches()) {
+            final String syncStatus = model.isSynchronized(matcher.group(2)) ? "SYNCHRONIZED" : "UNSYNCHRONIZED";
+            return result("1 instance(s)", "FDN : " + matcher.group(1), "syncStatus : " + syncStatus);
+        }
+        matcher = CMEDIT_ACTION_SYNC.matcher(command);
+        if (matcher.matches()) {
+            model.sync(matcher.group(1));
+            return result("1 instance(s) updated");
+        }
+        return result("Error 1000 : Unknown command " + command);
+    }
+
+    private CliResult alarmGet(final String nodes, final String options) {
+        final Matcher alarmStateOption = ALARM_STATE_OPTION.matcher(options);
+        final AlarmState queriedState = alarmStateOption.find() ? AlarmState.valueOf(alarmStateOption.group(1)) : null;
+        final List<String> lines = Lists.newArrayList("NodeName\tSpecificProblem\tAlarmState");
+        for (final String node : NODE_SPLITTER.split(nodes)) {
+            final AlarmState state = model.getAlarmState(node);
+            if (state != AlarmState.NONE && (queriedState == null || state == queriedState)) {
+                lines.add(node + "\tCM unsynchronized\t" + state);
+            }
+        }
+        final String statusMessage = "Total number of alarms fetched for the given query is :" + (lines.size() - 1);
+        lines.add(statusMessage);
+        return new CliResult(statusMessage, lines);
+    }
+
+    private static CliResult result(final String statusMessage, final String... lines) {
+        final List<String> allLines = Lists.newArrayList(lines);
+        allLines.add(statusMessage);
+        return new CliResult(statusMessage, allLines);
+    }
+
+}
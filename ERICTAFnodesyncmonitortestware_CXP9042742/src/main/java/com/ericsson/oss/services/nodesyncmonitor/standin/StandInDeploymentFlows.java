@@ -0,0 +1,71 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.standin;
+
+import static com.ericsson.cifwk.taf.scenario.TestScenarios.annotatedMethod;
+import static com.ericsson.cifwk.taf.scenario.TestScenarios.flow;
+
+import com.ericsson.cifwk.taf.scenario.TestStepFlow;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.DeploymentFlows;
+
+/**
+ * The deployment flows of the stand-in, which skip every flow: the stand-in has no users to manage or log in, and knows every node under
+ * test, synced as soon as it is started in NetSim. The syncs sent through the ENM Cli are not deployment flows, so a replayed journal still
+ * serves the recorded requests in the recorded order.
+ */
+public class StandInDeploymentFlows implements DeploymentFlows {
+
+    private final StandInTestSteps standInTestSteps = new StandInTestSteps();
+
+    @Override
+    public TestStepFlow cleanUpUsers() {
+        return skipped("Clean up users");
+    }
+
+    @Override
+    public TestStepFlow createUsers() {
+        return skipped("Create users");
+    }
+
+    @Override
+    public TestStepFlow deleteUsers() {
+        return skipped("Delete users");
+    }
+
+    @Override
+    public TestStepFlow useSession(final String username) {
+        return skipped("Use session of " + username);
+    }
+
+    @Override
+    public TestStepFlow addNode() {
+        return skipped("Add node");
+    }
+
+    @Override
+    public TestStepFlow syncNode() {
+        return skipped("Sync node");
+    }
+
+    @Override
+    public TestStepFlow deleteNode() {
+        return skipped("Delete node");
+    }
+
+    private TestStepFlow skipped(final String name) {
+        return flow(name + " skipped on the stand-in")
+                .addTestStep(annotatedMethod(standInTestSteps, StandInTestSteps.StepIds.SKIP))
+                .build();
+    }
+
+}
@@ -0,0 +1,94 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.standin;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.oss.services.nodesyncmonitor.gateway.NetSimGateway;
+import com.ericsson.oss.services.nodesyncmonitor.netsim.NeCommandOutcome;
+import com.ericsson.oss.services.nodesyncmonitor.netsim.NeCommandSequence;
+import com.ericsson.oss.services.nodesyncmonitor.netsim.NeFingerprint;
+import com.google.common.collect.Lists;
+
+/**
+ * Applies the NetSim stop, start, restore and database restore sequences to the nodes of a {@link NodeSyncMonitorModel}. Every node belongs
+ * to the same simulation.
+ */
+public class StandInNetSimGateway implements NetSimGateway {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StandInNetSimGateway.class);
+
+    private static final String HOST = "stand-in";
+    private static final String SIMULATION_NAME = "STAND-IN";
+
+    private final NodeSyncMonitorModel model;
+
+    public StandInNetSimGateway(final NodeSyncMonitorModel model) {
+        this.model = model;
+    }
+
+    @Override
+    public List<NeCommandOutcome> execute(final Iterable<String> networkElementIds, final NeCommandSequence sequence) {
+        final List<NeCommandOutcome> outcomes = Lists.newArrayList();
+        for (final String networkElementId : networkElementIds) {
+            Exception error = null;
+            try {
+                apply(networkElementId, sequence);
+            } catch (final RuntimeException e) {
+                error = e;
+            }
+            final NeCommandOutcome outcome = new NeCommandOutcome(networkElementId, SIMULATION_NAME, 0, error);
+            LOGGER.debug("Stand-in NetSim {} {}", sequence.getName(), outcome);
+            outcomes.add(outcome);
+        }
+        return outcomes;
+    }
+
+    /**
+     * @return The revision of the database of every network element in the model, see {@link NodeSyncMonitorModel#getDatabaseRevision}.
+     */
+    @Override
+    public Map<String, NeFingerprint> fingerprint(final Iterable<String> networkElementIds) {
+        final Map<String, NeFingerprint> fingerprints = new HashMap<>();
+        for (final String networkElementId : networkElementIds) {
+            fingerprints.put(networkElementId,
+                    new NeFingerprint(HOST, SIMULATION_NAME, networkElementId, "revision-" + model.getDatabaseRevision(networkElementId)));
+        }
+        return fingerprints;
+    }
+
+    private void apply(final String networkElementId, final NeCommandSequence sequence) {
+        switch (sequence.getName()) {
+            case NeCommandSequence.RESTORE:
+                model.restore(networkElementId);
+                break;
+            case NeCommandSequence.RESTORE_DATABASE:
+                model.restoreDatabase(networkElementId);
+                break;
+            case NeCommandSequence.STOP:
+                model.stop(networkElementId);
+                break;
+            case NeCommandSequence.START:
+                model.start(networkElementId);
+                break;
+            default:
+                throw new UnsupportedOperationException("Unsupported NetSim command sequence " + sequence.getName());
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.standin;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.oss.services.nodesyncmonitor.gateway.PibShell;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.ShellResult;
+import com.google.common.base.Joiner;
+
+/**
+ * Answers the kpiserv discovery and PIB {@code config.py} commands of a vENM deployment from a {@link NodeSyncMonitorModel}.
+ */
+public class StandInPibShell implements PibShell {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StandInPibShell.class);
+
+    private static final Pattern PIB_COMMAND = Pattern.compile(
+            "^(?:sudo )?\\S+/config\\.py (update|read) --app_server_address=([^:\\s]+):\\d+ --service_identifier=\\S+ --name=(\\S+)(?: --value=(\\S+))?$");
+    private static final String DISCOVERY_COMMAND = "consul members";
+
+    private final NodeSyncMonitorModel model;
+
+    public StandInPibShell(final NodeSyncMonitorModel model) {
+        this.model = model;
+    }
+
+    @Override
+    public ShellResult execute(final String command) {
+        final ShellResult result = answer(command.trim());
+        LOGGER.debug("Stand-in PIB shell [{}] -> [{}]", command, result.getOutput());
+        return result;
+    }
+
+    private ShellResult answer(final String command) {
+        if (command.contains(DISCOVERY_COMMAND)) {
+            return new ShellResult(true, Joiner.on('\n').join(model.getKpiServInstances()));
+        }
+        final Matcher matcher = PIB_COMMAND.matcher(command);
+        if (!matcher.matches()) {
+            return new ShellResult(false, "command not found: " + command);
+        }
+        final String instance = matcher.group(2);
+        if (!model.getKpiServInstances().contains(instance)) {
+            return new ShellResult(false, "Connection refused: " + instance);
+        }
+        if ("update".equals(matcher.group(1))) {
+            model.setPibParameter(instance, matcher.group(3), matcher.group(4));
+            return new ShellResult(true, "");
+        }
+        final String value = model.getPibParameter(instance, matcher.group(3));
+        return new ShellResult(true, value == null ? "" : value);
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+
+}
@@ -0,0 +1,39 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.standin;
+
+import com.ericsson.cifwk.taf.annotations.TestStep;
+
+/**
+ * Test steps of the stand-in deployment flows (see {@link StandInDeploymentFlows}).
+ */
+public class StandInTestSteps {
+
+    /**
+     * Test step which does nothing, standing in for a flow which only exists on a deployment.
+     */
+    @TestStep(id = StepIds.SKIP)
+    public void skip() {
+        // Nothing to do on the stand-in
+    }
+
+    /**
+     * The test step IDs.
+     */
+    public static final class StepIds {
+        public static final String SKIP = "skipOnStandIn";
+
+        private StepIds() {}
+    }
+
+}
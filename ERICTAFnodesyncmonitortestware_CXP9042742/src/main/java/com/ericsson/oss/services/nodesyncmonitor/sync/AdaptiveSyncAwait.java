@@ -0,0 +1,61 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.sync;
+
+import com.ericsson.oss.services.nodesyncmonitor.await.BackoffPolicy;
+
+/**
+ * Adapts the probing of the sync status of a node to how long the syncs of the run actually take, instead of probing at fixed intervals.
+ * <p>
+ * The duration of every completed sync is folded into an exponentially weighted moving average. The first interval of the sync status
+ * probes is a quarter of that average, within the intervals of the configured policy, so fast syncs are seen soon after they complete and slow
+ * syncs are not probed needlessly.
+ */
+public final class AdaptiveSyncAwait {
+
+    private static final double SMOOTHING = 0.2;
+    private static final int INITIAL_INTERVAL_DIVISOR = 4;
+
+    private static final AdaptiveSyncAwait INSTANCE = new AdaptiveSyncAwait();
+
+    private double averageSyncMillis = -1;
+
+    private AdaptiveSyncAwait() {}
+
+    public static AdaptiveSyncAwait getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param syncMillis
+     *            The time from triggering a sync until the node was reported as synchronized.
+     */
+    public synchronized void recordSync(final long syncMillis) {
+        averageSyncMillis = averageSyncMillis < 0 ? syncMillis : averageSyncMillis + SMOOTHING * (syncMillis - averageSyncMillis);
+    }
+
+    /**
+     * @param configured
+     *            The configured sync await policy.
+     * @return The configured policy, with its initial interval adapted to the average sync duration once a sync completed.
+     */
+    public synchronized BackoffPolicy adapt(final BackoffPolicy configured) {
+        if (averageSyncMillis < 0) {
+            return configured;
+        }
+        final long initialInterval = Math.min(configured.getMaxIntervalMillis(),
+                Math.max(configured.getInitialIntervalMillis(), (long) (averageSyncMillis / INITIAL_INTERVAL_DIVISOR)));
+        return new BackoffPolicy(initialInterval, configured.getMaxIntervalMillis(), configured.getMultiplier(), configured.getTimeoutMillis());
+    }
+
+}
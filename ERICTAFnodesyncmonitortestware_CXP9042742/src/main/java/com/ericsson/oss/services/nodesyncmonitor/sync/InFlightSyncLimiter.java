@@ -0,0 +1,66 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.sync;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getInt;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps the number of node syncs in flight over all vUsers, so a parallel setup does not flood ENM mediation. The cap is read from
+ * {@code services.nodeSyncMonitor.setup.maxInFlightSyncs} on first use.
+ */
+public final class InFlightSyncLimiter {
+
+    private static final String MAX_IN_FLIGHT_SYNCS_PROPERTY = "services.nodeSyncMonitor.setup.maxInFlightSyncs";
+    private static final int DEFAULT_MAX_IN_FLIGHT_SYNCS = 8;
+
+    private static final InFlightSyncLimiter INSTANCE = new InFlightSyncLimiter();
+
+    private volatile Semaphore permits;
+
+    private InFlightSyncLimiter() {}
+
+    public static InFlightSyncLimiter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Blocks until a sync may be started. Every call must be followed by {@link #release()} once the sync completed or failed.
+     *
+     * @throws InterruptedException
+     *             If the thread is interrupted while waiting.
+     */
+    public void acquire() throws InterruptedException {
+        getPermits().acquire();
+    }
+
+    public void release() {
+        getPermits().release();
+    }
+
+    private Semaphore getPermits() {
+        Semaphore semaphore = permits;
+        if (semaphore == null) {
+            synchronized (this) {
+                semaphore = permits;
+                if (semaphore == null) {
+                    semaphore = new Semaphore(Math.max(1, getInt(MAX_IN_FLIGHT_SYNCS_PROPERTY, DEFAULT_MAX_IN_FLIGHT_SYNCS)), true);
+                    permits = semaphore;
+                }
+            }
+        }
+        return semaphore;
+    }
+
+}
@@ -0,0 +1,116 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.teardown;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * The resources the suite actually created, recorded by the flows which create them and released by those which clean them up, so the teardown
+ * only cleans up what exists (see {@link com.ericsson.oss.services.nodesyncmonitor.flows.TeardownFlows}). Recording and releasing a resource
+ * is idempotent, so a teardown running after another one finds nothing left to do.
+ */
+public final class CleanupRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CleanupRegistry.class);
+
+    private static final CleanupRegistry INSTANCE = new CleanupRegistry();
+
+    private final Map<ResourceType, Set<String>> resources = new EnumMap<>(ResourceType.class);
+
+    private CleanupRegistry() {
+        for (final ResourceType type : ResourceType.values()) {
+            resources.put(type, Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>()));
+        }
+    }
+
+    public static CleanupRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Records a resource created by the suite.
+     *
+     * @param type
+     *            The type of the resource.
+     * @param id
+     *            The id of the resource, e.g. the network element id of a node.
+     */
+    public void record(final ResourceType type, final String id) {
+        if (resources.get(type).add(id)) {
+            LOGGER.debug("Recorded {} {}", type, id);
+        }
+    }
+
+    /**
+     * Forgets a resource once it is cleaned up.
+     *
+     * @param type
+     *            The type of the resource.
+     * @param id
+     *            The id of the resource.
+     */
+    public void release(final ResourceType type, final String id) {
+        if (resources.get(type).remove(id)) {
+            LOGGER.debug("Released {} {}", type, id);
+        }
+    }
+
+    /**
+     * @return True if the resource was recorded and not released yet.
+     */
+    public boolean contains(final ResourceType type, final String id) {
+        return resources.get(type).contains(id);
+    }
+
+    /**
+     * @return The resources of the type which are not released yet.
+     */
+    public Set<String> get(final ResourceType type) {
+        return ImmutableSet.copyOf(resources.get(type));
+    }
+
+    /**
+     * @return True if every resource of the type is released.
+     */
+    public boolean isEmpty(final ResourceType type) {
+        return resources.get(type).isEmpty();
+    }
+
+    /**
+     * Forgets every resource, e.g. before a suite which creates its own.
+     */
+    public void reset() {
+        for (final Set<String> ids : resources.values()) {
+            ids.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        final Map<ResourceType, Integer> counts = new EnumMap<>(ResourceType.class);
+        for (final Map.Entry<ResourceType, Set<String>> entry : resources.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().size());
+        }
+        return counts.toString();
+    }
+
+}
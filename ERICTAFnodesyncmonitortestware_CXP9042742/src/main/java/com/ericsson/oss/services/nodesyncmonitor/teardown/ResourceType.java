@@ -0,0 +1,48 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.teardown;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.PREFIX;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getInt;
+
+/**
+ * The kinds of resources the suite creates on the deployment and NetSim, and releases in the teardown (see {@link CleanupRegistry}).
+ */
+public enum ResourceType {
+
+    /** A node added to ENM, deleted in the teardown. */
+    NODE("node", 4),
+    /** A user created in ENM, deleted in the teardown once its sessions are closed. */
+    USER("user", 1),
+    /** A PIB parameter changed on the deployment, set back in the teardown. */
+    PIB_PARAMETER("pibParameter", 1),
+    /** A network element restored, stopped or started in NetSim, restored in the teardown so the next run finds its restored database. */
+    NETSIM_NE("netsimNe", 1);
+
+    private final String key;
+    private final int defaultWorkers;
+
+    ResourceType(final String key, final int defaultWorkers) {
+        this.key = key;
+        this.defaultWorkers = defaultWorkers;
+    }
+
+    /**
+     * @return The number of resources of this type released concurrently in the teardown, set by
+     *         {@code services.nodeSyncMonitor.teardown.<type>.workers}.
+     */
+    public int getWorkers() {
+        return Math.max(1, getInt(PREFIX + "teardown." + key + ".workers", defaultWorkers));
+    }
+
+}
@@ -0,0 +1,108 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.teststeps;
+
+import static com.ericsson.oss.testware.enmbase.data.CommonDataSources.ADDED_NODES;
+import static com.ericsson.oss.testware.enmbase.data.CommonDataSources.AVAILABLE_USERS;
+import static com.ericsson.oss.testware.enmbase.data.CommonDataSources.NODES_TO_ADD;
+import static com.ericsson.oss.testware.enmbase.data.CommonDataSources.USERS_TO_DELETE;
+
+import javax.inject.Inject;
+
+import com.ericsson.cifwk.taf.TestContext;
+import com.ericsson.cifwk.taf.annotations.Input;
+import com.ericsson.cifwk.taf.annotations.TestStep;
+import com.ericsson.cifwk.taf.datasource.DataRecord;
+import com.ericsson.oss.services.nodesyncmonitor.teardown.CleanupRegistry;
+import com.ericsson.oss.services.nodesyncmonitor.teardown.ResourceType;
+import com.ericsson.oss.testware.enmbase.data.NetworkNode;
+
+/**
+ * Test steps recording the nodes and users the suite creates in the {@link CleanupRegistry}, and releasing them once they are deleted, for
+ * the resources created and deleted by flows of other testware.
+ */
+public class CleanupTestSteps {
+
+    private static final String NETWORK_ELEMENT_ID = "networkElementId";
+
+    @Inject
+    private TestContext context;
+
+    /**
+     * Test step which records a node added to ENM, so the teardown deletes it.
+     *
+     * @param node
+     *            An object representing the added node.
+     */
+    @TestStep(id = StepIds.RECORD_ADDED_NODE)
+    public void recordAddedNode(@Input(NODES_TO_ADD) final NetworkNode node) {
+        CleanupRegistry.getInstance().record(ResourceType.NODE, node.getNetworkElementId());
+    }
+
+    /**
+     * Test step which releases a node deleted from ENM.
+     *
+     * @param node
+     *            An object representing the deleted node.
+     */
+    @TestStep(id = StepIds.RELEASE_DELETED_NODE)
+    public void releaseDeletedNode(@Input(ADDED_NODES) final NetworkNode node) {
+        CleanupRegistry.getInstance().release(ResourceType.NODE, node.getNetworkElementId());
+    }
+
+    /**
+     * Test step which records every node of the nodes to add data source as added, for nodes an earlier run left in ENM, and makes them the
+     * added nodes data source, so the teardown deletes them.
+     */
+    @TestStep(id = StepIds.RECORD_EXISTING_NODES)
+    public void recordExistingNodes() {
+        context.addDataSource(ADDED_NODES, context.dataSource(NODES_TO_ADD));
+        for (final DataRecord dataRecord : context.dataSource(NODES_TO_ADD)) {
+            CleanupRegistry.getInstance().record(ResourceType.NODE, (String) dataRecord.getFieldValue(NETWORK_ELEMENT_ID));
+        }
+    }
+
+    /**
+     * Test step which records every user of the available users data source, filled as the users are created, so the teardown deletes them.
+     */
+    @TestStep(id = StepIds.RECORD_CREATED_USERS)
+    public void recordCreatedUsers() {
+        for (final DataRecord dataRecord : context.dataSource(AVAILABLE_USERS)) {
+            CleanupRegistry.getInstance().record(ResourceType.USER, (String) dataRecord.getFieldValue(SessionTestSteps.USERNAME));
+        }
+    }
+
+    /**
+     * Test step which releases every user of the users to delete data source, once they are deleted.
+     */
+    @TestStep(id = StepIds.RELEASE_DELETED_USERS)
+    public void releaseDeletedUsers() {
+        for (final DataRecord dataRecord : context.dataSource(USERS_TO_DELETE)) {
+            CleanupRegistry.getInstance().release(ResourceType.USER, (String) dataRecord.getFieldValue(SessionTestSteps.USERNAME));
+        }
+    }
+
+    /**
+     * The test step IDs.
+     */
+    public static final class StepIds {
+        public static final String RECORD_ADDED_NODE = "recordAddedNode";
+        public static final String RELEASE_DELETED_NODE = "releaseDeletedNode";
+        public static final String RECORD_EXISTING_NODES = "recordExistingNodes";
+        public static final String RECORD_CREATED_USERS = "recordCreatedUsers";
+        public static final String RELEASE_DELETED_USERS = "releaseDeletedUsers";
+
+        private StepIds() {}
+    }
+
+}
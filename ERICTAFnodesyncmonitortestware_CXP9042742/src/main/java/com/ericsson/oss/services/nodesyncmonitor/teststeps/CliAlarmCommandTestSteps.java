@@ -12,19 +12,40 @@
 
 package com.ericsson.oss.services.nodesyncmonitor.teststeps;
 
+import static com.ericsson.oss.services.nodesyncmonitor.teststeps.NetSimTestSteps.NODE_TO_STOP_OR_START;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getInt;
 import static com.ericsson.oss.testware.fm.api.constants.FmCommonDataSources.CLI_COMMANDS_DS;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 import javax.inject.Inject;
 import javax.inject.Provider;
 
 import org.assertj.core.api.Assertions;
 
+import com.ericsson.cifwk.taf.TestContext;
 import com.ericsson.cifwk.taf.annotations.Input;
 import com.ericsson.cifwk.taf.annotations.TestStep;
-import com.ericsson.oss.testware.enm.cli.EnmCliResponse;
+import com.ericsson.cifwk.taf.datasource.DataRecord;
+import com.ericsson.oss.services.nodesyncmonitor.await.Await;
+import com.ericsson.oss.services.nodesyncmonitor.await.AwaitResult;
+import com.ericsson.oss.services.nodesyncmonitor.await.BackoffPolicy;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.CliResult;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.Gateways;
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyKind;
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyRecorder;
+import com.ericsson.oss.services.nodesyncmonitor.utils.AlarmRows;
 import com.ericsson.oss.testware.fm.api.datarecord.CliCommandDataRecord;
 import com.ericsson.oss.testware.fm.impl.RestImpl;
 import com.ericsson.oss.testware.fm.teststeps.RecursiveGetTestStep;
+import com.google.common.base.Joiner;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,9 +53,26 @@ public class CliAlarmCommandTestSteps extends RecursiveGetTestStep {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CliAlarmCommandTestSteps.class);
 
+    private static final String ALARM_AWAIT_PROPERTY_PREFIX = "services.nodeSyncMonitor.alarmAwait";
+    private static final BackoffPolicy DEFAULT_ALARM_AWAIT_POLICY = new BackoffPolicy(1000, 10000, 2.0, 180000);
+    private static final String LATENCY_AWAIT_PROPERTY_PREFIX = "services.nodeSyncMonitor.latencyAwait";
+    private static final BackoffPolicy DEFAULT_LATENCY_AWAIT_POLICY = new BackoffPolicy(100, 500, 1.2, 180000);
+    private static final String BATCH_AWAIT_PROPERTY_PREFIX = "services.nodeSyncMonitor.alarmBatchAwait";
+    private static final BackoffPolicy DEFAULT_BATCH_AWAIT_POLICY = new BackoffPolicy(500, 5000, 1.5, 180000);
+    private static final String BATCH_SIZE_PROPERTY = "services.nodeSyncMonitor.alarmBatch.size";
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final String NETWORK_ELEMENT_ID = "networkElementId";
+    private static final String CM_UNSYNCHRONIZED = "CM unsynchronized";
+    private static final String ACTIVE_UNACKNOWLEDGED = "ACTIVE_UNACKNOWLEDGED";
+    private static final String CLEARED_UNACKNOWLEDGED = "CLEARED_UNACKNOWLEDGED";
+    private static final Joiner NODE_JOINER = Joiner.on(';');
+
     @Inject
     private Provider<RestImpl> provider;
 
+    @Inject
+    private TestContext context;
+
     /**
      * Sends an ENM Cli alarm command and parses its response by content.
      *
@@ -46,9 +84,7 @@ public class CliAlarmCommandTestSteps extends RecursiveGetTestStep {
     @TestStep(id = StepIds.CLI_ALARM_COMMAND)
     public boolean sendCliAlarmCommand(@Input(CLI_COMMANDS_DS) final CliCommandDataRecord cliCommandDataRecord) {
         checkDataSource(cliCommandDataRecord, CLI_COMMANDS_DS);
-        EnmCliResponse enmCliResponse = sendCommand(cliCommandDataRecord.getCommandToSend());
-
-        String actualResponse = enmCliResponse.getSummaryDto().getStatusMessage();
+        String actualResponse = sendCommand(cliCommandDataRecord.getCommandToSend()).getStatusMessage();
         String expectedResponse = cliCommandDataRecord.getExpectedResponse();
         LOGGER.info("Actual response for get active alarm {}", actualResponse);
         LOGGER.info("Expected response for get active alarm {}", expectedResponse);
@@ -59,15 +95,195 @@ public class CliAlarmCommandTestSteps extends RecursiveGetTestStep {
         return true;
     }
 
+    /**
+     * Repeatedly sends an ENM Cli alarm command until its response matches the expected one.
+     * <p>
+     * The command is sent immediately and then re-sent on the backoff schedule defined by the
+     * {@code services.nodeSyncMonitor.alarmAwait.*} properties, so the step returns as soon as the node sync monitor has raised or cleared the
+     * alarm instead of waiting a fixed delay.
+     *
+     * @param cliCommandDataRecord
+     *            The dataRecord for the command to be sent will contain:
+     *            commandToSend and expectedResponse fields.
+     * @return True if the response matched the expected one before the timeout.
+     * @throws InterruptedException
+     *             If the step is interrupted while waiting between commands.
+     */
+    @TestStep(id = StepIds.AWAIT_CLI_ALARM_COMMAND)
+    public boolean awaitCliAlarmCommand(@Input(CLI_COMMANDS_DS) final CliCommandDataRecord cliCommandDataRecord) throws InterruptedException {
+        checkDataSource(cliCommandDataRecord, CLI_COMMANDS_DS);
+        awaitResponse(cliCommandDataRecord, BackoffPolicy.fromConfiguration(ALARM_AWAIT_PROPERTY_PREFIX, DEFAULT_ALARM_AWAIT_POLICY));
+        return true;
+    }
+
+    /**
+     * As {@link #awaitCliAlarmCommand}, and records the time from the moment the failed sync threshold of the node was crossed until the alarm
+     * was reported as raised (see {@link LatencyRecorder}). The command is re-sent on the finer {@code services.nodeSyncMonitor.latencyAwait.*}
+     * schedule.
+     *
+     * @param cliCommandDataRecord
+     *            The dataRecord for the command to be sent will contain:
+     *            commandToSend and expectedResponse fields.
+     * @param networkElementId
+     *            The node the alarm is raised on.
+     * @return True if the response matched the expected one before the timeout.
+     * @throws InterruptedException
+     *             If the step is interrupted while waiting between commands.
+     */
+    @TestStep(id = StepIds.AWAIT_ALARM_RAISED)
+    public boolean awaitAlarmRaised(@Input(CLI_COMMANDS_DS) final CliCommandDataRecord cliCommandDataRecord,
+                                    @Input(NETWORK_ELEMENT_ID) final String networkElementId) throws InterruptedException {
+        return awaitAlarmLatency(cliCommandDataRecord, LatencyKind.RAISE, networkElementId);
+    }
+
+    /**
+     * As {@link #awaitCliAlarmCommand}, and records the time from the moment the node was started or resynced until the alarm was reported as
+     * cleared (see {@link LatencyRecorder}). The command is re-sent on the finer {@code services.nodeSyncMonitor.latencyAwait.*} schedule.
+     *
+     * @param cliCommandDataRecord
+     *            The dataRecord for the command to be sent will contain:
+     *            commandToSend and expectedResponse fields.
+     * @param networkElementId
+     *            The node the alarm is cleared on.
+     * @return True if the response matched the expected one before the timeout.
+     * @throws InterruptedException
+     *             If the step is interrupted while waiting between commands.
+     */
+    @TestStep(id = StepIds.AWAIT_ALARM_CLEARED)
+    public boolean awaitAlarmCleared(@Input(CLI_COMMANDS_DS) final CliCommandDataRecord cliCommandDataRecord,
+                                     @Input(NETWORK_ELEMENT_ID) final String networkElementId) throws InterruptedException {
+        return awaitAlarmLatency(cliCommandDataRecord, LatencyKind.CLEAR, networkElementId);
+    }
+
+    /**
+     * Awaits the alarm raised on every node in the nodes to stop or start data source, and records the raise latency of each node.
+     * <p>
+     * Instead of one {@code alarm get} per node, the nodes still awaited are queried together, in chunks of
+     * {@code services.nodeSyncMonitor.alarmBatch.size} nodes per command, on the {@code services.nodeSyncMonitor.alarmBatchAwait.*} schedule.
+     * The alarm rows of each response are indexed by node (see {@link AlarmRows}) and a node is no longer queried once its alarm is reported.
+     *
+     * @return True if the alarm was reported on every node before the timeout.
+     * @throws InterruptedException
+     *             If the step is interrupted while waiting between queries.
+     */
+    @TestStep(id = StepIds.AWAIT_ALARMS_RAISED_BATCHED)
+    public boolean awaitAlarmsRaisedBatched() throws InterruptedException {
+        return awaitAlarmsBatched(LatencyKind.RAISE, ACTIVE_UNACKNOWLEDGED);
+    }
+
+    /**
+     * As {@link #awaitAlarmsRaisedBatched}, for the alarm cleared on every node, and records the clear latency of each node.
+     *
+     * @return True if the cleared alarm was reported on every node before the timeout.
+     * @throws InterruptedException
+     *             If the step is interrupted while waiting between queries.
+     */
+    @TestStep(id = StepIds.AWAIT_ALARMS_CLEARED_BATCHED)
+    public boolean awaitAlarmsClearedBatched() throws InterruptedException {
+        return awaitAlarmsBatched(LatencyKind.CLEAR, CLEARED_UNACKNOWLEDGED);
+    }
+
+    private boolean awaitAlarmsBatched(final LatencyKind kind, final String alarmState) throws InterruptedException {
+        final Set<String> pending = new LinkedHashSet<>(networkElementIds(NODE_TO_STOP_OR_START));
+        final int nodes = pending.size();
+        final int batchSize = Math.max(1, getInt(BATCH_SIZE_PROPERTY, DEFAULT_BATCH_SIZE));
+        final BackoffPolicy policy = BackoffPolicy.fromConfiguration(BATCH_AWAIT_PROPERTY_PREFIX, DEFAULT_BATCH_AWAIT_POLICY);
+
+        final AwaitResult<Set<String>> result = Await.until("Alarm " + alarmState + " on " + nodes + " node(s)", new Supplier<Set<String>>() {
+            private int attempts;
+
+            @Override
+            public Set<String> get() {
+                attempts++;
+                for (final List<String> batch : Lists.partition(Lists.newArrayList(pending), batchSize)) {
+                    final long probeNanos = System.nanoTime();
+                    final AlarmRows rows = AlarmRows.parse(sendCommand(alarmGetCommand(batch, alarmState)).getLines());
+                    for (final String networkElementId : batch) {
+                        if (rows.hasAlarm(networkElementId, CM_UNSYNCHRONIZED, alarmState)) {
+                            pending.remove(networkElementId);
+                            LatencyRecorder.getInstance().recordObserved(kind, networkElementId, probeNanos, attempts);
+                        }
+                    }
+                }
+                return ImmutableSet.copyOf(pending);
+            }
+        }, new Predicate<Set<String>>() {
+            @Override
+            public boolean apply(final Set<String> remaining) {
+                return remaining.isEmpty();
+            }
+        }, policy);
+
+        if (result.getValue() == null && result.getLastError() != null) {
+            throw result.getLastError();
+        }
+        LOGGER.info("Alarm {} reported on {} of {} node(s) after {} attempt(s) in {} ms", alarmState, nodes - pending.size(), nodes,
+                result.getAttempts(), result.getElapsedMillis());
+
+        Assertions.assertThat(pending)
+                .as("Alarm %s not reported within %d ms for node(s) %s", alarmState, policy.getTimeoutMillis(), pending)
+                .isEmpty();
+        return true;
+    }
+
+    private static String alarmGetCommand(final List<String> networkElementIds, final String alarmState) {
+        return String.format("alarm get %s --alarmState %s --specificProblem \"%s\"", NODE_JOINER.join(networkElementIds), alarmState,
+                CM_UNSYNCHRONIZED);
+    }
+
+    private List<String> networkElementIds(final String dataSourceName) {
+        final List<String> networkElementIds = Lists.newArrayList();
+        for (final DataRecord dataRecord : context.dataSource(dataSourceName)) {
+            networkElementIds.add((String) dataRecord.getFieldValue(NETWORK_ELEMENT_ID));
+        }
+        return networkElementIds;
+    }
+
+    private boolean awaitAlarmLatency(final CliCommandDataRecord cliCommandDataRecord, final LatencyKind kind, final String networkElementId)
+            throws InterruptedException {
+        checkDataSource(cliCommandDataRecord, CLI_COMMANDS_DS);
+        final AwaitResult<String> result = awaitResponse(cliCommandDataRecord,
+                BackoffPolicy.fromConfiguration(LATENCY_AWAIT_PROPERTY_PREFIX, DEFAULT_LATENCY_AWAIT_POLICY));
+        LatencyRecorder.getInstance().recordObserved(kind, networkElementId, result.getLastProbeNanos(), result.getAttempts());
+        return true;
+    }
+
+    /*
+     * Re-sends the command until its response matches the expected one, and asserts that it did.
+     */
+    private AwaitResult<String> awaitResponse(final CliCommandDataRecord cliCommandDataRecord, final BackoffPolicy policy)
+            throws InterruptedException {
+        final String command = cliCommandDataRecord.getCommandToSend();
+        final String expectedResponse = cliCommandDataRecord.getExpectedResponse();
+
+        final AwaitResult<String> result = Await.until("Response [" + expectedResponse + "] for [" + command + "]", new Supplier<String>() {
+            @Override
+            public String get() {
+                return sendCommand(command).getStatusMessage();
+            }
+        }, Predicates.equalTo(expectedResponse), policy);
+
+        if (result.getValue() == null && result.getLastError() != null) {
+            throw result.getLastError();
+        }
+        final String actualResponse = result.getValue();
+        LOGGER.info("Actual response [{}] after {} attempt(s) in {} ms", actualResponse, result.getAttempts(), result.getElapsedMillis());
+
+        Assertions.assertThat(actualResponse)
+                .as("Actual response [%s] does not match expected response [%s] within %d ms", actualResponse, expectedResponse,
+                        policy.getTimeoutMillis())
+                .isEqualTo(expectedResponse);
+        return result;
+    }
+
     /**
      * Sends a CLI command from a given String.
      *
      * @param command
      *            cli parameter (String).
      */
-    private EnmCliResponse sendCommand(final String command) {
-        final RestImpl restImpl = provider.get();
-        return restImpl.sendCommand(command);
+    private CliResult sendCommand(final String command) {
+        return Gateways.cli(provider).send(command);
     }
 
     /**
@@ -76,6 +292,11 @@ public class CliAlarmCommandTestSteps extends RecursiveGetTestStep {
     public static final class StepIds {
         public static final String CLI_ALARM_COMMAND = "CliAlarmCommand";
         public static final String CLI_ENABLE_FM_ALARM = "CliEnableFmAlarm";
+        public static final String AWAIT_CLI_ALARM_COMMAND = "AwaitCliAlarmCommand";
+        public static final String AWAIT_ALARM_RAISED = "AwaitAlarmRaised";
+        public static final String AWAIT_ALARM_CLEARED = "AwaitAlarmCleared";
+        public static final String AWAIT_ALARMS_RAISED_BATCHED = "AwaitAlarmsRaisedBatched";
+        public static final String AWAIT_ALARMS_CLEARED_BATCHED = "AwaitAlarmsClearedBatched";
     }
 
 }
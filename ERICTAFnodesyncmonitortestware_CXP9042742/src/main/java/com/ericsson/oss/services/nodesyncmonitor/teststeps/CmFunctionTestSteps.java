@@ -0,0 +1,260 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.teststeps;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getFailedSyncThreshold;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getInt;
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getLong;
+import static com.ericsson.oss.testware.cm.cruda.flows.CrudaFlows.DataSources.CMEDIT_ACTION_DATA_SOURCE;
+import static com.ericsson.oss.testware.enmbase.data.CommonDataSources.NODES_TO_ADD;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+
+import org.assertj.core.api.Assertions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.cifwk.taf.annotations.Input;
+import com.ericsson.cifwk.taf.annotations.TestStep;
+import com.ericsson.cifwk.taf.datasource.DataRecord;
+import com.ericsson.oss.services.nodesyncmonitor.await.Await;
+import com.ericsson.oss.services.nodesyncmonitor.await.AwaitResult;
+import com.ericsson.oss.services.nodesyncmonitor.await.BackoffPolicy;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.CliResult;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.Gateways;
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyKind;
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyRecorder;
+import com.ericsson.oss.services.nodesyncmonitor.load.SyncRateLimiter;
+import com.ericsson.oss.services.nodesyncmonitor.sync.AdaptiveSyncAwait;
+import com.ericsson.oss.services.nodesyncmonitor.sync.InFlightSyncLimiter;
+import com.ericsson.oss.services.nodesyncmonitor.utils.CliResponses;
+import com.ericsson.oss.testware.enmbase.data.NetworkNode;
+import com.ericsson.oss.testware.fm.impl.RestImpl;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.base.Supplier;
+
+/**
+ * Test steps which act on the CmFunction of a node through the ENM Cli of the logged in user.
+ */
+public class CmFunctionTestSteps {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CmFunctionTestSteps.class);
+
+    private static final String CM_EDIT_ACTION_FDN = "cmEditActionFdn";
+    private static final String CM_EDIT_ACTION_NAME = "cmEditActionName";
+    private static final String FAILED_SYNCS_COUNT = "failedSyncsCount";
+    private static final String SYNC_STATUS = "syncStatus";
+    private static final String SYNCHRONIZED = "SYNCHRONIZED";
+    private static final String CM_FUNCTION_FDN = "NetworkElement=%s,CmFunction=1";
+    private static final Pattern NETWORK_ELEMENT_ID_PATTERN = Pattern.compile("NetworkElement=([^,]+)");
+    private static final String ACTION_EXECUTED = "1 instance(s)";
+
+    private static final String FAILED_SYNC_AWAIT_PROPERTY_PREFIX = "services.nodeSyncMonitor.failedSyncAwait";
+    private static final BackoffPolicy DEFAULT_FAILED_SYNC_AWAIT_POLICY = new BackoffPolicy(500, 5000, 1.5, 60000);
+    private static final String SYNC_AWAIT_PROPERTY_PREFIX = "services.nodeSyncMonitor.syncAwait";
+
+    @Inject
+    private Provider<RestImpl> provider;
+
+    /**
+     * Test step which triggers a sync of a node which is stopped in NetSim and waits until the CmFunction reports that the sync failed, i.e.
+     * until {@code CmFunction.failedSyncsCount} is higher than before the sync was triggered.
+     * <p>
+     * The commands are sent through the session of the user logged in by the enclosing scenario, so the step can be repeated without logging
+     * in again.
+     *
+     * @param cmEditAction
+     *            The dataRecord will contain the cmEditActionFdn of the CmFunction and the cmEditActionName to execute on it.
+     * @throws InterruptedException
+     *             If the step is interrupted while waiting for the sync to fail.
+     */
+    @TestStep(id = StepIds.TRIGGER_FAILED_SYNC)
+    public void triggerFailedSync(@Input(CMEDIT_ACTION_DATA_SOURCE) final DataRecord cmEditAction) throws InterruptedException {
+        final String cmFunctionFdn = (String) cmEditAction.getFieldValue(CM_EDIT_ACTION_FDN);
+        triggerFailedSync(cmFunctionFdn, (String) cmEditAction.getFieldValue(CM_EDIT_ACTION_NAME), readFailedSyncsCount(cmFunctionFdn));
+    }
+
+    /**
+     * Test step which repeats {@link #triggerFailedSync} on a node until its {@code CmFunction.failedSyncsCount} is past the failed sync
+     * threshold (see {@link com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration#getFailedSyncThreshold()}), so the
+     * node sync monitor raises the alarm of the node. Used by the load scenarios, where the vUsers share the data source and the syncs are
+     * paced by the {@link SyncRateLimiter}.
+     *
+     * @param cmEditAction
+     *            The dataRecord will contain the cmEditActionFdn of the CmFunction and the cmEditActionName to execute on it.
+     * @throws InterruptedException
+     *             If the step is interrupted while waiting for a sync to fail.
+     */
+    @TestStep(id = StepIds.TRIGGER_FAILED_SYNCS_PAST_THRESHOLD)
+    public void triggerFailedSyncsPastThreshold(@Input(CMEDIT_ACTION_DATA_SOURCE) final DataRecord cmEditAction) throws InterruptedException {
+        final String cmFunctionFdn = (String) cmEditAction.getFieldValue(CM_EDIT_ACTION_FDN);
+        final String actionName = (String) cmEditAction.getFieldValue(CM_EDIT_ACTION_NAME);
+        final int threshold = getFailedSyncThreshold();
+        int failedSyncsCount = readFailedSyncsCount(cmFunctionFdn);
+        while (failedSyncsCount <= threshold) {
+            failedSyncsCount = triggerFailedSync(cmFunctionFdn, actionName, failedSyncsCount);
+        }
+    }
+
+    /*
+     * Sends the sync action at the pace of the SyncRateLimiter and waits until the failedSyncsCount increased, returning the new count.
+     */
+    private int triggerFailedSync(final String cmFunctionFdn, final String actionName, final int failedSyncsCountBefore)
+            throws InterruptedException {
+        SyncRateLimiter.getInstance().acquire();
+        LOGGER.info("Executing action [{}] on [{}], failedSyncsCount is {}", actionName, cmFunctionFdn, failedSyncsCountBefore);
+        final long sentAtNanos = System.nanoTime();
+        final long sentAtMillis = System.currentTimeMillis();
+        sendAction(cmFunctionFdn, actionName);
+
+        final BackoffPolicy policy = BackoffPolicy.fromConfiguration(FAILED_SYNC_AWAIT_PROPERTY_PREFIX, DEFAULT_FAILED_SYNC_AWAIT_POLICY);
+        final AwaitResult<Integer> result = Await.until("Failed sync of " + cmFunctionFdn, new Supplier<Integer>() {
+            @Override
+            public Integer get() {
+                return readFailedSyncsCount(cmFunctionFdn);
+            }
+        }, new Predicate<Integer>() {
+            @Override
+            public boolean apply(final Integer failedSyncsCount) {
+                return failedSyncsCount > failedSyncsCountBefore;
+            }
+        }, policy);
+
+        Assertions.assertThat(result.isSatisfied())
+                .as("failedSyncsCount of [%s] did not increase from %d within %d ms, last value [%s]", cmFunctionFdn, failedSyncsCountBefore,
+                        policy.getTimeoutMillis(), result.getValue())
+                .isTrue();
+        markThresholdCrossing(cmFunctionFdn, failedSyncsCountBefore, result.getValue(), sentAtNanos, sentAtMillis);
+        return result.getValue();
+    }
+
+    /**
+     * Test step which syncs a node and waits until its CmFunction reports it as synchronized. Used by the parallel setup, where the vUsers
+     * share the nodes to add data source:
+     * <ul>
+     * <li>at most {@code services.nodeSyncMonitor.setup.maxInFlightSyncs} syncs are in flight over all vUsers (see
+     * {@link InFlightSyncLimiter})</li>
+     * <li>the sync status is probed on the {@code services.nodeSyncMonitor.syncAwait.*} schedule, starting at an interval adapted to the
+     * duration of the syncs completed so far (see {@link AdaptiveSyncAwait}). The timeout defaults to
+     * {@code node.cpp.sync.timeout * node.cpp.sync.retries}</li>
+     * </ul>
+     *
+     * @param node
+     *            An object representing the node to sync.
+     * @throws InterruptedException
+     *             If the step is interrupted while waiting for a sync slot or for the sync to complete.
+     */
+    @TestStep(id = StepIds.SYNC_NODE)
+    public void syncNode(@Input(NODES_TO_ADD) final NetworkNode node) throws InterruptedException {
+        syncNode(node, false);
+    }
+
+    /**
+     * Test step which resyncs a node once it is started again, like {@link #syncNode}, and marks the moment the sync is sent as the trigger of
+     * the alarm clear, as the node sync monitor clears the alarm on that sync.
+     *
+     * @param node
+     *            An object representing the node to resync.
+     * @throws InterruptedException
+     *             If the step is interrupted while waiting for a sync slot or for the sync to complete.
+     */
+    @TestStep(id = StepIds.RESYNC_NODE)
+    public void resyncNode(@Input(NODES_TO_ADD) final NetworkNode node) throws InterruptedException {
+        syncNode(node, true);
+    }
+
+    private void syncNode(final NetworkNode node, final boolean markClearTrigger) throws InterruptedException {
+        final String cmFunctionFdn = String.format(CM_FUNCTION_FDN, node.getNetworkElementId());
+        final BackoffPolicy policy = AdaptiveSyncAwait.getInstance().adapt(BackoffPolicy.fromConfiguration(SYNC_AWAIT_PROPERTY_PREFIX,
+                new BackoffPolicy(1000, 15000, 1.5, getLong("node.cpp.sync.timeout", 30000) * getInt("node.cpp.sync.retries", 20))));
+        final InFlightSyncLimiter limiter = InFlightSyncLimiter.getInstance();
+        limiter.acquire();
+        try {
+            final long start = System.nanoTime();
+            if (markClearTrigger) {
+                LatencyRecorder.getInstance().markTriggered(LatencyKind.CLEAR, node.getNetworkElementId());
+            }
+            sendAction(cmFunctionFdn, "sync");
+            final AwaitResult<String> result = Await.until("Sync of " + cmFunctionFdn, new Supplier<String>() {
+                @Override
+                public String get() {
+                    return readAttribute(cmFunctionFdn, SYNC_STATUS);
+                }
+            }, Predicates.equalTo(SYNCHRONIZED), policy);
+
+            Assertions.assertThat(result.isSatisfied())
+                    .as("syncStatus of [%s] is not %s within %d ms, last value [%s]", cmFunctionFdn, SYNCHRONIZED, policy.getTimeoutMillis(),
+                            result.getValue())
+                    .isTrue();
+            final long syncMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            AdaptiveSyncAwait.getInstance().recordSync(syncMillis);
+            LOGGER.info("[{}] synchronized in {} ms after {} probe(s)", cmFunctionFdn, syncMillis, result.getAttempts());
+        } finally {
+            limiter.release();
+        }
+    }
+
+    /*
+     * The alarm raise latency is measured from the moment the sync action whose failure reaches the threshold was sent, not from the moment
+     * the failure is observed, which lags it by up to one failedSyncAwait interval.
+     */
+    private static void markThresholdCrossing(final String cmFunctionFdn, final int failedSyncsCountBefore, final int failedSyncsCount,
+                                              final long sentAtNanos, final long sentAtMillis) {
+        final int threshold = getFailedSyncThreshold();
+        final Matcher networkElement = NETWORK_ELEMENT_ID_PATTERN.matcher(cmFunctionFdn);
+        if (failedSyncsCountBefore < threshold && failedSyncsCount >= threshold && networkElement.find()) {
+            LOGGER.info("failedSyncsCount of [{}] reached the threshold of {}", cmFunctionFdn, threshold);
+            LatencyRecorder.getInstance().markTriggered(LatencyKind.RAISE, networkElement.group(1), sentAtNanos, sentAtMillis);
+        }
+    }
+
+    private void sendAction(final String cmFunctionFdn, final String actionName) {
+        final String command = String.format("cmedit action %s %s", cmFunctionFdn, actionName);
+        final CliResult result = Gateways.cli(provider).send(command);
+        Assertions.assertThat(result.getStatusMessage())
+                .as("Response to [%s], output %s", command, result.getLines())
+                .contains(ACTION_EXECUTED);
+    }
+
+    private int readFailedSyncsCount(final String cmFunctionFdn) {
+        return Integer.parseInt(readAttribute(cmFunctionFdn, FAILED_SYNCS_COUNT));
+    }
+
+    private String readAttribute(final String cmFunctionFdn, final String attribute) {
+        final String command = String.format("cmedit get %s CmFunction.%s", cmFunctionFdn, attribute);
+        final String value = CliResponses.attributeValue(Gateways.cli(provider).send(command).getLines(), attribute);
+        if (value == null) {
+            throw new IllegalStateException(String.format("Response to [%s] does not contain %s", command, attribute));
+        }
+        return value;
+    }
+
+    /**
+     * The test step IDs.
+     */
+    public static final class StepIds {
+        public static final String TRIGGER_FAILED_SYNC = "triggerFailedSync";
+        public static final String TRIGGER_FAILED_SYNCS_PAST_THRESHOLD = "triggerFailedSyncsPastThreshold";
+        public static final String SYNC_NODE = "syncNode";
+        public static final String RESYNC_NODE = "resyncNode";
+
+        private StepIds() {}
+    }
+
+}
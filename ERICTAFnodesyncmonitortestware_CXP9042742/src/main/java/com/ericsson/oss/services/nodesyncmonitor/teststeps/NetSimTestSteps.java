@@ -14,40 +14,51 @@ package com.ericsson.oss.services.nodesyncmonitor.teststeps;
 
 import static com.ericsson.oss.testware.enmbase.data.CommonDataSources.NODES_TO_ADD;
 
+import java.util.Collections;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.assertj.core.api.Assertions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.ericsson.cifwk.taf.TestContext;
 import com.ericsson.cifwk.taf.annotations.Input;
 import com.ericsson.cifwk.taf.annotations.TestStep;
-import com.ericsson.cifwk.taf.handlers.netsim.commands.NetSimCommands;
-import com.ericsson.cifwk.taf.handlers.netsim.domain.NetworkElement;
-import com.ericsson.oss.services.nodesyncmonitor.dataprovider.NetSimOperatorProvider;
+import com.ericsson.cifwk.taf.datasource.DataRecord;
+import com.ericsson.oss.services.nodesyncmonitor.gateway.Gateways;
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyKind;
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyRecorder;
+import com.ericsson.oss.services.nodesyncmonitor.netsim.FingerprintedRestore;
+import com.ericsson.oss.services.nodesyncmonitor.netsim.NeCommandOutcome;
+import com.ericsson.oss.services.nodesyncmonitor.netsim.NeCommandSequence;
+import com.ericsson.oss.services.nodesyncmonitor.teardown.CleanupRegistry;
+import com.ericsson.oss.services.nodesyncmonitor.teardown.ResourceType;
 import com.ericsson.oss.testware.enmbase.data.NetworkNode;
-import com.ericsson.oss.testware.network.operators.netsim.NetsimOperator;
+import com.google.common.collect.Lists;
 
 public class NetSimTestSteps {
 
+    public static final String NODE_TO_STOP_OR_START = "nodeToStopOrStart";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(NetSimTestSteps.class);
 
-    private NetsimOperator netsimOperator;
+    private static final String NETWORK_ELEMENT_ID = "networkElementId";
+
+    @Inject
+    private TestContext context;
 
     /**
-     * Test step which restores a backup of a node in NetSim.
+     * Test step which restores a backup of a node in NetSim, unless its database still matches the one it was last restored with, in which case
+     * it is only stopped and started again (see {@link FingerprintedRestore}).
      *
      * @param node
      *            An object representing the node under test.
      */
     @TestStep(id = StepIds.RESTORE_NE_STATE_IN_NETSIM)
-    public void restoreNeState(@Input(NODES_TO_ADD) final NetworkNode node) {
-        netsimOperator = NetSimOperatorProvider.getInstance().getNetsimOperator();
-        final NetworkElement networkElement = netsimOperator.getNetworkElement(node.getNetworkElementId());
-        final String restoreImagePath =
-                String.format("/netsim/netsimdir/%s/allsaved/dbs/%s_%s", networkElement.getSimulationName(), "curr", networkElement.getName());
-        LOGGER.info("Restoring state of {} from {}", networkElement.getName(), restoreImagePath);
-
-        networkElement.exec(NetSimCommands.stop());
-        networkElement.exec(NetSimCommands.restorenedatabase(restoreImagePath));
-        networkElement.exec(NetSimCommands.start());
+    public void restoreNeState(@Input(NODES_TO_ADD) final NetworkNode node) throws InterruptedException {
+        assertSucceeded(restore(Collections.singletonList(node.getNetworkElementId())), NeCommandSequence.RESTORE);
     }
 
     /**
@@ -57,10 +68,8 @@ public class NetSimTestSteps {
      *            An object representing the node under test.
      */
     @TestStep(id = StepIds.STOP_NODE_IN_NETSIM)
-    public void stopNodeInNetSim(@Input("nodeToStopOrStart") final NetworkNode node) {
-        netsimOperator = NetSimOperatorProvider.getInstance().getNetsimOperator();
-        final NetworkElement networkElement = netsimOperator.getNetworkElement(node.getNetworkElementId());
-        networkElement.exec(NetSimCommands.stop());
+    public void stopNodeInNetSim(@Input(NODE_TO_STOP_OR_START) final NetworkNode node) throws InterruptedException {
+        executeOne(node, NeCommandSequence.stop());
     }
 
     /**
@@ -70,10 +79,134 @@ public class NetSimTestSteps {
      *            An object representing the node under test.
      */
     @TestStep(id = StepIds.START_NODE_IN_NETSIM)
-    public void startNodeInNetSim(@Input("nodeToStopOrStart") final NetworkNode node) {
-        netsimOperator = NetSimOperatorProvider.getInstance().getNetsimOperator();
-        final NetworkElement networkElement = netsimOperator.getNetworkElement(node.getNetworkElementId());
-        networkElement.exec(NetSimCommands.start());
+    public void startNodeInNetSim(@Input(NODE_TO_STOP_OR_START) final NetworkNode node) throws InterruptedException {
+        executeOne(node, NeCommandSequence.start());
+    }
+
+    /**
+     * Test step which restores a backup of every node in the nodes to add data source whose database diverged from the one it was last
+     * restored with, one batch per simulation (see {@link FingerprintedRestore}).
+     *
+     * @throws InterruptedException
+     *             If the step is interrupted while waiting for NetSim.
+     */
+    @TestStep(id = StepIds.RESTORE_NE_STATES_IN_NETSIM)
+    public void restoreNeStates() throws InterruptedException {
+        final List<String> networkElementIds = networkElementIds(NODES_TO_ADD);
+        final List<NeCommandOutcome> outcomes = restore(networkElementIds);
+        LOGGER.info("{} of {} node(s) in {}", NeCommandSequence.RESTORE, networkElementIds.size(), NODES_TO_ADD);
+        assertSucceeded(outcomes, NeCommandSequence.RESTORE);
+    }
+
+    /**
+     * Test step which restores every node the suite restored, stopped or started in NetSim, one batch per simulation, and releases it (see
+     * {@link CleanupRegistry}). Does nothing if the suite changed no node.
+     *
+     * @throws InterruptedException
+     *             If the step is interrupted while waiting for NetSim.
+     */
+    @TestStep(id = StepIds.RESTORE_NETSIM_NES_IN_NETSIM)
+    public void restoreNetSimNes() throws InterruptedException {
+        final List<String> networkElementIds = Lists.newArrayList(CleanupRegistry.getInstance().get(ResourceType.NETSIM_NE));
+        if (networkElementIds.isEmpty()) {
+            LOGGER.info("No node changed in NetSim");
+            return;
+        }
+        final List<NeCommandOutcome> outcomes = restore(networkElementIds);
+        for (final NeCommandOutcome outcome : outcomes) {
+            if (outcome.isSuccess()) {
+                CleanupRegistry.getInstance().release(ResourceType.NETSIM_NE, outcome.getNetworkElementId());
+            }
+        }
+        LOGGER.info("{} of {} changed node(s)", NeCommandSequence.RESTORE, networkElementIds.size());
+        assertSucceeded(outcomes, NeCommandSequence.RESTORE);
+    }
+
+    /**
+     * Test step which stops every node in the nodes to stop or start data source, one batch per simulation.
+     *
+     * @throws InterruptedException
+     *             If the step is interrupted while waiting for NetSim.
+     */
+    @TestStep(id = StepIds.STOP_NODES_IN_NETSIM)
+    public void stopNodesInNetSim() throws InterruptedException {
+        executeBatch(NODE_TO_STOP_OR_START, NeCommandSequence.stop());
+    }
+
+    /**
+     * Test step which starts every node in the nodes to stop or start data source, one batch per simulation.
+     *
+     * @throws InterruptedException
+     *             If the step is interrupted while waiting for NetSim.
+     */
+    @TestStep(id = StepIds.START_NODES_IN_NETSIM)
+    public void startNodesInNetSim() throws InterruptedException {
+        executeBatch(NODE_TO_STOP_OR_START, NeCommandSequence.start());
+    }
+
+    private void executeOne(final NetworkNode node, final NeCommandSequence sequence) throws InterruptedException {
+        for (final NeCommandOutcome outcome : Gateways.netSim().execute(Collections.singletonList(node.getNetworkElementId()), sequence)) {
+            if (!outcome.isSuccess()) {
+                throw new IllegalStateException(String.format("NetSim %s failed for node %s", sequence.getName(), outcome), outcome.getError());
+            }
+            track(sequence.getName(), outcome);
+        }
+    }
+
+    private static List<NeCommandOutcome> restore(final List<String> networkElementIds) throws InterruptedException {
+        final List<NeCommandOutcome> outcomes = FingerprintedRestore.restore(Gateways.netSim(), networkElementIds);
+        for (final NeCommandOutcome outcome : outcomes) {
+            track(NeCommandSequence.RESTORE, outcome);
+        }
+        return outcomes;
+    }
+
+    /*
+     * A node restored, stopped or started by the suite is recorded so the teardown restores it, as the scenarios change its database. The
+     * alarm clear latency is measured from the moment the node is started, or resynced if the scenario resyncs it.
+     */
+    private static void track(final String sequenceName, final NeCommandOutcome outcome) {
+        if (!outcome.isSuccess()) {
+            return;
+        }
+        final String networkElementId = outcome.getNetworkElementId();
+        CleanupRegistry.getInstance().record(ResourceType.NETSIM_NE, networkElementId);
+        if (NeCommandSequence.START.equals(sequenceName)) {
+            LatencyRecorder.getInstance().markTriggered(LatencyKind.CLEAR, networkElementId);
+        }
+    }
+
+    private void executeBatch(final String dataSourceName, final NeCommandSequence sequence) throws InterruptedException {
+        final List<String> networkElementIds = networkElementIds(dataSourceName);
+        final List<NeCommandOutcome> outcomes = Gateways.netSim().execute(networkElementIds, sequence);
+        for (final NeCommandOutcome outcome : outcomes) {
+            track(sequence.getName(), outcome);
+        }
+        LOGGER.info("{} of {} node(s) in {}", sequence.getName(), networkElementIds.size(), dataSourceName);
+        assertSucceeded(outcomes, sequence.getName());
+    }
+
+    private List<String> networkElementIds(final String dataSourceName) {
+        final List<String> networkElementIds = Lists.newArrayList();
+        for (final DataRecord dataRecord : context.dataSource(dataSourceName)) {
+            networkElementIds.add((String) dataRecord.getFieldValue(NETWORK_ELEMENT_ID));
+        }
+        return networkElementIds;
+    }
+
+    private static void assertSucceeded(final List<NeCommandOutcome> outcomes, final String sequenceName) {
+        final List<NeCommandOutcome> failures = Lists.newArrayList();
+        for (final NeCommandOutcome outcome : outcomes) {
+            if (!outcome.isSuccess()) {
+                failures.add(outcome);
+            }
+        }
+        if (!failures.isEmpty()) {
+            LOGGER.info("{} failed for {} of {} node(s)", sequenceName, failures.size(), outcomes.size());
+        }
+        Assertions.assertThat(failures)
+                .as("NetSim %s failed for node(s) %s", sequenceName, failures)
+                .isEmpty();
     }
 
     /**
@@ -83,6 +216,10 @@ public class NetSimTestSteps {
         public static final String RESTORE_NE_STATE_IN_NETSIM = "restoreNeState";
         public static final String STOP_NODE_IN_NETSIM = "stopNode";
         public static final String START_NODE_IN_NETSIM = "startNode";
+        public static final String RESTORE_NE_STATES_IN_NETSIM = "restoreNeStates";
+        public static final String STOP_NODES_IN_NETSIM = "stopNodes";
+        public static final String START_NODES_IN_NETSIM = "startNodes";
+        public static final String RESTORE_NETSIM_NES_IN_NETSIM = "restoreNetSimNes";
 
         private StepIds() {}
     }
@@ -0,0 +1,72 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.teststeps;
+
+import javax.inject.Inject;
+
+import com.ericsson.cifwk.taf.annotations.Input;
+import com.ericsson.cifwk.taf.annotations.TestStep;
+import com.ericsson.cifwk.taf.data.User;
+import com.ericsson.cifwk.taf.data.UserType;
+import com.ericsson.oss.services.nodesyncmonitor.session.SessionLogin;
+import com.ericsson.oss.services.nodesyncmonitor.session.SessionPool;
+import com.ericsson.oss.testware.security.authentication.tool.TafToolProvider;
+
+/**
+ * Test steps handing out the authenticated sessions of the {@link SessionPool} to the flows.
+ */
+public class SessionTestSteps {
+
+    public static final String USERNAME = "username";
+    public static final String PASSWORD = "password";
+
+    @Inject
+    private TafToolProvider tafToolProvider;
+
+    @Inject
+    private SessionLogin sessionLogin;
+
+    /**
+     * Test step which binds a pooled session of a user as the HTTP tool of the calling vUser, used by the ENM Cli and the other REST
+     * operators for the rest of the scenario. The session is lent to this vUser only, until the scenario finishes. The user is logged in when
+     * every session of the user is lent or about to expire.
+     *
+     * @param username
+     *            The user.
+     * @param password
+     *            The password of the user.
+     */
+    @TestStep(id = StepIds.USE_SESSION)
+    public void useSession(@Input(USERNAME) final String username, @Input(PASSWORD) final String password) {
+        tafToolProvider.setHttpTool(SessionPool.getInstance().acquire(new User(username, password, UserType.WEB), sessionLogin));
+    }
+
+    /**
+     * Test step which logs out every pooled session, before the users are deleted at the end of the suite.
+     */
+    @TestStep(id = StepIds.CLOSE_SESSIONS)
+    public void closeSessions() {
+        SessionPool.getInstance().closeAll();
+    }
+
+    /**
+     * The test step IDs.
+     */
+    public static final class StepIds {
+        public static final String USE_SESSION = "useSession";
+        public static final String CLOSE_SESSIONS = "closeSessions";
+
+        private StepIds() {}
+    }
+
+}
@@ -0,0 +1,29 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.timing;
+
+import com.ericsson.cifwk.taf.scenario.api.ExceptionHandler;
+
+/**
+ * Default exception handler of the suite runner, which closes the test step running on the calling thread as failed in the
+ * {@link TimingTree} and propagates the exception as the default handler of TAF does.
+ */
+public class TimingExceptionHandler implements ExceptionHandler {
+
+    @Override
+    public Outcome onException(final Throwable e) {
+        TimingTree.getInstance().stepFinished(true);
+        return Outcome.PROPAGATE_EXCEPTION;
+    }
+
+}
@@ -0,0 +1,184 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.timing;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+
+/**
+ * One scenario, flow or test step of the timing tree, aggregated over every time it ran (data records, vUsers and repeated scenarios).
+ */
+public final class TimingNode {
+
+    /**
+     * What a node of the tree represents.
+     */
+    public enum Kind {
+        ROOT,
+        SCENARIO,
+        FLOW,
+        STEP
+    }
+
+    private final String name;
+    private final Kind kind;
+    private final Map<String, TimingNode> children = new LinkedHashMap<>();
+
+    private final AtomicLong invocations = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong dataRecords = new AtomicLong();
+
+    TimingNode(final String name, final Kind kind) {
+        this.name = name;
+        this.kind = kind;
+    }
+
+    /**
+     * @return The child with the given name and kind, created on first use.
+     */
+    synchronized TimingNode child(final String childName, final Kind childKind) {
+        final String key = childKind + ":" + childName;
+        TimingNode child = children.get(key);
+        if (child == null) {
+            child = new TimingNode(childName, childKind);
+            children.put(key, child);
+        }
+        return child;
+    }
+
+    /**
+     * @return The scenarios, flows and steps directly below this node, in the order they first ran.
+     */
+    public synchronized List<TimingNode> getChildren() {
+        return new ArrayList<>(children.values());
+    }
+
+    /**
+     * Forgets the nodes below this node.
+     */
+    synchronized void clearChildren() {
+        children.clear();
+    }
+
+    void recordInvocation(final long elapsedNanos, final boolean failed) {
+        invocations.incrementAndGet();
+        totalNanos.addAndGet(elapsedNanos);
+        long max = maxNanos.get();
+        while (elapsedNanos > max && !maxNanos.compareAndSet(max, elapsedNanos)) {
+            max = maxNanos.get();
+        }
+        if (failed) {
+            failures.incrementAndGet();
+        }
+    }
+
+    void recordRetries(final int count) {
+        retries.addAndGet(count);
+    }
+
+    void recordDataRecords(final int count) {
+        dataRecords.addAndGet(count);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public long getInvocations() {
+        return invocations.get();
+    }
+
+    public long getTotalMillis() {
+        return NANOSECONDS.toMillis(totalNanos.get());
+    }
+
+    public long getMaxMillis() {
+        return NANOSECONDS.toMillis(maxNanos.get());
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * @return The retries of this node and of every node below it.
+     */
+    public long getRetries() {
+        long total = retries.get();
+        for (final TimingNode child : getChildren()) {
+            total += child.getRetries();
+        }
+        return total;
+    }
+
+    /**
+     * @return The data records consumed by this node: for a step the records it was invoked with, otherwise the records of its direct steps.
+     */
+    public long getDataRecords() {
+        if (kind == Kind.STEP) {
+            return dataRecords.get();
+        }
+        long total = 0;
+        for (final TimingNode child : getChildren()) {
+            if (child.getKind() == Kind.STEP) {
+                total += child.getDataRecords();
+            }
+        }
+        return total;
+    }
+
+    @SuppressWarnings("unchecked")
+    JSONObject toJson() {
+        final JSONObject json = new JSONObject();
+        json.put("name", name);
+        json.put("kind", kind.name().toLowerCase(Locale.ROOT));
+        json.put("invocations", getInvocations());
+        json.put("totalMillis", getTotalMillis());
+        json.put("maxMillis", getMaxMillis());
+        json.put("failures", getFailures());
+        json.put("retries", getRetries());
+        json.put("dataRecords", getDataRecords());
+        final JSONArray childArray = new JSONArray();
+        for (final TimingNode child : getChildren()) {
+            childArray.add(child.toJson());
+        }
+        json.put("children", childArray);
+        return json;
+    }
+
+    void appendTo(final StringBuilder text, final String indent) {
+        text.append(String.format("%n%s%s [%s]: %d ms in %d run(s), max %d ms, %d retries, %d record(s), %d failure(s)", indent, name,
+                kind.name().toLowerCase(Locale.ROOT), getTotalMillis(), getInvocations(), getMaxMillis(), getRetries(), getDataRecords(),
+                getFailures()));
+        for (final TimingNode child : getChildren()) {
+            child.appendTo(text, indent + "  ");
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.timing;
+
+import com.ericsson.cifwk.taf.datasource.DataRecord;
+import com.ericsson.cifwk.taf.scenario.TestScenario;
+import com.ericsson.cifwk.taf.scenario.TestStepFlow;
+import com.ericsson.cifwk.taf.scenario.TestStepInvocation;
+import com.ericsson.cifwk.taf.scenario.impl.LoggingScenarioListener;
+
+/**
+ * Scenario listener which logs like {@link LoggingScenarioListener} and records the wall clock time of every scenario, flow and test step,
+ * and the data records each test step consumed, in the {@link TimingTree}. A test step which threw was already closed as failed by the
+ * {@link TimingExceptionHandler}, so the steps still open when they finish succeeded.
+ */
+public class TimingScenarioListener extends LoggingScenarioListener {
+
+    private final TimingTree timingTree = TimingTree.getInstance();
+
+    @Override
+    public void onScenarioStarted(final TestScenario scenario) {
+        super.onScenarioStarted(scenario);
+        timingTree.scenarioStarted(scenario.getName());
+    }
+
+    @Override
+    public void onScenarioFinished(final TestScenario scenario) {
+        super.onScenarioFinished(scenario);
+        timingTree.scenarioFinished(scenario.getName());
+    }
+
+    @Override
+    public void onFlowStarted(final TestStepFlow flow) {
+        super.onFlowStarted(flow);
+        timingTree.flowStarted(flow.getName());
+    }
+
+    @Override
+    public void onFlowFinished(final TestStepFlow flow) {
+        super.onFlowFinished(flow);
+        timingTree.flowFinished(flow.getName());
+    }
+
+    @Override
+    public void onTestStepStarted(final TestStepInvocation invocation, final Object[] args) {
+        super.onTestStepStarted(invocation, args);
+        timingTree.stepStarted(invocation.getName(), countDataRecords(args));
+    }
+
+    @Override
+    public void onTestStepFinished(final TestStepInvocation invocation) {
+        super.onTestStepFinished(invocation);
+        timingTree.stepFinished(false);
+    }
+
+    private static int countDataRecords(final Object[] args) {
+        int dataRecords = 0;
+        if (args != null) {
+            for (final Object arg : args) {
+                if (arg instanceof DataRecord) {
+                    dataRecords++;
+                }
+            }
+        }
+        return dataRecords;
+    }
+
+}
@@ -0,0 +1,211 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.timing;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ericsson.oss.services.nodesyncmonitor.timing.TimingNode.Kind;
+import com.ericsson.oss.services.nodesyncmonitor.utils.ReportFiles;
+
+/**
+ * The wall clock time spent in every scenario, flow and test step of the suite, as a tree aggregated by path.
+ * <p>
+ * The tree is fed by {@link TimingScenarioListener}. Each thread (the scenario runner and every vUser) keeps its own stack of open scenarios
+ * and flows; a flow started on a thread with no open flow is attached to the scenario which was started last. Retries are reported by
+ * {@link com.ericsson.oss.services.nodesyncmonitor.await.Await} against the test step running on the calling thread. A test step is failed
+ * when it throws (see {@link TimingExceptionHandler}), or when its flow finishes before the step does.
+ * <p>
+ * {@link #export()} logs the tree and writes it as {@code scenario-timing-<time>.json} to {@code services.nodeSyncMonitor.timing.reportDir},
+ * then starts a new tree, so each report only holds what ran since the previous one.
+ */
+public final class TimingTree {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TimingTree.class);
+
+    public static final String REPORT_DIR_PROPERTY = "services.nodeSyncMonitor.timing.reportDir";
+    public static final String DEFAULT_REPORT_DIR = "target/timing";
+    public static final String FILE_PREFIX = "scenario-timing-";
+
+    private static final TimingTree INSTANCE = new TimingTree();
+
+    private final TimingNode root = new TimingNode("suite", Kind.ROOT);
+    private volatile Frame lastScenario;
+
+    private final ThreadLocal<Deque<Frame>> openFrames = new ThreadLocal<Deque<Frame>>() {
+        @Override
+        protected Deque<Frame> initialValue() {
+            return new ArrayDeque<>();
+        }
+    };
+    private final ThreadLocal<Frame> currentStep = new ThreadLocal<>();
+
+    private TimingTree() {}
+
+    public static TimingTree getInstance() {
+        return INSTANCE;
+    }
+
+    public void scenarioStarted(final String name) {
+        final Deque<Frame> frames = openFrames.get();
+        frames.clear();
+        final Frame frame = new Frame(root.child(name, Kind.SCENARIO));
+        frames.push(frame);
+        lastScenario = frame;
+    }
+
+    public void scenarioFinished(final String name) {
+        close(Kind.SCENARIO, name, false);
+    }
+
+    public void flowStarted(final String name) {
+        openFrames.get().push(new Frame(parent().child(name, Kind.FLOW)));
+    }
+
+    public void flowFinished(final String name) {
+        close(Kind.FLOW, name, false);
+    }
+
+    public void stepStarted(final String name, final int dataRecords) {
+        stepFinished(true);
+        final Frame frame = new Frame(parent().child(name, Kind.STEP));
+        frame.node.recordDataRecords(dataRecords);
+        currentStep.set(frame);
+    }
+
+    /**
+     * Closes the test step running on the calling thread, if it is still open.
+     *
+     * @param failed
+     *            Whether the test step failed.
+     */
+    public void stepFinished(final boolean failed) {
+        final Frame frame = currentStep.get();
+        if (frame != null) {
+            currentStep.remove();
+            frame.close(failed);
+        }
+    }
+
+    /**
+     * Adds retries to the test step running on the calling thread, or to its innermost flow.
+     *
+     * @param count
+     *            The number of retries.
+     */
+    public void recordRetries(final int count) {
+        if (count <= 0) {
+            return;
+        }
+        final Frame step = currentStep.get();
+        if (step != null) {
+            step.node.recordRetries(count);
+        } else {
+            parent().recordRetries(count);
+        }
+    }
+
+    /**
+     * @return The root of the tree.
+     */
+    public TimingNode getRoot() {
+        return root;
+    }
+
+    /**
+     * Logs the tree and writes it to the report directory, then forgets it.
+     */
+    public void export() {
+        if (root.getChildren().isEmpty()) {
+            return;
+        }
+        try {
+            write();
+        } finally {
+            root.clearChildren();
+            lastScenario = null;
+        }
+    }
+
+    private void write() {
+        final StringBuilder text = new StringBuilder("Scenario timing:");
+        for (final TimingNode scenario : root.getChildren()) {
+            scenario.appendTo(text, "  ");
+        }
+        LOGGER.info(text.toString());
+        try {
+            final File file = ReportFiles.newReportFile(REPORT_DIR_PROPERTY, DEFAULT_REPORT_DIR, FILE_PREFIX, "json");
+            ReportFiles.writeJson(root.toJson(), file);
+            LOGGER.info("Scenario timing written to {}", file);
+        } catch (final IOException e) {
+            LOGGER.warn("Could not write the scenario timing report", e);
+        }
+    }
+
+    private TimingNode parent() {
+        final Frame open = openFrames.get().peek();
+        if (open != null) {
+            return open.node;
+        }
+        final Frame scenario = lastScenario;
+        return scenario != null ? scenario.node : root;
+    }
+
+    /*
+     * Closes the innermost open frame of the kind and name, and any step or frame left open above it (e.g. by a failed flow).
+     */
+    private void close(final Kind kind, final String name, final boolean failed) {
+        final Deque<Frame> frames = openFrames.get();
+        boolean found = false;
+        for (final Frame frame : frames) {
+            if (frame.node.getKind() == kind && frame.node.getName().equals(name)) {
+                found = true;
+                break;
+            }
+        }
+        if (!found) {
+            return;
+        }
+        stepFinished(true);
+        final Iterator<Frame> iterator = frames.iterator();
+        while (iterator.hasNext()) {
+            final Frame frame = iterator.next();
+            iterator.remove();
+            final boolean matches = frame.node.getKind() == kind && frame.node.getName().equals(name);
+            frame.close(failed || !matches);
+            if (matches) {
+                break;
+            }
+        }
+    }
+
+    private static final class Frame {
+        private final TimingNode node;
+        private final long startNanos = System.nanoTime();
+
+        private Frame(final TimingNode node) {
+            this.node = node;
+        }
+
+        private void close(final boolean failed) {
+            node.recordInvocation(System.nanoTime() - startNanos, failed);
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.utils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+
+/**
+ * The alarm rows of an {@code alarm get} response, indexed by node.
+ * <p>
+ * The FM Cli prints the alarms as a tab separated table: a header line naming the columns, one row per alarm and the summary line. Lines before
+ * the header and lines with fewer than two columns (e.g. the summary) are ignored. Since the response lines are trimmed, a row may miss its
+ * trailing empty columns, which read as empty values.
+ */
+public final class AlarmRows {
+
+    public static final String NODE_NAME = "NodeName";
+    public static final String SPECIFIC_PROBLEM = "SpecificProblem";
+    public static final String ALARM_STATE = "AlarmState";
+
+    private static final Splitter COLUMN_SPLITTER = Splitter.on('\t').trimResults();
+
+    private final ListMultimap<String, Map<String, String>> rowsByNode;
+
+    private AlarmRows(final ListMultimap<String, Map<String, String>> rowsByNode) {
+        this.rowsByNode = rowsByNode;
+    }
+
+    /**
+     * @param lines
+     *            The response lines.
+     * @return The alarm rows in the lines. Empty if the lines have no {@value #NODE_NAME} header.
+     */
+    public static AlarmRows parse(final Iterable<String> lines) {
+        final ListMultimap<String, Map<String, String>> rowsByNode = ArrayListMultimap.create();
+        List<String> header = null;
+        int nodeNameColumn = -1;
+        for (final String line : lines) {
+            final List<String> columns = COLUMN_SPLITTER.splitToList(line);
+            if (header == null) {
+                if (columns.contains(NODE_NAME)) {
+                    header = columns;
+                    nodeNameColumn = columns.indexOf(NODE_NAME);
+                }
+                continue;
+            }
+            if (columns.size() < 2 || columns.size() > header.size() || columns.size() <= nodeNameColumn) {
+                continue;
+            }
+            final Map<String, String> row = new LinkedHashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                row.put(header.get(i), i < columns.size() ? columns.get(i) : "");
+            }
+            rowsByNode.put(columns.get(nodeNameColumn), Collections.unmodifiableMap(row));
+        }
+        return new AlarmRows(rowsByNode);
+    }
+
+    /**
+     * @param nodeName
+     *            The node name.
+     * @return The rows of the node, in response order. Empty if the node has no alarm in the response.
+     */
+    public List<Map<String, String>> getRows(final String nodeName) {
+        return Collections.unmodifiableList(rowsByNode.get(nodeName));
+    }
+
+    /**
+     * @param nodeName
+     *            The node name.
+     * @param specificProblem
+     *            The specific problem of the alarm.
+     * @param alarmState
+     *            The expected alarm state.
+     * @return True if the node has an alarm with the specific problem in the alarm state.
+     */
+    public boolean hasAlarm(final String nodeName, final String specificProblem, final String alarmState) {
+        for (final Map<String, String> row : rowsByNode.get(nodeName)) {
+            if (specificProblem.equals(row.get(SPECIFIC_PROBLEM)) && alarmState.equals(row.get(ALARM_STATE))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The number of alarm rows.
+     */
+    public int size() {
+        return rowsByNode.size();
+    }
+
+    @Override
+    public String toString() {
+        return rowsByNode.toString();
+    }
+
+}
@@ -0,0 +1,76 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.utils;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.ericsson.oss.testware.enm.cli.EnmCliResponse;
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+
+/**
+ * Helpers to read values from ENM Cli responses.
+ */
+public final class CliResponses {
+
+    private static final Splitter LINE_SPLITTER = Splitter.on('\n').omitEmptyStrings();
+
+    private CliResponses() {}
+
+    /**
+     * @param response
+     *            The ENM Cli response.
+     * @return The lines of the response output, one per line of every DTO in the response.
+     */
+    public static List<String> lines(final EnmCliResponse response) {
+        return lines(response.getAllDtos());
+    }
+
+    /**
+     * @param dtos
+     *            The DTOs of an ENM Cli response.
+     * @return The lines of the DTOs, one per line of every DTO.
+     */
+    public static List<String> lines(final Iterable<?> dtos) {
+        final List<String> lines = Lists.newArrayList();
+        for (final Object dto : dtos) {
+            for (final String line : LINE_SPLITTER.split(String.valueOf(dto))) {
+                lines.add(line.trim());
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Finds the value of an attribute printed by {@code cmedit get}, i.e. a line of the form {@code <attribute> : <value>}.
+     *
+     * @param lines
+     *            The response lines.
+     * @param attribute
+     *            The attribute name.
+     * @return The attribute value, or null if the attribute is not in the response.
+     */
+    public static String attributeValue(final Iterable<String> lines, final String attribute) {
+        final Pattern pattern = Pattern.compile("^\\s*" + Pattern.quote(attribute) + "\\s*:\\s*(.*?)\\s*$");
+        for (final String line : lines) {
+            final Matcher matcher = pattern.matcher(line);
+            if (matcher.matches()) {
+                return matcher.group(1);
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,57 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.utils;
+
+import com.ericsson.cifwk.taf.data.DataHandler;
+
+/**
+ * Typed access to the TAF configuration for classes which are not managed by TAF and therefore cannot use
+ * {@link com.ericsson.cifwk.taf.configuration.TafProperty} injection.
+ * <p>
+ * Values can be supplied in {@code taf.properties} or overridden on the command line with {@code -D<key>=<value>}.
+ */
+public final class NodeSyncMonitorConfiguration {
+
+    public static final String PREFIX = "services.nodeSyncMonitor.";
+
+    private NodeSyncMonitorConfiguration() {}
+
+    public static long getLong(final String key, final long defaultValue) {
+        return DataHandler.getConfiguration().getProperty(key, defaultValue, Long.class);
+    }
+
+    public static int getInt(final String key, final int defaultValue) {
+        return DataHandler.getConfiguration().getProperty(key, defaultValue, Integer.class);
+    }
+
+    public static double getDouble(final String key, final double defaultValue) {
+        return DataHandler.getConfiguration().getProperty(key, defaultValue, Double.class);
+    }
+
+    public static boolean getBoolean(final String key, final boolean defaultValue) {
+        return DataHandler.getConfiguration().getProperty(key, defaultValue, Boolean.class);
+    }
+
+    public static String getString(final String key, final String defaultValue) {
+        return DataHandler.getConfiguration().getProperty(key, defaultValue, String.class);
+    }
+
+    /**
+     * @return The number of consecutive failed syncs after which the node sync monitor raises the alarm of a node, as configured on the
+     *         deployment under test.
+     */
+    public static int getFailedSyncThreshold() {
+        return getInt(PREFIX + "failedSyncThreshold", 8);
+    }
+
+}
@@ -0,0 +1,67 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.utils;
+
+import static com.ericsson.oss.services.nodesyncmonitor.utils.NodeSyncMonitorConfiguration.getString;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.json.simple.JSONAware;
+
+import com.ericsson.oss.services.nodesyncmonitor.shard.Shard;
+import com.google.common.io.Files;
+
+/**
+ * Creates the per run report files written at the end of the suite.
+ */
+public final class ReportFiles {
+
+    private ReportFiles() {}
+
+    /**
+     * @param directoryProperty
+     *            The property holding the report directory.
+     * @param defaultDirectory
+     *            The directory used if the property is not set.
+     * @param prefix
+     *            The prefix of the file name.
+     * @param extension
+     *            The file extension, without the dot.
+     * @return {@code <directory>/<prefix><yyyyMMdd-HHmmss>.<extension>}, or {@code <directory>/<prefix>shard-<i>-of-<N>-<yyyyMMdd-HHmmss>.<extension>}
+     *         on a sharded executor (see {@link Shard}). The directory is created if needed.
+     * @throws IOException
+     *             If the directory cannot be created.
+     */
+    public static File newReportFile(final String directoryProperty, final String defaultDirectory, final String prefix, final String extension)
+            throws IOException {
+        final File file = new File(getString(directoryProperty, defaultDirectory),
+                prefix + Shard.current().getFileNamePart() + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + "." + extension);
+        Files.createParentDirs(file);
+        return file;
+    }
+
+    /**
+     * Writes a JSON document to a file, replacing its content.
+     */
+    public static void writeJson(final JSONAware json, final File file) throws IOException {
+        try (Writer writer = Files.newWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(json.toJSONString());
+        }
+    }
+
+}
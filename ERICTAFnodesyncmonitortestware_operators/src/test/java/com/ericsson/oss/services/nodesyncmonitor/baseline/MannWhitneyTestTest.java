@@ -0,0 +1,54 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.baseline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import org.junit.Test;
+
+public class MannWhitneyTestTest {
+
+    private static final long[] LOW = { 1, 2, 3, 4, 5 };
+    private static final long[] HIGH = { 6, 7, 8, 9, 10 };
+
+    /*
+     * The expected values are those of R: wilcox.test(current, baseline, alternative = "greater", exact = FALSE, correct = TRUE).
+     */
+    @Test
+    public void greaterCurrentValuesHaveLowPValue() {
+        assertThat(MannWhitneyTest.pValueGreater(LOW, HIGH)).isCloseTo(0.006093, offset(1e-6));
+    }
+
+    @Test
+    public void lowerCurrentValuesHaveHighPValue() {
+        assertThat(MannWhitneyTest.pValueGreater(HIGH, LOW)).isCloseTo(0.996692, offset(1e-6));
+    }
+
+    @Test
+    public void tiesShareTheirRankAndReduceTheVariance() {
+        assertThat(MannWhitneyTest.pValueGreater(new long[] { 1, 2, 2, 3, 5 }, new long[] { 2, 3, 3, 4, 6 })).isCloseTo(0.142142, offset(1e-5));
+    }
+
+    @Test
+    public void equalValuesAreNotGreater() {
+        assertThat(MannWhitneyTest.pValueGreater(new long[] { 5, 5, 5 }, new long[] { 5, 5 })).isEqualTo(1.0);
+    }
+
+    @Test
+    public void noValueIsNotGreater() {
+        assertThat(MannWhitneyTest.pValueGreater(new long[0], HIGH)).isEqualTo(1.0);
+        assertThat(MannWhitneyTest.pValueGreater(LOW, new long[0])).isEqualTo(1.0);
+    }
+
+}
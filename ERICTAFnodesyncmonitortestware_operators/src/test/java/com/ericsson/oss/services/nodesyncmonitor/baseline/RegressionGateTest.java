@@ -0,0 +1,112 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.baseline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.ericsson.oss.services.nodesyncmonitor.latency.LatencyKind;
+
+public class RegressionGateTest {
+
+    private static final RegressionProfile PROFILE = new RegressionProfile("", 10, 10, 3, new double[] { 50, 90 }, 0.2, 0.01, false);
+    private static final Map<String, Long> NO_SCENARIO = Collections.emptyMap();
+
+    @Test
+    public void slowerLatenciesAreRegressed() {
+        final List<Comparison> comparisons = RegressionGate.compare(Collections.singletonList(run(1, latencies(100, 20), NO_SCENARIO)),
+                run(1, latencies(200, 20), NO_SCENARIO), PROFILE);
+
+        assertThat(comparisons).hasSize(2);
+        for (final Comparison comparison : comparisons) {
+            assertThat(comparison.getMetric()).isEqualTo("latency.raise");
+            assertThat(comparison.isRegressed()).isTrue();
+            assertThat(comparison.getPValue()).isLessThan(PROFILE.getSignificance());
+        }
+        assertThat(comparisons.get(0).getPercentile()).isEqualTo(50.0);
+        assertThat(comparisons.get(1).getPercentile()).isEqualTo(90.0);
+    }
+
+    @Test
+    public void sameLatenciesAreNotRegressed() {
+        final List<Comparison> comparisons = RegressionGate.compare(Collections.singletonList(run(1, latencies(100, 20), NO_SCENARIO)),
+                run(1, latencies(100, 20), NO_SCENARIO), PROFILE);
+
+        assertThat(comparisons).hasSize(2);
+        for (final Comparison comparison : comparisons) {
+            assertThat(comparison.isRegressed()).isFalse();
+        }
+    }
+
+    @Test
+    public void tooFewLatenciesAreNotCompared() {
+        final List<Comparison> comparisons = RegressionGate.compare(Collections.singletonList(run(1, latencies(100, 20), NO_SCENARIO)),
+                run(1, latencies(200, 5), NO_SCENARIO), PROFILE);
+
+        assertThat(comparisons).isEmpty();
+    }
+
+    @Test
+    public void scenarioFarSlowerThanEveryBaselineRunIsRegressed() {
+        final List<BaselineRun> baseline = new ArrayList<>();
+        for (final long millis : new long[] { 1000, 1010, 990, 1005 }) {
+            baseline.add(run(1, latencies(0, 0), Collections.singletonMap("setUp", millis)));
+        }
+
+        final List<Comparison> slower = RegressionGate.compare(baseline, run(1, latencies(0, 0), Collections.singletonMap("setUp", 2000L)),
+                PROFILE);
+        final List<Comparison> usual = RegressionGate.compare(baseline, run(1, latencies(0, 0), Collections.singletonMap("setUp", 1008L)),
+                PROFILE);
+
+        assertThat(slower).hasSize(1);
+        assertThat(slower.get(0).getMetric()).isEqualTo("scenario.setUp");
+        assertThat(slower.get(0).isRegressed()).isTrue();
+        assertThat(usual).hasSize(1);
+        assertThat(usual.get(0).isRegressed()).isFalse();
+    }
+
+    @Test
+    public void scenarioIsOnlyComparedWithRunsOfAsManyShards() {
+        final List<BaselineRun> baseline = new ArrayList<>();
+        for (final long millis : new long[] { 1000, 1010, 990, 1005 }) {
+            baseline.add(run(2, latencies(0, 0), Collections.singletonMap("setUp", millis)));
+        }
+
+        assertThat(RegressionGate.compare(baseline, run(1, latencies(0, 0), Collections.singletonMap("setUp", 2000L)), PROFILE)).isEmpty();
+    }
+
+    private static BaselineRun run(final int shards, final Map<LatencyKind, long[]> latencies, final Map<String, Long> scenarioMillis) {
+        return new BaselineRun(0L, shards, latencies, scenarioMillis);
+    }
+
+    /*
+     * count raise latencies from firstMillis on, one millisecond apart.
+     */
+    private static Map<LatencyKind, long[]> latencies(final long firstMillis, final int count) {
+        final long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = firstMillis + i;
+        }
+        final Map<LatencyKind, long[]> latencies = new EnumMap<>(LatencyKind.class);
+        latencies.put(LatencyKind.RAISE, values);
+        return latencies;
+    }
+
+}
@@ -0,0 +1,69 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.dataprovider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
+public class NodeIdRangeTest {
+
+    @Test
+    public void singleIdsAreKeptInOrder() {
+        assertThat(NodeIdRange.parse("RNC03RBS07, LTE01ERBS00001,,")).containsExactly("RNC03RBS07", "LTE01ERBS00001");
+    }
+
+    @Test
+    public void rangeIsZeroPaddedToTheWidthOfItsStart() {
+        final NodeIdRange range = NodeIdRange.parse("RNC02RBS98..RNC02RBS101");
+        assertThat(range).containsExactly("RNC02RBS98", "RNC02RBS99", "RNC02RBS100", "RNC02RBS101");
+
+        assertThat(NodeIdRange.parse("LTE01ERBS00009..LTE01ERBS00011")).containsExactly("LTE01ERBS00009", "LTE01ERBS00010", "LTE01ERBS00011");
+    }
+
+    @Test
+    public void rangesAndIdsAreConcatenated() {
+        final NodeIdRange range = NodeIdRange.parse("RNC02RBS01..RNC02RBS500,RNC03RBS07");
+        assertThat(Iterables.size(range)).isEqualTo(501);
+        assertThat(Iterables.getFirst(range, null)).isEqualTo("RNC02RBS01");
+        assertThat(Iterables.get(range, 99)).isEqualTo("RNC02RBS100");
+        assertThat(Iterables.getLast(range)).isEqualTo("RNC03RBS07");
+        assertThat(range.toString()).isEqualTo("RNC02RBS01..RNC02RBS500,RNC03RBS07");
+    }
+
+    @Test
+    public void rangeIsGeneratedAgainOnEveryIteration() {
+        final NodeIdRange range = NodeIdRange.parse("NE1..NE3");
+        assertThat(Lists.newArrayList(range)).containsExactly("NE1", "NE2", "NE3");
+        assertThat(Lists.newArrayList(range)).containsExactly("NE1", "NE2", "NE3");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rangeWithDifferentPrefixesIsRejected() {
+        NodeIdRange.parse("RNC02RBS01..RNC03RBS10");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rangeEndingBeforeItStartsIsRejected() {
+        NodeIdRange.parse("RNC02RBS10..RNC02RBS01");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rangeWithoutNumbersIsRejected() {
+        NodeIdRange.parse("RNC02RBS..RNC02RBS");
+    }
+
+}
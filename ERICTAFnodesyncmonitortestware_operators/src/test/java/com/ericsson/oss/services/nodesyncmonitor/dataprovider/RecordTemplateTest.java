@@ -0,0 +1,72 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.dataprovider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class RecordTemplateTest {
+
+    private static final String PLACEHOLDER = "${rbsNodeId}";
+
+    @Test
+    public void onlyTheColumnsHoldingThePlaceholderAreTemplated() {
+        final RecordTemplate template = RecordTemplate.compile(row(), PLACEHOLDER);
+        assertThat(template.hasPlaceholders()).isTrue();
+        assertThat(template.getTemplatedColumns()).containsExactly("networkElementId", "nodeIpAddress");
+    }
+
+    @Test
+    public void everyPlaceholderIsReplacedInTheOrderOfTheTemplateRow() {
+        final Map<String, Object> record = RecordTemplate.compile(row(), PLACEHOLDER).render("RNC02RBS07");
+        assertThat(record).containsExactly(entry("networkElementId", "RNC02RBS07"), entry("nodeType", "RBS"),
+                entry("nodeIpAddress", "RNC02RBS07-RNC02RBS07.netsim"), entry("port", 830));
+        assertThat(record.get("networkElementId")).isEqualTo("RNC02RBS07");
+        assertThat(record.get("port")).isEqualTo(830);
+        assertThat(record.containsKey("nodeType")).isTrue();
+        assertThat(record).hasSize(4);
+    }
+
+    @Test
+    public void renderingLeavesTheTemplateRowUnchanged() {
+        final RecordTemplate template = RecordTemplate.compile(row(), PLACEHOLDER);
+        template.render("RNC02RBS07");
+        assertThat(template.render("RNC02RBS08").get("networkElementId")).isEqualTo("RNC02RBS08");
+        assertThat(template.getTemplateRow().get("networkElementId")).isEqualTo(PLACEHOLDER);
+    }
+
+    @Test
+    public void templateWithoutPlaceholderRendersItsRow() {
+        final Map<String, Object> row = new LinkedHashMap<>();
+        row.put("networkElementId", "LTE01ERBS00001");
+        final RecordTemplate template = RecordTemplate.compile(row, PLACEHOLDER);
+        assertThat(template.hasPlaceholders()).isFalse();
+        assertThat(template.render("RNC02RBS07")).isSameAs(template.getTemplateRow())
+                .containsExactly(entry("networkElementId", "LTE01ERBS00001"));
+    }
+
+    private static Map<String, Object> row() {
+        final Map<String, Object> row = new LinkedHashMap<>();
+        row.put("networkElementId", PLACEHOLDER);
+        row.put("nodeType", "RBS");
+        row.put("nodeIpAddress", PLACEHOLDER + "-" + PLACEHOLDER + ".netsim");
+        row.put("port", 830);
+        return row;
+    }
+
+}
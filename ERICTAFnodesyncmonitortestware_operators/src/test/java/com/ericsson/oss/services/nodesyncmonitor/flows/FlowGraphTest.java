@@ -0,0 +1,88 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.flows;
+
+import static java.util.Arrays.asList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class FlowGraphTest {
+
+    /*
+     * The graph of NodeSyncMonitorScenarios.setUp: the flows on different systems run side by side, a chain of dependent flows runs on one
+     * branch, and the flows depending on two branches wait for the next stage.
+     */
+    @Test
+    public void setUpGraphRunsIndependentFlowsSideBySide() {
+        final FlowGraph graph = new FlowGraph()
+                .add("feature", null)
+                .add("nodeIds", null)
+                .add("userCleanup", null)
+                .add("userCreated", null, "userCleanup")
+                .add("session", null, "userCreated")
+                .add("neState", null)
+                .add("nodes", null, "session", "neState")
+                .add("fmAlarms", null, "nodes", "nodeIds")
+                .add("nodesStopped", null, "fmAlarms");
+
+        assertThat(graph.stages()).containsExactly(
+                asList(asList("feature"), asList("nodeIds"), asList("userCleanup", "userCreated", "session"), asList("neState")),
+                asList(asList("nodes", "fmAlarms", "nodesStopped")));
+    }
+
+    @Test
+    public void flowDependingOnItsBranchOnlyGoesOnWithTheBranch() {
+        final FlowGraph graph = new FlowGraph()
+                .add("feature", null)
+                .add("nodeIds", null)
+                .add("userCleanup", null)
+                .add("userCreated", null, "userCleanup")
+                .add("session", null, "userCreated")
+                .add("nodes", null);
+
+        assertThat(graph.stages()).containsExactly(
+                asList(asList("feature"), asList("nodeIds"), asList("userCleanup", "userCreated", "session"), asList("nodes")));
+    }
+
+    @Test
+    public void flowsDependingOnTheSameFlowRunSideBySideInTheNextStage() {
+        final FlowGraph graph = new FlowGraph()
+                .add("a", null)
+                .add("b", null, "a")
+                .add("c", null, "a")
+                .add("d", null, "b", "c");
+
+        assertThat(graph.stages()).containsExactly(
+                asList(asList("a")),
+                asList(asList("b"), asList("c")),
+                asList(asList("d")));
+    }
+
+    @Test
+    public void emptyGraphHasNoStage() {
+        assertThat(new FlowGraph().stages()).isEmpty();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void flowNameIsUnique() {
+        new FlowGraph().add("a", null).add("a", null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void prerequisiteMustBeAddedFirst() {
+        new FlowGraph().add("b", null, "a");
+    }
+
+}
@@ -0,0 +1,58 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.netsim;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class NeFingerprintsTest {
+
+    private static final String FIRST_DIGEST = "0123456789abcdef0123456789abcdef";
+    private static final String SECOND_DIGEST = "fedcba9876543210fedcba9876543210";
+
+    @Test
+    public void fingerprintOfEveryNetworkElementIsParsed() {
+        final String output = "FP LTE01ERBS00001 " + FIRST_DIGEST + "\r\n\nFP LTE01ERBS00002 " + SECOND_DIGEST + "\n";
+        assertThat(NeFingerprints.parse(output)).containsExactly(entry("LTE01ERBS00001", FIRST_DIGEST), entry("LTE01ERBS00002", SECOND_DIGEST));
+    }
+
+    @Test
+    public void linesWhichAreNotFingerprintsAreIgnored() {
+        final String output = "netsim@host:~> cd /netsim\n"
+                + "FP LTE01ERBS00001 " + FIRST_DIGEST + " trailing\n"
+                + "FP LTE01ERBS00002 " + FIRST_DIGEST.toUpperCase() + "\n"
+                + "FP LTE01ERBS00003 0123\n"
+                + "FP  " + FIRST_DIGEST + "\n"
+                + "FP LTE01ERBS00004 " + SECOND_DIGEST;
+        assertThat(NeFingerprints.parse(output)).containsExactly(entry("LTE01ERBS00004", SECOND_DIGEST));
+    }
+
+    @Test
+    public void noOutputHasNoFingerprint() {
+        assertThat(NeFingerprints.parse(null)).isEmpty();
+        assertThat(NeFingerprints.parse("")).isEmpty();
+    }
+
+    @Test
+    public void commandListsTheDatabaseOfEveryNetworkElementOfTheSimulation() {
+        final String command = NeFingerprints.command("LTE01", Arrays.asList("LTE01ERBS00001", "LTE01ERBS00002"));
+        assertThat(command).startsWith("cd " + NeFingerprints.DATABASE_DIRECTORY + "/LTE01 ")
+                .contains("for ne in LTE01ERBS00001 LTE01ERBS00002; do")
+                .contains("echo \"FP $ne ");
+    }
+
+}
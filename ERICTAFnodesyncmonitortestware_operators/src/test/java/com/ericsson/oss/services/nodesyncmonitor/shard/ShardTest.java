@@ -0,0 +1,81 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.shard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class ShardTest {
+
+    /*
+     * The shard of a node must not change between executors or releases, or the shards of a run would miss or share nodes.
+     */
+    @Test
+    public void indexOfIsStable() {
+        assertThat(Shard.indexOf("LTE01ERBS00001", 3)).isEqualTo(1);
+        assertThat(Shard.indexOf("LTE01ERBS00002", 3)).isEqualTo(2);
+        assertThat(Shard.indexOf("RNC02RBS01", 3)).isEqualTo(3);
+        assertThat(Shard.indexOf("LTE01ERBS00001", 4)).isEqualTo(3);
+        assertThat(Shard.indexOf("RNC02RBS01", 4)).isEqualTo(4);
+    }
+
+    @Test
+    public void indexOfIsWithinTheShards() {
+        for (int node = 1; node <= 1000; node++) {
+            assertThat(Shard.indexOf("LTE01ERBS" + node, 7)).isBetween(1, 7);
+        }
+        assertThat(Shard.indexOf("LTE01ERBS00001", 1)).isEqualTo(1);
+    }
+
+    @Test
+    public void everyNodeBelongsToExactlyOneShard() {
+        final Shard[] shards = { Shard.parse("1/3"), Shard.parse("2/3"), Shard.parse("3/3") };
+        for (int node = 1; node <= 300; node++) {
+            int owners = 0;
+            for (final Shard shard : shards) {
+                owners += shard.contains("LTE01ERBS" + node) ? 1 : 0;
+            }
+            assertThat(owners).as("Shards of LTE01ERBS%d", node).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void singleShardHoldsEveryNode() {
+        final Shard shard = Shard.parse(" 1 / 1 ");
+        assertThat(shard.isSharded()).isFalse();
+        assertThat(shard.contains("LTE01ERBS00002")).isTrue();
+        assertThat(shard.getFileNamePart()).isEmpty();
+        assertThat(shard.qualify("nodesyncmonitor_administrator")).isEqualTo("nodesyncmonitor_administrator");
+    }
+
+    @Test
+    public void shardedExecutorQualifiesItsFilesAndResources() {
+        final Shard shard = Shard.parse("2/3");
+        assertThat(shard.isSharded()).isTrue();
+        assertThat(shard.getFileNamePart()).isEqualTo("shard-2-of-3-");
+        assertThat(shard.qualify("nodesyncmonitor_administrator")).isEqualTo("nodesyncmonitor_administrator_2");
+        assertThat(shard.toString()).isEqualTo("2/3");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shardBeyondTheCountIsRejected() {
+        Shard.parse("4/3");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void malformedShardIsRejected() {
+        Shard.parse("2 of 3");
+    }
+
+}
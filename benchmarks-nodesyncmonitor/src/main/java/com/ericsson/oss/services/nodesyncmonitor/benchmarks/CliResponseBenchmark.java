@@ -0,0 +1,77 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ericsson.oss.services.nodesyncmonitor.utils.CliResponses;
+import com.google.common.collect.Lists;
+
+/**
+ * Cost of reading the ENM Cli responses checked by {@link com.ericsson.oss.services.nodesyncmonitor.teststeps.CliAlarmCommandTestSteps} and
+ * {@link com.ericsson.oss.services.nodesyncmonitor.teststeps.CmFunctionTestSteps}, as the number of alarms in the response grows. The DTOs
+ * are modelled by their printed form, which is all the parsing depends on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CliResponseBenchmark {
+
+    private static final String EXPECTED_RESPONSE = "Total number of alarms fetched for the given query is :1";
+
+    @Param({ "1", "100", "1000" })
+    private int alarms;
+
+    private List<Object> alarmDtos;
+    private List<String> cmeditLines;
+
+    @Setup
+    public void setUp() {
+        alarmDtos = Lists.newArrayListWithCapacity(alarms + 2);
+        alarmDtos.add("NodeName\tSpecificProblem\tEventTime\tObjectOfReference\tAlarmState\tPresentSeverity");
+        for (int index = 1; index <= alarms; index++) {
+            alarmDtos.add(String.format("RNC02RBS%04d\tCM unsynchronized\t2022-06-01 10:15:%02d\tNetworkElement=RNC02RBS%04d,CmFunction=1\t"
+                    + "ACTIVE_UNACKNOWLEDGED\tMINOR", index, index % 60, index));
+        }
+        alarmDtos.add(EXPECTED_RESPONSE);
+        cmeditLines = CliResponses.lines(Lists.<Object> newArrayList("FDN : NetworkElement=RNC02RBS01,CmFunction=1\n"
+                + "failedSyncsCount : 3\nlostSynchronization : 2022-06-01T10:15:00\nsyncStatus : UNSYNCHRONIZED\n\n1 instance(s)"));
+    }
+
+    @Benchmark
+    public List<String> lines() {
+        return CliResponses.lines(alarmDtos);
+    }
+
+    @Benchmark
+    public String failedSyncsCount() {
+        return CliResponses.attributeValue(cmeditLines, "failedSyncsCount");
+    }
+
+}
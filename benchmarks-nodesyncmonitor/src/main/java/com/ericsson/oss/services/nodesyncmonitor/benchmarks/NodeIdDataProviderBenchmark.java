@@ -0,0 +1,114 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.benchmarks;
+
+import static com.ericsson.oss.services.nodesyncmonitor.dataprovider.NodeIdDataProvider.RBS_NODE_ID_PLACEHOLDER;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.ericsson.oss.services.nodesyncmonitor.dataprovider.NodeIdDataProvider;
+import com.ericsson.oss.services.nodesyncmonitor.dataprovider.NodeIdRange;
+import com.ericsson.oss.services.nodesyncmonitor.dataprovider.RecordTemplate;
+import com.google.common.collect.Lists;
+
+/**
+ * Throughput of the {@link NodeIdDataProvider} transformation as the number of CSV rows and nodes under test grow. One operation produces
+ * every record of the data source, i.e. {@code rows * nodes} records; run with {@code -prof gc} to see the allocation rate per record set.
+ * <p>
+ * {@link #expandWithStringReplace} renders the same records the way the data provider did before rows were compiled into
+ * {@link RecordTemplate}s, as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NodeIdDataProviderBenchmark {
+
+    @Param({ "1", "10", "100" })
+    private int rows;
+
+    @Param({ "10", "500", "5000" })
+    private int nodes;
+
+    private List<Map<String, Object>> csvRows;
+    private List<RecordTemplate> templates;
+    private Iterable<String> nodeIds;
+
+    @Setup
+    public void setUp() {
+        csvRows = Lists.newArrayListWithCapacity(rows);
+        templates = Lists.newArrayListWithCapacity(rows);
+        for (int row = 0; row < rows; row++) {
+            final Map<String, Object> csvRow = new LinkedHashMap<>();
+            csvRow.put("testCaseId", "TORF-596978-" + row);
+            csvRow.put("commandToSend", "alarm get ${rbsNodeId} --alarmState ACTIVE_UNACKNOWLEDGED --specificProblem \"CM unsynchronized\"");
+            csvRow.put("expectedResponse", "[NetworkElement=${rbsNodeId}]Total number of alarms fetched for the given query is :1");
+            csvRows.add(csvRow);
+            templates.add(RecordTemplate.compile(csvRow, RBS_NODE_ID_PLACEHOLDER));
+        }
+        nodeIds = Lists.newArrayList(NodeIdRange.parse("RNC02RBS0001..RNC02RBS" + nodes));
+    }
+
+    @Benchmark
+    public void expand(final Blackhole blackhole) {
+        for (final Map<String, Object> record : NodeIdDataProvider.expand(templates, nodeIds, false)) {
+            blackhole.consume(record);
+        }
+    }
+
+    @Benchmark
+    public void compileAndExpand(final Blackhole blackhole) {
+        final List<RecordTemplate> compiled = Lists.newArrayListWithCapacity(rows);
+        for (final Map<String, Object> csvRow : csvRows) {
+            compiled.add(RecordTemplate.compile(csvRow, RBS_NODE_ID_PLACEHOLDER));
+        }
+        for (final Map<String, Object> record : NodeIdDataProvider.expand(compiled, nodeIds, false)) {
+            blackhole.consume(record);
+        }
+    }
+
+    @Benchmark
+    public void expandWithStringReplace(final Blackhole blackhole) {
+        for (final Map<String, Object> csvRow : csvRows) {
+            for (final String nodeId : nodeIds) {
+                final Map<String, Object> record = new LinkedHashMap<>();
+                for (final Map.Entry<String, Object> field : csvRow.entrySet()) {
+                    final Object value = field.getValue();
+                    record.put(field.getKey(), value instanceof String
+                            ? StringUtils.replace((String) value, RBS_NODE_ID_PLACEHOLDER, nodeId) : value);
+                }
+                blackhole.consume(record);
+            }
+        }
+    }
+
+}
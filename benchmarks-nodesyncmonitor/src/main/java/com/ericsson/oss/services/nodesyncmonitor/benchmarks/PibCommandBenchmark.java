@@ -0,0 +1,84 @@
+/*------------------------------------------------------------------------------
+ *******************************************************************************
+ * COPYRIGHT Ericsson 2022
+ *
+ * The copyright to the computer program(s) herein is the property of
+ * Ericsson Inc. The programs may be used and/or copied only with written
+ * permission from Ericsson Inc. or in accordance with the terms and
+ * conditions stipulated in the agreement/contract under which the
+ * program(s) have been supplied.
+ *******************************************************************************
+ *----------------------------------------------------------------------------*/
+
+package com.ericsson.oss.services.nodesyncmonitor.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ericsson.oss.services.nodesyncmonitor.pib.DeploymentType;
+import com.ericsson.oss.services.nodesyncmonitor.pib.KpiServDiscovery;
+import com.ericsson.oss.services.nodesyncmonitor.pib.KpiServInstance;
+import com.ericsson.oss.services.nodesyncmonitor.pib.PibCommandBuilder;
+
+/**
+ * Cost of building the PIB commands sent by {@link com.ericsson.oss.services.nodesyncmonitor.teststeps.NodeSyncMonitorTestSteps} for each
+ * deployment type, and of parsing the kpiserv discovery output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PibCommandBenchmark {
+
+    private static final String PIB_PARAM = "cmNodeSyncMonitorFeature";
+
+    @Param({ "PHYSICAL", "VIRTUAL", "CLOUD" })
+    private DeploymentType deploymentType;
+
+    @Param({ "2", "20" })
+    private int instances;
+
+    private KpiServInstance instance;
+    private String discoveryOutput;
+
+    @Setup
+    public void setUp() {
+        instance = new KpiServInstance(deploymentType, deploymentType == DeploymentType.CLOUD ? "kpiserv-5d8f7c9b4-x2k8q" : "svc-1-kpiserv",
+                deploymentType == DeploymentType.CLOUD ? "enm123" : null);
+        final StringBuilder output = new StringBuilder(PibCommandBuilder.discover(deploymentType, "enm123")).append('\n');
+        for (int index = 1; index <= instances; index++) {
+            output.append(deploymentType == DeploymentType.CLOUD ? "kpiserv-5d8f7c9b4-x2k8" + index : "svc-" + index + "-kpiserv").append('\n');
+        }
+        discoveryOutput = output.append("[root@director ~]# ").toString();
+    }
+
+    @Benchmark
+    public String update() {
+        return PibCommandBuilder.update(instance, PIB_PARAM, "true");
+    }
+
+    @Benchmark
+    public String read() {
+        return PibCommandBuilder.read(instance, PIB_PARAM);
+    }
+
+    @Benchmark
+    public List<String> parseInstanceNames() {
+        return KpiServDiscovery.parseInstanceNames(discoveryOutput);
+    }
+
+}